@@ -1,5 +1,8 @@
 package com.otbs.apigw.security;
 
+import com.otbs.security.identity.InternalIdentitySigner;
+import com.otbs.security.jwt.JwtUtils;
+import com.otbs.security.jwt.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -28,6 +31,7 @@ import java.util.stream.Collectors;
 public class JwtAuthWebFilter implements WebFilter {
 
     private final JwtUtils jwtUtils;
+    private final InternalIdentitySigner internalIdentitySigner;
 
     @Override
     @NonNull
@@ -35,13 +39,14 @@ public class JwtAuthWebFilter implements WebFilter {
         String token = extractToken(exchange.getRequest());
 
         if (token == null) {
-            return chain.filter(exchange);
+            return chain.filter(withIdentityHeader(exchange, null));
         }
 
         try {
-            if (jwtUtils.validateJwtToken(token)) {
-                String username = jwtUtils.getUserNameFromJwtToken(token);
-                List<String> roles = jwtUtils.getRolesFromJwtToken(token);
+            VerifiedToken verified = jwtUtils.resolveJwtToken(token).orElse(null);
+            if (verified != null) {
+                String username = verified.username();
+                List<String> roles = verified.roles();
 
                 List<GrantedAuthority> authorities = roles.stream()
                         .map(SimpleGrantedAuthority::new)
@@ -50,7 +55,7 @@ public class JwtAuthWebFilter implements WebFilter {
                 Authentication authentication = new UsernamePasswordAuthenticationToken(
                         username, null, authorities);
 
-                return chain.filter(exchange)
+                return chain.filter(withIdentityHeader(exchange, internalIdentitySigner.sign(verified)))
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
             }
         } catch (Exception e) {
@@ -60,6 +65,20 @@ public class JwtAuthWebFilter implements WebFilter {
         return unauthorizedResponse(exchange.getResponse());
     }
 
+    /**
+     * Replaces any client-supplied identity header, so only the gateway can assert one.
+     */
+    private ServerWebExchange withIdentityHeader(ServerWebExchange exchange, String identity) {
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(InternalIdentitySigner.HEADER);
+                    if (identity != null) {
+                        headers.set(InternalIdentitySigner.HEADER, identity);
+                    }
+                }))
+                .build();
+    }
+
     private String extractToken(ServerHttpRequest request) {
         String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
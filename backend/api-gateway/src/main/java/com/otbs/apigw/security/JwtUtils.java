@@ -1,69 +0,0 @@
-// src/main/java/com/otbs/apigw/security/JwtUtils.java
-package com.otbs.apigw.security;
-
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
-import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import javax.crypto.SecretKey;
-import java.util.Collections;
-import java.util.List;
-
-@Component
-@Getter
-@Slf4j
-public class JwtUtils {
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration-ms}")
-    private int accessExpirationMs;
-
-    @Value("${jwt.refresh-expiration-ms}")
-    private long refreshExpirationMs;
-
-    private JwtParser jwtParser;
-
-    @PostConstruct
-    private void init() {
-        SecretKey key = getSigningKey();
-        this.jwtParser = Jwts.parser().verifyWith(key).build();
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        return jwtParser.parseSignedClaims(token).getPayload().getSubject();
-    }
-    public List<String> getRolesFromJwtToken(String token) {
-        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
-        @SuppressWarnings("unchecked")
-        List<String> roles = claims.get("roles", List.class);
-        return roles != null ? roles : Collections.emptyList();
-    }
-
-    public boolean validateJwtToken(String authToken) {
-        try {
-            jwtParser.parse(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
-    }
-}
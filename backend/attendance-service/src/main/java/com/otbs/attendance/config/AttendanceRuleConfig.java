@@ -0,0 +1,35 @@
+package com.otbs.attendance.config;
+
+import com.otbs.attendance.rule.WindowRule;
+import com.otbs.attendance.util.AttendanceCalculator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The window-based attendance rules. Another rule is added by declaring one more
+ * {@link WindowRule} bean.
+ */
+@Configuration
+public class AttendanceRuleConfig {
+
+    @Bean
+    public WindowRule frequentTardinessRule(@Value("${attendance.rules.tardiness.window-days:7}") int windowDays,
+                                            @Value("${attendance.rules.tardiness.threshold:3}") int threshold) {
+        return new WindowRule("Frequent tardiness", windowDays, threshold, AttendanceCalculator::isLate);
+    }
+
+    @Bean
+    public WindowRule repeatedEarlyLeaveRule(@Value("${attendance.rules.early-leave.window-days:7}") int windowDays,
+                                             @Value("${attendance.rules.early-leave.threshold:3}") int threshold) {
+        return new WindowRule("Repeated early leave", windowDays, threshold,
+                (status, issues) -> issues.contains(AttendanceCalculator.LEFT_VERY_EARLY));
+    }
+
+    @Bean
+    public WindowRule chronicShortDaysRule(@Value("${attendance.rules.short-days.window-days:14}") int windowDays,
+                                           @Value("${attendance.rules.short-days.threshold:5}") int threshold) {
+        return new WindowRule("Chronically short days", windowDays, threshold,
+                (status, issues) -> issues.contains(AttendanceCalculator.WORKED_TOO_LITTLE));
+    }
+}
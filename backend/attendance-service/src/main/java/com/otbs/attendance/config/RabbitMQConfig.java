@@ -0,0 +1,72 @@
+package com.otbs.attendance.config;
+
+import com.otbs.attendance.event.PunchRecordedEvent;
+import com.otbs.feign.client.leave.event.LeaveChangeEvent;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${attendance.rabbitmq.leave-queue}")
+    private String leaveQueue;
+
+    @Value("${attendance.rabbitmq.punch-alert-queue}")
+    private String punchAlertQueue;
+
+    @Bean
+    public TopicExchange attendanceExchange() {
+        return new TopicExchange(PunchRecordedEvent.EXCHANGE);
+    }
+
+    @Bean
+    public Queue punchAlertQueue() {
+        return new Queue(punchAlertQueue, true);
+    }
+
+    @Bean
+    public Binding punchAlertBinding() {
+        return BindingBuilder
+                .bind(punchAlertQueue())
+                .to(attendanceExchange())
+                .with(PunchRecordedEvent.ROUTING_KEY);
+    }
+
+    @Bean
+    public TopicExchange leaveExchange() {
+        return new TopicExchange(LeaveChangeEvent.EXCHANGE);
+    }
+
+    @Bean
+    public Queue leaveQueue() {
+        return new Queue(leaveQueue, true);
+    }
+
+    @Bean
+    public Binding leaveBinding() {
+        return BindingBuilder
+                .bind(leaveQueue())
+                .to(leaveExchange())
+                .with(LeaveChangeEvent.ROUTING_KEY);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        return rabbitTemplate;
+    }
+}
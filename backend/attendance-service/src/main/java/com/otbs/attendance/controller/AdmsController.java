@@ -0,0 +1,100 @@
+package com.otbs.attendance.controller;
+
+import com.otbs.attendance.service.PunchIngestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The subset of the ZKTeco ADMS ("iclock") push protocol that terminals need to upload
+ * attendance logs. Responses are plain text, as the terminals expect. Terminals that are not
+ * listed in {@code attendance.ingest.terminals}, or send the wrong comm key, are refused.
+ */
+@RestController
+@RequestMapping(value = "/iclock", produces = MediaType.TEXT_PLAIN_VALUE)
+@RequiredArgsConstructor
+@Tag(name = "ADMS Push", description = "Endpoints called by attendance terminals")
+public class AdmsController {
+
+    private static final String ATTENDANCE_LOG_TABLE = "ATTLOG";
+
+    private final PunchIngestService ingestService;
+
+    @Operation(summary = "Terminal handshake",
+            description = "Returns the upload options of the terminal. Only attendance logs are requested, in real time.")
+    @GetMapping("/cdata")
+    public ResponseEntity<String> handshake(
+            @Parameter(description = "Serial number of the terminal", required = true, example = "CJDE193560303")
+            @RequestParam(name = "SN") String terminalSn,
+
+            @Parameter(description = "Comm key of the terminal, required if one is configured for it")
+            @RequestParam(name = "pushcommkey", required = false) String commKey) {
+
+        if (!ingestService.isAuthorizedTerminal(terminalSn, commKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unknown terminal");
+        }
+        return ResponseEntity.ok(String.join("\n",
+                "GET OPTION FROM: " + terminalSn,
+                "ATTLOGStamp=None",
+                "OPERLOGStamp=9999",
+                "ATTPHOTOStamp=9999",
+                "ErrorDelay=30",
+                "Delay=10",
+                "TransTimes=00:00;14:05",
+                "TransInterval=1",
+                "TransFlag=TransData AttLog",
+                "Realtime=1",
+                "Encrypt=None"));
+    }
+
+    @Operation(summary = "Upload terminal data",
+            description = "Stores the attendance log lines of an ATTLOG upload and acknowledges every line, including duplicates and rejected ones, so the terminal does not resend them. Other tables are acknowledged and ignored.")
+    @PostMapping("/cdata")
+    public ResponseEntity<String> upload(
+            @Parameter(description = "Serial number of the terminal", required = true, example = "CJDE193560303")
+            @RequestParam(name = "SN") String terminalSn,
+
+            @Parameter(description = "Comm key of the terminal, required if one is configured for it")
+            @RequestParam(name = "pushcommkey", required = false) String commKey,
+
+            @Parameter(description = "Uploaded table", example = "ATTLOG")
+            @RequestParam(name = "table", required = false) String table,
+
+            @RequestBody(required = false) String body) {
+
+        if (!ingestService.isAuthorizedTerminal(terminalSn, commKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unknown terminal");
+        }
+        if (!ATTENDANCE_LOG_TABLE.equals(table) || body == null) {
+            return ResponseEntity.ok("OK");
+        }
+        PunchIngestService.IngestResult result = ingestService.ingestAttendanceLog(terminalSn, body);
+        return ResponseEntity.ok("OK: " + result.received());
+    }
+
+    @Operation(summary = "Poll for commands",
+            description = "Terminals poll this endpoint for server commands; none are issued.")
+    @GetMapping("/getrequest")
+    public ResponseEntity<String> getRequest(
+            @Parameter(description = "Serial number of the terminal", required = true, example = "CJDE193560303")
+            @RequestParam(name = "SN") String terminalSn,
+
+            @Parameter(description = "Comm key of the terminal, required if one is configured for it")
+            @RequestParam(name = "pushcommkey", required = false) String commKey) {
+
+        if (!ingestService.isAuthorizedTerminal(terminalSn, commKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unknown terminal");
+        }
+        return ResponseEntity.ok("OK");
+    }
+}
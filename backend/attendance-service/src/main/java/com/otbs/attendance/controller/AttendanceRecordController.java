@@ -1,6 +1,9 @@
 package com.otbs.attendance.controller;
 
 import com.otbs.attendance.dto.AttendanceRecordResponseDTO;
+import com.otbs.attendance.dto.ExportFormat;
+import com.otbs.attendance.exception.AttendanceException;
+import com.otbs.attendance.service.AttendanceExportService;
 import com.otbs.attendance.service.AttendanceTransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,8 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,6 +28,7 @@ import java.util.List;
 public class AttendanceRecordController {
 
     private final AttendanceTransactionService attendanceService;
+    private final AttendanceExportService exportService;
 
     @Operation(summary = "Get all attendance records, optionally filtered by date",
             description = "Retrieves a list of all attendance records. If a 'date' parameter is provided, it returns all records for that specific date.",
@@ -32,17 +39,58 @@ public class AttendanceRecordController {
     @GetMapping("/attendance-records")
     public ResponseEntity<List<AttendanceRecordResponseDTO>> getAllAttendanceRecords(
             @Parameter(description = "Optional date to filter records (format: yyyy-MM-dd)", example = "2024-10-28")
-            @RequestParam(name = "date", required = false) String date) {
+            @RequestParam(name = "date", required = false) String date,
+
+            @Parameter(description = "Optional department to restrict a single day's roster to", example = "IT")
+            @RequestParam(name = "department", required = false) String department) {
 
         if (date != null && !date.isBlank()) {
-            return ResponseEntity.ok(attendanceService.getAttendanceRecordsByDate(date));
+            return ResponseEntity.ok(attendanceService.getAttendanceRecordsByDate(date, department));
         } else {
             return ResponseEntity.ok(attendanceService.getAllAttendanceRecords());
         }
     }
 
+    @Operation(summary = "Export attendance records",
+            description = "Streams the day-by-day attendance records of every employee, or of one department, as NDJSON or CSV. "
+                    + "Records are written as they are computed, grouped by employee, so large ranges can be downloaded without paging. "
+                    + "An export that fails midway ends with an error line and an aborted connection rather than a complete response.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+            })
+    @GetMapping("/attendance-records/export")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceRecords(
+            @Parameter(description = "First day to export (format: yyyy-MM-dd); defaults to the first recorded punch", example = "2024-10-01")
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Last day to export (format: yyyy-MM-dd); defaults to today", example = "2024-10-31")
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "Optional department to restrict the export to", example = "IT")
+            @RequestParam(name = "department", required = false) String department,
+
+            @Parameter(description = "Output format", example = "CSV")
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format,
+
+            @Parameter(description = "Stream departments concurrently; records of different employees may interleave")
+            @RequestParam(name = "parallel", defaultValue = "false") boolean parallel) {
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new AttendanceException("Start date must not be after end date");
+        }
+        StreamingResponseBody body = outputStream -> exportService.export(from, to, department, format, parallel, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("attendance-records." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(summary = "Get all attendance records for a specific employee",
-            description = "Retrieves the complete attendance history for a single employee, identified by their ID.",
+            description = "Retrieves the attendance history for a single employee, identified by their ID, optionally limited to a date window.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved records"),
                     @ApiResponse(responseCode = "404", description = "Employee not found", content = @Content)
@@ -50,9 +98,15 @@ public class AttendanceRecordController {
     @GetMapping("/employees/{employeeId}/attendance-records")
     public ResponseEntity<List<AttendanceRecordResponseDTO>> getAttendanceRecordsForEmployee(
             @Parameter(description = "The unique identifier of the employee", required = true, example = "cn=johndoe,ou=users,dc=otbs,dc=com")
-            @PathVariable String employeeId) {
+            @PathVariable String employeeId,
+
+            @Parameter(description = "First day of the window (format: yyyy-MM-dd); defaults to the first recorded punch", example = "2024-10-01")
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Last day of the window (format: yyyy-MM-dd); defaults to today", example = "2024-10-31")
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
 
-        List<AttendanceRecordResponseDTO> records = attendanceService.getAttendanceRecordsByEmployeeId(employeeId);
+        List<AttendanceRecordResponseDTO> records = attendanceService.getAttendanceRecordsByEmployeeId(employeeId, from, to);
         return ResponseEntity.ok(records);
     }
 
@@ -0,0 +1,62 @@
+package com.otbs.attendance.controller;
+
+import com.otbs.attendance.dto.DepartmentDayReportDTO;
+import com.otbs.attendance.dto.EmployeeMonthReportDTO;
+import com.otbs.attendance.service.AttendanceRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/attendances/reports")
+@RequiredArgsConstructor
+@Tag(name = "Attendance Reports", description = "APIs for aggregated attendance figures")
+public class AttendanceReportController {
+
+    private final AttendanceRollupService rollupService;
+
+    @Operation(summary = "Get daily attendance figures per department",
+            description = "Returns, for each day of the month, the number of members per attendance status, the minutes worked and the issue counts of every department, or of a single department.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved figures"),
+                    @ApiResponse(responseCode = "400", description = "Invalid month format", content = @Content)
+            })
+    @GetMapping("/departments/daily")
+    public ResponseEntity<List<DepartmentDayReportDTO>> getDepartmentDailyReport(
+            @Parameter(description = "Month to report on (format: yyyy-MM)", required = true, example = "2024-10")
+            @RequestParam(name = "month") YearMonth month,
+
+            @Parameter(description = "Optional department to restrict the report to", example = "IT")
+            @RequestParam(name = "department", required = false) String department) {
+
+        return ResponseEntity.ok(rollupService.getDepartmentDays(month, department));
+    }
+
+    @Operation(summary = "Get monthly attendance figures per employee",
+            description = "Returns, for each employee, the number of days per attendance status, the minutes worked and the issue counts over the month, optionally for a single department.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved figures"),
+                    @ApiResponse(responseCode = "400", description = "Invalid month format", content = @Content)
+            })
+    @GetMapping("/employees/monthly")
+    public ResponseEntity<List<EmployeeMonthReportDTO>> getEmployeeMonthlyReport(
+            @Parameter(description = "Month to report on (format: yyyy-MM)", required = true, example = "2024-10")
+            @RequestParam(name = "month") YearMonth month,
+
+            @Parameter(description = "Optional department to restrict the report to", example = "IT")
+            @RequestParam(name = "department", required = false) String department) {
+
+        return ResponseEntity.ok(rollupService.getEmployeeMonths(month, department));
+    }
+}
@@ -0,0 +1,21 @@
+package com.otbs.attendance.dto;
+
+import com.otbs.attendance.model.EStatus;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Attendance computed from one day of punches, before it is attached to an employee.
+ */
+public record DailyAttendance(
+        EStatus status,
+        LocalTime firstPunch,
+        LocalTime lastPunch,
+        Duration workDuration,
+        List<LocalTime> punchTimes,
+        Set<String> issues
+) {
+}
@@ -0,0 +1,15 @@
+package com.otbs.attendance.dto;
+
+import com.otbs.attendance.model.EStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public record DepartmentDayReportDTO(
+        String department,
+        LocalDate day,
+        int headcount,
+        Map<EStatus, Integer> statusCounts,
+        long workedMinutes,
+        Map<String, Integer> issueCounts
+) {}
@@ -0,0 +1,14 @@
+package com.otbs.attendance.dto;
+
+import com.otbs.attendance.model.EStatus;
+
+import java.util.Map;
+
+public record EmployeeMonthReportDTO(
+        String employeeId,
+        String department,
+        String month,
+        Map<EStatus, Integer> statusCounts,
+        long workedMinutes,
+        Map<String, Integer> issueCounts
+) {}
@@ -0,0 +1,13 @@
+package com.otbs.attendance.dto;
+
+import java.time.Instant;
+
+/**
+ * A punch read from {@code attendance_punch} with the directory DN of its employee.
+ */
+public record PunchRecord(
+        long id,
+        String employeeId,
+        Instant punchTime
+) {
+}
@@ -0,0 +1,12 @@
+package com.otbs.attendance.event;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process notice that the stored attendance of some employees changed on some days, keyed by
+ * directory DN. Published inside the transaction that made the change.
+ */
+public record AttendanceDaysChangedEvent(Map<String, Set<LocalDate>> daysByEmployee) {
+}
@@ -0,0 +1,24 @@
+package com.otbs.attendance.event;
+
+import java.time.Instant;
+
+/**
+ * A punch copied from the device database, published on {@link #EXCHANGE} once it is stored in
+ * {@code attendance_punch}. Delivery is at least once, so consumers must tolerate replays of the
+ * same {@link #id()}.
+ *
+ * @param id         the punch id, shared with {@code iclock_transaction}
+ * @param employeeId the directory DN of the employee, or {@code null} when not yet mapped
+ */
+public record PunchRecordedEvent(
+        long id,
+        String employeeId,
+        String empCode,
+        Instant punchTime,
+        String punchState,
+        String terminalSn
+) {
+
+    public static final String EXCHANGE = "attendance.exchange";
+    public static final String ROUTING_KEY = "attendance.punch.recorded";
+}
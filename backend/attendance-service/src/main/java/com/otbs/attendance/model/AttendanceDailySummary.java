@@ -0,0 +1,61 @@
+package com.otbs.attendance.model;
+
+import com.otbs.attendance.util.LocalTimeListConverter;
+import com.otbs.attendance.util.StringSetConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computed attendance of one employee on one day with at least one punch. Days without punches
+ * (absences, weekends, leaves) are derived when reading, so only punched days are stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_daily_summary")
+@IdClass(AttendanceDailySummaryId.class)
+public class AttendanceDailySummary {
+
+    @Id
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EStatus status;
+
+    @Column(name = "first_punch")
+    private LocalTime firstPunch;
+
+    @Column(name = "last_punch")
+    private LocalTime lastPunch;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private int workedMinutes;
+
+    @Convert(converter = LocalTimeListConverter.class)
+    @Column(name = "punch_times")
+    private List<LocalTime> punchTimes;
+
+    @Convert(converter = StringSetConverter.class)
+    @Column(name = "issues")
+    private Set<String> issues;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
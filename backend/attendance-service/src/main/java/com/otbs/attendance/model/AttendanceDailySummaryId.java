@@ -0,0 +1,16 @@
+package com.otbs.attendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDailySummaryId implements Serializable {
+    private String employeeId;
+    private LocalDate day;
+}
@@ -0,0 +1,40 @@
+package com.otbs.attendance.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Attendance of one department on one day, over the department's members on that day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_department_day")
+@IdClass(AttendanceDepartmentDayId.class)
+public class AttendanceDepartmentDay {
+
+    @Id
+    @Column(name = "department", nullable = false)
+    private String department;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "headcount", nullable = false)
+    private int headcount;
+
+    @Embedded
+    private AttendanceTally tally;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
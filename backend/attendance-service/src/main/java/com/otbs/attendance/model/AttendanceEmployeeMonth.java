@@ -0,0 +1,39 @@
+package com.otbs.attendance.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attendance of one employee over one month ({@code yyyy-MM}), up to today for the current month.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_employee_month")
+@IdClass(AttendanceEmployeeMonthId.class)
+public class AttendanceEmployeeMonth {
+
+    @Id
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Id
+    @Column(name = "month", length = 7, nullable = false)
+    private String month;
+
+    @Column(name = "department")
+    private String department;
+
+    @Embedded
+    private AttendanceTally tally;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
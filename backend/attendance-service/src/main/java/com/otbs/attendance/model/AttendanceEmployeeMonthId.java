@@ -0,0 +1,15 @@
+package com.otbs.attendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceEmployeeMonthId implements Serializable {
+    private String employeeId;
+    private String month;
+}
@@ -0,0 +1,28 @@
+package com.otbs.attendance.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Watermark of a background job that tails {@code iclock_transaction}: the highest punch id it
+ * has fully processed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_sync_state")
+public class AttendanceSyncState {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+}
@@ -0,0 +1,86 @@
+package com.otbs.attendance.model;
+
+import com.otbs.attendance.util.IssueCountsConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Day counts per {@link EStatus}, minutes worked and issue occurrences accumulated over a rollup
+ * key.
+ */
+@Data
+@NoArgsConstructor
+@Embeddable
+public class AttendanceTally {
+
+    @Column(name = "present_count", nullable = false)
+    private int presentCount;
+
+    @Column(name = "late_count", nullable = false)
+    private int lateCount;
+
+    @Column(name = "half_day_count", nullable = false)
+    private int halfDayCount;
+
+    @Column(name = "absent_count", nullable = false)
+    private int absentCount;
+
+    @Column(name = "awaiting_count", nullable = false)
+    private int awaitingCount;
+
+    @Column(name = "on_leave_count", nullable = false)
+    private int onLeaveCount;
+
+    @Column(name = "weekend_count", nullable = false)
+    private int weekendCount;
+
+    @Column(name = "holiday_count", nullable = false)
+    private int holidayCount;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private long workedMinutes;
+
+    @Convert(converter = IssueCountsConverter.class)
+    @Column(name = "issue_counts")
+    private Map<String, Integer> issueCounts = new TreeMap<>();
+
+    public void add(EStatus status) {
+        switch (status) {
+            case PRESENT -> presentCount++;
+            case LATE -> lateCount++;
+            case HALF_DAY -> halfDayCount++;
+            case ABSENT -> absentCount++;
+            case AWAITING -> awaitingCount++;
+            case ON_LEAVE -> onLeaveCount++;
+            case WEEKEND -> weekendCount++;
+            case HOLIDAY -> holidayCount++;
+        }
+    }
+
+    public void add(EStatus status, int minutesWorked, Set<String> issues) {
+        add(status);
+        workedMinutes += minutesWorked;
+        issues.forEach(issue -> issueCounts.merge(issue, 1, Integer::sum));
+    }
+
+    public Map<EStatus, Integer> statusCounts() {
+        Map<EStatus, Integer> counts = new EnumMap<>(EStatus.class);
+        counts.put(EStatus.PRESENT, presentCount);
+        counts.put(EStatus.LATE, lateCount);
+        counts.put(EStatus.HALF_DAY, halfDayCount);
+        counts.put(EStatus.ABSENT, absentCount);
+        counts.put(EStatus.AWAITING, awaitingCount);
+        counts.put(EStatus.ON_LEAVE, onLeaveCount);
+        counts.put(EStatus.WEEKEND, weekendCount);
+        counts.put(EStatus.HOLIDAY, holidayCount);
+        return counts;
+    }
+}
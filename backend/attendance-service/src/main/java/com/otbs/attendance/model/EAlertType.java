@@ -0,0 +1,7 @@
+package com.otbs.attendance.model;
+
+public enum EAlertType {
+    LATE_ARRIVAL,
+    EARLY_DEPARTURE,
+    MISSED_PUNCH
+}
@@ -1,5 +1,7 @@
 package com.otbs.attendance.model;
 
+import com.otbs.feign.calendar.WorkingCalendar;
+
 public enum EStatus {
     PRESENT,
     AWAITING,
@@ -7,5 +9,13 @@ public enum EStatus {
     ABSENT,
     HALF_DAY,
     ON_LEAVE,
-    WEEKEND
+    WEEKEND,
+    HOLIDAY;
+
+    /**
+     * The status of a day that is not a working day in the calendar.
+     */
+    public static EStatus ofNonWorkingDay(WorkingCalendar.DayKind dayKind) {
+        return dayKind == WorkingCalendar.DayKind.HOLIDAY ? HOLIDAY : WEEKEND;
+    }
 }
@@ -0,0 +1,31 @@
+package com.otbs.attendance.repository;
+
+import com.otbs.attendance.model.AttendanceDailySummary;
+import com.otbs.attendance.model.AttendanceDailySummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceDailySummaryRepository extends JpaRepository<AttendanceDailySummary, AttendanceDailySummaryId> {
+
+    List<AttendanceDailySummary> findByEmployeeIdAndDayBetweenOrderByDay(String employeeId, LocalDate from, LocalDate to);
+
+    Optional<AttendanceDailySummary> findByEmployeeIdAndDay(String employeeId, LocalDate day);
+
+    List<AttendanceDailySummary> findByDay(LocalDate day);
+
+    List<AttendanceDailySummary> findByEmployeeIdInAndDayBetween(Collection<String> employeeIds, LocalDate from, LocalDate to);
+
+    @Query("SELECT MIN(s.day) FROM AttendanceDailySummary s WHERE s.employeeId = :employeeId")
+    Optional<LocalDate> findFirstDay(@Param("employeeId") String employeeId);
+
+    @Query("SELECT MIN(s.day) FROM AttendanceDailySummary s")
+    Optional<LocalDate> findFirstDay();
+}
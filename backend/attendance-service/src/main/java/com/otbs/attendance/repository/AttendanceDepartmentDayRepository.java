@@ -0,0 +1,17 @@
+package com.otbs.attendance.repository;
+
+import com.otbs.attendance.model.AttendanceDepartmentDay;
+import com.otbs.attendance.model.AttendanceDepartmentDayId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceDepartmentDayRepository extends JpaRepository<AttendanceDepartmentDay, AttendanceDepartmentDayId> {
+
+    List<AttendanceDepartmentDay> findByDayBetweenOrderByDepartmentAscDayAsc(LocalDate from, LocalDate to);
+
+    List<AttendanceDepartmentDay> findByDepartmentAndDayBetweenOrderByDay(String department, LocalDate from, LocalDate to);
+}
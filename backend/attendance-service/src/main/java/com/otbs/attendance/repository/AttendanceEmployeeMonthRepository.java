@@ -0,0 +1,16 @@
+package com.otbs.attendance.repository;
+
+import com.otbs.attendance.model.AttendanceEmployeeMonth;
+import com.otbs.attendance.model.AttendanceEmployeeMonthId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceEmployeeMonthRepository extends JpaRepository<AttendanceEmployeeMonth, AttendanceEmployeeMonthId> {
+
+    List<AttendanceEmployeeMonth> findByMonthOrderByEmployeeId(String month);
+
+    List<AttendanceEmployeeMonth> findByMonthAndDepartmentOrderByEmployeeId(String month, String department);
+}
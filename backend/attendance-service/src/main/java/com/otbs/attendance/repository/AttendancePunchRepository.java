@@ -0,0 +1,85 @@
+package com.otbs.attendance.repository;
+
+import com.otbs.attendance.dto.PunchRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the service-owned {@code attendance_punch} table, which holds the punches of BioTime and
+ * of the terminals that push to the ADMS endpoint. Punches whose employee is not mapped to a
+ * directory DN yet are left out.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendancePunchRepository {
+
+    private static final String BY_EMPLOYEES_SQL = """
+            SELECT id, employee_id, punch_time FROM attendance_punch
+            WHERE employee_id IN (:employeeIds) AND punch_time >= :from AND punch_time < :to
+            ORDER BY employee_id, punch_time
+            """;
+
+    private static final String BETWEEN_SQL = """
+            SELECT id, employee_id, punch_time FROM attendance_punch
+            WHERE employee_id IS NOT NULL AND punch_time >= :from AND punch_time < :to
+            ORDER BY employee_id, punch_time
+            """;
+
+    private static final String MAPPED_SQL = """
+            SELECT employee_id, punch_time FROM attendance_punch WHERE employee_id IS NOT NULL
+            """;
+
+    private static final RowMapper<PunchRecord> PUNCH_MAPPER = (rs, rowNum) -> new PunchRecord(
+            rs.getLong("id"), rs.getString("employee_id"), rs.getTimestamp("punch_time").toInstant());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Punches of the given employees in [from, to), ordered by employee and time.
+     */
+    public List<PunchRecord> findByEmployeeIds(Collection<String> employeeIds, Instant from, Instant to) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(BY_EMPLOYEES_SQL, range(from, to).addValue("employeeIds", employeeIds), PUNCH_MAPPER);
+    }
+
+    /**
+     * Every mapped punch in [from, to), ordered by employee and time, for building a whole-company roster.
+     */
+    public List<PunchRecord> findBetween(Instant from, Instant to) {
+        return jdbcTemplate.query(BETWEEN_SQL, range(from, to), PUNCH_MAPPER);
+    }
+
+    /**
+     * Every day, in {@code zoneId}, on which each mapped employee punched.
+     */
+    public Map<String, Set<LocalDate>> findPunchDays(ZoneId zoneId) {
+        Map<String, Set<LocalDate>> days = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query(MAPPED_SQL, rs -> {
+            days.computeIfAbsent(rs.getString("employee_id"), employeeId -> new HashSet<>())
+                    .add(rs.getTimestamp("punch_time").toInstant().atZone(zoneId).toLocalDate());
+        });
+        return days;
+    }
+
+    private static MapSqlParameterSource range(Instant from, Instant to) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.from(from))
+                .addValue("to", Timestamp.from(to));
+    }
+}
@@ -0,0 +1,84 @@
+package com.otbs.attendance.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The {@code attendance_summary_pending} queue of (employee, day) pairs whose daily summary must
+ * be recomputed. Days are queued in the transaction that stores the punches touching them, so
+ * no punch can be stored without its day being summarised eventually.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceSummaryQueueRepository {
+
+    private static final String QUEUE_SQL = """
+            INSERT INTO attendance_summary_pending (employee_id, day) VALUES (?, ?)
+            ON CONFLICT (employee_id, day) DO UPDATE SET queued_at = clock_timestamp()
+            """;
+
+    private static final String OLDEST_SQL = """
+            SELECT employee_id, day, queued_at FROM attendance_summary_pending
+            ORDER BY queued_at
+            LIMIT ?
+            """;
+
+    private static final String REMOVE_SQL = """
+            DELETE FROM attendance_summary_pending WHERE employee_id = ? AND day = ? AND queued_at = ?
+            """;
+
+    /**
+     * @param queuedAt when the day was last queued; it is only removed if not queued again since
+     */
+    public record PendingDay(String employeeId, LocalDate day, Timestamp queuedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queues the given days of each employee, identified by DN. Rows are written in key order so
+     * that concurrent writers lock them in the same order.
+     */
+    public void queue(Map<String, ? extends Collection<LocalDate>> daysByEmployee) {
+        List<Object[]> rows = new ArrayList<>();
+        new TreeMap<>(daysByEmployee).forEach((employeeId, days) ->
+                new TreeSet<>(days).forEach(day -> rows.add(new Object[]{employeeId, Date.valueOf(day)})));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(QUEUE_SQL, rows);
+        }
+    }
+
+    /**
+     * Up to {@code limit} queued days, longest waiting first.
+     */
+    public List<PendingDay> findOldest(int limit) {
+        return jdbcTemplate.query(OLDEST_SQL, (rs, rowNum) -> new PendingDay(
+                rs.getString("employee_id"), rs.getDate("day").toLocalDate(), rs.getTimestamp("queued_at")), limit);
+    }
+
+    /**
+     * Removes the given days, except those queued again after they were read.
+     */
+    public void remove(List<PendingDay> days) {
+        List<PendingDay> sorted = days.stream()
+                .sorted(Comparator.comparing(PendingDay::employeeId).thenComparing(PendingDay::day))
+                .toList();
+        jdbcTemplate.batchUpdate(REMOVE_SQL, sorted, sorted.size(), (ps, day) -> {
+            ps.setString(1, day.employeeId());
+            ps.setDate(2, Date.valueOf(day.day()));
+            ps.setTimestamp(3, day.queuedAt());
+        });
+    }
+}
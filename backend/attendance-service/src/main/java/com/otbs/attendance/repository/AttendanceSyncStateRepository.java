@@ -0,0 +1,9 @@
+package com.otbs.attendance.repository;
+
+import com.otbs.attendance.model.AttendanceSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttendanceSyncStateRepository extends JpaRepository<AttendanceSyncState, String> {
+}
@@ -36,4 +36,4 @@ public interface AttendanceTransactionRepository extends JpaRepository<Attendanc
      ORDER BY at.punchTime ASC
     """)
     List<AttendanceTransaction> findAllByEmployeeEmail(@Param("email") String email);
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.otbs.attendance.rule;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.model.EStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Applies the registered {@link WindowRule}s to an employee's days.
+ * <p>
+ * Each employee is tracked by a {@link State} holding one {@link SlidingDayCounter} per rule, so
+ * evaluating a day costs the same whatever the length of the history. The engine runs in batch
+ * mode over a whole history with {@link #evaluate(State, SortedMap)}, or incrementally, one day
+ * at a time, with {@link #evaluate(State, LocalDate, DailyAttendance)}. Days already evaluated
+ * elsewhere, such as stored summaries, can be replayed into a state with
+ * {@link State#record(LocalDate, EStatus, Set)}, or evaluated again with
+ * {@link #reevaluate(State, LocalDate, EStatus, Set)} when an earlier day in their windows changed.
+ */
+@Component
+public class AttendanceRuleEngine {
+
+    private final List<WindowRule> rules;
+    private final Set<String> ruleIssues = new HashSet<>();
+    private final int maxWindowDays;
+
+    public AttendanceRuleEngine(List<WindowRule> rules) {
+        this.rules = List.copyOf(rules);
+        rules.forEach(rule -> ruleIssues.add(rule.issue()));
+        this.maxWindowDays = rules.stream().mapToInt(WindowRule::windowDays).max().orElse(1);
+    }
+
+    /**
+     * The longest window of any rule: how many days, the evaluated day included, a state needs
+     * to have seen for its counters to be complete.
+     */
+    public int maxWindowDays() {
+        return maxWindowDays;
+    }
+
+    public State newState() {
+        return new State();
+    }
+
+    /**
+     * Incremental mode: adds the window issues of {@code day} to its single-day result and records
+     * the day. Days must be evaluated in ascending order.
+     */
+    public DailyAttendance evaluate(State state, LocalDate day, DailyAttendance attendance) {
+        Set<String> issues = evaluate(state, day.toEpochDay(), attendance.status(), attendance.issues());
+        if (issues == attendance.issues()) {
+            return attendance;
+        }
+        return new DailyAttendance(attendance.status(), attendance.firstPunch(), attendance.lastPunch(),
+                attendance.workDuration(), attendance.punchTimes(), issues);
+    }
+
+    /**
+     * Incremental mode for a day evaluated earlier: drops the window issues it carries, adds the
+     * ones that hold now and records the day. Days must be evaluated in ascending order.
+     *
+     * @return the issues of the day, the single-day ones included
+     */
+    public Set<String> reevaluate(State state, LocalDate day, EStatus status, Set<String> issues) {
+        Set<String> singleDayIssues = issues;
+        if (!Collections.disjoint(issues, ruleIssues)) {
+            Set<String> remaining = new HashSet<>(issues);
+            remaining.removeAll(ruleIssues);
+            singleDayIssues = Set.copyOf(remaining);
+        }
+        return evaluate(state, day.toEpochDay(), status, singleDayIssues);
+    }
+
+    /**
+     * Batch mode: evaluates a history of single-day results in date order.
+     */
+    public Map<LocalDate, DailyAttendance> evaluate(State state, SortedMap<LocalDate, DailyAttendance> history) {
+        Map<LocalDate, DailyAttendance> evaluated = new LinkedHashMap<>();
+        history.forEach((day, attendance) -> evaluated.put(day, evaluate(state, day, attendance)));
+        return evaluated;
+    }
+
+    /**
+     * @return {@code issues} itself if no rule fires, otherwise a copy with the fired rules' issues
+     */
+    private Set<String> evaluate(State state, long epochDay, EStatus status, Set<String> issues) {
+        Set<String> withRuleIssues = null;
+        for (int i = 0; i < rules.size(); i++) {
+            WindowRule rule = rules.get(i);
+            if (!rule.counts().test(status, issues)) {
+                continue;
+            }
+            if (state.counters[i].countBefore(epochDay) + 1 >= rule.threshold()) {
+                if (withRuleIssues == null) {
+                    withRuleIssues = new HashSet<>(issues);
+                }
+                withRuleIssues.add(rule.issue());
+            }
+            state.counters[i].mark(epochDay);
+        }
+        return withRuleIssues == null ? issues : Set.copyOf(withRuleIssues);
+    }
+
+    /**
+     * The rolling counters of one employee.
+     */
+    public final class State {
+
+        private final SlidingDayCounter[] counters;
+
+        private State() {
+            counters = new SlidingDayCounter[rules.size()];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new SlidingDayCounter(rules.get(i).windowDays());
+            }
+        }
+
+        /**
+         * Records a day that was evaluated earlier, without producing a result.
+         */
+        public void record(LocalDate day, EStatus status, Set<String> issues) {
+            long epochDay = day.toEpochDay();
+            for (int i = 0; i < counters.length; i++) {
+                if (rules.get(i).counts().test(status, issues)) {
+                    counters[i].mark(epochDay);
+                }
+            }
+        }
+    }
+}
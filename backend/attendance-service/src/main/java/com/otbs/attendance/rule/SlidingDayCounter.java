@@ -0,0 +1,42 @@
+package com.otbs.attendance.rule;
+
+/**
+ * Counts marked days within a trailing window of {@code windowDays} calendar days.
+ * <p>
+ * Days must be marked in ascending order. They are kept in a ring buffer of epoch days, which
+ * can never hold more than one entry per day of the window, so marking and counting are
+ * amortised O(1) and the memory is fixed per counter.
+ */
+public final class SlidingDayCounter {
+
+    private final int windowDays;
+    private final long[] days;
+    private int head;
+    private int size;
+
+    public SlidingDayCounter(int windowDays) {
+        this.windowDays = windowDays;
+        this.days = new long[windowDays];
+    }
+
+    /**
+     * Marked days in the window ending on {@code epochDay}, excluding {@code epochDay} itself.
+     */
+    public int countBefore(long epochDay) {
+        long windowStart = epochDay - windowDays + 1;
+        while (size > 0 && days[head] < windowStart) {
+            head = (head + 1) % days.length;
+            size--;
+        }
+        return size;
+    }
+
+    public void mark(long epochDay) {
+        countBefore(epochDay);
+        if (size > 0 && days[(head + size - 1) % days.length] >= epochDay) {
+            return;
+        }
+        days[(head + size) % days.length] = epochDay;
+        size++;
+    }
+}
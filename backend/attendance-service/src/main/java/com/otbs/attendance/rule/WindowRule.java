@@ -0,0 +1,29 @@
+package com.otbs.attendance.rule;
+
+import com.otbs.attendance.model.EStatus;
+
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * An issue raised when a pattern repeats within a sliding window of calendar days: on a day that
+ * {@code counts}, {@code issue} is added if at least {@code threshold} counting days, that day
+ * included, fall within the last {@code windowDays} days.
+ * <p>
+ * Every {@code WindowRule} bean is picked up by {@link AttendanceRuleEngine}.
+ *
+ * @param counts whether a day, given its status and single-day issues, counts towards the window
+ */
+public record WindowRule(
+        String issue,
+        int windowDays,
+        int threshold,
+        BiPredicate<EStatus, Set<String>> counts
+) {
+
+    public WindowRule {
+        if (windowDays < 1 || threshold < 1) {
+            throw new IllegalArgumentException("Rule '" + issue + "' needs a positive window and threshold");
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.event.PunchRecordedEvent;
+import com.otbs.attendance.model.EAlertType;
+import com.otbs.attendance.util.AttendanceCalculator;
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.dto.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Raises attendance alerts to department managers while the day is still running, instead of
+ * waiting for the daily summaries.
+ * <p>
+ * Every synced punch arrives as a {@link PunchRecordedEvent}. The service keeps the punches of
+ * today per employee in memory, on working days only, and applies the single-day thresholds of
+ * {@link AttendanceCalculator} incrementally:
+ * <ul>
+ *     <li>a late first punch raises {@link EAlertType#LATE_ARRIVAL} as soon as it is received;</li>
+ *     <li>once the early-leave threshold has passed, a day whose last punch is an early check-out
+ *     raises {@link EAlertType#EARLY_DEPARTURE};</li>
+ *     <li>after {@code attendance.alerts.missed-punch-check}, a day with an odd number of punches
+ *     raises {@link EAlertType#MISSED_PUNCH}.</li>
+ * </ul>
+ * At most {@code attendance.alerts.max-tracked-employees} days are kept, least recently punched
+ * first out. A day that is tracked for the first time is seeded from {@code attendance_punch},
+ * so evicted days and restarts lose nothing but the in-memory copy. Missed punches are looked up
+ * in {@code attendance_punch} for every employee, tracked or not.
+ * <p>
+ * {@code attendance_alert} is the outbox of the alerts. An alert is claimed there before it is
+ * published, which keeps replayed punches and repeated sweeps from alerting twice, and marked
+ * published once the broker has accepted every message. An alert whose publication failed stays
+ * unpublished and is retried by the sweep after {@code attendance.alerts.publish-retry-after};
+ * a retry may reach again the managers that the failed attempt had already notified.
+ */
+@Service
+@Slf4j
+public class AttendanceAlertService {
+
+    private static final String PUNCHES_OF_DAY_SQL = """
+            SELECT id, punch_time
+            FROM attendance_punch
+            WHERE employee_id = ? AND punch_time >= ? AND punch_time < ?
+            """;
+
+    private static final String RAISE_SQL = """
+            INSERT INTO attendance_alert (employee_id, day, type)
+            VALUES (?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String PUBLISHED_SQL = """
+            UPDATE attendance_alert SET published_at = now()
+            WHERE employee_id = ? AND day = ? AND type = ?
+            """;
+
+    private static final String IS_PUBLISHED_SQL = """
+            SELECT published_at IS NOT NULL
+            FROM attendance_alert
+            WHERE employee_id = ? AND day = ? AND type = ?
+            """;
+
+    private static final String UNPUBLISHED_SQL = """
+            SELECT employee_id, type
+            FROM attendance_alert
+            WHERE day = ? AND published_at IS NULL AND raised_at < LOCALTIMESTAMP - ? * INTERVAL '1 second'
+            ORDER BY raised_at
+            """;
+
+    private static final String ODD_PUNCH_COUNTS_SQL = """
+            SELECT p.employee_id
+            FROM attendance_punch p
+            WHERE p.employee_id IS NOT NULL AND p.punch_time >= ? AND p.punch_time < ?
+              AND NOT EXISTS (SELECT 1 FROM attendance_alert a
+                              WHERE a.employee_id = p.employee_id AND a.day = ? AND a.type = ?)
+            GROUP BY p.employee_id
+            HAVING COUNT(*) % 2 = 1
+            """;
+
+    private static final String MANAGER_ROLE = "Manager";
+    private static final String ESCALATION_DEPARTMENT = "HR";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final UserDirectoryReplica userDirectory;
+    private final WorkingCalendar workingCalendar;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+    private final Duration publishRetryAfter;
+    private final Map<String, DayState> days;
+    private final Timer punchLag;
+    private final Map<EAlertType, Timer> alertLatency = new EnumMap<>(EAlertType.class);
+    private final Map<EAlertType, Counter> alertCounters = new EnumMap<>(EAlertType.class);
+
+    @Value("${notification.rabbitmq.exchange}")
+    private String notificationExchange;
+
+    @Value("${notification.rabbitmq.routing-key}")
+    private String notificationRoutingKey;
+
+    @Value("${attendance.alerts.missed-punch-check:20:00}")
+    private String missedPunchCheck;
+
+    // Replaced by tests that need a fixed time of day.
+    private Clock clock = Clock.system(systemZoneId);
+
+    public AttendanceAlertService(JdbcTemplate jdbcTemplate,
+                                  RabbitTemplate rabbitTemplate,
+                                  UserDirectoryReplica userDirectory,
+                                  WorkingCalendar workingCalendar,
+                                  @Value("${attendance.alerts.max-tracked-employees:10000}") int maxTrackedEmployees,
+                                  @Value("${attendance.alerts.publish-retry-after:5m}") Duration publishRetryAfter,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.publishRetryAfter = publishRetryAfter;
+        this.rabbitTemplate = rabbitTemplate;
+        this.userDirectory = userDirectory;
+        this.workingCalendar = workingCalendar;
+        this.days = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DayState> eldest) {
+                return size() > maxTrackedEmployees;
+            }
+        };
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.punchLag = Timer.builder("attendance.alert.punch.lag")
+                .description("Time from a punch on the terminal until it was evaluated for alerts")
+                .register(registry);
+        for (EAlertType type : EAlertType.values()) {
+            alertLatency.put(type, Timer.builder("attendance.alert.latency")
+                    .description("Time from the punch that triggered an alert until the alert was published")
+                    .tag("type", type.name())
+                    .register(registry));
+            alertCounters.put(type, Counter.builder("attendance.alerts")
+                    .description("Attendance alerts published to managers")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+    }
+
+    @RabbitListener(queues = "${attendance.rabbitmq.punch-alert-queue}")
+    public void onPunchRecorded(PunchRecordedEvent event) {
+        if (event.employeeId() == null) {
+            return;
+        }
+        long localEpochSecond = AttendanceCalculator.toLocalEpochSecond(event.punchTime().getEpochSecond(), systemZoneId);
+        LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(localEpochSecond, 86_400L));
+        if (!day.equals(LocalDate.now(clock)) || !workingCalendar.isWorkingDay(day)) {
+            return;
+        }
+        try {
+            evaluatePunch(event, day, AttendanceCalculator.secondOfDay(localEpochSecond));
+        } catch (RuntimeException e) {
+            log.error("Evaluating punch {} for alerts failed: {}", event.id(), e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.alerts.sweep-interval-ms:60000}")
+    public synchronized void sweep() {
+        LocalDate today = LocalDate.now(clock);
+        int now = LocalTime.now(clock).toSecondOfDay();
+        boolean earlyLeaveDue = !AttendanceCalculator.leftVeryEarly(now);
+        boolean missedPunchDue = now >= LocalTime.parse(missedPunchCheck).toSecondOfDay();
+
+        Iterator<Map.Entry<String, DayState>> iterator = days.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, DayState> entry = iterator.next();
+            DayState state = entry.getValue();
+            if (!state.day.equals(today)) {
+                iterator.remove();
+                continue;
+            }
+            if (earlyLeaveDue && state.count >= 2 && state.count % 2 == 0
+                    && AttendanceCalculator.leftVeryEarly(state.seconds[state.count - 1])) {
+                raise(entry.getKey(), state, EAlertType.EARLY_DEPARTURE, null);
+            }
+        }
+
+        if (missedPunchDue && workingCalendar.isWorkingDay(today)) {
+            jdbcTemplate.queryForList(ODD_PUNCH_COUNTS_SQL, String.class,
+                    Timestamp.from(today.atStartOfDay(systemZoneId).toInstant()),
+                    Timestamp.from(today.plusDays(1).atStartOfDay(systemZoneId).toInstant()),
+                    Date.valueOf(today), EAlertType.MISSED_PUNCH.name())
+                    .forEach(employeeId -> raise(employeeId, stateOf(employeeId, today), EAlertType.MISSED_PUNCH, null));
+        }
+
+        for (Map<String, Object> alert : jdbcTemplate.queryForList(UNPUBLISHED_SQL, Date.valueOf(today), publishRetryAfter.toSeconds())) {
+            String employeeId = (String) alert.get("employee_id");
+            publish(employeeId, stateOf(employeeId, today), EAlertType.valueOf((String) alert.get("type")), null);
+        }
+    }
+
+    private synchronized void evaluatePunch(PunchRecordedEvent event, LocalDate day, int secondOfDay) {
+        DayState state = days.get(event.employeeId());
+        if (state == null || !state.day.equals(day)) {
+            state = load(event.employeeId(), day);
+            days.put(event.employeeId(), state);
+        }
+        state.add(event.id(), secondOfDay);
+        punchLag.record(Duration.between(event.punchTime(), Instant.now()));
+
+        if (AttendanceCalculator.arrivedVeryLate(state.seconds[0])) {
+            raise(event.employeeId(), state, EAlertType.LATE_ARRIVAL, event.punchTime());
+        }
+    }
+
+    /**
+     * The tracked day of the employee, or a copy read from {@code attendance_punch} that is not
+     * tracked, so that the sweep does not evict the days of employees still punching.
+     */
+    private DayState stateOf(String employeeId, LocalDate day) {
+        DayState state = days.get(employeeId);
+        return state != null && state.day.equals(day) ? state : load(employeeId, day);
+    }
+
+    private DayState load(String employeeId, LocalDate day) {
+        DayState state = new DayState(day);
+        jdbcTemplate.query(PUNCHES_OF_DAY_SQL, rs -> {
+            state.add(rs.getLong("id"), AttendanceCalculator.secondOfDay(AttendanceCalculator.toLocalEpochSecond(
+                    Math.floorDiv(rs.getTimestamp("punch_time").getTime(), 1000L), systemZoneId)));
+        }, employeeId, Timestamp.from(day.atStartOfDay(systemZoneId).toInstant()),
+                Timestamp.from(day.plusDays(1).atStartOfDay(systemZoneId).toInstant()));
+        return state;
+    }
+
+    /**
+     * Claims the alert in {@code attendance_alert} and publishes it. An alert claimed before is
+     * only remembered once it is known to be published; until then the sweep owns its retries.
+     *
+     * @param triggeredAt the punch that completed the condition, or {@code null} for alerts raised
+     *                    by the sweep, which are not counted towards the latency
+     */
+    private void raise(String employeeId, DayState state, EAlertType type, Instant triggeredAt) {
+        if (state.raised.contains(type)) {
+            return;
+        }
+        Date day = Date.valueOf(state.day);
+        if (jdbcTemplate.update(RAISE_SQL, employeeId, day, type.name()) == 0) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PUBLISHED_SQL, Boolean.class, employeeId, day, type.name()))) {
+                state.raised.add(type);
+            }
+            return;
+        }
+        publish(employeeId, state, type, triggeredAt);
+    }
+
+    private void publish(String employeeId, DayState state, EAlertType type, Instant triggeredAt) {
+        UserResponse employee = userDirectory.findById(employeeId).orElse(null);
+        if (employee == null) {
+            log.warn("Attendance alert {} for unknown employee {} not published", type, employeeId);
+        } else {
+            try {
+                send(employee, state, type);
+            } catch (RuntimeException e) {
+                log.warn("Publishing the {} alert for {} failed, the sweep will retry it: {}", type, employeeId, e.getMessage());
+                return;
+            }
+            alertCounters.get(type).increment();
+            if (triggeredAt != null) {
+                alertLatency.get(type).record(Duration.between(triggeredAt, Instant.now()));
+            }
+            log.info("Raised {} alert for {} on {}", type, employeeId, state.day);
+        }
+        jdbcTemplate.update(PUBLISHED_SQL, employeeId, Date.valueOf(state.day), type.name());
+        state.raised.add(type);
+    }
+
+    private void send(UserResponse employee, DayState state, EAlertType type) {
+        String name = employee.firstName() + " " + employee.lastName();
+        String subject = switch (type) {
+            case LATE_ARRIVAL -> "Late Arrival";
+            case EARLY_DEPARTURE -> "Early Departure";
+            case MISSED_PUNCH -> "Missed Punch";
+        };
+        String body = switch (type) {
+            case LATE_ARRIVAL -> String.format("%s arrived very late today, at %s.", name,
+                    LocalTime.ofSecondOfDay(state.seconds[0]));
+            case EARLY_DEPARTURE -> String.format("%s left very early today, at %s.", name,
+                    LocalTime.ofSecondOfDay(state.seconds[state.count - 1]));
+            case MISSED_PUNCH -> String.format("%s has an odd number of punches today and may have missed a check-out.",
+                    name);
+        };
+
+        for (UserResponse manager : managersOf(employee)) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("recipient", manager.id());
+            message.put("subject", subject);
+            message.put("message", body);
+            message.put("actionUrl", "/attendance");
+            rabbitTemplate.convertAndSend(notificationExchange, notificationRoutingKey, message);
+        }
+    }
+
+    /**
+     * The managers of the employee's department, or the HR managers for managers themselves and
+     * for departments without one, the same routing that leave requests use.
+     */
+    private List<UserResponse> managersOf(UserResponse employee) {
+        List<UserResponse> managers = userDirectory.findByRole(MANAGER_ROLE);
+        String department = MANAGER_ROLE.equals(employee.role()) ? ESCALATION_DEPARTMENT : employee.department();
+        List<UserResponse> departmentManagers = managers.stream()
+                .filter(manager -> department != null && department.equals(manager.department()))
+                .filter(manager -> !manager.id().equals(employee.id()))
+                .toList();
+        if (!departmentManagers.isEmpty() || ESCALATION_DEPARTMENT.equals(department)) {
+            return departmentManagers;
+        }
+        return managers.stream()
+                .filter(manager -> ESCALATION_DEPARTMENT.equals(manager.department()))
+                .toList();
+    }
+
+    /**
+     * One employee's punches of one day, as sorted seconds of the day. Punch ids are kept so that
+     * redelivered events are ignored.
+     */
+    private static final class DayState {
+        private final LocalDate day;
+        private final Set<Long> punchIds = new HashSet<>();
+        private final Set<EAlertType> raised = EnumSet.noneOf(EAlertType.class);
+        private int[] seconds = new int[4];
+        private int count;
+
+        private DayState(LocalDate day) {
+            this.day = day;
+        }
+
+        private void add(long punchId, int secondOfDay) {
+            if (!punchIds.add(punchId)) {
+                return;
+            }
+            if (count == seconds.length) {
+                seconds = Arrays.copyOf(seconds, count * 2);
+            }
+            // Terminals that were offline upload old punches late, so keep the array sorted.
+            int at = count;
+            while (at > 0 && seconds[at - 1] > secondOfDay) {
+                seconds[at] = seconds[at - 1];
+                at--;
+            }
+            seconds[at] = secondOfDay;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.otbs.attendance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otbs.attendance.dto.AttendanceRecordResponseDTO;
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.dto.ExportFormat;
+import com.otbs.attendance.exception.AttendanceException;
+import com.otbs.attendance.model.EStatus;
+import com.otbs.attendance.repository.AttendanceDailySummaryRepository;
+import com.otbs.attendance.rule.AttendanceRuleEngine;
+import com.otbs.attendance.util.AttendanceCalculator;
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.leave.LeaveClient;
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.feign.client.leave.dto.LeaveIntervalQuery;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.dto.UserResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Streams attendance records for many employees without holding them in memory.
+ * <p>
+ * Users are processed in chunks. For each chunk the punches are read through a forward-only
+ * JDBC cursor ordered by employee and time, and every employee's days are computed and written
+ * as soon as the cursor moves past them. Memory therefore stays bounded by one chunk of users,
+ * one employee's day of punches and its fixed-size rule windows, whatever the date range or
+ * headcount. In parallel mode the users are partitioned by department and the partitions are
+ * streamed concurrently, each on its own connection, with every line written atomically.
+ * <p>
+ * The cursor's read-only transaction stays open while its records are written, so a client
+ * that stops reading holds it open too. The database ends a transaction left idle for longer
+ * than {@code attendance.export.idle-timeout}, which fails the export instead of pinning the
+ * connection and its snapshot indefinitely.
+ * <p>
+ * Once the first line is sent the response is committed with status 200. A failure after that
+ * point is logged, an error marker is written as the last line ({@code {"error": ...}} in
+ * NDJSON, {@code # error: ...} in CSV) and the exception is rethrown so that the container
+ * aborts the response instead of completing it; clients must treat a marker or a cut-off
+ * stream as a failed export.
+ */
+@Service
+@Slf4j
+public class AttendanceExportService {
+
+    private static final String PUNCHES_SQL = """
+            SELECT employee_id, punch_time
+            FROM attendance_punch
+            WHERE employee_id IN (:employeeIds) AND punch_time >= :from AND punch_time < :to
+            ORDER BY employee_id, punch_time
+            """;
+
+    private static final String ABORTED = "Export aborted, the records above are incomplete";
+
+    private static final String CSV_HEADER =
+            "employeeId,employeeName,department,date,status,firstPunch,lastPunch,totalHours,punchCount,allPunches,issues";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserDirectoryReplica userDirectory;
+    private final LeaveClient leaveClient;
+    private final AttendanceDailySummaryRepository summaryRepository;
+    private final AttendanceCalculator calculator;
+    private final AttendanceRuleEngine ruleEngine;
+    private final WorkingCalendar workingCalendar;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService partitionExecutor;
+    private final Duration idleTimeout;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+
+    @Value("${attendance.export.chunk-size:500}")
+    private int chunkSize;
+
+    public AttendanceExportService(DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   UserDirectoryReplica userDirectory,
+                                   LeaveClient leaveClient,
+                                   AttendanceDailySummaryRepository summaryRepository,
+                                   AttendanceCalculator calculator,
+                                   AttendanceRuleEngine ruleEngine,
+                                   WorkingCalendar workingCalendar,
+                                   ObjectMapper objectMapper,
+                                   @Value("${attendance.export.fetch-size:1000}") int fetchSize,
+                                   @Value("${attendance.export.parallelism:4}") int parallelism,
+                                   @Value("${attendance.export.idle-timeout:1m}") Duration idleTimeout) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+        // PostgreSQL only honours the fetch size inside a transaction; otherwise it buffers the whole result.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.userDirectory = userDirectory;
+        this.leaveClient = leaveClient;
+        this.summaryRepository = summaryRepository;
+        this.calculator = calculator;
+        this.ruleEngine = ruleEngine;
+        this.workingCalendar = workingCalendar;
+        this.objectMapper = objectMapper;
+        this.partitionExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        this.idleTimeout = idleTimeout;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        partitionExecutor.shutdownNow();
+    }
+
+    public void export(LocalDate from, LocalDate to, String department, ExportFormat format, boolean parallel,
+                       OutputStream outputStream) throws IOException {
+        LocalDate today = LocalDate.now(systemZoneId);
+        LocalDate endDate = to == null || to.isAfter(today) ? today : to;
+        LocalDate startDate = from != null ? from : summaryRepository.findFirstDay().orElse(endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new AttendanceException("Start date must not be after end date");
+        }
+
+        List<UserResponse> users = (department == null || department.isBlank()
+                ? userDirectory.getAllUsers()
+                : userDirectory.findByDepartment(department))
+                .stream()
+                .filter(user -> user.id() != null)
+                .toList();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        RecordSink sink = new RecordSink(writer, format);
+        if (format == ExportFormat.CSV) {
+            sink.writeLine(CSV_HEADER);
+        }
+
+        long started = System.nanoTime();
+        try {
+            if (parallel) {
+                exportByDepartment(users, startDate, endDate, sink);
+            } else {
+                exportPartition(users, startDate, endDate, sink);
+            }
+            sink.flush();
+        } catch (RuntimeException e) {
+            log.error("Attendance export from {} to {} failed after {} records, aborting the response",
+                    startDate, endDate, sink.written, e);
+            sink.abort();
+            throw e;
+        }
+        log.info("Exported {} attendance records for {} employees from {} to {} in {} ms",
+                sink.written, users.size(), startDate, endDate, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void exportByDepartment(List<UserResponse> users, LocalDate startDate, LocalDate endDate, RecordSink sink) {
+        Map<String, List<UserResponse>> byDepartment = users.stream()
+                .collect(Collectors.groupingBy(user -> Objects.requireNonNullElse(user.department(), "")));
+
+        List<Future<?>> partitions = byDepartment.values().stream()
+                .<Future<?>>map(partition -> partitionExecutor.submit(() -> exportPartition(partition, startDate, endDate, sink)))
+                .toList();
+        try {
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            partitions.forEach(partition -> partition.cancel(true));
+            throw new AttendanceException("Attendance export was interrupted", e);
+        } catch (ExecutionException e) {
+            partitions.forEach(partition -> partition.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AttendanceException("Attendance export failed", e.getCause());
+        }
+    }
+
+    private void exportPartition(List<UserResponse> users, LocalDate startDate, LocalDate endDate, RecordSink sink) {
+        for (int start = 0; start < users.size(); start += chunkSize) {
+            exportChunk(users.subList(start, Math.min(start + chunkSize, users.size())), startDate, endDate, sink);
+            sink.flush();
+        }
+    }
+
+    private void exportChunk(List<UserResponse> users, LocalDate startDate, LocalDate endDate, RecordSink sink) {
+        Map<String, UserResponse> usersById = new HashMap<>();
+        users.forEach(user -> usersById.putIfAbsent(user.id(), user));
+        Map<String, Set<LocalDate>> leaveDaysByUser = getLeaveDatesForPeriod(
+                users.stream().map(UserResponse::id).toList(), startDate, endDate);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("employeeIds", usersById.keySet())
+                .addValue("from", Timestamp.from(startDate.atStartOfDay(systemZoneId).toInstant()))
+                .addValue("to", Timestamp.from(endDate.plusDays(1).atStartOfDay(systemZoneId).toInstant()));
+
+        Set<String> exported = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Bounds how long a client that stops reading can keep this transaction open.
+            jdbcTemplate.getJdbcTemplate().execute(
+                    "SET LOCAL idle_in_transaction_session_timeout = " + idleTimeout.toMillis());
+            EmployeeDays[] current = new EmployeeDays[1];
+            jdbcTemplate.query(PUNCHES_SQL, params, rs -> {
+                String employeeId = rs.getString(1);
+                if (current[0] == null || !current[0].employeeId.equals(employeeId)) {
+                    if (current[0] != null) {
+                        current[0].finish();
+                    }
+                    UserResponse user = usersById.get(employeeId);
+                    current[0] = new EmployeeDays(employeeId, user, leaveDaysByUser.getOrDefault(employeeId, Set.of()),
+                            startDate, endDate, sink);
+                    exported.add(employeeId);
+                }
+                current[0].accept(AttendanceCalculator.toLocalEpochSecond(
+                        Math.floorDiv(rs.getTimestamp(2).getTime(), 1000L), systemZoneId));
+            });
+            if (current[0] != null) {
+                current[0].finish();
+            }
+        });
+
+        // Employees without a single punch in the range still get their weekends, leaves and absences.
+        usersById.forEach((employeeId, user) -> {
+            if (!exported.contains(employeeId)) {
+                new EmployeeDays(employeeId, user, leaveDaysByUser.getOrDefault(employeeId, Set.of()),
+                        startDate, endDate, sink).finish();
+            }
+        });
+    }
+
+    private Map<String, Set<LocalDate>> getLeaveDatesForPeriod(Collection<String> userIds, LocalDate start, LocalDate end) {
+        Map<String, Set<LocalDate>> leaveDaysByUser = new HashMap<>();
+        leaveClient.getApprovedLeaveIntervals(new LeaveIntervalQuery(userIds, start, end))
+                .forEach(interval -> addLeaveDates(
+                        leaveDaysByUser.computeIfAbsent(interval.userDn(), userDn -> new HashSet<>()), interval, start, end));
+        return leaveDaysByUser;
+    }
+
+    private void addLeaveDates(Set<LocalDate> leaveDays, LeaveInterval interval, LocalDate start, LocalDate end) {
+        LocalDate from = interval.startDate().isBefore(start) ? start : interval.startDate();
+        LocalDate to = interval.endDate().isAfter(end) ? end : interval.endDate();
+        if (!from.isAfter(to)) {
+            from.datesUntil(to.plusDays(1)).forEach(leaveDays::add);
+        }
+    }
+
+    /**
+     * One employee's position in the punch cursor: the punches of the day being read, the next
+     * day still to be written, and the employee's rule windows.
+     */
+    private final class EmployeeDays {
+
+        private final String employeeId;
+        private final UserResponse user;
+        private final Set<LocalDate> leaveDays;
+        private final LocalDate endDate;
+        private final RecordSink sink;
+        private final AttendanceRuleEngine.State ruleState = ruleEngine.newState();
+        private int[] secondsOfDay = new int[16];
+        private int punchCount;
+        private long currentEpochDay = Long.MIN_VALUE;
+        private LocalDate nextDay;
+        private LocalDate currentDay;
+
+        EmployeeDays(String employeeId, UserResponse user, Set<LocalDate> leaveDays, LocalDate startDate, LocalDate endDate,
+                     RecordSink sink) {
+            this.employeeId = employeeId;
+            this.user = user;
+            this.leaveDays = leaveDays;
+            this.endDate = endDate;
+            this.sink = sink;
+            this.nextDay = startDate;
+        }
+
+        void accept(long localEpochSecond) {
+            long epochDay = Math.floorDiv(localEpochSecond, 86_400L);
+            if (epochDay != currentEpochDay) {
+                if (currentDay != null) {
+                    flushDay();
+                }
+                currentEpochDay = epochDay;
+                currentDay = LocalDate.ofEpochDay(epochDay);
+            }
+            if (punchCount == secondsOfDay.length) {
+                secondsOfDay = Arrays.copyOf(secondsOfDay, punchCount * 2);
+            }
+            secondsOfDay[punchCount++] = AttendanceCalculator.secondOfDay(localEpochSecond);
+        }
+
+        void finish() {
+            if (currentDay != null) {
+                flushDay();
+            }
+            writeDaysWithoutPunches(endDate.plusDays(1));
+        }
+
+        private void flushDay() {
+            writeDaysWithoutPunches(currentDay);
+
+            DailyAttendance attendance = ruleEngine.evaluate(ruleState, currentDay,
+                    calculator.calculate(secondsOfDay, punchCount));
+            WorkingCalendar.DayKind dayKind = workingCalendar.dayKind(currentDay);
+            sink.write(dayKind != WorkingCalendar.DayKind.WORKING_DAY
+                    ? statusRecord(currentDay, EStatus.ofNonWorkingDay(dayKind), Set.of())
+                    : leaveDays.contains(currentDay) ? statusRecord(currentDay, EStatus.ON_LEAVE, Set.of())
+                    : attendanceRecord(currentDay, attendance));
+
+            nextDay = currentDay.plusDays(1);
+            currentDay = null;
+            currentEpochDay = Long.MIN_VALUE;
+            punchCount = 0;
+        }
+
+        private void writeDaysWithoutPunches(LocalDate until) {
+            LocalDate today = LocalDate.now(systemZoneId);
+            for (; nextDay.isBefore(until); nextDay = nextDay.plusDays(1)) {
+                WorkingCalendar.DayKind dayKind = workingCalendar.dayKind(nextDay);
+                if (dayKind != WorkingCalendar.DayKind.WORKING_DAY) {
+                    sink.write(statusRecord(nextDay, EStatus.ofNonWorkingDay(dayKind), Set.of()));
+                } else if (leaveDays.contains(nextDay)) {
+                    sink.write(statusRecord(nextDay, EStatus.ON_LEAVE, Set.of()));
+                } else if (nextDay.equals(today) && LocalTime.now(systemZoneId).isBefore(AttendanceCalculator.WORK_END_TIME)) {
+                    sink.write(statusRecord(nextDay, EStatus.AWAITING, Set.of()));
+                } else {
+                    sink.write(statusRecord(nextDay, EStatus.ABSENT,
+                            nextDay.isBefore(today) ? Set.of("No punch recorded") : Set.of()));
+                }
+            }
+        }
+
+        private AttendanceRecordResponseDTO attendanceRecord(LocalDate date, DailyAttendance attendance) {
+            return new AttendanceRecordResponseDTO(
+                    user.id(), user.firstName() + " " + user.lastName(), user.department(), date, attendance.status(),
+                    attendance.firstPunch(), attendance.lastPunch(), calculator.formatDuration(attendance.workDuration()),
+                    attendance.punchTimes(), attendance.punchTimes().size(), attendance.issues()
+            );
+        }
+
+        private AttendanceRecordResponseDTO statusRecord(LocalDate date, EStatus status, Set<String> issues) {
+            return new AttendanceRecordResponseDTO(
+                    user.id(), user.firstName() + " " + user.lastName(), user.department(), date, status,
+                    null, null, "0:00", List.of(), 0, issues
+            );
+        }
+    }
+
+    /**
+     * Serialises records one line at a time. Writes are synchronised so that concurrent
+     * partitions never interleave within a line.
+     */
+    private final class RecordSink {
+
+        private final Writer writer;
+        private final ExportFormat format;
+        private long written;
+
+        RecordSink(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        void write(AttendanceRecordResponseDTO record) {
+            String line = format == ExportFormat.CSV ? toCsv(record) : toJson(record);
+            synchronized (this) {
+                writeLine(line);
+                written++;
+            }
+        }
+
+        synchronized void writeLine(String line) {
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Ends the stream with the error marker. Best effort: the client may already be gone.
+         */
+        synchronized void abort() {
+            try {
+                writeLine(format == ExportFormat.CSV
+                        ? "# error: " + ABORTED
+                        : objectMapper.writeValueAsString(Map.of("error", ABORTED)));
+                flush();
+            } catch (RuntimeException | JsonProcessingException e) {
+                log.debug("Could not write the export error marker: {}", e.getMessage());
+            }
+        }
+
+        synchronized void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String toJson(AttendanceRecordResponseDTO record) {
+            try {
+                return objectMapper.writeValueAsString(record);
+            } catch (JsonProcessingException e) {
+                throw new AttendanceException("Could not serialise attendance record", e);
+            }
+        }
+
+        private String toCsv(AttendanceRecordResponseDTO record) {
+            return String.join(",",
+                    csv(record.employeeId()),
+                    csv(record.employeeName()),
+                    csv(record.department()),
+                    csv(record.date()),
+                    csv(record.status()),
+                    csv(record.firstPunch()),
+                    csv(record.lastPunch()),
+                    csv(record.totalHours()),
+                    String.valueOf(record.punchCount()),
+                    csv(record.allPunches().stream().map(LocalTime::toString).collect(Collectors.joining(" "))),
+                    csv(String.join("; ", new TreeSet<>(record.issues()))));
+        }
+
+        private String csv(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
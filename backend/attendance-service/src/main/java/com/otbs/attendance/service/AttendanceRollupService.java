@@ -0,0 +1,323 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.dto.DepartmentDayReportDTO;
+import com.otbs.attendance.dto.EmployeeMonthReportDTO;
+import com.otbs.attendance.event.AttendanceDaysChangedEvent;
+import com.otbs.attendance.model.*;
+import com.otbs.attendance.repository.AttendanceDailySummaryRepository;
+import com.otbs.attendance.repository.AttendanceDepartmentDayRepository;
+import com.otbs.attendance.repository.AttendanceEmployeeMonthRepository;
+import com.otbs.attendance.util.AttendanceCalculator;
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.leave.LeaveClient;
+import com.otbs.feign.client.leave.dto.LeaveIntervalQuery;
+import com.otbs.feign.client.leave.event.LeaveChangeEvent;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.dto.UserResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Maintains the (department, day) and (employee, month) attendance rollups behind the report API.
+ * <p>
+ * Rollup rows are never adjusted by deltas. Whenever something changes, only the keys it touches
+ * are recomputed from the daily summaries, the approved leaves and the replicated directory:
+ * <ul>
+ *     <li>new punches, through {@link AttendanceDaysChangedEvent} once the summaries have committed;</li>
+ *     <li>approved leaves appearing or disappearing, through {@link LeaveChangeEvent};</li>
+ *     <li>the passing of a day, which turns the employees still awaiting into absences.</li>
+ * </ul>
+ * Days are classified as in the attendance history: weekend or holiday, then leave, then the punched
+ * status, then awaiting or absent. Members are taken from the current directory.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AttendanceRollupService {
+
+    private final AttendanceDailySummaryRepository summaryRepository;
+    private final AttendanceDepartmentDayRepository departmentDayRepository;
+    private final AttendanceEmployeeMonthRepository employeeMonthRepository;
+    private final UserDirectoryReplica userDirectory;
+    private final LeaveClient leaveClient;
+    private final WorkingCalendar workingCalendar;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+
+    @Value("${attendance.rollup.chunk-size:500}")
+    private int chunkSize;
+
+    // The summaries' transaction has committed but is still bound; suspend it so each save commits on its own.
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onAttendanceDaysChanged(AttendanceDaysChangedEvent event) {
+        try {
+            refresh(event.daysByEmployee());
+        } catch (RuntimeException e) {
+            log.error("Refreshing attendance rollups failed, the nightly close will catch up: {}", e.getMessage(), e);
+        }
+    }
+
+    @RabbitListener(queues = "${attendance.rabbitmq.leave-queue}")
+    public void onLeaveChanged(LeaveChangeEvent event) {
+        LocalDate today = LocalDate.now(systemZoneId);
+        if (event.userDn() == null || event.startDate().isAfter(today)) {
+            return;
+        }
+        LocalDate end = event.endDate().isAfter(today) ? today : event.endDate();
+        try {
+            refresh(Map.of(event.userDn(), event.startDate().datesUntil(end.plusDays(1)).toList()));
+        } catch (RuntimeException e) {
+            log.error("Refreshing attendance rollups for leave {} failed: {}", event.leaveId(), e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${attendance.rollup.close-cron:0 15 0 * * *}")
+    public void closePreviousDay() {
+        LocalDate yesterday = LocalDate.now(systemZoneId).minusDays(1);
+        rebuild(yesterday, yesterday);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (departmentDayRepository.count() > 0) {
+                return;
+            }
+            LocalDate today = LocalDate.now(systemZoneId);
+            LocalDate firstDay = summaryRepository.findFirstDay().orElse(today);
+            log.info("Building attendance rollups from {} to {}", firstDay, today);
+            rebuild(firstDay, today);
+        } catch (RuntimeException e) {
+            log.error("Building attendance rollups failed, will retry on next startup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recomputes every rollup row covering the given days of the given employees, keyed by DN.
+     */
+    public void refresh(Map<String, ? extends Collection<LocalDate>> daysByEmployee) {
+        Map<LocalDate, Set<String>> departmentsByDay = new TreeMap<>();
+        Map<YearMonth, List<UserResponse>> employeesByMonth = new TreeMap<>();
+        daysByEmployee.forEach((employeeId, days) -> userDirectory.findById(employeeId).ifPresent(user -> {
+            Set<YearMonth> months = new HashSet<>();
+            for (LocalDate day : days) {
+                if (user.department() != null) {
+                    departmentsByDay.computeIfAbsent(day, d -> new HashSet<>()).add(user.department());
+                }
+                if (months.add(YearMonth.from(day))) {
+                    employeesByMonth.computeIfAbsent(YearMonth.from(day), m -> new ArrayList<>()).add(user);
+                }
+            }
+        }));
+
+        if (!departmentsByDay.isEmpty()) {
+            List<UserResponse> users = userDirectory.getAllUsers();
+            departmentsByDay.forEach((day, departments) -> refreshDepartmentDay(day, users.stream()
+                    .filter(user -> user.department() != null && departments.contains(user.department()))
+                    .toList()));
+        }
+        employeesByMonth.forEach(this::refreshEmployeeMonths);
+    }
+
+    /**
+     * Recomputes all rollup rows between two days, for every department and employee, and drops
+     * the department rows of departments that no longer have members.
+     * <p>
+     * The directory is read once. Employees are then walked in chunks; each chunk's approved
+     * leaves are fetched in one call for the whole range and its summaries are read one month at
+     * a time, feeding both the department days and the employee months of that month.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now(systemZoneId);
+        LocalDate end = to.isAfter(today) ? today : to;
+        if (from.isAfter(end)) {
+            return;
+        }
+        boolean beforeWorkEnd = LocalTime.now(systemZoneId).isBefore(AttendanceCalculator.WORK_END_TIME);
+        List<UserResponse> users = userDirectory.getAllUsers();
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(end);
+
+        Map<AttendanceDepartmentDayId, AttendanceDepartmentDay> departmentDays = new HashMap<>();
+        for (int start = 0; start < users.size(); start += chunkSize) {
+            List<UserResponse> chunk = users.subList(start, Math.min(start + chunkSize, users.size()));
+            List<String> chunkIds = chunk.stream().map(UserResponse::id).toList();
+            Map<String, Set<LocalDate>> leaveDays = getLeaveDays(chunk, firstMonth.atDay(1), end);
+
+            for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                LocalDate monthFrom = month.atDay(1);
+                LocalDate monthTo = month.equals(lastMonth) ? end : month.atEndOfMonth();
+                Map<String, Map<LocalDate, AttendanceDailySummary>> summaries = new HashMap<>();
+                summaryRepository.findByEmployeeIdInAndDayBetween(chunkIds, monthFrom, monthTo)
+                        .forEach(summary -> summaries.computeIfAbsent(summary.getEmployeeId(), id -> new HashMap<>())
+                                .put(summary.getDay(), summary));
+
+                List<AttendanceEmployeeMonth> employeeMonths = new ArrayList<>(chunk.size());
+                for (UserResponse user : chunk) {
+                    AttendanceTally monthTally = new AttendanceTally();
+                    Map<LocalDate, AttendanceDailySummary> userSummaries = summaries.getOrDefault(user.id(), Map.of());
+                    Set<LocalDate> userLeaveDays = leaveDays.getOrDefault(user.id(), Set.of());
+                    for (LocalDate day = monthFrom; !day.isAfter(monthTo); day = day.plusDays(1)) {
+                        AttendanceDailySummary summary = userSummaries.get(day);
+                        boolean onLeave = userLeaveDays.contains(day);
+                        tally(monthTally, day, summary, onLeave, today, beforeWorkEnd);
+                        if (user.department() != null && !day.isBefore(from)) {
+                            AttendanceDepartmentDay row = departmentDays.computeIfAbsent(
+                                    new AttendanceDepartmentDayId(user.department(), day),
+                                    id -> newDepartmentDay(id.getDepartment(), id.getDay()));
+                            row.setHeadcount(row.getHeadcount() + 1);
+                            tally(row.getTally(), day, summary, onLeave, today, beforeWorkEnd);
+                        }
+                    }
+                    employeeMonths.add(AttendanceEmployeeMonth.builder()
+                            .employeeId(user.id())
+                            .month(month.toString())
+                            .department(user.department())
+                            .tally(monthTally)
+                            .updatedAt(LocalDateTime.now())
+                            .build());
+                }
+                employeeMonthRepository.saveAll(employeeMonths);
+            }
+        }
+
+        departmentDayRepository.saveAll(departmentDays.values());
+        List<AttendanceDepartmentDay> withoutMembers = departmentDayRepository.findByDayBetweenOrderByDepartmentAscDayAsc(from, end)
+                .stream()
+                .filter(row -> !departmentDays.containsKey(new AttendanceDepartmentDayId(row.getDepartment(), row.getDay())))
+                .toList();
+        if (!withoutMembers.isEmpty()) {
+            log.info("Removing {} attendance rollup rows of departments without members", withoutMembers.size());
+            departmentDayRepository.deleteAllInBatch(withoutMembers);
+        }
+    }
+
+    public List<DepartmentDayReportDTO> getDepartmentDays(YearMonth month, String department) {
+        List<AttendanceDepartmentDay> rows = department == null || department.isBlank()
+                ? departmentDayRepository.findByDayBetweenOrderByDepartmentAscDayAsc(month.atDay(1), month.atEndOfMonth())
+                : departmentDayRepository.findByDepartmentAndDayBetweenOrderByDay(department, month.atDay(1), month.atEndOfMonth());
+        return rows.stream()
+                .map(row -> new DepartmentDayReportDTO(row.getDepartment(), row.getDay(), row.getHeadcount(),
+                        row.getTally().statusCounts(), row.getTally().getWorkedMinutes(), row.getTally().getIssueCounts()))
+                .toList();
+    }
+
+    public List<EmployeeMonthReportDTO> getEmployeeMonths(YearMonth month, String department) {
+        List<AttendanceEmployeeMonth> rows = department == null || department.isBlank()
+                ? employeeMonthRepository.findByMonthOrderByEmployeeId(month.toString())
+                : employeeMonthRepository.findByMonthAndDepartmentOrderByEmployeeId(month.toString(), department);
+        return rows.stream()
+                .map(row -> new EmployeeMonthReportDTO(row.getEmployeeId(), row.getDepartment(), row.getMonth(),
+                        row.getTally().statusCounts(), row.getTally().getWorkedMinutes(), row.getTally().getIssueCounts()))
+                .toList();
+    }
+
+    private void refreshDepartmentDay(LocalDate day, List<UserResponse> members) {
+        LocalDate today = LocalDate.now(systemZoneId);
+        if (day.isAfter(today) || members.isEmpty()) {
+            return;
+        }
+
+        Map<String, AttendanceDailySummary> summaries = new HashMap<>();
+        summaryRepository.findByEmployeeIdInAndDayBetween(members.stream().map(UserResponse::id).toList(), day, day)
+                .forEach(summary -> summaries.put(summary.getEmployeeId(), summary));
+        Map<String, Set<LocalDate>> leaveDays = getLeaveDays(members, day, day);
+        boolean beforeWorkEnd = LocalTime.now(systemZoneId).isBefore(AttendanceCalculator.WORK_END_TIME);
+
+        Map<String, AttendanceDepartmentDay> rows = new HashMap<>();
+        for (UserResponse member : members) {
+            AttendanceDepartmentDay row = rows.computeIfAbsent(member.department(), department -> newDepartmentDay(department, day));
+            row.setHeadcount(row.getHeadcount() + 1);
+            tally(row.getTally(), day, summaries.get(member.id()),
+                    leaveDays.getOrDefault(member.id(), Set.of()).contains(day), today, beforeWorkEnd);
+        }
+        departmentDayRepository.saveAll(rows.values());
+    }
+
+    private static AttendanceDepartmentDay newDepartmentDay(String department, LocalDate day) {
+        return AttendanceDepartmentDay.builder()
+                .department(department)
+                .day(day)
+                .tally(new AttendanceTally())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void refreshEmployeeMonths(YearMonth month, List<UserResponse> users) {
+        LocalDate today = LocalDate.now(systemZoneId);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth().isAfter(today) ? today : month.atEndOfMonth();
+        if (from.isAfter(to)) {
+            return;
+        }
+        boolean beforeWorkEnd = LocalTime.now(systemZoneId).isBefore(AttendanceCalculator.WORK_END_TIME);
+
+        for (int start = 0; start < users.size(); start += chunkSize) {
+            List<UserResponse> chunk = users.subList(start, Math.min(start + chunkSize, users.size()));
+            Map<String, Map<LocalDate, AttendanceDailySummary>> summaries = new HashMap<>();
+            summaryRepository.findByEmployeeIdInAndDayBetween(chunk.stream().map(UserResponse::id).toList(), from, to)
+                    .forEach(summary -> summaries.computeIfAbsent(summary.getEmployeeId(), id -> new HashMap<>())
+                            .put(summary.getDay(), summary));
+            Map<String, Set<LocalDate>> leaveDays = getLeaveDays(chunk, from, to);
+
+            List<AttendanceEmployeeMonth> rows = new ArrayList<>(chunk.size());
+            for (UserResponse user : chunk) {
+                AttendanceTally tally = new AttendanceTally();
+                Map<LocalDate, AttendanceDailySummary> userSummaries = summaries.getOrDefault(user.id(), Map.of());
+                Set<LocalDate> userLeaveDays = leaveDays.getOrDefault(user.id(), Set.of());
+                from.datesUntil(to.plusDays(1)).forEach(day ->
+                        tally(tally, day, userSummaries.get(day), userLeaveDays.contains(day), today, beforeWorkEnd));
+                rows.add(AttendanceEmployeeMonth.builder()
+                        .employeeId(user.id())
+                        .month(month.toString())
+                        .department(user.department())
+                        .tally(tally)
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+            }
+            employeeMonthRepository.saveAll(rows);
+        }
+    }
+
+    private void tally(AttendanceTally tally, LocalDate day, AttendanceDailySummary summary, boolean onLeave,
+                       LocalDate today, boolean beforeWorkEnd) {
+        WorkingCalendar.DayKind dayKind = workingCalendar.dayKind(day);
+        if (dayKind != WorkingCalendar.DayKind.WORKING_DAY) {
+            tally.add(EStatus.ofNonWorkingDay(dayKind));
+        } else if (onLeave) {
+            tally.add(EStatus.ON_LEAVE);
+        } else if (summary != null) {
+            tally.add(summary.getStatus(), summary.getWorkedMinutes(), summary.getIssues());
+        } else if (day.equals(today) && beforeWorkEnd) {
+            tally.add(EStatus.AWAITING);
+        } else {
+            tally.add(EStatus.ABSENT);
+        }
+    }
+
+    private Map<String, Set<LocalDate>> getLeaveDays(Collection<UserResponse> users, LocalDate from, LocalDate to) {
+        Map<String, Set<LocalDate>> leaveDays = new HashMap<>();
+        leaveClient.getApprovedLeaveIntervals(new LeaveIntervalQuery(users.stream().map(UserResponse::id).toList(), from, to))
+                .forEach(interval -> {
+                    LocalDate start = interval.startDate().isBefore(from) ? from : interval.startDate();
+                    LocalDate end = interval.endDate().isAfter(to) ? to : interval.endDate();
+                    if (!start.isAfter(end)) {
+                        start.datesUntil(end.plusDays(1))
+                                .forEach(day -> leaveDays.computeIfAbsent(interval.userDn(), dn -> new HashSet<>()).add(day));
+                    }
+                });
+        return leaveDays;
+    }
+}
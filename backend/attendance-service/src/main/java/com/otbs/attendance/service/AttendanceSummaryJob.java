@@ -0,0 +1,202 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.event.AttendanceDaysChangedEvent;
+import com.otbs.attendance.model.AttendanceDailySummary;
+import com.otbs.attendance.repository.AttendanceDailySummaryRepository;
+import com.otbs.attendance.repository.AttendancePunchRepository;
+import com.otbs.attendance.repository.AttendanceSummaryQueueRepository;
+import com.otbs.attendance.repository.AttendanceSummaryQueueRepository.PendingDay;
+import com.otbs.attendance.repository.AttendanceSyncStateRepository;
+import com.otbs.attendance.rule.AttendanceRuleEngine;
+import com.otbs.attendance.util.AttendanceCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Keeps {@code attendance_daily_summary} up to date from {@code attendance_punch}.
+ * <p>
+ * {@link PunchSyncJob} queues every (employee, day) pair that new or newly mapped punches touch
+ * in {@code attendance_summary_pending}. Each run takes the oldest queued days, recomputes them
+ * from their full set of punches, and removes them from the queue in the same transaction as the
+ * summaries, so a failed run is simply retried and a day queued again meanwhile stays queued.
+ */
+@Component
+@Slf4j
+public class AttendanceSummaryJob {
+
+    /**
+     * Watermark over {@code iclock_transaction} that this job kept before it read
+     * {@code attendance_punch}; its presence means the queue has not been seeded yet.
+     */
+    static final String LEGACY_WATERMARK = "daily-summary";
+
+    private final AttendancePunchRepository punchRepository;
+    private final AttendanceSummaryQueueRepository summaryQueue;
+    private final AttendanceDailySummaryRepository summaryRepository;
+    private final AttendanceSyncStateRepository syncStateRepository;
+    private final AttendanceCalculator calculator;
+    private final AttendanceRuleEngine ruleEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+
+    @Value("${attendance.summary.batch-size:5000}")
+    private int batchSize;
+
+    public AttendanceSummaryJob(AttendancePunchRepository punchRepository,
+                                AttendanceSummaryQueueRepository summaryQueue,
+                                AttendanceDailySummaryRepository summaryRepository,
+                                AttendanceSyncStateRepository syncStateRepository,
+                                AttendanceCalculator calculator,
+                                AttendanceRuleEngine ruleEngine,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.punchRepository = punchRepository;
+        this.summaryQueue = summaryQueue;
+        this.summaryRepository = summaryRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.calculator = calculator;
+        this.ruleEngine = ruleEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Summaries written by the old job only covered BioTime punches of employees mapped at the
+     * time, so after the upgrade every day with a stored punch is summarised once more.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedQueueAfterUpgrade() {
+        if (!syncStateRepository.existsById(LEGACY_WATERMARK)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Set<LocalDate>> days = punchRepository.findPunchDays(systemZoneId);
+            summaryQueue.queue(days);
+            syncStateRepository.deleteById(LEGACY_WATERMARK);
+            log.info("Queued the punch days of {} employees for summary after the upgrade", days.size());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.summary.sync-interval-ms:60000}")
+    public synchronized void synchronize() {
+        List<PendingDay> pending;
+        do {
+            pending = summaryQueue.findOldest(batchSize);
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, SortedSet<LocalDate>> affectedDays = new HashMap<>();
+            pending.forEach(day -> affectedDays.computeIfAbsent(day.employeeId(), employeeId -> new TreeSet<>()).add(day.day()));
+
+            List<PendingDay> summarised = pending;
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Set<LocalDate>> changed = new HashMap<>();
+                refresh(affectedDays).forEach(summary ->
+                        changed.computeIfAbsent(summary.getEmployeeId(), employeeId -> new HashSet<>()).add(summary.getDay()));
+                if (!changed.isEmpty()) {
+                    eventPublisher.publishEvent(new AttendanceDaysChangedEvent(changed));
+                }
+                summaryQueue.remove(summarised);
+            });
+            log.debug("Attendance summaries refreshed for {} queued days", pending.size());
+        } while (pending.size() == batchSize);
+    }
+
+    /**
+     * Recomputes the given days of each employee, identified by DN, from all their punches.
+     *
+     * @return the summaries that were written
+     */
+    public List<AttendanceDailySummary> refresh(Map<String, SortedSet<LocalDate>> affectedDays) {
+        if (affectedDays.isEmpty()) {
+            return List.of();
+        }
+        LocalDate from = affectedDays.values().stream().map(SortedSet::first).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = affectedDays.values().stream().map(SortedSet::last).max(Comparator.naturalOrder()).orElseThrow();
+
+        Map<String, Map<LocalDate, List<LocalTime>>> punchesByEmployee = new HashMap<>();
+        punchRepository.findByEmployeeIds(affectedDays.keySet(),
+                        from.atStartOfDay(systemZoneId).toInstant(),
+                        to.plusDays(1).atStartOfDay(systemZoneId).toInstant())
+                .forEach(punch -> {
+                    var zoned = punch.punchTime().atZone(systemZoneId);
+                    punchesByEmployee.computeIfAbsent(punch.employeeId(), employeeId -> new HashMap<>())
+                            .computeIfAbsent(zoned.toLocalDate(), day -> new ArrayList<>())
+                            .add(zoned.toLocalTime());
+                });
+
+        List<AttendanceDailySummary> updated = new ArrayList<>();
+        affectedDays.forEach((employeeId, days) ->
+                updated.addAll(recompute(employeeId, days, punchesByEmployee.getOrDefault(employeeId, Map.of()))));
+        return summaryRepository.saveAll(updated);
+    }
+
+    /**
+     * Recomputes the affected days from their punches. Window issues of a day depend on the days
+     * before it, so the stored days the windows reach before the first affected day are replayed,
+     * and every other stored day from the first affected day until the windows of the last one
+     * close is evaluated again and rewritten if its issues changed.
+     */
+    private List<AttendanceDailySummary> recompute(String employeeId, SortedSet<LocalDate> days, Map<LocalDate, List<LocalTime>> punchesByDay) {
+        int window = ruleEngine.maxWindowDays();
+        NavigableMap<LocalDate, AttendanceDailySummary> stored = new TreeMap<>();
+        summaryRepository.findByEmployeeIdAndDayBetweenOrderByDay(employeeId,
+                        days.first().minusDays(window - 1L), days.last().plusDays(window - 1L))
+                .forEach(summary -> stored.put(summary.getDay(), summary));
+        SortedSet<LocalDate> timeline = new TreeSet<>(stored.keySet());
+        timeline.addAll(days);
+
+        AttendanceRuleEngine.State state = ruleEngine.newState();
+        List<AttendanceDailySummary> updated = new ArrayList<>();
+        for (LocalDate day : timeline) {
+            List<LocalTime> punchTimes = days.contains(day) ? punchesByDay.get(day) : null;
+            if (punchTimes == null || punchTimes.isEmpty()) {
+                AttendanceDailySummary summary = stored.get(day);
+                if (summary == null) {
+                    continue;
+                }
+                if (day.isBefore(days.first())) {
+                    state.record(day, summary.getStatus(), summary.getIssues());
+                    continue;
+                }
+                Set<String> issues = ruleEngine.reevaluate(state, day, summary.getStatus(), summary.getIssues());
+                if (!issues.equals(summary.getIssues())) {
+                    summary.setIssues(issues);
+                    summary.setUpdatedAt(LocalDateTime.now());
+                    updated.add(summary);
+                }
+                continue;
+            }
+            punchTimes.sort(Comparator.naturalOrder());
+            DailyAttendance attendance = ruleEngine.evaluate(state, day, calculator.calculate(punchTimes));
+
+            updated.add(AttendanceDailySummary.builder()
+                    .employeeId(employeeId)
+                    .day(day)
+                    .status(attendance.status())
+                    .firstPunch(attendance.firstPunch())
+                    .lastPunch(attendance.lastPunch())
+                    .workedMinutes((int) attendance.workDuration().toMinutes())
+                    .punchTimes(attendance.punchTimes())
+                    .issues(attendance.issues())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return updated;
+    }
+}
@@ -8,6 +8,8 @@ import java.util.List;
 public interface AttendanceTransactionService {
     AttendanceRecordResponseDTO getAttendanceRecordByEmployeeIdAndDate(String employeeId, LocalDate date);
     List<AttendanceRecordResponseDTO> getAttendanceRecordsByEmployeeId(String employeeId);
+    List<AttendanceRecordResponseDTO> getAttendanceRecordsByEmployeeId(String employeeId, LocalDate from, LocalDate to);
     List<AttendanceRecordResponseDTO> getAttendanceRecordsByDate(String date);
+    List<AttendanceRecordResponseDTO> getAttendanceRecordsByDate(String date, String department);
     List<AttendanceRecordResponseDTO> getAllAttendanceRecords();
 }
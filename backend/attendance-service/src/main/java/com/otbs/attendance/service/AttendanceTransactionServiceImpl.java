@@ -1,21 +1,34 @@
 package com.otbs.attendance.service;
 
 import com.otbs.attendance.dto.AttendanceRecordResponseDTO;
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.dto.PunchRecord;
 import com.otbs.attendance.exception.AttendanceException;
 import com.otbs.attendance.exception.EmployeeException;
-import com.otbs.attendance.model.AttendanceTransaction;
+import com.otbs.attendance.model.AttendanceDailySummary;
 import com.otbs.attendance.model.EStatus;
-import com.otbs.attendance.repository.AttendanceTransactionRepository;
+import com.otbs.attendance.repository.AttendanceDailySummaryRepository;
+import com.otbs.attendance.repository.AttendancePunchRepository;
+import com.otbs.attendance.rule.AttendanceRuleEngine;
+import com.otbs.attendance.util.AttendanceCalculator;
+import com.otbs.feign.calendar.WorkingCalendar;
 import com.otbs.feign.client.leave.LeaveClient;
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.feign.client.leave.dto.LeaveIntervalQuery;
 import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.UserDirectoryReplica;
 import com.otbs.feign.client.user.dto.UserResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -23,82 +36,60 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AttendanceTransactionServiceImpl implements AttendanceTransactionService {
 
     // Dependencies
     private final UserClient userClient;
+    private final UserDirectoryReplica userDirectory;
     private final LeaveClient leaveClient;
-    private final AttendanceTransactionRepository attendanceTransactionRepository;
-
-    // --- Inlined Attendance Configuration Attributes ---
-    private static final LocalTime WORK_START_TIME = LocalTime.parse("08:30");
-    private static final LocalTime WORK_END_TIME = LocalTime.parse("17:30");
-    private static final LocalTime BREAK_START_TIME = LocalTime.parse("12:30");
-    private static final LocalTime BREAK_END_TIME = LocalTime.parse("14:00");
-    private static final Duration MINIMUM_REQUIRED_WORK_DURATION = Duration.ofMinutes(450); // 7.5 hours
-
-    // --- NEW: Configuration for Issue Detection ---
-    private static final Duration LATE_ARRIVAL_THRESHOLD = Duration.ofMinutes(15);
-    private static final Duration EARLY_LEAVE_THRESHOLD = Duration.ofMinutes(30);
-    private static final Duration UNUSUAL_BREAK_THRESHOLD = Duration.ofMinutes(120); // 2 hours
-    private static final int TARDINESS_LOOKBACK_DAYS = 7;
-    private static final int TARDINESS_FREQUENCY_THRESHOLD = 3;
+    private final AttendancePunchRepository punchRepository;
+    private final AttendanceDailySummaryRepository summaryRepository;
+    private final AttendanceCalculator calculator;
+    private final AttendanceRuleEngine ruleEngine;
+    private final WorkingCalendar workingCalendar;
 
     private final ZoneId systemZoneId = ZoneId.systemDefault();
 
     @Override
     public List<AttendanceRecordResponseDTO> getAttendanceRecordsByEmployeeId(String employeeId) {
+        return getAttendanceRecordsByEmployeeId(employeeId, null, null);
+    }
+
+    @Override
+    public List<AttendanceRecordResponseDTO> getAttendanceRecordsByEmployeeId(String employeeId, LocalDate from, LocalDate to) {
         UserResponse userResponse = getUserByEmployeeId(employeeId);
         if (userResponse == null || userResponse.email() == null) {
             throw new EmployeeException("Cannot find employee for ID: " + employeeId);
         }
-        List<AttendanceTransaction> allTransactions = attendanceTransactionRepository.findAllByEmployeeEmail(userResponse.email());
-
-        LocalDate endDate = LocalDate.now(systemZoneId);
-        LocalDate startDate = allTransactions.stream()
-                .map(t -> t.getPunchTime().atZone(systemZoneId).toLocalDate())
-                .min(Comparator.naturalOrder())
-                .orElse(endDate);
 
-        Map<LocalDate, List<AttendanceTransaction>> transactionsByDate = allTransactions.stream()
-                .collect(Collectors.groupingBy(t -> t.getPunchTime().atZone(systemZoneId).toLocalDate()));
+        LocalDate endDate = to != null ? to : LocalDate.now(systemZoneId);
+        LocalDate startDate = from != null ? from : summaryRepository.findFirstDay(userResponse.id()).orElse(endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new AttendanceException("Start date must not be after end date");
+        }
 
+        List<AttendanceDailySummary> summaries = summaryRepository.findByEmployeeIdAndDayBetweenOrderByDay(
+                userResponse.id(), startDate, endDate);
         Set<LocalDate> leaveDays = getLeaveDatesForPeriod(userResponse.id(), startDate, endDate);
 
-        List<AttendanceRecordResponseDTO> historicalRecords = new ArrayList<>();
-
-        startDate.datesUntil(endDate.plusDays(1)).forEach(date -> {
-            AttendanceRecordResponseDTO dailyRecord;
-            DayOfWeek dayOfWeek = date.getDayOfWeek();
-
-            if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
-                dailyRecord = createStatusResponse(userResponse, date, EStatus.WEEKEND, Set.of());
-            } else if (leaveDays.contains(date)) {
-                dailyRecord = createStatusResponse(userResponse, date, EStatus.ON_LEAVE, Set.of());
-            } else if (transactionsByDate.containsKey(date)) {
-                dailyRecord = buildRecordFromTransactions(userResponse, date, transactionsByDate.get(date), historicalRecords);
-            } else {
-                Set<String> issues = new HashSet<>();
-                if(date.isBefore(endDate)){
-                    issues.add("No punch recorded");
-                }
-                EStatus status = (date.equals(endDate) && LocalTime.now(systemZoneId).isBefore(WORK_END_TIME)) ? EStatus.AWAITING : EStatus.ABSENT;
-                dailyRecord = createStatusResponse(userResponse, date, status, issues);
-            }
-            historicalRecords.add(dailyRecord);
-        });
-
-        return historicalRecords;
+        return buildHistory(userResponse, startDate, endDate, summaries, leaveDays);
     }
 
     @Override
     public AttendanceRecordResponseDTO getAttendanceRecordByEmployeeIdAndDate(String employeeId, LocalDate date) {
         UserResponse userResponse = getUserByEmployeeId(employeeId);
-        List<AttendanceTransaction> transactions = attendanceTransactionRepository.findByEmployeeEmailAndPunchDate(
-                userResponse.email(), date.atStartOfDay(systemZoneId).toInstant(), date.plusDays(1).atStartOfDay(systemZoneId).toInstant());
+        AttendanceDailySummary summary = summaryRepository.findByEmployeeIdAndDay(userResponse.id(), date).orElse(null);
+        if (summary != null) {
+            return toResponse(userResponse, summary);
+        }
 
-        if (transactions.isEmpty()) {
+        // The summary job may not have seen today's punches yet, so fall back to the punch table.
+        List<PunchRecord> punches = punchRepository.findByEmployeeIds(List.of(userResponse.id()),
+                date.atStartOfDay(systemZoneId).toInstant(), date.plusDays(1).atStartOfDay(systemZoneId).toInstant());
+
+        if (punches.isEmpty()) {
             Set<String> issues = new HashSet<>();
             // Only flag "No punch recorded" for past dates on single-day fetches.
             if (date.isBefore(LocalDate.now(systemZoneId))) {
@@ -107,12 +98,17 @@ public class AttendanceTransactionServiceImpl implements AttendanceTransactionSe
             return createStatusResponse(userResponse, date, EStatus.ABSENT, issues);
         }
 
-        // Pass an empty list for historical records as we are only analyzing a single day.
-        return buildRecordFromTransactions(userResponse, date, transactions, List.of());
+        // No history is considered as we are only analyzing a single day.
+        return buildRecordFromPunches(userResponse, date, punches);
     }
 
     @Override
     public List<AttendanceRecordResponseDTO> getAttendanceRecordsByDate(String dateString) {
+        return getAttendanceRecordsByDate(dateString, null);
+    }
+
+    @Override
+    public List<AttendanceRecordResponseDTO> getAttendanceRecordsByDate(String dateString, String department) {
         LocalDate date;
         try {
             date = LocalDate.parse(dateString);
@@ -120,29 +116,64 @@ public class AttendanceTransactionServiceImpl implements AttendanceTransactionSe
             throw new AttendanceException("Invalid date format. Please use YYYY-MM-DD.", e);
         }
 
-        List<UserResponse> allUsers = userClient.getAllUsers();
-        if (allUsers == null || allUsers.isEmpty()) {
+        List<UserResponse> users = department == null || department.isBlank()
+                ? userDirectory.getAllUsers()
+                : userDirectory.findByDepartment(department);
+        if (users == null || users.isEmpty()) {
             return List.of();
         }
 
-        return allUsers.stream()
-                .map(user -> getAttendanceRecordByEmployeeIdAndDate(user.id(), date))
+        // One query for the day's punches, one bulk leave lookup; users come from the local replica.
+        Map<String, List<LocalTime>> punchesByEmployee = new HashMap<>();
+        punchRepository.findBetween(
+                        date.atStartOfDay(systemZoneId).toInstant(), date.plusDays(1).atStartOfDay(systemZoneId).toInstant())
+                .forEach(punch -> punchesByEmployee.computeIfAbsent(punch.employeeId(), employeeId -> new ArrayList<>())
+                        .add(punch.punchTime().atZone(systemZoneId).toLocalTime()));
+        Map<String, Set<LocalDate>> leaveDaysByUser = getLeaveDatesForPeriod(
+                users.stream().map(UserResponse::id).toList(), date, date);
+
+        boolean past = date.isBefore(LocalDate.now(systemZoneId));
+        WorkingCalendar.DayKind dayKind = workingCalendar.dayKind(date);
+        return users.stream()
+                .map(user -> {
+                    if (leaveDaysByUser.getOrDefault(user.id(), Set.of()).contains(date)) {
+                        return createStatusResponse(user, date, EStatus.ON_LEAVE, Set.of());
+                    }
+                    List<LocalTime> punchTimes = punchesByEmployee.get(user.id());
+                    if ((punchTimes == null || punchTimes.isEmpty()) && dayKind != WorkingCalendar.DayKind.WORKING_DAY) {
+                        return createStatusResponse(user, date, EStatus.ofNonWorkingDay(dayKind), Set.of());
+                    }
+                    if (punchTimes == null || punchTimes.isEmpty()) {
+                        return createStatusResponse(user, date, EStatus.ABSENT,
+                                past ? Set.of("No punch recorded") : Set.of());
+                    }
+                    return toResponse(user, date, evaluateSingleDay(date, calculator.calculate(punchTimes)));
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<AttendanceRecordResponseDTO> getAllAttendanceRecords() {
-        List<UserResponse> allUsers = userClient.getAllUsers();
+        List<UserResponse> allUsers = userDirectory.getAllUsers();
         if (allUsers == null || allUsers.isEmpty()) {
             return List.of();
         }
+        LocalDate endDate = LocalDate.now(systemZoneId);
+        LocalDate startDate = summaryRepository.findFirstDay().orElse(endDate);
+        Map<String, Set<LocalDate>> leaveDaysByUser = getLeaveDatesForPeriod(
+                allUsers.stream().map(UserResponse::id).toList(), startDate, endDate);
+
         List<AttendanceRecordResponseDTO> allRecords = new ArrayList<>();
         for (UserResponse user : allUsers) {
-            try {
-                allRecords.addAll(getAttendanceRecordsByEmployeeId(user.id()));
-            } catch (EmployeeException e) {
-                System.err.println("Could not process records for employee ID " + user.id() + ": " + e.getMessage());
+            if (user.email() == null) {
+                log.warn("Could not process records for employee ID {}: no email", user.id());
+                continue;
             }
+            List<AttendanceDailySummary> summaries = summaryRepository.findByEmployeeIdAndDayBetweenOrderByDay(
+                    user.id(), startDate, endDate);
+            LocalDate firstDay = summaries.isEmpty() ? endDate : summaries.getFirst().getDay();
+            allRecords.addAll(buildHistory(user, firstDay, endDate, summaries,
+                    leaveDaysByUser.getOrDefault(user.id(), Set.of())));
         }
         allRecords.sort(Comparator.comparing(AttendanceRecordResponseDTO::date));
         return allRecords;
@@ -150,121 +181,93 @@ public class AttendanceTransactionServiceImpl implements AttendanceTransactionSe
 
     // Private Helper Methods
 
-    private AttendanceRecordResponseDTO buildRecordFromTransactions(UserResponse user, LocalDate date, List<AttendanceTransaction> transactions, List<AttendanceRecordResponseDTO> historicalRecords) {
-        transactions.sort(Comparator.comparing(AttendanceTransaction::getPunchTime));
-        List<LocalTime> punchTimes = transactions.stream()
-                .map(t -> t.getPunchTime().atZone(systemZoneId).toLocalTime())
-                .collect(Collectors.toList());
-
-        LocalTime firstPunch = punchTimes.get(0);
-        LocalTime lastPunch = punchTimes.get(punchTimes.size() - 1);
-        Duration totalWorkDuration = calculateTotalWorkDuration(punchTimes);
-        EStatus status = determineStatus(totalWorkDuration, firstPunch);
-
-        Set<String> issues = detectAttendanceIssues(
-                firstPunch, lastPunch, punchTimes, totalWorkDuration, status, historicalRecords
-        );
-
-        return new AttendanceRecordResponseDTO(
-                user.id(), user.firstName() + " " + user.lastName(), user.department(), date, status,
-                firstPunch, lastPunch, formatDuration(totalWorkDuration), punchTimes, punchTimes.size(), issues
-        );
-    }
-
-    private Set<String> detectAttendanceIssues(LocalTime firstPunch, LocalTime lastPunch, List<LocalTime> punchTimes, Duration totalWork, EStatus status, List<AttendanceRecordResponseDTO> historicalRecords) {
-        Set<String> issues = new HashSet<>();
-
-        if (firstPunch.isAfter(WORK_START_TIME.plus(LATE_ARRIVAL_THRESHOLD))) {
-            issues.add("Arrived very late");
-        }
-
-        if (punchTimes.size() > 1 && lastPunch.isBefore(WORK_END_TIME.minus(EARLY_LEAVE_THRESHOLD))) {
-            issues.add("Left very early");
-        }
+    private List<AttendanceRecordResponseDTO> buildHistory(UserResponse userResponse, LocalDate startDate, LocalDate endDate,
+                                                           List<AttendanceDailySummary> summaries, Set<LocalDate> leaveDays) {
+        LocalDate today = LocalDate.now(systemZoneId);
+        Map<LocalDate, AttendanceDailySummary> summariesByDate = new HashMap<>();
+        summaries.forEach(summary -> summariesByDate.put(summary.getDay(), summary));
 
-        if (punchTimes.size() % 2 != 0) {
-            issues.add("Missed last punch");
-        }
-
-        if (status != EStatus.HALF_DAY && totalWork.compareTo(MINIMUM_REQUIRED_WORK_DURATION) < 0) {
-            issues.add("Worked fewer hours than required");
-        }
-
-        Duration actualBreak = calculateActualBreakDuration(punchTimes);
-        if (actualBreak.compareTo(UNUSUAL_BREAK_THRESHOLD) > 0) {
-            issues.add("Unusually long break");
-        }
+        List<AttendanceRecordResponseDTO> historicalRecords = new ArrayList<>();
 
-        if (status == EStatus.LATE || issues.contains("Arrived very late")) {
-            long recentLatenessCount = historicalRecords.stream()
-                    .filter(r -> r.date().isAfter(LocalDate.now(systemZoneId).minusDays(TARDINESS_LOOKBACK_DAYS)))
-                    .filter(r -> r.status() == EStatus.LATE || r.issues().contains("Arrived very late"))
-                    .count();
+        startDate.datesUntil(endDate.plusDays(1)).forEach(date -> {
+            AttendanceRecordResponseDTO dailyRecord;
+            WorkingCalendar.DayKind dayKind = workingCalendar.dayKind(date);
 
-            if (recentLatenessCount + 1 >= TARDINESS_FREQUENCY_THRESHOLD) {
-                issues.add("Frequent tardiness");
+            if (dayKind != WorkingCalendar.DayKind.WORKING_DAY) {
+                dailyRecord = createStatusResponse(userResponse, date, EStatus.ofNonWorkingDay(dayKind), Set.of());
+            } else if (leaveDays.contains(date)) {
+                dailyRecord = createStatusResponse(userResponse, date, EStatus.ON_LEAVE, Set.of());
+            } else if (summariesByDate.containsKey(date)) {
+                dailyRecord = toResponse(userResponse, summariesByDate.get(date));
+            } else {
+                Set<String> issues = new HashSet<>();
+                if(date.isBefore(today)){
+                    issues.add("No punch recorded");
+                }
+                EStatus status = (date.equals(today) && LocalTime.now(systemZoneId).isBefore(AttendanceCalculator.WORK_END_TIME)) ? EStatus.AWAITING : EStatus.ABSENT;
+                dailyRecord = createStatusResponse(userResponse, date, status, issues);
             }
-        }
+            historicalRecords.add(dailyRecord);
+        });
 
-        return issues;
+        return historicalRecords;
     }
 
-    private EStatus determineStatus(Duration totalWorkDuration, LocalTime firstPunch) {
-        if (totalWorkDuration.toHours() < 4 || firstPunch.isAfter(BREAK_START_TIME)) {
-            return EStatus.HALF_DAY;
-        } else if (firstPunch.isAfter(WORK_START_TIME)) {
-            return EStatus.LATE;
-        } else {
-            return EStatus.PRESENT;
+    private AttendanceRecordResponseDTO buildRecordFromPunches(UserResponse user, LocalDate date, List<PunchRecord> punches) {
+        int[] secondsOfDay = new int[punches.size()];
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            secondsOfDay[i] = AttendanceCalculator.secondOfDay(AttendanceCalculator.toLocalEpochSecond(
+                    punches.get(i).punchTime().getEpochSecond(), systemZoneId));
         }
-    }
+        Arrays.sort(secondsOfDay);
 
-    private Duration calculateActualBreakDuration(List<LocalTime> punchTimes) {
-        if (punchTimes.size() <= 2) return Duration.ZERO;
+        return toResponse(user, date, evaluateSingleDay(date, calculator.calculate(secondsOfDay, secondsOfDay.length)));
+    }
 
-        Duration totalBreak = Duration.ZERO;
-        for (int i = 1; i < punchTimes.size() - 1; i += 2) {
-            LocalTime breakStart = punchTimes.get(i);
-            LocalTime breakEnd = punchTimes.get(i + 1);
-            totalBreak = totalBreak.plus(Duration.between(breakStart, breakEnd));
-        }
-        return totalBreak;
+    /**
+     * Window rules see only the day itself here, as no history is loaded for a single-day view.
+     */
+    private DailyAttendance evaluateSingleDay(LocalDate date, DailyAttendance attendance) {
+        return ruleEngine.evaluate(ruleEngine.newState(), date, attendance);
     }
 
-    private Duration calculateTotalWorkDuration(List<LocalTime> punchTimes) {
-        if (punchTimes.size() < 2) return Duration.ZERO;
-        Duration totalDuration = Duration.ZERO;
-        for (int i = 0; i < punchTimes.size(); i += 2) {
-            if (i + 1 >= punchTimes.size()) break;
-            LocalTime punchIn = punchTimes.get(i);
-            LocalTime punchOut = punchTimes.get(i + 1);
-            LocalTime effectiveBreakStart = punchIn.isAfter(BREAK_START_TIME) ? punchIn : BREAK_START_TIME;
-            LocalTime effectiveBreakEnd = punchOut.isBefore(BREAK_END_TIME) ? punchOut : BREAK_END_TIME;
-            Duration segmentDuration = Duration.between(punchIn, punchOut);
-            Duration breakOverlap = Duration.ZERO;
-            if (effectiveBreakEnd.isAfter(effectiveBreakStart)) {
-                breakOverlap = Duration.between(effectiveBreakStart, effectiveBreakEnd);
-            }
-            totalDuration = totalDuration.plus(segmentDuration.minus(breakOverlap));
-        }
-        return totalDuration;
+    private AttendanceRecordResponseDTO toResponse(UserResponse user, LocalDate date, DailyAttendance attendance) {
+        return new AttendanceRecordResponseDTO(
+                user.id(), user.firstName() + " " + user.lastName(), user.department(), date, attendance.status(),
+                attendance.firstPunch(), attendance.lastPunch(), calculator.formatDuration(attendance.workDuration()),
+                attendance.punchTimes(), attendance.punchTimes().size(), attendance.issues()
+        );
     }
 
-    private String formatDuration(Duration duration) {
-        long hours = duration.toHours();
-        long minutes = duration.toMinutesPart();
-        return String.format("%d:%02d", hours, minutes);
+    private AttendanceRecordResponseDTO toResponse(UserResponse user, AttendanceDailySummary summary) {
+        return new AttendanceRecordResponseDTO(
+                user.id(), user.firstName() + " " + user.lastName(), user.department(), summary.getDay(), summary.getStatus(),
+                summary.getFirstPunch(), summary.getLastPunch(), calculator.formatDuration(Duration.ofMinutes(summary.getWorkedMinutes())),
+                summary.getPunchTimes(), summary.getPunchTimes().size(), summary.getIssues()
+        );
     }
 
     private Set<LocalDate> getLeaveDatesForPeriod(String userId, LocalDate start, LocalDate end) {
-        return start.datesUntil(end.plusDays(1))
-                .filter(date -> isLeaveOnDate(userId, date))
-                .collect(Collectors.toSet());
+        Set<LocalDate> leaveDays = new HashSet<>();
+        leaveClient.getApprovedLeaveIntervals(userId, start, end)
+                .forEach(interval -> addLeaveDates(leaveDays, interval, start, end));
+        return leaveDays;
+    }
+
+    private Map<String, Set<LocalDate>> getLeaveDatesForPeriod(Collection<String> userIds, LocalDate start, LocalDate end) {
+        Map<String, Set<LocalDate>> leaveDaysByUser = new HashMap<>();
+        leaveClient.getApprovedLeaveIntervals(new LeaveIntervalQuery(userIds, start, end))
+                .forEach(interval -> addLeaveDates(
+                        leaveDaysByUser.computeIfAbsent(interval.userDn(), userDn -> new HashSet<>()), interval, start, end));
+        return leaveDaysByUser;
     }
 
-    private boolean isLeaveOnDate(String userDn, LocalDate date) {
-        var response = leaveClient.leaveExists(userDn, date);
-        return response.getBody() != null && Boolean.TRUE.equals(response.getBody());
+    private void addLeaveDates(Set<LocalDate> leaveDays, LeaveInterval interval, LocalDate start, LocalDate end) {
+        LocalDate from = interval.startDate().isBefore(start) ? start : interval.startDate();
+        LocalDate to = interval.endDate().isAfter(end) ? end : interval.endDate();
+        if (!from.isAfter(to)) {
+            from.datesUntil(to.plusDays(1)).forEach(leaveDays::add);
+        }
     }
 
     private UserResponse getUserByEmployeeId(String employeeId) {
@@ -277,4 +280,4 @@ public class AttendanceTransactionServiceImpl implements AttendanceTransactionSe
                 null, null, "0:00", List.of(), 0, issues
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.otbs.attendance.service;
+
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.dto.UserResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps BioTime employees, identified by {@code emp_code}, to directory DNs.
+ * <p>
+ * The only link between the two is the e-mail address, so a mapping is resolved once against the
+ * replicated directory and then cached by employee code. Entries expire after
+ * {@code attendance.punch-sync.mapping-ttl} and are dropped as soon as the device database
+ * reports a different e-mail for the code, so address changes are picked up without a restart.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeDirectoryMapping {
+
+    private final UserDirectoryReplica userDirectory;
+    private final Map<String, Entry> byEmpCode = new ConcurrentHashMap<>();
+
+    @Value("${attendance.punch-sync.mapping-ttl:10m}")
+    private Duration ttl;
+
+    private record Entry(String email, String dn, long expiresAt) {
+    }
+
+    /**
+     * Resolves the DN of every given employee code, keyed by code. Codes whose e-mail is unknown
+     * to the directory are left out. The directory is scanned at most once per call.
+     *
+     * @param emailsByEmpCode the e-mail recorded in BioTime for each employee code
+     */
+    public Map<String, String> resolve(Map<String, String> emailsByEmpCode) {
+        long now = System.currentTimeMillis();
+        Map<String, String> resolved = new HashMap<>();
+        Map<String, String> dnsByEmail = null;
+
+        for (Map.Entry<String, String> employee : emailsByEmpCode.entrySet()) {
+            String empCode = employee.getKey();
+            String email = normalize(employee.getValue());
+            Entry cached = byEmpCode.get(empCode);
+            if (cached != null && cached.expiresAt() > now && Objects.equals(cached.email(), email)) {
+                resolved.put(empCode, cached.dn());
+                continue;
+            }
+            byEmpCode.remove(empCode);
+            if (email == null) {
+                continue;
+            }
+            if (dnsByEmail == null) {
+                dnsByEmail = indexDirectoryByEmail();
+            }
+            String dn = dnsByEmail.get(email);
+            if (dn != null) {
+                byEmpCode.put(empCode, new Entry(email, dn, now + ttl.toMillis()));
+                resolved.put(empCode, dn);
+            }
+        }
+        return resolved;
+    }
+
+    private Map<String, String> indexDirectoryByEmail() {
+        Map<String, String> dnsByEmail = new HashMap<>();
+        for (UserResponse user : userDirectory.getAllUsers()) {
+            String email = normalize(user.email());
+            if (email != null) {
+                dnsByEmail.putIfAbsent(email, user.id());
+            }
+        }
+        return dnsByEmail;
+    }
+
+    private static String normalize(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
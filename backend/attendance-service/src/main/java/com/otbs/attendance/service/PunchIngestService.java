@@ -0,0 +1,287 @@
+package com.otbs.attendance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores attendance logs that terminals push in the ZKTeco ADMS format, so punches no longer
+ * have to go through the BioTime database.
+ * <p>
+ * Each line of an {@code ATTLOG} upload is {@code PIN \t yyyy-MM-dd HH:mm:ss \t status \t verify ...},
+ * in the local time of the terminal. Lines are inserted into {@code attendance_device_punch}, one
+ * statement per {@code attendance.ingest.batch-size} lines, by expanding column arrays with
+ * {@code unnest}, which costs a single round trip and plan per batch. The unique key
+ * (terminal_sn, emp_code, punch_time) drops punches that a terminal uploads again, e.g. after it
+ * lost the acknowledgement. Punches older than {@code attendance.ingest.max-age} or in the future
+ * are rejected, since they come from terminals with a wrong clock and would otherwise create
+ * partitions for arbitrary months.
+ * <p>
+ * Only terminals listed in {@code attendance.ingest.terminals} are accepted, as {@code SN} or
+ * {@code SN:commKey}; a terminal listed with a comm key must send it as {@code pushcommkey}.
+ * <p>
+ * {@link PunchSyncJob} then copies the new rows into {@code attendance_punch} and publishes them.
+ */
+@Service
+@Slf4j
+public class PunchIngestService {
+
+    private static final DateTimeFormatter PUNCH_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(10);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO attendance_device_punch (terminal_sn, emp_code, punch_time, punch_state, verify_type)
+            SELECT ?, p.emp_code, p.punch_time, p.punch_state, p.verify_type
+            FROM unnest(?::varchar[], ?::timestamptz[], ?::varchar[], ?::varchar[])
+                    AS p(emp_code, punch_time, punch_state, verify_type)
+            ON CONFLICT (terminal_sn, emp_code, punch_time) DO NOTHING
+            """;
+
+    private static final String CREATE_PARTITION_SQL = """
+            CREATE TABLE IF NOT EXISTS attendance_device_punch_%s PARTITION OF attendance_device_punch
+            FOR VALUES FROM ('%s') TO ('%s')
+            """;
+
+    /**
+     * @param received lines in the upload, including duplicates and rejected ones
+     * @param inserted punches that were not stored before
+     * @param rejected lines that could not be parsed or carry an implausible time
+     */
+    public record IngestResult(int received, int inserted, int rejected) {
+    }
+
+    private record Punch(String empCode, Instant punchTime, String punchState, String verifyType) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+    private final Timer batchTimer;
+    private final Counter insertedCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${attendance.ingest.terminals:}")
+    private List<String> terminals;
+
+    @Value("${attendance.ingest.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${attendance.ingest.max-age:90d}")
+    private Duration maxAge;
+
+    /** Comm key of every allowed terminal by serial number, empty if it has none. */
+    private Map<String, String> commKeys = Map.of();
+
+    public PunchIngestService(JdbcTemplate jdbcTemplate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.batchTimer = Timer.builder("attendance.ingest.batch")
+                .description("Time to store one batch of pushed punches")
+                .register(registry);
+        this.insertedCounter = Counter.builder("attendance.ingest.punches")
+                .description("Punches pushed by terminals")
+                .tag("result", "inserted")
+                .register(registry);
+        this.duplicateCounter = Counter.builder("attendance.ingest.punches")
+                .description("Punches pushed by terminals")
+                .tag("result", "duplicate")
+                .register(registry);
+        this.rejectedCounter = Counter.builder("attendance.ingest.punches")
+                .description("Punches pushed by terminals")
+                .tag("result", "rejected")
+                .register(registry);
+    }
+
+    @PostConstruct
+    private void init() {
+        Map<String, String> keys = new HashMap<>();
+        for (String terminal : terminals) {
+            int separator = terminal.indexOf(':');
+            String terminalSn = (separator < 0 ? terminal : terminal.substring(0, separator)).trim();
+            if (!terminalSn.isEmpty()) {
+                keys.put(terminalSn, separator < 0 ? "" : terminal.substring(separator + 1).trim());
+            }
+        }
+        commKeys = Map.copyOf(keys);
+        if (commKeys.isEmpty()) {
+            log.warn("attendance.ingest.terminals lists no terminal, every ADMS push will be refused");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createCurrentPartitions() {
+        YearMonth month = YearMonth.now(systemZoneId);
+        ensurePartitions(Set.of(month, month.plusMonths(1)));
+    }
+
+    /**
+     * Whether the terminal may push punches: it must be listed in {@code attendance.ingest.terminals}
+     * and present its comm key, if one is configured for it. Nothing is accepted while the list is
+     * empty.
+     */
+    public boolean isAuthorizedTerminal(String terminalSn, String commKey) {
+        String expected = terminalSn == null ? null : commKeys.get(terminalSn);
+        if (expected == null) {
+            return false;
+        }
+        return expected.isEmpty() || commKey != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), commKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores the punches of one {@code ATTLOG} upload.
+     */
+    public IngestResult ingestAttendanceLog(String terminalSn, String attendanceLog) {
+        Instant now = Instant.now();
+        Instant oldest = now.minus(maxAge);
+        Instant latest = now.plus(CLOCK_SKEW);
+
+        int received = 0;
+        int rejected = 0;
+        int inserted = 0;
+        List<Punch> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        try (BufferedReader reader = new BufferedReader(new StringReader(attendanceLog))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                received++;
+                Punch punch = parse(line);
+                if (punch == null || punch.punchTime().isBefore(oldest) || punch.punchTime().isAfter(latest)) {
+                    log.debug("Rejected punch line from terminal {}: {}", terminalSn, line);
+                    rejected++;
+                    continue;
+                }
+                batch.add(punch);
+                if (batch.size() == batchSize) {
+                    inserted += insert(terminalSn, batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            inserted += insert(terminalSn, batch);
+        }
+
+        insertedCounter.increment(inserted);
+        duplicateCounter.increment(received - rejected - inserted);
+        rejectedCounter.increment(rejected);
+        log.debug("Terminal {} pushed {} punches, {} new, {} rejected", terminalSn, received, inserted, rejected);
+        return new IngestResult(received, inserted, rejected);
+    }
+
+    private int insert(String terminalSn, List<Punch> punches) {
+        Set<YearMonth> months = new TreeSet<>();
+        int size = punches.size();
+        String[] empCodes = new String[size];
+        Timestamp[] punchTimes = new Timestamp[size];
+        String[] punchStates = new String[size];
+        String[] verifyTypes = new String[size];
+        for (int i = 0; i < size; i++) {
+            Punch punch = punches.get(i);
+            empCodes[i] = punch.empCode();
+            punchTimes[i] = Timestamp.from(punch.punchTime());
+            punchStates[i] = punch.punchState();
+            verifyTypes[i] = punch.verifyType();
+            months.add(YearMonth.from(punch.punchTime().atZone(systemZoneId)));
+        }
+        ensurePartitions(months);
+
+        return batchTimer.record(() -> jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            statement.setString(1, terminalSn);
+            statement.setArray(2, connection.createArrayOf("varchar", empCodes));
+            statement.setArray(3, connection.createArrayOf("timestamptz", punchTimes));
+            statement.setArray(4, connection.createArrayOf("varchar", punchStates));
+            statement.setArray(5, connection.createArrayOf("varchar", verifyTypes));
+            return statement;
+        }));
+    }
+
+    /**
+     * Creates the monthly partitions that do not exist yet. DDL runs outside of any transaction
+     * and is serialized within the instance; a partition created concurrently by another
+     * instance only fails this attempt, which the next batch repeats.
+     */
+    private void ensurePartitions(Set<YearMonth> months) {
+        for (YearMonth month : months) {
+            if (partitions.contains(month)) {
+                continue;
+            }
+            synchronized (partitions) {
+                if (partitions.contains(month)) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(month.format(PARTITION_SUFFIX),
+                            month.atDay(1).atStartOfDay(systemZoneId).toOffsetDateTime(),
+                            month.plusMonths(1).atDay(1).atStartOfDay(systemZoneId).toOffsetDateTime()));
+                    partitions.add(month);
+                    log.info("Ensured punch partition for {}", month);
+                } catch (DataAccessException e) {
+                    log.warn("Creating punch partition for {} failed: {}", month, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Punch parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length < 2 || fields[0].isBlank() || fields[0].length() > 20) {
+            return null;
+        }
+        try {
+            Instant punchTime = LocalDateTime.parse(fields[1].trim(), PUNCH_TIME).atZone(systemZoneId).toInstant();
+            return new Punch(fields[0].trim(), punchTime, field(fields, 2), field(fields, 3));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String field(String[] fields, int index) {
+        if (index >= fields.length || fields[index].isBlank()) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.length() > 5 ? value.substring(0, 5) : value;
+    }
+}
@@ -0,0 +1,210 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.event.PunchRecordedEvent;
+import com.otbs.attendance.model.AttendanceSyncState;
+import com.otbs.attendance.repository.AttendanceSummaryQueueRepository;
+import com.otbs.attendance.repository.AttendanceSyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Copies new punches from {@code iclock_transaction} and from the punches that terminals push
+ * to {@code attendance_device_punch} into the service-owned {@code attendance_punch} table, and
+ * publishes each of them as a {@link PunchRecordedEvent}.
+ * <p>
+ * The job tails the device table by id rather than by punch time, because terminals that were
+ * offline upload old punches late and those still receive fresh ids. Each batch is inserted,
+ * published and checkpointed in one transaction. If publishing fails the batch is rolled back
+ * and copied again on the next run, so events are delivered at least once. The days touched by
+ * the batch are queued for {@link AttendanceSummaryJob} in the same transaction. Punches of
+ * employees that cannot be mapped to the directory yet are stored without a DN; once a later run
+ * maps them, their days are queued as well.
+ * <p>
+ * Pushed punches are tailed by id as well, but only once they are older than
+ * {@code attendance.punch-sync.device-settle-ms}: concurrent uploads draw ids before they commit,
+ * so the newest ids may still have gaps that are about to be filled.
+ */
+@Component
+@Slf4j
+public class PunchSyncJob {
+
+    static final String WATERMARK = "punch-sync";
+    static final String DEVICE_WATERMARK = "device-punch-sync";
+
+    private static final String NEW_PUNCHES_SQL = """
+            SELECT t.id, e.emp_code, e.email, t.punch_time, t.punch_state, t.terminal_sn
+            FROM iclock_transaction t JOIN personnel_employee e ON e.id = t.emp_id
+            WHERE t.id > ?
+            ORDER BY t.id
+            LIMIT ?
+            """;
+
+    private static final String NEW_DEVICE_PUNCHES_SQL = """
+            SELECT p.id, p.emp_code, e.email, p.punch_time, p.punch_state, p.terminal_sn
+            FROM attendance_device_punch p LEFT JOIN personnel_employee e ON e.emp_code = p.emp_code
+            WHERE p.id > ? AND p.received_at < now() - make_interval(secs => ?)
+            ORDER BY p.id
+            LIMIT ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO attendance_punch (id, employee_id, emp_code, punch_time, punch_state, terminal_sn)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String MAP_SQL = """
+            UPDATE attendance_punch SET employee_id = ?
+            WHERE emp_code = ? AND employee_id IS NULL
+            RETURNING punch_time
+            """;
+
+    private static final String UNMAPPED_SQL = """
+            SELECT DISTINCT p.emp_code, e.email
+            FROM attendance_punch p JOIN personnel_employee e ON e.emp_code = p.emp_code
+            WHERE p.employee_id IS NULL
+            """;
+
+    private record DevicePunch(long id, String empCode, String email, Timestamp punchTime, String punchState,
+                               String terminalSn) {
+    }
+
+    private static final RowMapper<DevicePunch> DEVICE_PUNCH_MAPPER = (rs, rowNum) -> new DevicePunch(
+            rs.getLong("id"), rs.getString("emp_code"), rs.getString("email"), rs.getTimestamp("punch_time"),
+            rs.getString("punch_state"), rs.getString("terminal_sn"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceSyncStateRepository syncStateRepository;
+    private final AttendanceSummaryQueueRepository summaryQueue;
+    private final EmployeeDirectoryMapping directoryMapping;
+    private final RabbitTemplate rabbitTemplate;
+    private final ZoneId systemZoneId = ZoneId.systemDefault();
+
+    @Value("${attendance.punch-sync.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${attendance.punch-sync.device-settle-ms:5000}")
+    private long deviceSettleMs;
+
+    public PunchSyncJob(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        AttendanceSyncStateRepository syncStateRepository,
+                        AttendanceSummaryQueueRepository summaryQueue,
+                        EmployeeDirectoryMapping directoryMapping,
+                        RabbitTemplate rabbitTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.syncStateRepository = syncStateRepository;
+        this.summaryQueue = summaryQueue;
+        this.directoryMapping = directoryMapping;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.punch-sync.interval-ms:10000}")
+    public synchronized void synchronize() {
+        mapPendingEmployees();
+
+        int copied;
+        do {
+            copied = transactionTemplate.execute(status -> copyBatch(WATERMARK, lastId ->
+                    jdbcTemplate.query(NEW_PUNCHES_SQL, DEVICE_PUNCH_MAPPER, lastId, batchSize)));
+        } while (copied == batchSize);
+
+        do {
+            copied = transactionTemplate.execute(status -> copyBatch(DEVICE_WATERMARK, lastId ->
+                    jdbcTemplate.query(NEW_DEVICE_PUNCHES_SQL, DEVICE_PUNCH_MAPPER, lastId, deviceSettleMs / 1000.0, batchSize)));
+        } while (copied == batchSize);
+    }
+
+    private int copyBatch(String watermark, LongFunction<List<DevicePunch>> newPunches) {
+        AttendanceSyncState state = syncStateRepository.findById(watermark)
+                .orElseGet(() -> new AttendanceSyncState(watermark, 0L));
+
+        List<DevicePunch> punches = newPunches.apply(state.getLastId());
+        if (punches.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, String> emailsByEmpCode = new HashMap<>();
+        punches.forEach(punch -> emailsByEmpCode.putIfAbsent(punch.empCode(), punch.email()));
+        Map<String, String> dnsByEmpCode = directoryMapping.resolve(emailsByEmpCode);
+
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, punches, punches.size(), (ps, punch) -> {
+            ps.setLong(1, punch.id());
+            ps.setString(2, dnsByEmpCode.get(punch.empCode()));
+            ps.setString(3, punch.empCode());
+            ps.setTimestamp(4, punch.punchTime());
+            ps.setString(5, punch.punchState());
+            ps.setString(6, punch.terminalSn());
+        })[0];
+
+        List<PunchRecordedEvent> events = new ArrayList<>();
+        Map<String, Set<LocalDate>> touchedDays = new HashMap<>();
+        for (int i = 0; i < punches.size(); i++) {
+            // Punches that were already stored, e.g. after the watermark was reset, are not announced again.
+            if (inserted[i] == 0) {
+                continue;
+            }
+            DevicePunch punch = punches.get(i);
+            String employeeId = dnsByEmpCode.get(punch.empCode());
+            events.add(new PunchRecordedEvent(punch.id(), employeeId, punch.empCode(),
+                    punch.punchTime().toInstant(), punch.punchState(), punch.terminalSn()));
+            if (employeeId != null) {
+                touchedDays.computeIfAbsent(employeeId, dn -> new HashSet<>()).add(dayOf(punch.punchTime()));
+            }
+        }
+        summaryQueue.queue(touchedDays);
+        events.forEach(event -> rabbitTemplate.convertAndSend(PunchRecordedEvent.EXCHANGE, PunchRecordedEvent.ROUTING_KEY, event));
+
+        state.setLastId(punches.getLast().id());
+        syncStateRepository.save(state);
+        log.debug("Copied {} punches up to {} id {}, {} unmapped", punches.size(), watermark, state.getLastId(),
+                punches.stream().filter(punch -> !dnsByEmpCode.containsKey(punch.empCode())).count());
+        return punches.size();
+    }
+
+    /**
+     * Fills in the DN of stored punches whose employee could not be mapped when they were copied,
+     * and queues their days for summarising in the same transaction.
+     */
+    private void mapPendingEmployees() {
+        Map<String, String> emailsByEmpCode = new HashMap<>();
+        jdbcTemplate.query(UNMAPPED_SQL, rs -> {
+            emailsByEmpCode.put(rs.getString("emp_code"), rs.getString("email"));
+        });
+        if (emailsByEmpCode.isEmpty()) {
+            return;
+        }
+        directoryMapping.resolve(emailsByEmpCode).forEach((empCode, dn) -> transactionTemplate.executeWithoutResult(status -> {
+            List<Timestamp> punchTimes = jdbcTemplate.queryForList(MAP_SQL, Timestamp.class, dn, empCode);
+            Set<LocalDate> days = new HashSet<>();
+            punchTimes.forEach(punchTime -> days.add(dayOf(punchTime)));
+            summaryQueue.queue(Map.of(dn, days));
+            log.info("Mapped {} stored punches of employee {} to {}, {} days queued for summary",
+                    punchTimes.size(), empCode, dn, days.size());
+        }));
+    }
+
+    private LocalDate dayOf(Timestamp punchTime) {
+        return punchTime.toInstant().atZone(systemZoneId).toLocalDate();
+    }
+}
@@ -0,0 +1,230 @@
+package com.otbs.attendance.util;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.model.EStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns one day of punches into a status, worked duration and single-day issues. Issues that
+ * depend on earlier days are added by {@link com.otbs.attendance.rule.AttendanceRuleEngine}.
+ * <p>
+ * The arithmetic runs on punch times encoded as seconds of the day in a plain {@code int} array,
+ * so a day costs no {@link Duration} or {@link LocalTime} allocations beyond the result itself.
+ * Issues are collected as bit flags and mapped to one of a fixed set of immutable sets. Seconds
+ * rather than minutes keep the results identical to comparing {@link LocalTime}s, since device
+ * punches carry second precision.
+ */
+@Component
+public class AttendanceCalculator {
+
+    public static final LocalTime WORK_START_TIME = LocalTime.parse("08:30");
+    public static final LocalTime WORK_END_TIME = LocalTime.parse("17:30");
+    private static final LocalTime BREAK_START_TIME = LocalTime.parse("12:30");
+    private static final LocalTime BREAK_END_TIME = LocalTime.parse("14:00");
+    private static final Duration MINIMUM_REQUIRED_WORK_DURATION = Duration.ofMinutes(450); // 7.5 hours
+
+    private static final Duration LATE_ARRIVAL_THRESHOLD = Duration.ofMinutes(15);
+    private static final Duration EARLY_LEAVE_THRESHOLD = Duration.ofMinutes(30);
+    private static final Duration UNUSUAL_BREAK_THRESHOLD = Duration.ofMinutes(120); // 2 hours
+
+    public static final String ARRIVED_VERY_LATE = "Arrived very late";
+    public static final String LEFT_VERY_EARLY = "Left very early";
+    public static final String WORKED_TOO_LITTLE = "Worked fewer hours than required";
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int WORK_START = WORK_START_TIME.toSecondOfDay();
+    private static final int BREAK_START = BREAK_START_TIME.toSecondOfDay();
+    private static final int BREAK_END = BREAK_END_TIME.toSecondOfDay();
+    private static final int VERY_LATE_AFTER = WORK_START_TIME.plus(LATE_ARRIVAL_THRESHOLD).toSecondOfDay();
+    private static final int EARLY_LEAVE_BEFORE = WORK_END_TIME.minus(EARLY_LEAVE_THRESHOLD).toSecondOfDay();
+    private static final int HALF_DAY_BELOW = (int) Duration.ofHours(4).toSeconds();
+    private static final int MINIMUM_REQUIRED_WORK = (int) MINIMUM_REQUIRED_WORK_DURATION.toSeconds();
+    private static final int UNUSUAL_BREAK = (int) UNUSUAL_BREAK_THRESHOLD.toSeconds();
+
+    private static final String[] ISSUES = {
+            ARRIVED_VERY_LATE,
+            LEFT_VERY_EARLY,
+            "Missed last punch",
+            WORKED_TOO_LITTLE,
+            "Unusually long break"
+    };
+    private static final int VERY_LATE = 1;
+    private static final int LEFT_EARLY = 1 << 1;
+    private static final int MISSED_LAST_PUNCH = 1 << 2;
+    private static final int SHORT_DAY = 1 << 3;
+    private static final int LONG_BREAK = 1 << 4;
+
+    /** Every combination of issues, indexed by its flags. */
+    private static final List<Set<String>> ISSUE_SETS = buildIssueSets();
+
+    private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[16]);
+
+    /**
+     * @param punchTimes the day's punches, in chronological order
+     */
+    public DailyAttendance calculate(List<LocalTime> punchTimes) {
+        int count = punchTimes.size();
+        int[] secondsOfDay = scratch(count);
+        for (int i = 0; i < count; i++) {
+            secondsOfDay[i] = punchTimes.get(i).toSecondOfDay();
+        }
+        return toDailyAttendance(secondsOfDay, count, List.copyOf(punchTimes));
+    }
+
+    /**
+     * Same as {@link #calculate(List)} for punches already encoded as seconds of the day.
+     * Only the first {@code count} entries of {@code secondsOfDay} are read, so callers can keep
+     * reusing one buffer across days.
+     */
+    public DailyAttendance calculate(int[] secondsOfDay, int count) {
+        LocalTime[] punchTimes = new LocalTime[count];
+        for (int i = 0; i < count; i++) {
+            punchTimes[i] = LocalTime.ofSecondOfDay(secondsOfDay[i]);
+        }
+        return toDailyAttendance(secondsOfDay, count, List.of(punchTimes));
+    }
+
+    /**
+     * Whether a first punch at this second of the day counts as arriving very late.
+     */
+    public static boolean arrivedVeryLate(int firstSecondOfDay) {
+        return firstSecondOfDay > VERY_LATE_AFTER;
+    }
+
+    /**
+     * Whether a last punch at this second of the day counts as leaving very early.
+     */
+    public static boolean leftVeryEarly(int lastSecondOfDay) {
+        return lastSecondOfDay < EARLY_LEAVE_BEFORE;
+    }
+
+    public static boolean isLate(EStatus status, Set<String> issues) {
+        return status == EStatus.LATE || issues.contains(ARRIVED_VERY_LATE);
+    }
+
+    public String formatDuration(Duration duration) {
+        long hours = duration.toHours();
+        int minutes = duration.toMinutesPart();
+        return hours + (minutes < 10 ? ":0" : ":") + minutes;
+    }
+
+    /**
+     * Seconds since the epoch on the wall clock of {@code zone}: the local day is
+     * {@code floorDiv(result, 86400)} and the second of that day {@code floorMod(result, 86400)}.
+     * Avoids building a {@link java.time.ZonedDateTime} per punch.
+     */
+    public static long toLocalEpochSecond(long epochSecond, ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        int offset = rules.isFixedOffset()
+                ? rules.getOffset(Instant.EPOCH).getTotalSeconds()
+                : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        return epochSecond + offset;
+    }
+
+    public static int secondOfDay(long localEpochSecond) {
+        return (int) Math.floorMod(localEpochSecond, SECONDS_PER_DAY);
+    }
+
+    private DailyAttendance toDailyAttendance(int[] secondsOfDay, int count, List<LocalTime> punchTimes) {
+        int first = secondsOfDay[0];
+        int last = secondsOfDay[count - 1];
+        int workSeconds = calculateTotalWorkSeconds(secondsOfDay, count);
+        EStatus status = determineStatus(workSeconds, first);
+        int issues = detectAttendanceIssues(secondsOfDay, count, first, last, workSeconds, status);
+
+        return new DailyAttendance(status, punchTimes.get(0), punchTimes.get(count - 1), Duration.ofSeconds(workSeconds),
+                punchTimes, ISSUE_SETS.get(issues));
+    }
+
+    private int detectAttendanceIssues(int[] secondsOfDay, int count, int first, int last, int workSeconds, EStatus status) {
+        int issues = 0;
+
+        if (arrivedVeryLate(first)) {
+            issues |= VERY_LATE;
+        }
+
+        if (count > 1 && leftVeryEarly(last)) {
+            issues |= LEFT_EARLY;
+        }
+
+        if (count % 2 != 0) {
+            issues |= MISSED_LAST_PUNCH;
+        }
+
+        if (status != EStatus.HALF_DAY && workSeconds < MINIMUM_REQUIRED_WORK) {
+            issues |= SHORT_DAY;
+        }
+
+        if (calculateActualBreakSeconds(secondsOfDay, count) > UNUSUAL_BREAK) {
+            issues |= LONG_BREAK;
+        }
+
+        return issues;
+    }
+
+    private EStatus determineStatus(int workSeconds, int first) {
+        if (workSeconds < HALF_DAY_BELOW || first > BREAK_START) {
+            return EStatus.HALF_DAY;
+        } else if (first > WORK_START) {
+            return EStatus.LATE;
+        } else {
+            return EStatus.PRESENT;
+        }
+    }
+
+    private int calculateActualBreakSeconds(int[] secondsOfDay, int count) {
+        if (count <= 2) return 0;
+
+        int totalBreak = 0;
+        for (int i = 1; i < count - 1; i += 2) {
+            totalBreak += secondsOfDay[i + 1] - secondsOfDay[i];
+        }
+        return totalBreak;
+    }
+
+    private int calculateTotalWorkSeconds(int[] secondsOfDay, int count) {
+        int total = 0;
+        for (int i = 0; i + 1 < count; i += 2) {
+            int punchIn = secondsOfDay[i];
+            int punchOut = secondsOfDay[i + 1];
+            int effectiveBreakStart = Math.max(punchIn, BREAK_START);
+            int effectiveBreakEnd = Math.min(punchOut, BREAK_END);
+            int breakOverlap = effectiveBreakEnd > effectiveBreakStart ? effectiveBreakEnd - effectiveBreakStart : 0;
+            total += punchOut - punchIn - breakOverlap;
+        }
+        return total;
+    }
+
+    private int[] scratch(int count) {
+        int[] buffer = scratch.get();
+        if (buffer.length < count) {
+            buffer = Arrays.copyOf(buffer, Math.max(count, buffer.length * 2));
+            scratch.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static List<Set<String>> buildIssueSets() {
+        List<Set<String>> sets = new ArrayList<>(1 << ISSUES.length);
+        for (int flags = 0; flags < 1 << ISSUES.length; flags++) {
+            List<String> issues = new ArrayList<>();
+            for (int bit = 0; bit < ISSUES.length; bit++) {
+                if ((flags & 1 << bit) != 0) {
+                    issues.add(ISSUES[bit]);
+                }
+            }
+            sets.add(Set.copyOf(issues));
+        }
+        return List.copyOf(sets);
+    }
+}
@@ -0,0 +1,35 @@
+package com.otbs.attendance.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Converter
+public class IssueCountsConverter implements AttributeConverter<Map<String, Integer>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Integer> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return null;
+        }
+        return new TreeMap<>(counts).entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("|"));
+    }
+
+    @Override
+    public Map<String, Integer> convertToEntityAttribute(String value) {
+        Map<String, Integer> counts = new TreeMap<>();
+        if (value == null || value.isEmpty()) {
+            return counts;
+        }
+        for (String pair : value.split("\\|")) {
+            int separator = pair.lastIndexOf('=');
+            counts.put(pair.substring(0, separator), Integer.parseInt(pair.substring(separator + 1)));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,29 @@
+package com.otbs.attendance.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Converter
+public class LocalTimeListConverter implements AttributeConverter<List<LocalTime>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<LocalTime> times) {
+        if (times == null || times.isEmpty()) {
+            return null;
+        }
+        return times.stream().map(LocalTime::toString).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<LocalTime> convertToEntityAttribute(String value) {
+        if (value == null || value.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(LocalTime::parse).toList();
+    }
+}
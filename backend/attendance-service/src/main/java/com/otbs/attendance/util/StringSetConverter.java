@@ -0,0 +1,31 @@
+package com.otbs.attendance.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Converter
+public class StringSetConverter implements AttributeConverter<Set<String>, String> {
+
+    private static final String SEPARATOR = "|";
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return String.join(SEPARATOR, values);
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String value) {
+        if (value == null || value.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split("\\|")).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
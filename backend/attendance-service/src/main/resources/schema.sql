@@ -0,0 +1,125 @@
+-- Tables owned by attendance-service. Hibernate DDL is disabled because the service also
+-- reads the BioTime schema, so every statement here must be idempotent.
+
+CREATE TABLE IF NOT EXISTS attendance_sync_state (
+    name    VARCHAR(64) PRIMARY KEY,
+    last_id BIGINT      NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS attendance_daily_summary (
+    employee_id    VARCHAR(255) NOT NULL,
+    day            DATE         NOT NULL,
+    status         VARCHAR(20)  NOT NULL,
+    first_punch    TIME,
+    last_punch     TIME,
+    worked_minutes INTEGER      NOT NULL DEFAULT 0,
+    punch_times    TEXT,
+    issues         TEXT,
+    updated_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (employee_id, day)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_summary_day ON attendance_daily_summary (day);
+
+-- Punches copied from iclock_transaction, keyed by directory DN. The id is the device id, so
+-- re-copying a punch is a no-op; employee_id stays NULL until the employee can be mapped.
+CREATE TABLE IF NOT EXISTS attendance_punch (
+    id          BIGINT       PRIMARY KEY,
+    employee_id VARCHAR(255),
+    emp_code    VARCHAR(20)  NOT NULL,
+    punch_time  TIMESTAMPTZ  NOT NULL,
+    punch_state VARCHAR(5),
+    terminal_sn VARCHAR(50),
+    synced_at   TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_punch_employee_time ON attendance_punch (employee_id, punch_time);
+CREATE INDEX IF NOT EXISTS idx_attendance_punch_time ON attendance_punch (punch_time);
+CREATE INDEX IF NOT EXISTS idx_attendance_punch_unmapped ON attendance_punch (emp_code) WHERE employee_id IS NULL;
+
+-- (employee, day) pairs whose summary must be recomputed, queued by PunchSyncJob in the same
+-- transaction as the punches that touch them, including punches whose employee is only mapped
+-- later, and consumed by AttendanceSummaryJob. Queuing a day again bumps queued_at, so the job
+-- only removes the entries it has actually summarised.
+CREATE TABLE IF NOT EXISTS attendance_summary_pending (
+    employee_id VARCHAR(255) NOT NULL,
+    day         DATE         NOT NULL,
+    queued_at   TIMESTAMPTZ  NOT NULL DEFAULT clock_timestamp(),
+    PRIMARY KEY (employee_id, day)
+);
+
+-- Attendance rollups, recomputed for the keys touched by new punches, leave changes and the
+-- nightly close. Counts are per EStatus; issue_counts holds "issue=count" pairs joined by '|'.
+CREATE TABLE IF NOT EXISTS attendance_department_day (
+    department         VARCHAR(255) NOT NULL,
+    day                DATE         NOT NULL,
+    headcount          INTEGER      NOT NULL DEFAULT 0,
+    present_count      INTEGER      NOT NULL DEFAULT 0,
+    late_count         INTEGER      NOT NULL DEFAULT 0,
+    half_day_count     INTEGER      NOT NULL DEFAULT 0,
+    absent_count       INTEGER      NOT NULL DEFAULT 0,
+    awaiting_count     INTEGER      NOT NULL DEFAULT 0,
+    on_leave_count     INTEGER      NOT NULL DEFAULT 0,
+    weekend_count      INTEGER      NOT NULL DEFAULT 0,
+    worked_minutes     BIGINT       NOT NULL DEFAULT 0,
+    issue_counts       TEXT,
+    updated_at         TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (department, day)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_department_day_day ON attendance_department_day (day);
+
+CREATE TABLE IF NOT EXISTS attendance_employee_month (
+    employee_id        VARCHAR(255) NOT NULL,
+    month              VARCHAR(7)   NOT NULL,
+    department         VARCHAR(255),
+    present_count      INTEGER      NOT NULL DEFAULT 0,
+    late_count         INTEGER      NOT NULL DEFAULT 0,
+    half_day_count     INTEGER      NOT NULL DEFAULT 0,
+    absent_count       INTEGER      NOT NULL DEFAULT 0,
+    awaiting_count     INTEGER      NOT NULL DEFAULT 0,
+    on_leave_count     INTEGER      NOT NULL DEFAULT 0,
+    weekend_count      INTEGER      NOT NULL DEFAULT 0,
+    worked_minutes     BIGINT       NOT NULL DEFAULT 0,
+    issue_counts       TEXT,
+    updated_at         TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (employee_id, month)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_employee_month_month_department ON attendance_employee_month (month, department);
+
+-- Days off per the working calendar that are public holidays rather than weekends.
+ALTER TABLE attendance_department_day ADD COLUMN IF NOT EXISTS holiday_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE attendance_employee_month ADD COLUMN IF NOT EXISTS holiday_count INTEGER NOT NULL DEFAULT 0;
+
+-- Real-time attendance alerts already raised, one per employee, day and type, so that replayed
+-- punches never alert twice. published_at stays NULL until the alert reached the broker; the
+-- alert sweep retries those.
+CREATE TABLE IF NOT EXISTS attendance_alert (
+    employee_id  VARCHAR(255) NOT NULL,
+    day          DATE         NOT NULL,
+    type         VARCHAR(30)  NOT NULL,
+    raised_at    TIMESTAMP    NOT NULL DEFAULT now(),
+    published_at TIMESTAMP,
+    PRIMARY KEY (employee_id, day, type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_alert_unpublished ON attendance_alert (day) WHERE published_at IS NULL;
+
+-- Punches pushed by terminals to the ADMS endpoint, partitioned by month of punch_time. Monthly
+-- partitions are created by PunchIngestService as punches for them arrive. Ids come from a
+-- sequence that starts far above BioTime's ids, so that both sources share attendance_punch.
+CREATE SEQUENCE IF NOT EXISTS attendance_device_punch_id_seq START WITH 1000000000000000;
+
+CREATE TABLE IF NOT EXISTS attendance_device_punch (
+    id          BIGINT       NOT NULL DEFAULT nextval('attendance_device_punch_id_seq'),
+    terminal_sn VARCHAR(50)  NOT NULL,
+    emp_code    VARCHAR(20)  NOT NULL,
+    punch_time  TIMESTAMPTZ  NOT NULL,
+    punch_state VARCHAR(5),
+    verify_type VARCHAR(5),
+    received_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    UNIQUE (terminal_sn, emp_code, punch_time)
+) PARTITION BY RANGE (punch_time);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_device_punch_id ON attendance_device_punch (id);
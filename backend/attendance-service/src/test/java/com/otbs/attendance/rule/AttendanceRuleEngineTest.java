@@ -0,0 +1,141 @@
+package com.otbs.attendance.rule;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.model.EStatus;
+import com.otbs.attendance.util.AttendanceCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttendanceRuleEngineTest {
+
+    private static final String FREQUENT_TARDINESS = "Frequent tardiness";
+    private static final String REPEATED_EARLY_LEAVE = "Repeated early leave";
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 5);
+
+    private final AttendanceRuleEngine engine = new AttendanceRuleEngine(List.of(
+            new WindowRule(FREQUENT_TARDINESS, 7, 3, AttendanceCalculator::isLate),
+            new WindowRule(REPEATED_EARLY_LEAVE, 14, 2,
+                    (status, issues) -> issues.contains(AttendanceCalculator.LEFT_VERY_EARLY))));
+
+    @Test
+    void usesTheLongestWindow() {
+        assertThat(engine.maxWindowDays()).isEqualTo(14);
+    }
+
+    @Test
+    void flagsTheDayThatReachesTheThreshold() {
+        AttendanceRuleEngine.State state = engine.newState();
+
+        assertThat(engine.evaluate(state, MONDAY, late()).issues()).doesNotContain(FREQUENT_TARDINESS);
+        assertThat(engine.evaluate(state, MONDAY.plusDays(2), late()).issues()).doesNotContain(FREQUENT_TARDINESS);
+        assertThat(engine.evaluate(state, MONDAY.plusDays(4), late()).issues()).contains(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void ignoresDaysThatLeftTheWindow() {
+        AttendanceRuleEngine.State state = engine.newState();
+        engine.evaluate(state, MONDAY, late());
+        engine.evaluate(state, MONDAY.plusDays(3), late());
+
+        assertThat(engine.evaluate(state, MONDAY.plusDays(7), late()).issues()).doesNotContain(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void doesNotCountDaysThatDoNotMatch() {
+        AttendanceRuleEngine.State state = engine.newState();
+        engine.evaluate(state, MONDAY, late());
+        engine.evaluate(state, MONDAY.plusDays(1), onTime());
+
+        assertThat(engine.evaluate(state, MONDAY.plusDays(2), late()).issues()).doesNotContain(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void keepsTheSingleDayResultWhenNoRuleFires() {
+        DailyAttendance attendance = late();
+
+        assertThat(engine.evaluate(engine.newState(), MONDAY, attendance)).isSameAs(attendance);
+    }
+
+    @Test
+    void evaluatesEachRuleOnItsOwnWindow() {
+        AttendanceRuleEngine.State state = engine.newState();
+        engine.evaluate(state, MONDAY, leftEarly());
+
+        assertThat(engine.evaluate(state, MONDAY.plusDays(10), leftEarly()).issues())
+                .contains(REPEATED_EARLY_LEAVE, AttendanceCalculator.LEFT_VERY_EARLY)
+                .doesNotContain(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void evaluatesAHistoryLikeOneDayAtATime() {
+        TreeMap<LocalDate, DailyAttendance> history = new TreeMap<>();
+        for (int day = 0; day < 21; day++) {
+            history.put(MONDAY.plusDays(day), day % 3 == 0 ? onTime() : day % 3 == 1 ? late() : leftEarly());
+        }
+
+        Map<LocalDate, DailyAttendance> batch = engine.evaluate(engine.newState(), history);
+
+        AttendanceRuleEngine.State state = engine.newState();
+        history.forEach((day, attendance) -> assertThat(batch.get(day)).isEqualTo(engine.evaluate(state, day, attendance)));
+    }
+
+    @Test
+    void countsRecordedDays() {
+        AttendanceRuleEngine.State state = engine.newState();
+        state.record(MONDAY, EStatus.LATE, Set.of());
+        state.record(MONDAY.plusDays(1), EStatus.PRESENT, Set.of(AttendanceCalculator.ARRIVED_VERY_LATE));
+
+        assertThat(engine.evaluate(state, MONDAY.plusDays(2), late()).issues()).contains(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void reevaluationDropsWindowIssuesThatNoLongerHold() {
+        Set<String> issues = engine.reevaluate(engine.newState(), MONDAY, EStatus.LATE,
+                Set.of(FREQUENT_TARDINESS, AttendanceCalculator.WORKED_TOO_LITTLE));
+
+        assertThat(issues).containsExactly(AttendanceCalculator.WORKED_TOO_LITTLE);
+    }
+
+    @Test
+    void reevaluationAddsWindowIssuesThatHoldNow() {
+        AttendanceRuleEngine.State state = engine.newState();
+        state.record(MONDAY, EStatus.LATE, Set.of());
+        state.record(MONDAY.plusDays(1), EStatus.LATE, Set.of());
+
+        assertThat(engine.reevaluate(state, MONDAY.plusDays(2), EStatus.LATE, Set.of())).containsExactly(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void rejectsRulesWithoutAWindow() {
+        assertThatThrownBy(() -> new WindowRule("Never", 0, 1, (status, issues) -> true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DailyAttendance late() {
+        return attendance(EStatus.LATE, LocalTime.of(8, 40), LocalTime.of(17, 30), Set.of());
+    }
+
+    private static DailyAttendance onTime() {
+        return attendance(EStatus.PRESENT, LocalTime.of(8, 20), LocalTime.of(17, 30), Set.of());
+    }
+
+    private static DailyAttendance leftEarly() {
+        return attendance(EStatus.PRESENT, LocalTime.of(8, 20), LocalTime.of(16, 0),
+                Set.of(AttendanceCalculator.LEFT_VERY_EARLY));
+    }
+
+    private static DailyAttendance attendance(EStatus status, LocalTime first, LocalTime last, Set<String> issues) {
+        Duration worked = Duration.between(first, last).minusMinutes(90);
+        return new DailyAttendance(status, first, last, worked, List.of(first, last), issues);
+    }
+}
@@ -0,0 +1,64 @@
+package com.otbs.attendance.rule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingDayCounterTest {
+
+    @Test
+    void countsMarkedDaysWithinTheTrailingWindow() {
+        SlidingDayCounter counter = new SlidingDayCounter(7);
+        counter.mark(1);
+        counter.mark(3);
+        counter.mark(5);
+
+        assertThat(counter.countBefore(7)).isEqualTo(3);
+        assertThat(counter.countBefore(8)).isEqualTo(2);
+        assertThat(counter.countBefore(11)).isEqualTo(1);
+        assertThat(counter.countBefore(12)).isZero();
+    }
+
+    @Test
+    void countsADayOnlyOnce() {
+        SlidingDayCounter counter = new SlidingDayCounter(7);
+        counter.mark(1);
+        counter.mark(1);
+        counter.mark(2);
+        counter.mark(2);
+
+        assertThat(counter.countBefore(3)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsOnlyTheDaysOfTheWindowWhenEveryDayIsMarked() {
+        SlidingDayCounter counter = new SlidingDayCounter(3);
+        for (long day = 1; day <= 10; day++) {
+            counter.mark(day);
+        }
+
+        assertThat(counter.countBefore(11)).isEqualTo(2);
+        counter.mark(11);
+        assertThat(counter.countBefore(12)).isEqualTo(2);
+    }
+
+    @Test
+    void startsOverAfterAGapLongerThanTheWindow() {
+        SlidingDayCounter counter = new SlidingDayCounter(3);
+        counter.mark(1);
+        counter.mark(2);
+        counter.mark(3);
+
+        counter.mark(100);
+
+        assertThat(counter.countBefore(101)).isEqualTo(1);
+    }
+
+    @Test
+    void countsOnlyTheDayItselfWithAOneDayWindow() {
+        SlidingDayCounter counter = new SlidingDayCounter(1);
+        counter.mark(1);
+
+        assertThat(counter.countBefore(2)).isZero();
+    }
+}
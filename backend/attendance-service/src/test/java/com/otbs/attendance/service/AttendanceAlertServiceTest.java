@@ -0,0 +1,206 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.event.PunchRecordedEvent;
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers
+class AttendanceAlertServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 5);
+    private static final UserResponse ALICE = user("CN=alice,OU=IT,DC=otbs,DC=local", "Alice", "Employee");
+    private static final UserResponse BOB = user("CN=bob,OU=IT,DC=otbs,DC=local", "Bob", "Employee");
+    private static final UserResponse MANAGER = user("CN=carol,OU=IT,DC=otbs,DC=local", "Carol", "Manager");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final UserDirectoryReplica userDirectory = mock(UserDirectoryReplica.class);
+    private final WorkingCalendar workingCalendar = mock(WorkingCalendar.class);
+    private final List<Map<String, Object>> published = new ArrayList<>();
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE attendance_punch, attendance_alert");
+        when(workingCalendar.isWorkingDay(any(LocalDate.class))).thenReturn(true);
+        when(userDirectory.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(Map.of(
+                ALICE.id(), ALICE, BOB.id(), BOB, MANAGER.id(), MANAGER).get(invocation.<String>getArgument(0))));
+        when(userDirectory.findByRole("Manager")).thenReturn(List.of(MANAGER));
+        doAnswer(invocation -> published.add(invocation.getArgument(2)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void raisesALateArrivalOnTheFirstLatePunch() {
+        AttendanceAlertService service = service(LocalTime.of(10, 0));
+
+        service.onPunchRecorded(punch(1, ALICE, "09:10"));
+
+        assertThat(published).singleElement().satisfies(message -> {
+            assertThat(message).containsEntry("recipient", MANAGER.id()).containsEntry("subject", "Late Arrival");
+            assertThat((String) message.get("message")).contains("Alice Alice", "09:10");
+        });
+        assertThat(unpublishedAlerts()).isZero();
+    }
+
+    @Test
+    void raisesAnEarlyDepartureOnceTheThresholdHasPassed() {
+        AttendanceAlertService service = service(LocalTime.of(16, 0));
+        service.onPunchRecorded(punch(1, ALICE, "08:00"));
+        service.onPunchRecorded(punch(2, ALICE, "15:00"));
+
+        service.sweep();
+        assertThat(published).isEmpty();
+
+        setTime(service, LocalTime.of(17, 30));
+        service.sweep();
+        service.sweep();
+
+        assertThat(published).singleElement().satisfies(message -> {
+            assertThat(message).containsEntry("subject", "Early Departure");
+            assertThat((String) message.get("message")).contains("15:00");
+        });
+    }
+
+    @Test
+    void raisesAMissedPunchForEveryEmployeeWithAnOddCount() {
+        AttendanceAlertService service = service(LocalTime.of(19, 0));
+        service.onPunchRecorded(punch(1, BOB, "08:00"));
+        service.onPunchRecorded(punch(2, BOB, "17:30"));
+        // Never seen by this instance: only in attendance_punch.
+        punch(3, ALICE, "08:00");
+
+        service.sweep();
+        assertThat(published).isEmpty();
+
+        setTime(service, LocalTime.of(20, 30));
+        service.sweep();
+        service.sweep();
+
+        assertThat(published).singleElement().satisfies(message -> {
+            assertThat(message).containsEntry("subject", "Missed Punch");
+            assertThat((String) message.get("message")).startsWith("Alice Alice");
+        });
+    }
+
+    @Test
+    void doesNotAlertTwiceForReplayedPunchesOrAfterARestart() {
+        AttendanceAlertService service = service(LocalTime.of(13, 0));
+        PunchRecordedEvent late = punch(1, ALICE, "09:10");
+
+        service.onPunchRecorded(late);
+        service.onPunchRecorded(late);
+        service.onPunchRecorded(punch(2, ALICE, "12:00"));
+        AttendanceAlertService restarted = service(LocalTime.of(13, 0));
+        restarted.onPunchRecorded(late);
+        restarted.onPunchRecorded(punch(3, ALICE, "12:45"));
+        restarted.sweep();
+
+        assertThat(published).singleElement().satisfies(message ->
+                assertThat(message).containsEntry("subject", "Late Arrival"));
+    }
+
+    @Test
+    void retriesAnAlertWhosePublicationFailed() {
+        AttendanceAlertService service = service(LocalTime.of(10, 0));
+        doThrow(new AmqpException("broker unavailable")).doAnswer(invocation -> published.add(invocation.getArgument(2)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        service.onPunchRecorded(punch(1, ALICE, "09:10"));
+        service.onPunchRecorded(punch(2, ALICE, "09:40"));
+        assertThat(published).isEmpty();
+        assertThat(unpublishedAlerts()).isOne();
+
+        service.sweep();
+        service.sweep();
+
+        assertThat(published).singleElement().satisfies(message ->
+                assertThat(message).containsEntry("subject", "Late Arrival"));
+        assertThat(unpublishedAlerts()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AttendanceAlertService service(LocalTime now) {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        AttendanceAlertService service = new AttendanceAlertService(jdbcTemplate, rabbitTemplate, userDirectory,
+                workingCalendar, 100, Duration.ZERO, meterRegistry);
+        ReflectionTestUtils.setField(service, "notificationExchange", "notification.exchange");
+        ReflectionTestUtils.setField(service, "notificationRoutingKey", "notification.routing-key");
+        ReflectionTestUtils.setField(service, "missedPunchCheck", "20:00");
+        setTime(service, now);
+        return service;
+    }
+
+    private static void setTime(AttendanceAlertService service, LocalTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        ReflectionTestUtils.setField(service, "clock", Clock.fixed(MONDAY.atTime(now).atZone(zone).toInstant(), zone));
+    }
+
+    /**
+     * Stores the punch as the punch sync does, and returns the event it publishes for it.
+     */
+    private static PunchRecordedEvent punch(long id, UserResponse employee, String time) {
+        Instant punchTime = MONDAY.atTime(LocalTime.parse(time)).atZone(ZoneId.systemDefault()).toInstant();
+        jdbcTemplate.update("INSERT INTO attendance_punch (id, employee_id, emp_code, punch_time) VALUES (?, ?, ?, ?)",
+                id, employee.id(), "100" + id, Timestamp.from(punchTime));
+        return new PunchRecordedEvent(id, employee.id(), "100" + id, punchTime, "0", "CJDE193560303");
+    }
+
+    private static int unpublishedAlerts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_alert WHERE published_at IS NULL", Integer.class);
+    }
+
+    private static UserResponse user(String dn, String name, String role) {
+        return new UserResponse(dn, name.toLowerCase(), name, name, name.toLowerCase() + "@otbs.local", "IT", role,
+                null, null, null, null, null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.otbs.attendance.service;
+
+import com.otbs.attendance.dto.PunchRecord;
+import com.otbs.attendance.model.AttendanceDailySummary;
+import com.otbs.attendance.model.EStatus;
+import com.otbs.attendance.repository.AttendanceDailySummaryRepository;
+import com.otbs.attendance.repository.AttendancePunchRepository;
+import com.otbs.attendance.repository.AttendanceSummaryQueueRepository;
+import com.otbs.attendance.repository.AttendanceSyncStateRepository;
+import com.otbs.attendance.rule.AttendanceRuleEngine;
+import com.otbs.attendance.rule.WindowRule;
+import com.otbs.attendance.util.AttendanceCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttendanceSummaryJobTest {
+
+    private static final String EMPLOYEE = "CN=jdoe,OU=IT,DC=otbs,DC=local";
+    private static final String FREQUENT_TARDINESS = "Frequent tardiness";
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 5);
+
+    private final AttendancePunchRepository punchRepository = mock(AttendancePunchRepository.class);
+    private final AttendanceDailySummaryRepository summaryRepository = mock(AttendanceDailySummaryRepository.class);
+    private final List<AttendanceDailySummary> stored = new ArrayList<>();
+    private final List<PunchRecord> punches = new ArrayList<>();
+    private AttendanceSummaryJob job;
+
+    @BeforeEach
+    void setUp() {
+        AttendanceRuleEngine ruleEngine = new AttendanceRuleEngine(List.of(
+                new WindowRule(FREQUENT_TARDINESS, 7, 3, AttendanceCalculator::isLate)));
+        job = new AttendanceSummaryJob(punchRepository, mock(AttendanceSummaryQueueRepository.class), summaryRepository,
+                mock(AttendanceSyncStateRepository.class), new AttendanceCalculator(), ruleEngine,
+                mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class));
+
+        when(punchRepository.findByEmployeeIds(anyCollection(), any(), any())).thenAnswer(invocation -> punches);
+        when(summaryRepository.findByEmployeeIdAndDayBetweenOrderByDay(any(), any(), any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(1);
+            LocalDate to = invocation.getArgument(2);
+            return stored.stream().filter(summary -> !summary.getDay().isBefore(from) && !summary.getDay().isAfter(to)).toList();
+        });
+        when(summaryRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void readsStoredDaysUntilTheWindowsOfTheLastDayClose() {
+        punch(MONDAY, "08:00:00", "17:30:00");
+
+        job.refresh(Map.of(EMPLOYEE, new TreeSet<>(Set.of(MONDAY, MONDAY.plusDays(2)))));
+
+        verify(summaryRepository).findByEmployeeIdAndDayBetweenOrderByDay(EMPLOYEE, MONDAY.minusDays(6), MONDAY.plusDays(8));
+    }
+
+    @Test
+    void removesAWindowIssueFromLaterDaysWhenAnEarlierDayIsNoLongerLate() {
+        store(MONDAY, EStatus.LATE);
+        store(MONDAY.plusDays(1), EStatus.LATE);
+        store(MONDAY.plusDays(2), EStatus.LATE, FREQUENT_TARDINESS);
+        punch(MONDAY, "08:00:00", "17:30:00");
+
+        Map<LocalDate, AttendanceDailySummary> written = byDay(job.refresh(Map.of(EMPLOYEE, new TreeSet<>(Set.of(MONDAY)))));
+
+        assertThat(written).containsOnlyKeys(MONDAY, MONDAY.plusDays(2));
+        assertThat(written.get(MONDAY).getStatus()).isEqualTo(EStatus.PRESENT);
+        assertThat(written.get(MONDAY.plusDays(2)).getIssues()).doesNotContain(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void addsAWindowIssueToLaterDaysWhenAnEarlierDayBecomesLate() {
+        store(MONDAY.plusDays(1), EStatus.LATE);
+        store(MONDAY.plusDays(2), EStatus.LATE);
+        punch(MONDAY, "08:50:00", "17:30:00");
+
+        Map<LocalDate, AttendanceDailySummary> written = byDay(job.refresh(Map.of(EMPLOYEE, new TreeSet<>(Set.of(MONDAY)))));
+
+        assertThat(written).containsOnlyKeys(MONDAY, MONDAY.plusDays(2));
+        assertThat(written.get(MONDAY).getStatus()).isEqualTo(EStatus.LATE);
+        assertThat(written.get(MONDAY.plusDays(2)).getIssues()).contains(FREQUENT_TARDINESS);
+    }
+
+    @Test
+    void leavesDaysBeyondTheWindowsAlone() {
+        store(MONDAY.plusDays(1), EStatus.LATE);
+        store(MONDAY.plusDays(7), EStatus.LATE, FREQUENT_TARDINESS);
+        punch(MONDAY, "08:50:00", "17:30:00");
+
+        Map<LocalDate, AttendanceDailySummary> written = byDay(job.refresh(Map.of(EMPLOYEE, new TreeSet<>(Set.of(MONDAY)))));
+
+        assertThat(written).containsOnlyKeys(MONDAY);
+    }
+
+    private void store(LocalDate day, EStatus status, String... issues) {
+        stored.add(AttendanceDailySummary.builder()
+                .employeeId(EMPLOYEE)
+                .day(day)
+                .status(status)
+                .firstPunch(LocalTime.of(8, 40))
+                .lastPunch(LocalTime.of(17, 30))
+                .workedMinutes(440)
+                .punchTimes(List.of(LocalTime.of(8, 40), LocalTime.of(17, 30)))
+                .issues(Set.of(issues))
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void punch(LocalDate day, String... times) {
+        for (String time : times) {
+            punches.add(new PunchRecord(punches.size() + 1, EMPLOYEE,
+                    day.atTime(LocalTime.parse(time)).atZone(ZoneId.systemDefault()).toInstant()));
+        }
+    }
+
+    private static Map<LocalDate, AttendanceDailySummary> byDay(List<AttendanceDailySummary> summaries) {
+        return summaries.stream().collect(Collectors.toMap(AttendanceDailySummary::getDay, Function.identity()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.otbs.attendance.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PunchIngestServiceTest {
+
+    private static final DateTimeFormatter PUNCH_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void refusesEveryTerminalWhenNoneIsListed() {
+        PunchIngestService service = service(List.of());
+
+        assertThat(service.isAuthorizedTerminal("CJDE193560303", null)).isFalse();
+        assertThat(service.isAuthorizedTerminal("", null)).isFalse();
+        assertThat(service.isAuthorizedTerminal(null, null)).isFalse();
+    }
+
+    @Test
+    void acceptsOnlyListedTerminals() {
+        PunchIngestService service = service(List.of("CJDE193560303", " CJDE193560304 "));
+
+        assertThat(service.isAuthorizedTerminal("CJDE193560303", null)).isTrue();
+        assertThat(service.isAuthorizedTerminal("CJDE193560304", "ignored")).isTrue();
+        assertThat(service.isAuthorizedTerminal("CJDE000000000", null)).isFalse();
+    }
+
+    @Test
+    void requiresTheCommKeyConfiguredForATerminal() {
+        PunchIngestService service = service(List.of("CJDE193560303:s3cret", "CJDE193560304"));
+
+        assertThat(service.isAuthorizedTerminal("CJDE193560303", "s3cret")).isTrue();
+        assertThat(service.isAuthorizedTerminal("CJDE193560303", "wrong")).isFalse();
+        assertThat(service.isAuthorizedTerminal("CJDE193560303", null)).isFalse();
+        assertThat(service.isAuthorizedTerminal("CJDE193560304", null)).isTrue();
+    }
+
+    @Test
+    void rejectsUnparsableAndImplausibleLines() {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(1);
+        PunchIngestService service = service(List.of("CJDE193560303"));
+        LocalDateTime now = LocalDateTime.now();
+
+        PunchIngestService.IngestResult result = service.ingestAttendanceLog("CJDE193560303", String.join("\n",
+                "1001\t" + now.minusHours(1).format(PUNCH_TIME) + "\t0\t1",
+                "",
+                "1002\tnot a time\t0\t1",
+                "1003\t" + now.minusDays(91).format(PUNCH_TIME) + "\t0\t1",
+                "1004\t" + now.plusHours(1).format(PUNCH_TIME) + "\t0\t1"));
+
+        assertThat(result).isEqualTo(new PunchIngestService.IngestResult(4, 1, 3));
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void insertsOneStatementPerBatch() {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(2, 1);
+        PunchIngestService service = service(List.of("CJDE193560303"));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        String time = LocalDateTime.now().minusHours(1).format(PUNCH_TIME);
+
+        PunchIngestService.IngestResult result = service.ingestAttendanceLog("CJDE193560303",
+                "1001\t" + time + "\n1002\t" + time + "\n1003\t" + time + "\n");
+
+        assertThat(result).isEqualTo(new PunchIngestService.IngestResult(3, 3, 0));
+        verify(jdbcTemplate, times(2)).update(any(PreparedStatementCreator.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PunchIngestService service(List<String> terminals) {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        PunchIngestService service = new PunchIngestService(jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(service, "terminals", terminals);
+        ReflectionTestUtils.setField(service, "batchSize", 5000);
+        ReflectionTestUtils.setField(service, "maxAge", Duration.ofDays(90));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
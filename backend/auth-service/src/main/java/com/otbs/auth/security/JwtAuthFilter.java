@@ -1,7 +1,8 @@
 package com.otbs.auth.security;
 
 import com.otbs.auth.service.UserDetailsServiceImpl;
-import com.otbs.auth.util.JwtUtils;
+import com.otbs.security.jwt.JwtUtils;
+import com.otbs.security.jwt.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -33,8 +34,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            VerifiedToken token = jwt != null ? jwtUtils.resolveJwtToken(jwt).orElse(null) : null;
+            if (token != null) {
+                String username = token.username();
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
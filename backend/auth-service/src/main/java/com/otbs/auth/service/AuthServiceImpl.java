@@ -5,9 +5,11 @@ import com.otbs.auth.dto.JwtResponseDTO;
 import com.otbs.auth.dto.RefreshRequestDTO;
 import com.otbs.auth.exception.TokenException;
 import com.otbs.auth.exception.UserException;
-import com.otbs.auth.util.JwtUtils;
 import com.otbs.feign.client.user.UserClient;
 import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.security.identity.IdentityProfile;
+import com.otbs.security.jwt.IdentityClaims;
+import com.otbs.security.jwt.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +44,7 @@ public class AuthServiceImpl implements AuthService{
             List<String> roles = List.of(user.role());
             log.info("User roles: {}", roles);
 
-            String accessToken = jwtUtils.generateAccessToken(authRequestDTO.username(), roles);
+            String accessToken = jwtUtils.generateAccessToken(authRequestDTO.username(), roles, IdentityClaims.of(toProfile(user)));
 
             return new JwtResponseDTO(
                     accessToken,
@@ -68,7 +70,7 @@ public class AuthServiceImpl implements AuthService{
             UserResponse user = userClient.getUserByUsername(username);
             List<String> roles = List.of(user.role());
             return new JwtResponseDTO(
-                    jwtUtils.generateAccessToken(username, roles),
+                    jwtUtils.generateAccessToken(username, roles, IdentityClaims.of(toProfile(user))),
                     jwtUtils.generateRefreshToken(username, roles),
                     jwtUtils.getAccessExpirationMs(),
                     jwtUtils.getRefreshExpirationMs(),
@@ -80,4 +82,9 @@ public class AuthServiceImpl implements AuthService{
         }
 
     }
+
+    private static IdentityProfile toProfile(UserResponse user) {
+        return new IdentityProfile(user.id(), user.username(), user.firstName(), user.lastName(),
+                user.email(), user.department(), user.role());
+    }
 }
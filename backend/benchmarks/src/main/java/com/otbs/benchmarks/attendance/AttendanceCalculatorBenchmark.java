@@ -0,0 +1,76 @@
+package com.otbs.benchmarks.attendance;
+
+import com.otbs.attendance.util.AttendanceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing one day of attendance from its punches, cycling through a fixed synthetic
+ * history (see {@link SyntheticPunchDays}).
+ * <ul>
+ *     <li>{@code legacy}: the calculator before it moved to second-of-day arrays, on
+ *     {@link LocalTime}s and {@link java.time.Duration}s.</li>
+ *     <li>{@code listInput}: {@link AttendanceCalculator#calculate(List)}, as called by the summary
+ *     job and the roster.</li>
+ *     <li>{@code arrayInput}: {@link AttendanceCalculator#calculate(int[], int)} on seconds of the
+ *     day, as called by the export.</li>
+ * </ul>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar AttendanceCalculatorBenchmark -prof gc}
+ * to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceCalculatorBenchmark {
+
+    private static final int DAYS = 4096;
+
+    private LegacyAttendanceCalculator legacy;
+    private AttendanceCalculator calculator;
+    private List<List<LocalTime>> days;
+    private int[][] secondsOfDay;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyAttendanceCalculator();
+        calculator = new AttendanceCalculator();
+        days = SyntheticPunchDays.generate(42, DAYS);
+        secondsOfDay = new int[DAYS][];
+        for (int day = 0; day < DAYS; day++) {
+            secondsOfDay[day] = days.get(day).stream().mapToInt(LocalTime::toSecondOfDay).toArray();
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        blackhole.consume(legacy.calculate(days.get(next++ & (DAYS - 1)), 0));
+    }
+
+    @Benchmark
+    public void listInput(Blackhole blackhole) {
+        blackhole.consume(calculator.calculate(days.get(next++ & (DAYS - 1))));
+    }
+
+    @Benchmark
+    public void arrayInput(Blackhole blackhole) {
+        int[] punches = secondsOfDay[next++ & (DAYS - 1)];
+        blackhole.consume(calculator.calculate(punches, punches.length));
+    }
+}
@@ -0,0 +1,131 @@
+package com.otbs.benchmarks.attendance;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.model.EStatus;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The attendance calculator as it was before it moved to second-of-day arrays: every comparison
+ * and sum goes through {@link LocalTime} and {@link Duration}, and issues are collected into a
+ * new {@link HashSet} per day. It still adds "Frequent tardiness" itself, which now comes from the
+ * rule engine; with no recent late days it never does.
+ */
+final class LegacyAttendanceCalculator {
+
+    static final LocalTime WORK_START_TIME = LocalTime.parse("08:30");
+    static final LocalTime WORK_END_TIME = LocalTime.parse("17:30");
+    private static final LocalTime BREAK_START_TIME = LocalTime.parse("12:30");
+    private static final LocalTime BREAK_END_TIME = LocalTime.parse("14:00");
+    private static final Duration MINIMUM_REQUIRED_WORK_DURATION = Duration.ofMinutes(450); // 7.5 hours
+
+    private static final Duration LATE_ARRIVAL_THRESHOLD = Duration.ofMinutes(15);
+    private static final Duration EARLY_LEAVE_THRESHOLD = Duration.ofMinutes(30);
+    private static final Duration UNUSUAL_BREAK_THRESHOLD = Duration.ofMinutes(120); // 2 hours
+    private static final int TARDINESS_FREQUENCY_THRESHOLD = 3;
+
+    static final String ARRIVED_VERY_LATE = "Arrived very late";
+
+    /**
+     * @param punchTimes     the day's punches, in chronological order
+     * @param recentLateDays late days recorded in the tardiness look-back window before this day
+     */
+    DailyAttendance calculate(List<LocalTime> punchTimes, long recentLateDays) {
+        LocalTime firstPunch = punchTimes.get(0);
+        LocalTime lastPunch = punchTimes.get(punchTimes.size() - 1);
+        Duration totalWorkDuration = calculateTotalWorkDuration(punchTimes);
+        EStatus status = determineStatus(totalWorkDuration, firstPunch);
+
+        Set<String> issues = detectAttendanceIssues(
+                firstPunch, lastPunch, punchTimes, totalWorkDuration, status, recentLateDays
+        );
+
+        return new DailyAttendance(status, firstPunch, lastPunch, totalWorkDuration, List.copyOf(punchTimes), issues);
+    }
+
+    static boolean isLate(EStatus status, Set<String> issues) {
+        return status == EStatus.LATE || issues.contains(ARRIVED_VERY_LATE);
+    }
+
+    String formatDuration(Duration duration) {
+        long hours = duration.toHours();
+        long minutes = duration.toMinutesPart();
+        return String.format("%d:%02d", hours, minutes);
+    }
+
+    private Set<String> detectAttendanceIssues(LocalTime firstPunch, LocalTime lastPunch, List<LocalTime> punchTimes, Duration totalWork, EStatus status, long recentLateDays) {
+        Set<String> issues = new HashSet<>();
+
+        if (firstPunch.isAfter(WORK_START_TIME.plus(LATE_ARRIVAL_THRESHOLD))) {
+            issues.add(ARRIVED_VERY_LATE);
+        }
+
+        if (punchTimes.size() > 1 && lastPunch.isBefore(WORK_END_TIME.minus(EARLY_LEAVE_THRESHOLD))) {
+            issues.add("Left very early");
+        }
+
+        if (punchTimes.size() % 2 != 0) {
+            issues.add("Missed last punch");
+        }
+
+        if (status != EStatus.HALF_DAY && totalWork.compareTo(MINIMUM_REQUIRED_WORK_DURATION) < 0) {
+            issues.add("Worked fewer hours than required");
+        }
+
+        Duration actualBreak = calculateActualBreakDuration(punchTimes);
+        if (actualBreak.compareTo(UNUSUAL_BREAK_THRESHOLD) > 0) {
+            issues.add("Unusually long break");
+        }
+
+        if (isLate(status, issues) && recentLateDays + 1 >= TARDINESS_FREQUENCY_THRESHOLD) {
+            issues.add("Frequent tardiness");
+        }
+
+        return issues;
+    }
+
+    private EStatus determineStatus(Duration totalWorkDuration, LocalTime firstPunch) {
+        if (totalWorkDuration.toHours() < 4 || firstPunch.isAfter(BREAK_START_TIME)) {
+            return EStatus.HALF_DAY;
+        } else if (firstPunch.isAfter(WORK_START_TIME)) {
+            return EStatus.LATE;
+        } else {
+            return EStatus.PRESENT;
+        }
+    }
+
+    private Duration calculateActualBreakDuration(List<LocalTime> punchTimes) {
+        if (punchTimes.size() <= 2) return Duration.ZERO;
+
+        Duration totalBreak = Duration.ZERO;
+        for (int i = 1; i < punchTimes.size() - 1; i += 2) {
+            LocalTime breakStart = punchTimes.get(i);
+            LocalTime breakEnd = punchTimes.get(i + 1);
+            totalBreak = totalBreak.plus(Duration.between(breakStart, breakEnd));
+        }
+        return totalBreak;
+    }
+
+    private Duration calculateTotalWorkDuration(List<LocalTime> punchTimes) {
+        if (punchTimes.size() < 2) return Duration.ZERO;
+        Duration totalDuration = Duration.ZERO;
+        for (int i = 0; i < punchTimes.size(); i += 2) {
+            if (i + 1 >= punchTimes.size()) break;
+            LocalTime punchIn = punchTimes.get(i);
+            LocalTime punchOut = punchTimes.get(i + 1);
+            LocalTime effectiveBreakStart = punchIn.isAfter(BREAK_START_TIME) ? punchIn : BREAK_START_TIME;
+            LocalTime effectiveBreakEnd = punchOut.isBefore(BREAK_END_TIME) ? punchOut : BREAK_END_TIME;
+            Duration segmentDuration = Duration.between(punchIn, punchOut);
+            Duration breakOverlap = Duration.ZERO;
+            if (effectiveBreakEnd.isAfter(effectiveBreakStart)) {
+                breakOverlap = Duration.between(effectiveBreakStart, effectiveBreakEnd);
+            }
+            totalDuration = totalDuration.plus(segmentDuration.minus(breakOverlap));
+        }
+        return totalDuration;
+    }
+}
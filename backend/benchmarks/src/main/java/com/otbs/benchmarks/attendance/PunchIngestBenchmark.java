@@ -0,0 +1,143 @@
+package com.otbs.benchmarks.attendance;
+
+import com.otbs.attendance.service.PunchIngestService;
+import com.otbs.benchmarks.support.BenchmarkDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the ADMS endpoint's storage path: eight threads, each acting as one terminal,
+ * upload {@code linesPerUpload} attendance log lines at a time through {@link PunchIngestService}
+ * into a partitioned {@code attendance_device_punch} table, over a connection pool as large as
+ * the number of threads.
+ * <ul>
+ *     <li>{@code newPunches}: every line is a punch that was not stored before.</li>
+ *     <li>{@code resentPunches}: the terminal uploads the same lines again, as after a lost
+ *     acknowledgement, so every line hits the unique key.</li>
+ * </ul>
+ * The score is uploads per second, including building the upload body; multiply by
+ * {@code linesPerUpload} for punches per second.
+ * The table grows during the run, as it does in production. Needs a PostgreSQL server, see
+ * {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class PunchIngestBenchmark {
+
+    private static final DateTimeFormatter PUNCH_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int THREADS = 8;
+
+    @Param({"1", "100", "5000"})
+    public int linesPerUpload;
+
+    private BenchmarkDatabase database;
+    private PunchIngestService ingestService;
+    private final AtomicLong nextEmployee = new AtomicLong();
+    private final AtomicLong nextTerminal = new AtomicLong();
+    private String[] punchTimes;
+
+    @State(Scope.Thread)
+    public static class Terminal {
+
+        private String terminalSn;
+        private String resentUpload;
+
+        @Setup(Level.Trial)
+        public void setUp(PunchIngestBenchmark benchmark) {
+            terminalSn = "BENCH" + benchmark.nextTerminal.incrementAndGet();
+            resentUpload = benchmark.upload();
+            benchmark.ingestService.ingestAttendanceLog(terminalSn, resentUpload);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        database = BenchmarkDatabase.create("bench_punch_ingest");
+        JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.execute("CREATE SEQUENCE attendance_device_punch_id_seq START WITH 1000000000000000");
+        jdbcTemplate.execute("""
+                CREATE TABLE attendance_device_punch (
+                    id bigint NOT NULL DEFAULT nextval('attendance_device_punch_id_seq'), terminal_sn varchar(50) NOT NULL,
+                    emp_code varchar(20) NOT NULL, punch_time timestamptz NOT NULL, punch_state varchar(5),
+                    verify_type varchar(5), received_at timestamptz NOT NULL DEFAULT now(),
+                    UNIQUE (terminal_sn, emp_code, punch_time)) PARTITION BY RANGE (punch_time)
+                """);
+        jdbcTemplate.execute("CREATE INDEX ON attendance_device_punch (id)");
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ingestService = new PunchIngestService(new JdbcTemplate(database.pooledDataSource(THREADS)),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+        setField("batchSize", 5000);
+        setField("maxAge", Duration.ofDays(90));
+
+        // Spread over ten hours from a day ago, so no punch is too old or in the future.
+        LocalDateTime firstPunch = LocalDateTime.now().minusDays(1);
+        punchTimes = new String[linesPerUpload];
+        for (int line = 0; line < linesPerUpload; line++) {
+            punchTimes[line] = firstPunch.plusSeconds(line % 36_000).format(PUNCH_TIME);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int newPunches(Terminal terminal) {
+        return ingestService.ingestAttendanceLog(terminal.terminalSn, upload()).inserted();
+    }
+
+    @Benchmark
+    public int resentPunches(Terminal terminal) {
+        return ingestService.ingestAttendanceLog(terminal.terminalSn, terminal.resentUpload).received();
+    }
+
+    /**
+     * An {@code ATTLOG} body whose lines all belong to employee codes not used before.
+     */
+    private String upload() {
+        long firstEmployee = nextEmployee.getAndAdd(linesPerUpload);
+        StringBuilder body = new StringBuilder(linesPerUpload * 40);
+        for (int line = 0; line < linesPerUpload; line++) {
+            body.append(Long.toString(firstEmployee + line, 36)).append('\t')
+                    .append(punchTimes[line]).append("\t0\t1\t0\t0\n");
+        }
+        return body.toString();
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = PunchIngestService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(ingestService, value);
+    }
+}
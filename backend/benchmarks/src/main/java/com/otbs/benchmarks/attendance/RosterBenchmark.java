@@ -0,0 +1,170 @@
+package com.otbs.benchmarks.attendance;
+
+import com.otbs.attendance.dto.PunchRecord;
+import com.otbs.attendance.repository.AttendancePunchRepository;
+import com.otbs.benchmarks.support.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database work behind the daily attendance roster ({@code GET /attendance/records?date=}) by
+ * headcount, before and after it was built from one punch query.
+ * <ul>
+ *     <li>{@code perUser}: for every user, the summary lookup and the punch query by e-mail that
+ *     {@code getAttendanceRecordByEmployeeIdAndDate} ran.</li>
+ *     <li>{@code singleQuery}: the day's punches of everyone in one query on {@code attendance_punch},
+ *     keyed by DN, through {@link AttendancePunchRepository}, grouped in memory.</li>
+ * </ul>
+ * Each employee has four punches a day over the last 30 days and one in ten is absent on the
+ * measured day. The remote user and leave lookups that the old roster also made per user are
+ * not included, so the difference is a lower bound. Needs a PostgreSQL server, see
+ * {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RosterBenchmark {
+
+    private static final int HISTORY_DAYS = 30;
+
+    @Param({"100", "1000", "10000"})
+    public int headcount;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private AttendancePunchRepository punchRepository;
+    private final ZoneId zoneId = ZoneId.systemDefault();
+    private LocalDate day;
+    private Timestamp from;
+    private Timestamp to;
+    private List<String[]> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create("bench_roster");
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.execute("""
+                CREATE TABLE personnel_employee (
+                    id serial PRIMARY KEY, emp_code varchar(20) UNIQUE NOT NULL, first_name varchar(25),
+                    last_name varchar(25), email varchar(50) UNIQUE, department_id integer)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE iclock_transaction (
+                    id serial PRIMARY KEY, emp_id integer REFERENCES personnel_employee (id),
+                    punch_time timestamptz NOT NULL, punch_state varchar(5) NOT NULL, verify_type integer NOT NULL,
+                    terminal_sn varchar(50))
+                """);
+        jdbcTemplate.execute("CREATE INDEX ON iclock_transaction (emp_id)");
+        jdbcTemplate.execute("CREATE INDEX ON iclock_transaction (punch_time)");
+        jdbcTemplate.execute("""
+                CREATE TABLE attendance_daily_summary (
+                    employee_id varchar(255) NOT NULL, day date NOT NULL, status varchar(20) NOT NULL,
+                    first_punch time, last_punch time, worked_minutes integer NOT NULL DEFAULT 0,
+                    punch_times text, issues text, updated_at timestamp NOT NULL DEFAULT now(),
+                    PRIMARY KEY (employee_id, day))
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO personnel_employee (emp_code, first_name, last_name, email, department_id)
+                SELECT n::text, 'First', 'Last', 'user' || n || '@otbs.local', n % 20 FROM generate_series(1, ?) n
+                """, headcount);
+        day = LocalDate.now(zoneId);
+        from = Timestamp.from(day.atStartOfDay(zoneId).toInstant());
+        to = Timestamp.from(day.plusDays(1).atStartOfDay(zoneId).toInstant());
+        jdbcTemplate.update("""
+                INSERT INTO iclock_transaction (emp_id, punch_time, punch_state, verify_type, terminal_sn)
+                SELECT e.id, d + p.at + (e.id % 600) * interval '1 second', '0', 1, 'CJDE193560303'
+                FROM personnel_employee e
+                CROSS JOIN generate_series(?::timestamptz - interval '29 days', ?::timestamptz, interval '1 day') d
+                CROSS JOIN (VALUES (interval '8 hours'), (interval '12 hours'), (interval '13 hours'),
+                                   (interval '17 hours')) p(at)
+                WHERE e.id % 10 <> 0 OR d < ?
+                """, from, from, from);
+        jdbcTemplate.execute("""
+                CREATE TABLE attendance_punch (
+                    id bigint PRIMARY KEY, employee_id varchar(255), emp_code varchar(20) NOT NULL,
+                    punch_time timestamptz NOT NULL, punch_state varchar(5), terminal_sn varchar(50),
+                    synced_at timestamp NOT NULL DEFAULT now())
+                """);
+        jdbcTemplate.execute("CREATE INDEX ON attendance_punch (employee_id, punch_time)");
+        jdbcTemplate.execute("CREATE INDEX ON attendance_punch (punch_time)");
+        jdbcTemplate.update("""
+                INSERT INTO attendance_punch (id, employee_id, emp_code, punch_time, punch_state, terminal_sn)
+                SELECT t.id, 'CN=User ' || e.id || ',OU=IT,DC=otbs,DC=local', e.emp_code, t.punch_time, t.punch_state,
+                       t.terminal_sn
+                FROM iclock_transaction t JOIN personnel_employee e ON e.id = t.emp_id
+                """);
+        jdbcTemplate.execute("ANALYZE");
+        punchRepository = new AttendancePunchRepository(new NamedParameterJdbcTemplate(jdbcTemplate));
+
+        users = new ArrayList<>(headcount);
+        for (int i = 1; i <= headcount; i++) {
+            users.add(new String[]{"CN=User " + i + ",OU=IT,DC=otbs,DC=local", "user" + i + "@otbs.local"});
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int perUser() {
+        int punches = 0;
+        for (String[] user : users) {
+            List<Map<String, Object>> summary = jdbcTemplate.queryForList(
+                    "SELECT * FROM attendance_daily_summary WHERE employee_id = ? AND day = ?",
+                    user[0], Date.valueOf(day));
+            if (!summary.isEmpty()) {
+                continue;
+            }
+            punches += jdbcTemplate.queryForList("""
+                            SELECT t.*, e.* FROM iclock_transaction t JOIN personnel_employee e ON e.id = t.emp_id
+                            WHERE e.email = ? AND t.punch_time BETWEEN ? AND ? ORDER BY t.punch_time
+                            """, user[1], from, to).size();
+        }
+        return punches;
+    }
+
+    @Benchmark
+    public int singleQuery() {
+        Map<String, List<LocalTime>> punchesByEmployee = new HashMap<>();
+        for (PunchRecord punch : punchRepository.findBetween(from.toInstant(), to.toInstant())) {
+            punchesByEmployee.computeIfAbsent(punch.employeeId(), employeeId -> new ArrayList<>())
+                    .add(punch.punchTime().atZone(zoneId).toLocalTime());
+        }
+        int punches = 0;
+        for (String[] user : users) {
+            List<LocalTime> times = punchesByEmployee.get(user[0]);
+            punches += times == null ? 0 : times.size();
+        }
+        return punches;
+    }
+}
@@ -0,0 +1,65 @@
+package com.otbs.benchmarks.attendance;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates days of punches shaped like office attendance: arrival around 08:30, a lunch break
+ * around 12:30 to 14:00 and departure around 17:30, at second precision, so that many days land
+ * within seconds of the calculator's thresholds. About one day in five has an odd number of
+ * punches.
+ */
+final class SyntheticPunchDays {
+
+    private static final int[] PUNCH_COUNTS = {1, 2, 2, 3, 4, 4, 4, 4, 5, 6};
+
+    private SyntheticPunchDays() {
+    }
+
+    /**
+     * @return {@code days} days of punches in chronological order, the same for the same seed
+     */
+    static List<List<LocalTime>> generate(long seed, int days) {
+        Random random = new Random(seed);
+        List<List<LocalTime>> history = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            history.add(generateDay(random));
+        }
+        return history;
+    }
+
+    private static List<LocalTime> generateDay(Random random) {
+        int count = PUNCH_COUNTS[random.nextInt(PUNCH_COUNTS.length)];
+        int[] seconds = new int[count];
+        for (int i = 0; i < count; i++) {
+            seconds[i] = around(random, anchor(i, count), 75 * 60);
+        }
+        Arrays.sort(seconds);
+        List<LocalTime> punches = new ArrayList<>(count);
+        for (int second : seconds) {
+            punches.add(LocalTime.ofSecondOfDay(second));
+        }
+        return punches;
+    }
+
+    /**
+     * Typical second of the day of the {@code index}th of {@code count} punches.
+     */
+    private static int anchor(int index, int count) {
+        if (index == 0) {
+            return 8 * 3600 + 30 * 60;
+        }
+        if (index == count - 1) {
+            return 17 * 3600 + 30 * 60;
+        }
+        return index % 2 == 1 ? 12 * 3600 + 30 * 60 : 14 * 3600;
+    }
+
+    private static int around(Random random, int anchor, int spread) {
+        int second = anchor + random.nextInt(2 * spread + 1) - spread;
+        return Math.max(0, Math.min(86_399, second));
+    }
+}
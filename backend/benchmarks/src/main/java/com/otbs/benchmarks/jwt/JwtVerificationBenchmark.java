@@ -0,0 +1,115 @@
+package com.otbs.benchmarks.jwt;
+
+import com.otbs.benchmarks.support.BenchmarkContext;
+import com.otbs.security.jwt.JwtUtils;
+import com.otbs.security.jwt.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in a JWT filter.
+ * <ul>
+ *     <li>{@code legacy}: the old per-service helper, which validates the token and then parses it
+ *     twice more for the username and the roles, building a new key and parser each time.</li>
+ *     <li>{@code sharedCold}: {@link JwtUtils} with the token not cached yet, i.e. one signature
+ *     check with the parser built at startup. Tokens are cycled through a set larger than the
+ *     cache.</li>
+ *     <li>{@code sharedCached}: {@link JwtUtils} for a token presented again, served from the
+ *     verified-token cache.</li>
+ * </ul>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final int COLD_TOKENS = 4096;
+
+    private AnnotationConfigApplicationContext cachedContext;
+    private AnnotationConfigApplicationContext coldContext;
+    private LegacyJwtUtils legacy;
+    private JwtUtils shared;
+    private JwtUtils sharedWithoutCache;
+    private String token;
+    private String[] coldTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        String jwtSecret = Base64.getEncoder().encodeToString(secret);
+
+        cachedContext = BenchmarkContext.start(properties(jwtSecret, 10_000), JwtUtils.class);
+        coldContext = BenchmarkContext.start(properties(jwtSecret, 1), JwtUtils.class);
+        shared = cachedContext.getBean(JwtUtils.class);
+        sharedWithoutCache = coldContext.getBean(JwtUtils.class);
+        legacy = new LegacyJwtUtils(jwtSecret);
+
+        List<String> roles = List.of("Employee", "Manager");
+        token = shared.generateAccessToken("jdoe", roles);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = shared.generateAccessToken("user" + i, roles);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cachedContext.close();
+        coldContext.close();
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        if (legacy.validateJwtToken(token)) {
+            blackhole.consume(legacy.getUserNameFromJwtToken(token));
+            blackhole.consume(legacy.getRolesFromJwtToken(token));
+        }
+    }
+
+    @Benchmark
+    public void sharedCold(Blackhole blackhole) {
+        String coldToken = coldTokens[next++ & (COLD_TOKENS - 1)];
+        sharedWithoutCache.resolveJwtToken(coldToken).ifPresent(verified -> consume(blackhole, verified));
+    }
+
+    @Benchmark
+    public void sharedCached(Blackhole blackhole) {
+        shared.resolveJwtToken(token).ifPresent(verified -> consume(blackhole, verified));
+    }
+
+    private static void consume(Blackhole blackhole, VerifiedToken verified) {
+        blackhole.consume(verified.username());
+        blackhole.consume(verified.roles());
+    }
+
+    private static Map<String, Object> properties(String jwtSecret, long cacheMaxSize) {
+        return Map.of(
+                "jwt.secret", jwtSecret,
+                "jwt.expiration-ms", "3600000",
+                "jwt.refresh-expiration-ms", "86400000",
+                "jwt.cache.max-size", String.valueOf(cacheMaxSize));
+    }
+}
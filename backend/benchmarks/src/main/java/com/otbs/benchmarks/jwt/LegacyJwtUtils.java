@@ -0,0 +1,70 @@
+package com.otbs.benchmarks.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The per-service JWT helper as it was before security-commons: every call decodes the secret,
+ * builds a parser and verifies the signature again. Logging is left out so it does not dominate
+ * the measurement.
+ */
+final class LegacyJwtUtils {
+
+    private final String jwtSecret;
+
+    LegacyJwtUtils(String jwtSecret) {
+        this.jwtSecret = jwtSecret;
+    }
+
+    private SecretKey getSigningKey() {
+        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+
+    String getUserNameFromJwtToken(String token) {
+        return Jwts.parser()
+                .verifyWith(getSigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    List<String> getRolesFromJwtToken(String token) {
+        Claims claims = Jwts.parser()
+                .verifyWith(getSigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> rawList) {
+            List<String> result = new ArrayList<>();
+            for (Object item : rawList) {
+                if (item instanceof String role) {
+                    result.add(role);
+                }
+            }
+            return result;
+        }
+        throw new JwtException("Invalid roles claim in JWT token");
+    }
+
+    boolean validateJwtToken(String authToken) {
+        try {
+            Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build()
+                    .parseSignedClaims(authToken);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
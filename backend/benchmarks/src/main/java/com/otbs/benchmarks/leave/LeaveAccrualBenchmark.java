@@ -0,0 +1,208 @@
+package com.otbs.benchmarks.leave;
+
+import com.otbs.benchmarks.support.BenchmarkDatabase;
+import com.otbs.feign.client.user.UserBatchLoader;
+import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.leave.model.LeaveAccrualRun;
+import com.otbs.leave.repository.LeaveAccrualRunRepository;
+import com.otbs.leave.service.LeaveAccrualJob;
+import com.otbs.leave.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One monthly leave accrual over {@code balances} rows, before and after it became a chunked batch.
+ * <ul>
+ *     <li>{@code legacy}: what {@code addMonthlyLeaveForAllUsers} sent to the database in one
+ *     transaction: every balance read, then one {@code UPDATE} of all columns per balance, as
+ *     Hibernate flushes it, and one mail per user.</li>
+ *     <li>{@code chunked}: {@link LeaveAccrualJob} with its default chunk size, one set-based
+ *     {@code UPDATE} per chunk and one mail batch per chunk.</li>
+ * </ul>
+ * Users are resolved by an in-process {@link UserClient} and mails are only counted, so both
+ * variants measure the database work. The {@code leave_accrual_run} checkpoints are kept in
+ * memory. Needs a PostgreSQL server, see {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LeaveAccrualBenchmark {
+
+    private static final double MONTHLY_ACCRUAL = 2.5;
+
+    @Param({"10000", "100000"})
+    public int balances;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private UserBatchLoader userBatchLoader;
+    private final Map<String, LeaveAccrualRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong mails = new AtomicLong();
+    private LeaveAccrualJob job;
+    private YearMonth period;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        database = BenchmarkDatabase.create("bench_leave_accrual");
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.execute("""
+                CREATE TABLE leave_balance (
+                    id bigserial PRIMARY KEY, user_dn varchar(255) NOT NULL, total_leave float8 NOT NULL,
+                    used_leave float8 NOT NULL, remaining_leave float8 NOT NULL, last_updated_date date NOT NULL,
+                    last_accrual_period varchar(7))
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO leave_balance (user_dn, total_leave, used_leave, remaining_leave, last_updated_date)
+                SELECT 'CN=User ' || n || ',OU=IT,DC=otbs,DC=local', 10, 4, 6, current_date - 60
+                FROM generate_series(1, ?) n
+                """, balances);
+        jdbcTemplate.execute("ANALYZE leave_balance");
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database.dataSource());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userBatchLoader = new UserBatchLoader(userClient(), Duration.ofMillis(5), 100, 1);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        job = new LeaveAccrualJob(jdbcTemplate, transactionManager, runRepository(), userBatchLoader,
+                new CountingNotificationService(mails), beanFactory.getBeanProvider(MeterRegistry.class));
+        Field chunkSize = LeaveAccrualJob.class.getDeclaredField("chunkSize");
+        chunkSize.setAccessible(true);
+        chunkSize.setInt(job, 1000);
+    }
+
+    /**
+     * Puts every balance back to before the accrual, so each invocation credits all of them.
+     */
+    @Setup(Level.Invocation)
+    public void resetBalances() {
+        jdbcTemplate.update("UPDATE leave_balance SET total_leave = 10, remaining_leave = 6, " +
+                "last_updated_date = current_date - 60, last_accrual_period = NULL");
+        runs.clear();
+        mails.set(0);
+        period = YearMonth.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        userBatchLoader.destroy();
+        database.close();
+    }
+
+    @Benchmark
+    public long legacy() {
+        return transactionTemplate.execute(status -> {
+            LocalDate today = LocalDate.now();
+            List<Balance> rows = jdbcTemplate.query(
+                    "SELECT id, user_dn, total_leave, used_leave, remaining_leave, last_updated_date FROM leave_balance",
+                    (resultSet, row) -> new Balance(resultSet.getLong(1), resultSet.getString(2), resultSet.getDouble(3),
+                            resultSet.getDouble(4), resultSet.getDouble(5), resultSet.getDate(6).toLocalDate()));
+            Map<String, UserResponse> users = userBatchLoader.loadAll(rows.stream().map(Balance::userDn).toList());
+            for (Balance balance : rows) {
+                boolean due = balance.lastUpdatedDate().plusMonths(1).isBefore(today);
+                double total = due ? balance.totalLeave() + MONTHLY_ACCRUAL : balance.totalLeave();
+                jdbcTemplate.update("UPDATE leave_balance SET last_updated_date = ?, remaining_leave = ?, " +
+                                "total_leave = ?, used_leave = ?, user_dn = ? WHERE id = ?",
+                        Date.valueOf(due ? today : balance.lastUpdatedDate()),
+                        due ? total - balance.usedLeave() : balance.remainingLeave(),
+                        total, balance.usedLeave(), balance.userDn(), balance.id());
+                UserResponse user = users.get(balance.userDn());
+                if (user != null && user.email() != null) {
+                    mails.incrementAndGet();
+                }
+            }
+            return mails.get();
+        });
+    }
+
+    @Benchmark
+    public long chunked() {
+        job.run(period);
+        return mails.get();
+    }
+
+    private record Balance(long id, String userDn, double totalLeave, double usedLeave, double remainingLeave,
+                           LocalDate lastUpdatedDate) {
+    }
+
+    private static UserClient userClient() {
+        return (UserClient) Proxy.newProxyInstance(UserClient.class.getClassLoader(), new Class<?>[]{UserClient.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getUsersByDns")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    List<String> dns = (List<String>) args[0];
+                    return dns.stream().map(dn -> new UserResponse(dn, dn, "First", "Last", dn.hashCode() + "@otbs.local",
+                            "IT", "Employee", null, null, null, null, null)).toList();
+                });
+    }
+
+    private LeaveAccrualRunRepository runRepository() {
+        return (LeaveAccrualRunRepository) Proxy.newProxyInstance(LeaveAccrualRunRepository.class.getClassLoader(),
+                new Class<?>[]{LeaveAccrualRunRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(runs.get((String) args[0]));
+                    case "save" -> {
+                        LeaveAccrualRun run = (LeaveAccrualRun) args[0];
+                        runs.put(run.getPeriod(), run);
+                        yield run;
+                    }
+                    case "findByStatusNotOrderByPeriod" -> runs.values().stream()
+                            .filter(run -> run.getStatus() != args[0])
+                            .toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class CountingNotificationService extends NotificationService {
+
+        private final AtomicLong mails;
+
+        private CountingNotificationService(AtomicLong mails) {
+            super(null);
+            this.mails = mails;
+        }
+
+        @Override
+        public void sendMailNotifications(Collection<String> recipients, String subject, String body) {
+            mails.addAndGet(recipients.size());
+        }
+    }
+}
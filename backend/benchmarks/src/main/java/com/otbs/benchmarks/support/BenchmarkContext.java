@@ -0,0 +1,24 @@
+package com.otbs.benchmarks.support;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Minimal Spring context for benchmarks, so production components get their {@code @Value}
+ * fields and {@code @PostConstruct} initialization exactly as they do in the services.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static AnnotationConfigApplicationContext start(Map<String, Object> properties, Class<?>... components) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(components);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,108 @@
+package com.otbs.benchmarks.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * PostgreSQL schema for one benchmark trial, dropped again at the end. The server is taken from
+ * the {@code benchmark.db.url}, {@code benchmark.db.user} and {@code benchmark.db.password}
+ * system properties and defaults to the database of {@code docker/docker-compose.yml}.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final SingleConnectionDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private HikariDataSource pool;
+
+    private BenchmarkDatabase(String schema) {
+        this.schema = schema;
+        this.dataSource = new SingleConnectionDataSource(url(), user(), password(), true);
+        this.dataSource.setAutoCommit(true);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("SET search_path TO " + schema);
+    }
+
+    public static BenchmarkDatabase create(String schema) {
+        return new BenchmarkDatabase(schema);
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public SingleConnectionDataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * A pool of up to {@code size} more connections to the schema, for benchmarks that run on
+     * several threads. It is closed with the database.
+     */
+    public synchronized DataSource pooledDataSource(int size) {
+        if (pool == null) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(url());
+            config.setUsername(user());
+            config.setPassword(password());
+            config.setMaximumPoolSize(size);
+            config.setConnectionInitSql("SET search_path TO " + schema);
+            pool = new HikariDataSource(config);
+        }
+        return pool;
+    }
+
+    /**
+     * Bytes of column data in the current row as the driver hands them over: binary columns by
+     * length, everything else by the UTF-8 length of its text form.
+     */
+    public static long rowBytes(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        long bytes = 0;
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            switch (metaData.getColumnType(column)) {
+                case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> {
+                    byte[] value = resultSet.getBytes(column);
+                    bytes += value == null ? 0 : value.length;
+                }
+                default -> {
+                    String value = resultSet.getString(column);
+                    bytes += value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        dataSource.destroy();
+    }
+
+    private static String url() {
+        return System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/postgres");
+    }
+
+    private static String user() {
+        return System.getProperty("benchmark.db.user", "postgres");
+    }
+
+    private static String password() {
+        return System.getProperty("benchmark.db.password", "postgres");
+    }
+}
@@ -0,0 +1,48 @@
+package com.otbs.benchmarks.user;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * The user-service {@code User} entity as it was before profile pictures moved out of it,
+ * mapped to its own table.
+ */
+@Entity
+@Table(name = "legacy_users")
+@Getter
+@Setter
+@NoArgsConstructor
+class LegacyUser {
+    @Id
+    private String id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    @Column(nullable = true)
+    private String gender;
+    private String phoneNumber1;
+    @Column(nullable = true)
+    private String phoneNumber2;
+    private String department;
+    private String role;
+    @Lob
+    @Column(nullable = true)
+    private byte[] picture;
+    @Column(nullable = true)
+    private String pictureType;
+    @Column(nullable = true)
+    private String jobTitle;
+    @Column(nullable = true)
+    private String birthDate;
+
+    interface Repository extends JpaRepository<LegacyUser, String> {
+    }
+}
@@ -0,0 +1,213 @@
+package com.otbs.benchmarks.user;
+
+import com.otbs.benchmarks.support.BenchmarkDatabase;
+import com.otbs.user.model.User;
+import com.otbs.user.repository.UserInfoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database lookup behind every authenticated request to user-service ({@code getUserByUsername}),
+ * before and after profile pictures moved to their own table. Both variants go through Spring
+ * Data JPA and Hibernate, mapped the way user-service maps them, and load one user by id in a
+ * read-only transaction.
+ * <ul>
+ *     <li>{@code legacy}: {@link LegacyUser}, the entity as it was, picture and picture type
+ *     included.</li>
+ *     <li>{@code current}: {@link UserInfoRepository#findById} on the current {@link User},
+ *     which has no picture columns; pictures are only read by the picture endpoint.</li>
+ * </ul>
+ * The {@code bytesPerLookup} secondary result is the attribute data of the loaded entity. Needs a
+ * PostgreSQL server, see {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrincipalLookupBenchmark {
+
+    private static final int USERS = 1_000;
+
+    @Param({"0", "51200", "524288"})
+    public int pictureBytes;
+
+    private BenchmarkDatabase database;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate readOnly;
+    private LegacyUser.Repository legacyRepository;
+    private UserInfoRepository userInfoRepository;
+    private String[] ids;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes {
+        public long bytes;
+        public long lookups;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            lookups = 0;
+        }
+
+        public double bytesPerLookup() {
+            return lookups == 0 ? 0 : (double) bytes / lookups;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create("bench_principal_lookup");
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(database.dataSource());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(User.class.getName(), LegacyUser.class.getName()));
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate writes = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        legacyRepository = repositoryFactory.getRepository(LegacyUser.Repository.class);
+        userInfoRepository = repositoryFactory.getRepository(UserInfoRepository.class);
+
+        Random random = new Random(42);
+        ids = new String[USERS];
+        for (int batch = 0; batch < USERS; batch += 100) {
+            List<LegacyUser> legacyUsers = new ArrayList<>();
+            List<User> users = new ArrayList<>();
+            for (int i = batch; i < Math.min(batch + 100, USERS); i++) {
+                ids[i] = "CN=User " + i + ",OU=IT,DC=otbs,DC=local";
+                byte[] picture = new byte[pictureBytes];
+                random.nextBytes(picture);
+                User user = user(i);
+                users.add(user);
+                legacyUsers.add(legacyUser(user, pictureBytes == 0 ? null : picture));
+            }
+            writes.executeWithoutResult(status -> {
+                legacyRepository.saveAll(legacyUsers);
+                userInfoRepository.saveAll(users);
+            });
+        }
+        database.jdbcTemplate().execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        database.close();
+    }
+
+    @Benchmark
+    public long legacy(Bytes bytes) {
+        String id = ids[next++ % USERS];
+        Long read = readOnly.execute(status -> legacyRepository.findById(id)
+                .map(user -> textBytes(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                        user.getEmail(), user.getGender(), user.getPhoneNumber1(), user.getPhoneNumber2(),
+                        user.getDepartment(), user.getRole(), user.getPictureType(), user.getJobTitle(),
+                        user.getBirthDate())
+                        + (user.getPicture() == null ? 0 : user.getPicture().length))
+                .orElse(0L));
+        return count(bytes, read);
+    }
+
+    @Benchmark
+    public long current(Bytes bytes) {
+        String id = ids[next++ % USERS];
+        Long read = readOnly.execute(status -> userInfoRepository.findById(id)
+                .map(user -> textBytes(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                        user.getEmail(), user.getGender(), user.getPhoneNumber1(), user.getPhoneNumber2(),
+                        user.getDepartment(), user.getRole(), user.getJobTitle(), user.getBirthDate()))
+                .orElse(0L));
+        return count(bytes, read);
+    }
+
+    private static long count(Bytes bytes, Long read) {
+        long entityBytes = read == null ? 0 : read;
+        bytes.bytes += entityBytes;
+        bytes.lookups++;
+        return entityBytes;
+    }
+
+    private static long textBytes(String... values) {
+        long bytes = 0;
+        for (String value : values) {
+            bytes += value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+    private User user(int i) {
+        return User.builder()
+                .id(ids[i])
+                .username("user" + i)
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("user" + i + "@otbs.local")
+                .gender("M")
+                .phoneNumber1("+21670000000")
+                .department("IT")
+                .role("Employee")
+                .jobTitle("Engineer")
+                .birthDate("1990-01-01")
+                .build();
+    }
+
+    private static LegacyUser legacyUser(User user, byte[] picture) {
+        LegacyUser legacyUser = new LegacyUser();
+        legacyUser.setId(user.getId());
+        legacyUser.setUsername(user.getUsername());
+        legacyUser.setFirstName(user.getFirstName());
+        legacyUser.setLastName(user.getLastName());
+        legacyUser.setEmail(user.getEmail());
+        legacyUser.setGender(user.getGender());
+        legacyUser.setPhoneNumber1(user.getPhoneNumber1());
+        legacyUser.setDepartment(user.getDepartment());
+        legacyUser.setRole(user.getRole());
+        legacyUser.setPicture(picture);
+        legacyUser.setPictureType(picture == null ? null : "image/jpeg");
+        legacyUser.setJobTitle(user.getJobTitle());
+        legacyUser.setBirthDate(user.getBirthDate());
+        return legacyUser;
+    }
+}
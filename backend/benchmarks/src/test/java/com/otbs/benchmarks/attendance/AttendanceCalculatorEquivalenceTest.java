@@ -0,0 +1,86 @@
+package com.otbs.benchmarks.attendance;
+
+import com.otbs.attendance.dto.DailyAttendance;
+import com.otbs.attendance.util.AttendanceCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The second-of-day calculator must give the same results as the {@link LocalTime} one it
+ * replaced, including punches a few seconds around each threshold.
+ */
+class AttendanceCalculatorEquivalenceTest {
+
+    private final LegacyAttendanceCalculator legacy = new LegacyAttendanceCalculator();
+    private final AttendanceCalculator calculator = new AttendanceCalculator();
+
+    @Test
+    void matchesTheLegacyCalculatorAroundTheThresholds() {
+        List<List<LocalTime>> days = List.of(
+                punches("08:30:00", "17:30:00"),
+                punches("08:30:01", "17:30:00"),
+                punches("08:30:40", "12:30:00", "14:00:00", "17:30:00"),
+                punches("08:45:00", "17:30:00"),
+                punches("08:45:01", "17:30:00"),
+                punches("08:00:00", "16:59:59"),
+                punches("08:00:00", "17:00:00"),
+                punches("08:00:01", "17:00:00"),
+                punches("08:00:00", "12:00:00"),
+                punches("08:00:01", "12:00:00"),
+                punches("12:30:00", "17:30:00"),
+                punches("12:30:01", "17:30:00"),
+                punches("08:00:00", "12:30:00", "14:30:00", "17:30:00"),
+                punches("08:00:00", "12:30:00", "14:30:01", "17:30:00"),
+                punches("13:00:00", "13:30:00"),
+                punches("08:00:00", "08:00:00", "17:30:00", "17:30:00"),
+                punches("00:00:00", "23:59:59"));
+
+        days.forEach(this::assertSameResult);
+    }
+
+    @Test
+    void matchesTheLegacyCalculatorForOddPunchCounts() {
+        List<List<LocalTime>> days = List.of(
+                punches("08:30:40"),
+                punches("17:30:00"),
+                punches("08:00:00", "12:30:00", "14:00:00"),
+                punches("08:31:00", "12:29:59", "14:00:01", "17:00:00", "17:30:00"),
+                punches("08:00:00", "10:00:00", "10:15:00", "12:30:00", "14:00:00", "16:00:00", "17:30:00"));
+
+        days.forEach(this::assertSameResult);
+    }
+
+    @Test
+    void matchesTheLegacyCalculatorOnSyntheticHistories() {
+        for (long seed = 1; seed <= 20; seed++) {
+            SyntheticPunchDays.generate(seed, 5_000).forEach(this::assertSameResult);
+        }
+    }
+
+    @Test
+    void formatsDurationsLikeTheLegacyCalculator() {
+        for (Duration duration : List.of(Duration.ZERO, Duration.ofSeconds(59), Duration.ofMinutes(9),
+                Duration.ofMinutes(10), Duration.ofMinutes(450), Duration.ofHours(25).plusMinutes(5))) {
+            assertThat(calculator.formatDuration(duration)).isEqualTo(legacy.formatDuration(duration));
+        }
+    }
+
+    private void assertSameResult(List<LocalTime> punchTimes) {
+        DailyAttendance expected = legacy.calculate(punchTimes, 0);
+        int[] secondsOfDay = Arrays.copyOf(punchTimes.stream().mapToInt(LocalTime::toSecondOfDay).toArray(), 16);
+
+        assertThat(calculator.calculate(punchTimes)).as("list input %s", punchTimes).isEqualTo(expected);
+        assertThat(calculator.calculate(secondsOfDay, punchTimes.size())).as("array input %s", punchTimes)
+                .isEqualTo(expected);
+    }
+
+    private static List<LocalTime> punches(String... times) {
+        return Arrays.stream(times).map(LocalTime::parse).toList();
+    }
+}
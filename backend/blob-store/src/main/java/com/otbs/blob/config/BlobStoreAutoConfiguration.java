@@ -0,0 +1,35 @@
+package com.otbs.blob.config;
+
+import com.otbs.blob.store.BlobStore;
+import com.otbs.blob.store.FileSystemBlobStore;
+import com.otbs.blob.store.PostgresLargeObjectBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+/**
+ * Provides the {@link BlobStore} selected by {@code blob-store.type}: {@code filesystem}
+ * (the default) or {@code postgres}.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+public class BlobStoreAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "blob-store.type", havingValue = "filesystem", matchIfMissing = true)
+    public BlobStore fileSystemBlobStore(@Value("${blob-store.filesystem.root:data/blobs}") Path root) {
+        return new FileSystemBlobStore(root);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "blob-store.type", havingValue = "postgres")
+    public BlobStore postgresBlobStore(DataSource dataSource) {
+        return new PostgresLargeObjectBlobStore(dataSource);
+    }
+}
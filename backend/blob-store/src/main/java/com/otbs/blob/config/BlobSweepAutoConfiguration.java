@@ -0,0 +1,34 @@
+package com.otbs.blob.config;
+
+import com.otbs.blob.store.BlobStore;
+import com.otbs.blob.sweep.BlobReferenceSource;
+import com.otbs.blob.sweep.UnreferencedBlobSweeper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sweeps unreferenced blobs in services that declare at least one {@link BlobReferenceSource}.
+ * A store must belong to a single service: the sweep only knows the references of its own.
+ */
+@AutoConfiguration(after = BlobStoreAutoConfiguration.class)
+@ConditionalOnBean({BlobStore.class, BlobReferenceSource.class})
+@ConditionalOnProperty(name = "blob-store.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class BlobSweepAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public UnreferencedBlobSweeper unreferencedBlobSweeper(
+            BlobStore blobStore,
+            List<BlobReferenceSource> referenceSources,
+            @Value("${blob-store.sweep.interval:6h}") Duration interval,
+            @Value("${blob-store.sweep.grace-period:1d}") Duration gracePeriod) {
+        return new UnreferencedBlobSweeper(blobStore, referenceSources, interval, gracePeriod);
+    }
+}
@@ -0,0 +1,149 @@
+package com.otbs.blob.migration;
+
+import com.otbs.blob.store.BlobRef;
+import com.otbs.blob.store.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the content of a legacy {@code @Lob} column into a {@link BlobStore}, one row per
+ * transaction, then drops the column. Works for both {@code oid} and {@code bytea} columns;
+ * large objects are unlinked once copied. Safe to run on every startup.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LobColumnMigration {
+
+    private final DataSource dataSource;
+    private final BlobStore blobStore;
+
+    @FunctionalInterface
+    public interface Callback {
+        /**
+         * Records the new blob reference, in the same transaction that clears the old content.
+         */
+        void moved(Connection connection, Object id, BlobRef blob) throws SQLException;
+    }
+
+    public int migrate(String table, String idColumn, String lobColumn, String contentType, Callback callback) {
+        try {
+            String dataType = columnType(table, lobColumn);
+            if (dataType == null) {
+                return 0;
+            }
+            boolean largeObject = "oid".equals(dataType);
+
+            int moved = 0;
+            for (Object id : idsWithContent(table, idColumn, lobColumn)) {
+                if (moveRow(table, idColumn, lobColumn, contentType, largeObject, id, callback)) {
+                    moved++;
+                }
+            }
+            execute("ALTER TABLE " + table + " DROP COLUMN " + lobColumn);
+            log.info("Moved {} values of {}.{} into the blob store", moved, table, lobColumn);
+            return moved;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to migrate " + table + "." + lobColumn, e);
+        }
+    }
+
+    private boolean moveRow(String table, String idColumn, String lobColumn, String contentType,
+                            boolean largeObject, Object id, Callback callback) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Long oid = null;
+                BlobRef blob;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT " + lobColumn + " FROM " + table + " WHERE " + idColumn + " = ?")) {
+                    select.setObject(1, id);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        if (!resultSet.next()) {
+                            connection.rollback();
+                            return false;
+                        }
+                        if (largeObject) {
+                            oid = resultSet.getLong(1);
+                            Blob content = resultSet.getBlob(1);
+                            try (InputStream input = content.getBinaryStream()) {
+                                blob = blobStore.put(input, contentType);
+                            }
+                        } else {
+                            try (InputStream input = resultSet.getBinaryStream(1)) {
+                                blob = blobStore.put(input, contentType);
+                            }
+                        }
+                    }
+                }
+
+                callback.moved(connection, id, blob);
+                try (PreparedStatement clear = connection.prepareStatement(
+                        "UPDATE " + table + " SET " + lobColumn + " = NULL WHERE " + idColumn + " = ?")) {
+                    clear.setObject(1, id);
+                    clear.executeUpdate();
+                }
+                if (oid != null) {
+                    try (PreparedStatement unlink = connection.prepareStatement(
+                            "SELECT lo_unlink(?) WHERE EXISTS (SELECT 1 FROM pg_largeobject_metadata WHERE oid = ?)")) {
+                        unlink.setLong(1, oid);
+                        unlink.setLong(2, oid);
+                        unlink.execute();
+                    }
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                log.error("Could not move {}.{} of row {}: {}", table, lobColumn, id, e.getMessage());
+                if (e instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    private String columnType(String table, String column) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("""
+                     SELECT data_type FROM information_schema.columns
+                     WHERE table_name = ? AND column_name = ?
+                     """)) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private List<Object> idsWithContent(String table, String idColumn, String lobColumn) throws SQLException {
+        List<Object> ids = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT " + idColumn + " FROM " + table + " WHERE " + lobColumn + " IS NOT NULL")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getObject(1));
+            }
+        }
+        return ids;
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.otbs.blob.store;
+
+public class BlobNotFoundException extends RuntimeException {
+    public BlobNotFoundException(String id) {
+        super("Blob not found: " + id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.otbs.blob.store;
+
+/**
+ * Reference to stored content. {@code id} is the SHA-256 of the original bytes, so
+ * identical uploads share one stored copy; {@code size} is the uncompressed length.
+ */
+public record BlobRef(
+        String id,
+        String contentType,
+        long size
+) {
+}
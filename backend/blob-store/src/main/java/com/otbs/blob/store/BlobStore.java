@@ -0,0 +1,51 @@
+package com.otbs.blob.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Content-addressed storage for binary documents such as attachments, resumes and pictures.
+ * Entities keep only the {@link BlobRef#id()}; content is streamed in and out and never
+ * needs to be held in memory as a whole.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the content read from {@code content}, or reuses an identical blob stored earlier.
+     * Either way the blob counts as stored now, so a sweep does not remove content that was
+     * just referenced again.
+     */
+    BlobRef put(InputStream content, String contentType);
+
+    /**
+     * Opens the content of a blob, decompressed. The caller must close the stream.
+     *
+     * @throws BlobNotFoundException if no blob has this id
+     */
+    InputStream open(String id);
+
+    boolean exists(String id);
+
+    void delete(String id);
+
+    /**
+     * Ids of the blobs last stored before {@code cutoff}.
+     */
+    Set<String> findStoredBefore(Instant cutoff);
+
+    /**
+     * Deletes the blob unless it was stored again at or after {@code cutoff}.
+     *
+     * @return whether the blob was deleted
+     */
+    boolean deleteIfStoredBefore(String id, Instant cutoff);
+
+    default void copyTo(String id, OutputStream output) throws IOException {
+        try (InputStream input = open(id)) {
+            input.transferTo(output);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.otbs.blob.store;
+
+public class BlobStoreException extends RuntimeException {
+    public BlobStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,96 @@
+package com.otbs.blob.store;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Hashing and compression rules shared by the {@link BlobStore} backends.
+ */
+final class BlobSupport {
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "application/json",
+            "application/xml",
+            "application/rtf",
+            "application/msword",
+            "application/vnd.ms-excel",
+            "application/x-yaml",
+            "image/bmp",
+            "image/svg+xml"
+    );
+
+    private BlobSupport() {
+    }
+
+    /**
+     * Already-compressed formats (JPEG, PNG, PDF, Office Open XML, archives) gain nothing
+     * from a second pass, so only text-like types are compressed.
+     */
+    static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || COMPRESSIBLE_TYPES.contains(type);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static CountingDigestInputStream digesting(InputStream content) {
+        return new CountingDigestInputStream(content, sha256());
+    }
+
+    static final class CountingDigestInputStream extends FilterInputStream {
+
+        private final MessageDigest digest;
+        private long count;
+
+        private CountingDigestInputStream(InputStream in, MessageDigest digest) {
+            super(new DigestInputStream(in, digest));
+            this.digest = digest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        long count() {
+            return count;
+        }
+
+        String id() {
+            return hex(digest);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.otbs.blob.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link BlobStore} backed by a directory tree: {@code root/ab/cd/abcd...[.gz]}.
+ * Content is written to a temporary file while it is hashed, then moved into place,
+ * so a blob is either fully present or absent. The modification time of a blob is the time
+ * it was last stored. Placing, refreshing and conditionally deleting a blob lock its id, so a
+ * sweep cannot delete content that a concurrent upload has just reused.
+ */
+@Slf4j
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final Pattern BLOB_FILE = Pattern.compile("([0-9a-f]{64})(\\.gz)?");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root;
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new BlobStoreException("Cannot create blob directory " + root, e);
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public BlobRef put(InputStream content, String contentType) {
+        boolean compress = BlobSupport.isCompressible(contentType);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+            BlobSupport.CountingDigestInputStream input = BlobSupport.digesting(content);
+            try (OutputStream file = Files.newOutputStream(temp);
+                 OutputStream output = compress ? new GZIPOutputStream(file) : file) {
+                input.transferTo(output);
+            }
+
+            String id = input.id();
+            Path target = path(id, compress);
+            synchronized (lock(id)) {
+                Path existing = existing(id);
+                if (existing != null) {
+                    Files.delete(temp);
+                    Files.setLastModifiedTime(existing, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            return new BlobRef(id, contentType, input.count());
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new BlobStoreException("Failed to store blob", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String id) {
+        try {
+            Path plain = path(id, false);
+            if (Files.exists(plain)) {
+                return new BufferedInputStream(Files.newInputStream(plain));
+            }
+            Path compressed = path(id, true);
+            if (Files.exists(compressed)) {
+                return new GZIPInputStream(Files.newInputStream(compressed));
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to open blob " + id, e);
+        }
+        throw new BlobNotFoundException(id);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return existing(id) != null;
+    }
+
+    @Override
+    public void delete(String id) {
+        deleteQuietly(path(id, false));
+        deleteQuietly(path(id, true));
+    }
+
+    @Override
+    public Set<String> findStoredBefore(Instant cutoff) {
+        Set<String> ids = new HashSet<>();
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                Matcher matcher = BLOB_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && storedBefore(file, cutoff)) {
+                    ids.add(matcher.group(1));
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new BlobStoreException("Failed to list blobs", e);
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String id, Instant cutoff) {
+        synchronized (lock(id)) {
+            Path existing = existing(id);
+            if (existing == null || !storedBefore(existing, cutoff)) {
+                return false;
+            }
+            deleteQuietly(existing);
+            return true;
+        }
+    }
+
+    private Path existing(String id) {
+        Path plain = path(id, false);
+        if (Files.exists(plain)) {
+            return plain;
+        }
+        Path compressed = path(id, true);
+        return Files.exists(compressed) ? compressed : null;
+    }
+
+    private boolean storedBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Object lock(String id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path path(String id, boolean compressed) {
+        if (!id.matches("[0-9a-f]{64}")) {
+            throw new BlobNotFoundException(id);
+        }
+        return root.resolve(id.substring(0, 2))
+                .resolve(id.substring(2, 4))
+                .resolve(compressed ? id + COMPRESSED_SUFFIX : id);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
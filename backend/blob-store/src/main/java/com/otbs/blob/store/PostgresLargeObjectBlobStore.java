@@ -0,0 +1,255 @@
+package com.otbs.blob.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.largeobject.LargeObject;
+import org.postgresql.largeobject.LargeObjectManager;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.sql.*;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link BlobStore} backed by PostgreSQL large objects, indexed by the {@code blobs} table.
+ * Large objects are read and written in chunks by the driver, so neither direction
+ * materialises the content in memory. {@code created_at} holds the time a blob was last stored;
+ * storing existing content again refreshes it in the same row lock that a conditional delete
+ * takes, so the two cannot interleave.
+ */
+@Slf4j
+public class PostgresLargeObjectBlobStore implements BlobStore {
+
+    private final DataSource dataSource;
+
+    public PostgresLargeObjectBlobStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+        createTable();
+    }
+
+    @Override
+    public BlobRef put(InputStream content, String contentType) {
+        boolean compress = BlobSupport.isCompressible(contentType);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                LargeObjectManager manager = connection.unwrap(PGConnection.class).getLargeObjectAPI();
+                long oid = manager.createLO(LargeObjectManager.READWRITE);
+
+                BlobSupport.CountingDigestInputStream input = BlobSupport.digesting(content);
+                LargeObject largeObject = manager.open(oid, LargeObjectManager.WRITE);
+                try (OutputStream object = largeObject.getOutputStream();
+                     OutputStream output = compress ? new GZIPOutputStream(object) : object) {
+                    input.transferTo(output);
+                } finally {
+                    largeObject.close();
+                }
+
+                String id = input.id();
+                long storedOid;
+                try (PreparedStatement statement = connection.prepareStatement("""
+                        INSERT INTO blobs (id, content_type, size, compressed, oid)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (id) DO UPDATE SET created_at = now()
+                        RETURNING oid
+                        """)) {
+                    statement.setString(1, id);
+                    statement.setString(2, contentType);
+                    statement.setLong(3, input.count());
+                    statement.setBoolean(4, compress);
+                    statement.setLong(5, oid);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        storedOid = resultSet.getLong(1);
+                    }
+                }
+                if (storedOid != oid) {
+                    manager.delete(oid);
+                }
+                connection.commit();
+                return new BlobRef(id, contentType, input.count());
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | IOException e) {
+            throw new BlobStoreException("Failed to store blob", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String id) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            long oid;
+            boolean compressed;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT oid, compressed FROM blobs WHERE id = ?")) {
+                statement.setString(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new BlobNotFoundException(id);
+                    }
+                    oid = resultSet.getLong(1);
+                    compressed = resultSet.getBoolean(2);
+                }
+            }
+
+            LargeObject largeObject = connection.unwrap(PGConnection.class).getLargeObjectAPI()
+                    .open(oid, LargeObjectManager.READ);
+            InputStream stream = new ConnectionBoundInputStream(
+                    new BufferedInputStream(largeObject.getInputStream()), largeObject, connection);
+            return compressed ? new GZIPInputStream(stream) : stream;
+        } catch (SQLException | IOException e) {
+            closeQuietly(connection);
+            throw new BlobStoreException("Failed to open blob " + id, e);
+        } catch (RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM blobs WHERE id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to look up blob " + id, e);
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM blobs WHERE id = ? RETURNING oid")) {
+                statement.setString(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        connection.unwrap(PGConnection.class).getLargeObjectAPI().delete(resultSet.getLong(1));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to delete blob " + id, e);
+        }
+    }
+
+    @Override
+    public Set<String> findStoredBefore(Instant cutoff) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM blobs WHERE created_at < ?")) {
+            statement.setTimestamp(1, Timestamp.from(cutoff));
+            Set<String> ids = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(1));
+                }
+            }
+            return ids;
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to list blobs", e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String id, Instant cutoff) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM blobs WHERE id = ? AND created_at < ? RETURNING oid")) {
+                statement.setString(1, id);
+                statement.setTimestamp(2, Timestamp.from(cutoff));
+                boolean deleted = false;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        connection.unwrap(PGConnection.class).getLargeObjectAPI().delete(resultSet.getLong(1));
+                        deleted = true;
+                    }
+                }
+                connection.commit();
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to delete blob " + id, e);
+        }
+    }
+
+    private void createTable() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS blobs (
+                        id VARCHAR(64) PRIMARY KEY,
+                        content_type VARCHAR(255),
+                        size BIGINT NOT NULL,
+                        compressed BOOLEAN NOT NULL,
+                        oid OID NOT NULL,
+                        created_at TIMESTAMP NOT NULL DEFAULT now()
+                    )
+                    """);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new BlobStoreException("Failed to create blobs table", e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Could not release blob connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps the transaction that owns the large object open until the stream is closed.
+     */
+    private static final class ConnectionBoundInputStream extends FilterInputStream {
+
+        private final LargeObject largeObject;
+        private final Connection connection;
+
+        private ConnectionBoundInputStream(InputStream in, LargeObject largeObject, Connection connection) {
+            super(in);
+            this.largeObject = largeObject;
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+                largeObject.close();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.otbs.blob.sweep;
+
+import java.util.Set;
+
+/**
+ * Lists the blob ids that a service still references, e.g. from an attachment id column.
+ * Every table that stores blob ids of a {@link com.otbs.blob.store.BlobStore} must be covered
+ * by a source, otherwise {@link UnreferencedBlobSweeper} deletes its content.
+ */
+@FunctionalInterface
+public interface BlobReferenceSource {
+
+    Set<String> referencedBlobIds();
+}
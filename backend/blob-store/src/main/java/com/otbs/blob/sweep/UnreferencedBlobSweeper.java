@@ -0,0 +1,91 @@
+package com.otbs.blob.sweep;
+
+import com.otbs.blob.store.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes blobs that no {@link BlobReferenceSource} references any more, such as
+ * replaced pictures or the attachments of deleted requests.
+ * <p>
+ * Only blobs last stored more than {@code gracePeriod} ago are candidates, which leaves uploads
+ * whose referencing row is not committed yet alone. Candidates are listed before the references
+ * are read, and each one is deleted only if it was not stored again in the meantime, so content
+ * that an upload reuses during the sweep survives.
+ */
+@Slf4j
+public class UnreferencedBlobSweeper implements DisposableBean {
+
+    private final BlobStore blobStore;
+    private final List<BlobReferenceSource> referenceSources;
+    private final Duration interval;
+    private final Duration gracePeriod;
+    private final ScheduledExecutorService scheduler;
+
+    public UnreferencedBlobSweeper(BlobStore blobStore,
+                                   List<BlobReferenceSource> referenceSources,
+                                   Duration interval,
+                                   Duration gracePeriod) {
+        this.blobStore = blobStore;
+        this.referenceSources = referenceSources;
+        this.interval = interval;
+        this.gracePeriod = gracePeriod;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "UnreferencedBlobSweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the number of blobs deleted
+     */
+    public int sweep() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Set<String> candidates = blobStore.findStoredBefore(cutoff);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> referenced = new HashSet<>();
+        referenceSources.forEach(source -> referenced.addAll(source.referencedBlobIds()));
+
+        int deleted = 0;
+        for (String id : candidates) {
+            if (!referenced.contains(id) && blobStore.deleteIfStoredBefore(id, cutoff)) {
+                deleted++;
+            }
+        }
+        log.info("Blob sweep deleted {} of {} candidate blobs", deleted, candidates.size());
+        return deleted;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.error("Blob sweep failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package com.otbs.blob.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemBlobStore(root);
+    }
+
+    @Test
+    void storesIdenticalContentOnce() throws IOException {
+        BlobRef first = put("hello", "application/pdf");
+        BlobRef second = put("hello", "application/pdf");
+
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(first.size()).isEqualTo(5);
+        assertThat(blobFiles()).hasSize(1);
+        try (InputStream input = store.open(first.id())) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+        }
+    }
+
+    @Test
+    void readsCompressedContentBack() throws IOException {
+        BlobRef blob = put("plain text ".repeat(100), "text/plain");
+
+        try (InputStream input = store.open(blob.id())) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("plain text ".repeat(100));
+        }
+    }
+
+    @Test
+    void listsOnlyBlobsStoredBeforeTheCutoff() throws IOException {
+        BlobRef old = put("old", "application/pdf");
+        BlobRef fresh = put("fresh", "text/plain");
+        age(old.id(), Duration.ofDays(2));
+
+        assertThat(store.findStoredBefore(Instant.now().minus(Duration.ofDays(1)))).containsExactly(old.id());
+        assertThat(store.findStoredBefore(Instant.now().plusSeconds(60))).containsExactlyInAnyOrder(old.id(), fresh.id());
+    }
+
+    @Test
+    void storingContentAgainRefreshesItsStoredTime() throws IOException {
+        BlobRef blob = put("reused", "application/pdf");
+        age(blob.id(), Duration.ofDays(2));
+
+        put("reused", "application/pdf");
+
+        Instant cutoff = Instant.now().minus(Duration.ofDays(1));
+        assertThat(store.findStoredBefore(cutoff)).isEmpty();
+        assertThat(store.deleteIfStoredBefore(blob.id(), cutoff)).isFalse();
+        assertThat(store.exists(blob.id())).isTrue();
+    }
+
+    @Test
+    void deletesBlobsStoredBeforeTheCutoff() throws IOException {
+        BlobRef blob = put("stale", "text/plain");
+        age(blob.id(), Duration.ofDays(2));
+
+        assertThat(store.deleteIfStoredBefore(blob.id(), Instant.now().minus(Duration.ofDays(1)))).isTrue();
+        assertThat(store.exists(blob.id())).isFalse();
+        assertThatThrownBy(() -> store.open(blob.id())).isInstanceOf(BlobNotFoundException.class);
+    }
+
+    private BlobRef put(String content, String contentType) {
+        return store.put(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+
+    private void age(String id, Duration age) throws IOException {
+        FileTime time = FileTime.from(Instant.now().minus(age));
+        for (Path file : blobFiles()) {
+            if (file.getFileName().toString().startsWith(id)) {
+                Files.setLastModifiedTime(file, time);
+            }
+        }
+    }
+
+    private List<Path> blobFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.otbs.blob.sweep;
+
+import com.otbs.blob.store.BlobRef;
+import com.otbs.blob.store.FileSystemBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnreferencedBlobSweeperTest {
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore store;
+    private final Set<String> references = new HashSet<>();
+    private UnreferencedBlobSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemBlobStore(root);
+        sweeper = new UnreferencedBlobSweeper(store, List.of(() -> Set.copyOf(references)),
+                Duration.ofHours(6), Duration.ofDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.destroy();
+    }
+
+    @Test
+    void deletesOldUnreferencedBlobs() throws IOException {
+        BlobRef replaced = put("old picture");
+        BlobRef current = put("new picture");
+        references.add(current.id());
+        age(Duration.ofDays(2));
+
+        assertThat(sweeper.sweep()).isEqualTo(1);
+        assertThat(store.exists(replaced.id())).isFalse();
+        assertThat(store.exists(current.id())).isTrue();
+    }
+
+    @Test
+    void keepsRecentUploadsThatAreNotReferencedYet() {
+        BlobRef uploading = put("attachment of an uncommitted request");
+
+        assertThat(sweeper.sweep()).isZero();
+        assertThat(store.exists(uploading.id())).isTrue();
+    }
+
+    @Test
+    void keepsContentReusedWhileTheSweepRuns() throws IOException {
+        BlobRef blob = put("resume");
+        age(Duration.ofDays(2));
+        UnreferencedBlobSweeper racing = new UnreferencedBlobSweeper(store, List.of(() -> {
+            put("resume");
+            return Set.of();
+        }), Duration.ofHours(6), Duration.ofDays(1));
+
+        assertThat(racing.sweep()).isZero();
+        assertThat(store.exists(blob.id())).isTrue();
+        racing.destroy();
+    }
+
+    private BlobRef put(String content) {
+        return store.put(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "application/pdf");
+    }
+
+    private void age(Duration age) throws IOException {
+        FileTime time = FileTime.from(Instant.now().minus(age));
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.setLastModifiedTime(file, time);
+            }
+        }
+    }
+}
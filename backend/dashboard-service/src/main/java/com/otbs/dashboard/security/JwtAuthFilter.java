@@ -1,8 +1,13 @@
 package com.otbs.dashboard.security;
 
-import com.otbs.dashboard.util.JwtUtils;
 import com.otbs.feign.client.user.UserClient;
 import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.security.identity.IdentityProfile;
+import com.otbs.security.identity.InternalIdentity;
+import com.otbs.security.identity.InternalIdentitySigner;
+import com.otbs.security.jwt.IdentityClaims;
+import com.otbs.security.jwt.JwtUtils;
+import com.otbs.security.jwt.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +33,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserClient userClient;
+    private final InternalIdentitySigner internalIdentitySigner;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -35,23 +41,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                List<String> roles = jwtUtils.getRolesFromJwtToken(jwt);
-                UserResponse user = userClient.getUserByUsername(username);
-
-                List<GrantedAuthority> authorities = roles.stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        authorities
-                );
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            InternalIdentity identity = internalIdentitySigner.verify(request.getHeader(InternalIdentitySigner.HEADER))
+                    .orElse(null);
+            if (identity != null) {
+                UserResponse user = identity.hasProfile()
+                        ? toUserResponse(identity.profile())
+                        : userClient.getUserByUsername(identity.username());
+                setAuthentication(user, identity.roles());
+            } else if (!internalIdentitySigner.isRequired()) {
+                String jwt = parseJwt(request);
+                VerifiedToken token = jwt != null ? jwtUtils.resolveJwtToken(jwt).orElse(null) : null;
+                if (token != null) {
+                    UserResponse user = jwtUtils.isIdentityClaimsEnabled() && IdentityClaims.isPresent(token)
+                            ? toUserResponse(IdentityClaims.toProfile(token))
+                            : userClient.getUserByUsername(token.username());
+                    setAuthentication(user, token.roles());
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set authentication", e);
@@ -59,6 +64,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static UserResponse toUserResponse(IdentityProfile profile) {
+        return new UserResponse(profile.userId(), profile.username(), profile.firstName(), profile.lastName(),
+                profile.email(), profile.department(), profile.role(), null, null, null, null, null);
+    }
+
+    private void setAuthentication(UserResponse user, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                user,
+                null,
+                authorities
+        );
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
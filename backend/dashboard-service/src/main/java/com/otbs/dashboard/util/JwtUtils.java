@@ -1,97 +0,0 @@
-package com.otbs.dashboard.util;
-
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import javax.crypto.SecretKey;
-import java.util.ArrayList;
-import java.util.List;
-
-@Component
-@RequiredArgsConstructor
-@Getter
-@Slf4j
-public class JwtUtils {
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration-ms}")
-    private int accessExpirationMs;
-
-    @Value("${jwt.refresh-expiration-ms}")
-    private long refreshExpirationMs;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Cannot extract username from token: {}", e.getMessage());
-            throw new JwtException("Invalid JWT token");
-        }
-    }
-
-    public List<String> getRolesFromJwtToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            Object roles = claims.get("roles");
-            if (roles instanceof List<?> rawList) {
-                List<String> result = new ArrayList<>();
-                for (Object item : rawList) {
-                    if (item instanceof String) {
-                        result.add((String) item);
-                    } else {
-                        log.warn("Non-string role found in JWT: {}", item);
-                    }
-                }
-                return result;
-            }
-            log.error("Roles claim is not a list: {}", roles);
-            throw new JwtException("Invalid roles claim in JWT token");
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Cannot extract roles from token: {}", e.getMessage());
-            throw new JwtException("Invalid JWT token");
-        }
-    }
-
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SecurityException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.otbs.feign.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of a remote lookup.
+ * <ul>
+ *     <li>Concurrent misses for the same key share a single remote call.</li>
+ *     <li>Entries older than {@code refreshAfter} are served stale while they are reloaded in
+ *     the background; if the reload fails the stale value is kept until {@code maxStale}.</li>
+ *     <li>404 responses are cached for {@code negativeTtl} and rethrown on every hit.</li>
+ *     <li>When a bulk loader is given, {@link #getAll(Collection)} fetches all misses in one call,
+ *     and the keys it does not return are cached as not found; otherwise misses are loaded one
+ *     by one.</li>
+ * </ul>
+ */
+public class CachedLookup<K, V> {
+
+    private final LoadingCache<K, Result<V>> cache;
+
+    public CachedLookup(String name,
+                        Function<K, V> loader,
+                        CachePolicy policy,
+                        Duration refreshAfter,
+                        MeterRegistry meterRegistry) {
+        this(name, loader, null, policy, refreshAfter, meterRegistry);
+    }
+
+    public CachedLookup(String name,
+                        Function<K, V> loader,
+                        Function<Set<K>, Map<K, V>> bulkLoader,
+                        CachePolicy policy,
+                        Duration refreshAfter,
+                        MeterRegistry meterRegistry) {
+        this(name, loader, bulkLoader, policy, refreshAfter, meterRegistry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    CachedLookup(String name,
+                 Function<K, V> loader,
+                 Function<Set<K>, Map<K, V>> bulkLoader,
+                 CachePolicy policy,
+                 Duration refreshAfter,
+                 MeterRegistry meterRegistry,
+                 Ticker ticker,
+                 Executor executor) {
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(executor)
+                .maximumSize(policy.maxSize())
+                .refreshAfterWrite(refreshAfter)
+                .expireAfter(Expiry.writing((K key, Result<V> result) ->
+                        result.notFound() != null ? policy.negativeTtl() : policy.maxStale()))
+                .recordStats()
+                .build(new CacheLoader<K, Result<V>>() {
+                    @Override
+                    public Result<V> load(K key) {
+                        return CachedLookup.load(loader, key);
+                    }
+
+                    @Override
+                    public Map<K, Result<V>> loadAll(Set<? extends K> keys) {
+                        Map<K, Result<V>> results = new LinkedHashMap<>();
+                        if (bulkLoader == null) {
+                            keys.forEach(key -> results.put(key, CachedLookup.load(loader, key)));
+                            return results;
+                        }
+                        Map<K, V> found = bulkLoader.apply(Set.copyOf(keys));
+                        for (K key : keys) {
+                            V value = found.get(key);
+                            results.put(key, value != null
+                                    ? new Result<>(value, null)
+                                    : new Result<>(null, notFound(name, key)));
+                        }
+                        return results;
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public V get(K key) {
+        Result<V> result = cache.get(key);
+        if (result.notFound() != null) {
+            throw result.notFound();
+        }
+        return result.value();
+    }
+
+    /**
+     * Returns the entries found for {@code keys}, in request order. Unknown keys are omitted.
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> found = new LinkedHashMap<>();
+        cache.getAll(keys).forEach((key, result) -> {
+            if (result.notFound() == null && result.value() != null) {
+                found.put(key, result.value());
+            }
+        });
+        return found;
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static <K, V> Result<V> load(Function<K, V> loader, K key) {
+        try {
+            return new Result<>(loader.apply(key), null);
+        } catch (FeignException.NotFound e) {
+            return new Result<>(null, e);
+        }
+    }
+
+    /**
+     * Stands in for the 404 a single lookup of {@code key} would have returned.
+     */
+    private static FeignException.NotFound notFound(String name, Object key) {
+        Request request = Request.create(Request.HttpMethod.GET, name + "/" + key, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not found by bulk lookup", request, null, Map.of());
+    }
+
+    private record Result<V>(V value, FeignException.NotFound notFound) {
+    }
+
+    public record CachePolicy(long maxSize, Duration maxStale, Duration negativeTtl) {
+    }
+}
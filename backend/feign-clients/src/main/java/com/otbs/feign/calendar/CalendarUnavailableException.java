@@ -0,0 +1,11 @@
+package com.otbs.feign.calendar;
+
+/**
+ * A calendar year could not be loaded from its source.
+ */
+public class CalendarUnavailableException extends RuntimeException {
+
+    public CalendarUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
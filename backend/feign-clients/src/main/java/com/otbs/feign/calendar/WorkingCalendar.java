@@ -0,0 +1,189 @@
+package com.otbs.feign.calendar;
+
+import com.otbs.feign.cache.CachedLookup;
+import com.otbs.feign.client.leave.dto.CalendarYear;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Working days and public holidays per calendar (a country or site), owned by leave-service.
+ * <p>
+ * Calendars are fetched one year at a time as precomputed bitsets and cached, so a day lookup is
+ * a bit test and counting the working days of a range is a popcount over at most a few words per
+ * year. While the source is unreachable, {@link #year(String, int)} falls back to a Saturday/Sunday
+ * weekend without holidays, retried after {@code retryAfter}.
+ */
+@Slf4j
+public class WorkingCalendar {
+
+    public static final String DEFAULT_CALENDAR = "DEFAULT";
+    public static final Set<DayOfWeek> DEFAULT_WEEKEND = Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    public enum DayKind {
+        WORKING_DAY,
+        WEEKEND,
+        HOLIDAY
+    }
+
+    @FunctionalInterface
+    public interface YearSource {
+        CalendarYear load(String calendar, int year);
+    }
+
+    private record Key(String calendar, int year) {
+    }
+
+    private record Fallback(CalendarYear year, long expiresAt) {
+    }
+
+    private final CachedLookup<Key, CalendarYear> years;
+    private final Map<Key, Fallback> fallbacks = new ConcurrentHashMap<>();
+    private final String defaultCalendar;
+    private final Duration retryAfter;
+
+    public WorkingCalendar(YearSource source,
+                           String defaultCalendar,
+                           CachedLookup.CachePolicy policy,
+                           Duration refreshAfter,
+                           Duration retryAfter,
+                           MeterRegistry meterRegistry) {
+        this.years = new CachedLookup<>("working-calendar",
+                key -> source.load(key.calendar(), key.year()), policy, refreshAfter, meterRegistry);
+        this.defaultCalendar = defaultCalendar;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isWorkingDay(LocalDate day) {
+        return isWorkingDay(defaultCalendar, day);
+    }
+
+    public boolean isWorkingDay(String calendar, LocalDate day) {
+        return isSet(year(calendar, day.getYear()).workingDays(), day.getDayOfYear() - 1);
+    }
+
+    public DayKind dayKind(LocalDate day) {
+        return dayKind(defaultCalendar, day);
+    }
+
+    /**
+     * Holidays take precedence over weekends, so a holiday falling on a Saturday is a holiday.
+     */
+    public DayKind dayKind(String calendar, LocalDate day) {
+        CalendarYear year = year(calendar, day.getYear());
+        int bit = day.getDayOfYear() - 1;
+        if (isSet(year.workingDays(), bit)) {
+            return DayKind.WORKING_DAY;
+        }
+        return isSet(year.holidays(), bit) ? DayKind.HOLIDAY : DayKind.WEEKEND;
+    }
+
+    public int countWorkingDays(LocalDate from, LocalDate to) {
+        return countWorkingDays(defaultCalendar, from, to);
+    }
+
+    /**
+     * Number of working days from {@code from} to {@code to}, both inclusive; 0 if the range is
+     * empty.
+     */
+    public int countWorkingDays(String calendar, LocalDate from, LocalDate to) {
+        int count = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            CalendarYear calendarYear = year(calendar, year);
+            int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int last = year == to.getYear() ? to.getDayOfYear() - 1 : LocalDate.of(year, 12, 31).getDayOfYear() - 1;
+            if (first <= last) {
+                count += countBits(calendarYear.workingDays(), first, last);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops a cached year, e.g. after its holidays were imported again.
+     */
+    public void invalidate(String calendar, int year) {
+        Key key = new Key(calendar, year);
+        years.invalidate(key);
+        fallbacks.remove(key);
+    }
+
+    /**
+     * Drops every cached year, e.g. after the weekly rest days of a calendar changed.
+     */
+    public void invalidateAll() {
+        years.invalidateAll();
+        fallbacks.clear();
+    }
+
+    public String defaultCalendar() {
+        return defaultCalendar;
+    }
+
+    public CalendarYear year(String calendar, int year) {
+        Key key = new Key(calendar, year);
+        Fallback fallback = fallbacks.get(key);
+        if (fallback != null && fallback.expiresAt() > System.currentTimeMillis()) {
+            return fallback.year();
+        }
+        try {
+            CalendarYear loaded = years.get(key);
+            if (fallback != null) {
+                fallbacks.remove(key);
+            }
+            return loaded;
+        } catch (RuntimeException e) {
+            log.warn("Loading {} calendar for {} failed, assuming weekends only: {}", calendar, year, e.getMessage());
+            CalendarYear weekendsOnly = CalendarYear.of(calendar, year, DEFAULT_WEEKEND, List.of());
+            fallbacks.put(key, new Fallback(weekendsOnly, System.currentTimeMillis() + retryAfter.toMillis()));
+            return weekendsOnly;
+        }
+    }
+
+    /**
+     * Same as {@link #year(String, int)}, but without the weekends-only fallback, for callers that
+     * must not pass a fallback on, such as the endpoint other services load their calendars from.
+     *
+     * @throws CalendarUnavailableException if the year is neither cached nor loadable
+     */
+    public CalendarYear loadYear(String calendar, int year) {
+        Key key = new Key(calendar, year);
+        try {
+            CalendarYear loaded = years.get(key);
+            fallbacks.remove(key);
+            return loaded;
+        } catch (RuntimeException e) {
+            throw new CalendarUnavailableException("The " + calendar + " calendar for " + year + " is unavailable", e);
+        }
+    }
+
+    private static boolean isSet(long[] bits, int bit) {
+        return (bits[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    /**
+     * Population count of {@code bits} between the bit indexes {@code from} and {@code to},
+     * both inclusive.
+     */
+    private static int countBits(long[] bits, int from, int to) {
+        int first = from >>> 6;
+        int last = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (first == last) {
+            return Long.bitCount(bits[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(bits[first] & firstMask);
+        for (int word = first + 1; word < last; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[last] & lastMask);
+    }
+}
@@ -0,0 +1,58 @@
+package com.otbs.feign.calendar;
+
+import com.otbs.feign.cache.CachedLookup;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code working-calendar.*} settings, shared by every {@link WorkingCalendar} bean whether it
+ * loads its years from leave-service or, in leave-service, from the calendar tables.
+ */
+@ConfigurationProperties(prefix = "working-calendar")
+public class WorkingCalendarProperties {
+
+    /**
+     * Calendar used when a lookup names none ({@code working-calendar.default}).
+     */
+    private String defaultCalendar = WorkingCalendar.DEFAULT_CALENDAR;
+
+    @Getter
+    private final Cache cache = new Cache();
+
+    public String getDefault() {
+        return defaultCalendar;
+    }
+
+    public void setDefault(String defaultCalendar) {
+        this.defaultCalendar = defaultCalendar;
+    }
+
+    public CachedLookup.CachePolicy cachePolicy() {
+        return new CachedLookup.CachePolicy(cache.maxSize, cache.maxStale, cache.retryAfter);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private long maxSize = 100;
+
+        /**
+         * Age after which a cached year is reloaded in the background.
+         */
+        private Duration refreshAfter = Duration.ofHours(1);
+
+        /**
+         * How long a year is still served while it cannot be reloaded.
+         */
+        private Duration maxStale = Duration.ofDays(7);
+
+        /**
+         * Delay before retrying a year that could not be loaded, served as weekends only meanwhile.
+         */
+        private Duration retryAfter = Duration.ofMinutes(1);
+    }
+}
@@ -1,18 +1,42 @@
 package com.otbs.feign.client.leave;
 
+import com.otbs.feign.client.leave.dto.CalendarYear;
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.feign.client.leave.dto.LeaveIntervalQuery;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDate;
+import java.util.List;
 
-@FeignClient(name = "leave-service", url = "http://localhost:8083",contextId ="leaveClient")
+@FeignClient(name = "leave-service", url = "http://localhost:8083",contextId ="leaveClient",
+        qualifiers = LeaveClient.REMOTE_QUALIFIER)
 public interface LeaveClient {
+
+    String REMOTE_QUALIFIER = "remoteLeaveClient";
+
     @GetMapping("/api/v1/leave/exists")
     ResponseEntity<Boolean> leaveExists(
             @RequestParam("userDn") String userDn,
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     );
+
+    @GetMapping("/api/v1/leave/intervals")
+    List<LeaveInterval> getApprovedLeaveIntervals(
+            @RequestParam("userDn") String userDn,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
+
+    @PostMapping("/api/v1/leave/intervals/batch")
+    List<LeaveInterval> getApprovedLeaveIntervals(@RequestBody LeaveIntervalQuery query);
+
+    @GetMapping("/api/v1/leave/calendars/{calendar}/years/{year}")
+    CalendarYear getCalendarYear(@PathVariable("calendar") String calendar, @PathVariable("year") int year);
 }
@@ -0,0 +1,39 @@
+package com.otbs.feign.client.leave.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * One year of a working calendar as two bitsets indexed by day of the year, starting at bit 0
+ * for January 1st: the working days, and the public holidays.
+ */
+public record CalendarYear(
+        String calendar,
+        int year,
+        long[] workingDays,
+        long[] holidays
+) {
+
+    public static CalendarYear of(String calendar, int year, Set<DayOfWeek> weekendDays, Collection<LocalDate> holidayDates) {
+        int length = Year.of(year).length();
+        long[] workingDays = new long[(length + 63) >>> 6];
+        long[] holidays = new long[workingDays.length];
+        for (LocalDate holiday : holidayDates) {
+            if (holiday.getYear() == year) {
+                int bit = holiday.getDayOfYear() - 1;
+                holidays[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        LocalDate day = LocalDate.ofYearDay(year, 1);
+        for (int bit = 0; bit < length; bit++, day = day.plusDays(1)) {
+            if (!weekendDays.contains(day.getDayOfWeek()) && (holidays[bit >>> 6] & 1L << bit) == 0) {
+                workingDays[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new CalendarYear(calendar, year, workingDays, holidays);
+    }
+}
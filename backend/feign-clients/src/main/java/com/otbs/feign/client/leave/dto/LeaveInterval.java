@@ -0,0 +1,14 @@
+package com.otbs.feign.client.leave.dto;
+
+import java.time.LocalDate;
+
+/**
+ * An approved leave of one user, covering {@code startDate} to {@code endDate} inclusive.
+ */
+public record LeaveInterval(
+        String userDn,
+        LocalDate startDate,
+        LocalDate endDate,
+        String leaveType
+) {
+}
@@ -0,0 +1,14 @@
+package com.otbs.feign.client.leave.dto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Approved leaves of many users that overlap [{@code from}, {@code to}].
+ */
+public record LeaveIntervalQuery(
+        Collection<String> userDns,
+        LocalDate from,
+        LocalDate to
+) {
+}
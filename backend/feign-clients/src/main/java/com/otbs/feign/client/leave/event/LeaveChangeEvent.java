@@ -0,0 +1,25 @@
+package com.otbs.feign.client.leave.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Published by leave-service on {@link #EXCHANGE} when a leave enters or leaves the approved
+ * state, so that services deriving figures from approved leaves can refresh the covered days.
+ */
+public record LeaveChangeEvent(
+        Long leaveId,
+        String userDn,
+        LocalDate startDate,
+        LocalDate endDate,
+        String status,
+        Instant occurredAt
+) {
+
+    public static final String EXCHANGE = "leave.exchange";
+    public static final String ROUTING_KEY = "leave.status.changed";
+
+    public static LeaveChangeEvent of(Long leaveId, String userDn, LocalDate startDate, LocalDate endDate, String status) {
+        return new LeaveChangeEvent(leaveId, userDn, startDate, endDate, status, Instant.now());
+    }
+}
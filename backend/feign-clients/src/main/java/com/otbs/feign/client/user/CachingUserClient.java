@@ -0,0 +1,83 @@
+package com.otbs.feign.client.user;
+
+import com.otbs.feign.cache.CachedLookup;
+import com.otbs.feign.client.user.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link UserClient} decorator that serves directory lookups from memory.
+ * Directory data changes a few times a month, so every method is cached with its
+ * own freshness window and keeps answering from stale entries while user-service
+ * is slow or unavailable.
+ */
+public class CachingUserClient implements UserClient {
+
+    private static final String ALL_USERS_KEY = "all";
+
+    private final CachedLookup<String, UserResponse> byEmail;
+    private final CachedLookup<String, UserResponse> byDn;
+    private final CachedLookup<String, UserResponse> byUsername;
+    private final CachedLookup<String, UserResponse> managerByDepartment;
+    private final CachedLookup<String, List<UserResponse>> allUsers;
+
+    public CachingUserClient(UserClient delegate,
+                             CachedLookup.CachePolicy policy,
+                             Duration userTtl,
+                             Duration managerTtl,
+                             Duration allUsersTtl,
+                             MeterRegistry meterRegistry) {
+        this.byEmail = new CachedLookup<>("users.byEmail", delegate::getUserByEmail, policy, userTtl, meterRegistry);
+        this.byDn = new CachedLookup<>("users.byDn", delegate::getUserByDn,
+                ids -> delegate.getUsersByDns(List.copyOf(ids)).stream()
+                        .collect(Collectors.toMap(UserResponse::id, Function.identity(), (first, second) -> first)),
+                policy, userTtl, meterRegistry);
+        this.byUsername = new CachedLookup<>("users.byUsername", delegate::getUserByUsername, policy, userTtl, meterRegistry);
+        this.managerByDepartment = new CachedLookup<>("users.managerByDepartment", delegate::getManagerByDepartment,
+                policy, managerTtl, meterRegistry);
+        this.allUsers = new CachedLookup<>("users.all", key -> List.copyOf(delegate.getAllUsers()),
+                policy, allUsersTtl, meterRegistry);
+    }
+
+    @Override
+    public UserResponse getUserByEmail(String email) {
+        return byEmail.get(email);
+    }
+
+    @Override
+    public UserResponse getUserByDn(String id) {
+        return byDn.get(id);
+    }
+
+    @Override
+    public List<UserResponse> getUsersByDns(List<String> ids) {
+        return List.copyOf(byDn.getAll(ids).values());
+    }
+
+    @Override
+    public List<UserResponse> getAllUsers() {
+        return allUsers.get(ALL_USERS_KEY);
+    }
+
+    @Override
+    public UserResponse getUserByUsername(String username) {
+        return byUsername.get(username);
+    }
+
+    @Override
+    public UserResponse getManagerByDepartment(String department) {
+        return managerByDepartment.get(department);
+    }
+
+    public void evictAll() {
+        byEmail.invalidateAll();
+        byDn.invalidateAll();
+        byUsername.invalidateAll();
+        managerByDepartment.invalidateAll();
+        allUsers.invalidateAll();
+    }
+}
@@ -0,0 +1,114 @@
+package com.otbs.feign.client.user;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces {@code getUserByDn} lookups into bulk {@link UserClient#getUsersByDns(List)} calls.
+ * <p>
+ * Lookups issued within {@code window} of each other, from any thread, are sent as a single
+ * request; a batch is sent early once it reaches {@code maxBatchSize} distinct DNs.
+ */
+@Slf4j
+public class UserBatchLoader implements DisposableBean {
+
+    private final UserClient userClient;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<UserResponse>> pending = new LinkedHashMap<>();
+
+    public UserBatchLoader(UserClient userClient, Duration window, int maxBatchSize, int threads) {
+        this.userClient = userClient;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "UserBatchLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<UserResponse> load(String dn) {
+        CompletableFuture<UserResponse> future;
+        Map<String, CompletableFuture<UserResponse>> full = null;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(dn, key -> new CompletableFuture<>());
+            if (pending.size() == 1) {
+                scheduler.schedule(this::dispatchPending, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (full != null) {
+            Map<String, CompletableFuture<UserResponse>> batch = full;
+            scheduler.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    /**
+     * Resolves many DNs at once, bypassing the window. Unknown DNs are omitted from the result.
+     */
+    public Map<String, UserResponse> loadAll(Collection<String> dns) {
+        if (dns.isEmpty()) {
+            return Map.of();
+        }
+        return userClient.getUsersByDns(dns.stream().distinct().toList()).stream()
+                .collect(Collectors.toMap(UserResponse::id, Function.identity(), (first, second) -> first));
+    }
+
+    private void dispatchPending() {
+        Map<String, CompletableFuture<UserResponse>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<String, CompletableFuture<UserResponse>> batch) {
+        try {
+            Map<String, UserResponse> users = loadAll(batch.keySet());
+            log.debug("Resolved {} of {} users in one batch", users.size(), batch.size());
+            batch.forEach((dn, future) -> {
+                UserResponse user = users.get(dn);
+                if (user != null) {
+                    future.complete(user);
+                } else {
+                    future.completeExceptionally(new NoSuchElementException(
+                            String.format("User not found with DN: %s", dn)));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Batch user lookup failed: {}", e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
@@ -4,19 +4,30 @@ import com.otbs.feign.client.user.dto.UserResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
-@FeignClient(name = "user-service", url = "http://localhost:8082",contextId ="userClient")
+@FeignClient(name = "user-service", url = "http://localhost:8082",contextId ="userClient",
+        primary = false, qualifiers = UserClient.REMOTE_QUALIFIER)
 public interface UserClient {
 
+    /**
+     * Qualifier of the raw Feign proxy; injecting {@code UserClient} by type returns the caching decorator.
+     */
+    String REMOTE_QUALIFIER = "remoteUserClient";
+
     @GetMapping("/api/v1/users")
     UserResponse getUserByEmail(@RequestParam("email") String email);
 
     @GetMapping("/api/v1/users/{id}")
     UserResponse getUserByDn(@PathVariable("id") String id);
 
+    @PostMapping("/api/v1/users/batch")
+    List<UserResponse> getUsersByDns(@RequestBody List<String> ids);
+
     @GetMapping("/api/v1/users/all")
     List<UserResponse> getAllUsers();
 
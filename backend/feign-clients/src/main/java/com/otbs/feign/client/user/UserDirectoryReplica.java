@@ -0,0 +1,136 @@
+package com.otbs.feign.client.user;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.feign.client.user.event.UserChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Local, read-only copy of the user directory, kept current by {@link UserChangeEvent}s.
+ * <p>
+ * Until the first event arrives, or when no event has been seen for {@code maxAge}, the
+ * replica loads the directory once through {@link UserClient#getAllUsers()}. Bulk operations
+ * can therefore query it freely without a round trip to user-service.
+ */
+@Slf4j
+public class UserDirectoryReplica {
+
+    private final UserClient userClient;
+    private final Duration maxAge;
+
+    private volatile Snapshot snapshot;
+
+    public UserDirectoryReplica(UserClient userClient, Duration maxAge) {
+        this.userClient = userClient;
+        this.maxAge = maxAge;
+    }
+
+    public List<UserResponse> getAllUsers() {
+        return snapshot().users();
+    }
+
+    public Optional<UserResponse> findById(String id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public List<UserResponse> findByDepartment(String department) {
+        return snapshot().byDepartment().getOrDefault(department, List.of());
+    }
+
+    /**
+     * Headcount of a department, kept current by the same events as the rest of the replica.
+     */
+    public int countByDepartment(String department) {
+        return findByDepartment(department).size();
+    }
+
+    public List<UserResponse> findByRole(String role) {
+        return snapshot().byRole().getOrDefault(role, List.of());
+    }
+
+    public synchronized void apply(UserChangeEvent event) {
+        if (event.type() == UserChangeEvent.Type.SNAPSHOT) {
+            this.snapshot = Snapshot.of(event.users(), event.occurredAt());
+            log.info("User directory replica replaced with {} users", event.users().size());
+            return;
+        }
+
+        Map<String, UserResponse> users = new LinkedHashMap<>(snapshot().byId());
+        for (UserResponse user : event.users()) {
+            if (event.type() == UserChangeEvent.Type.DELETED) {
+                users.remove(user.id());
+            } else {
+                users.put(user.id(), user);
+            }
+        }
+        this.snapshot = Snapshot.of(users.values(), event.occurredAt());
+        log.debug("Applied {} event for {} users", event.type(), event.users().size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null || current.syncedAt().plus(maxAge).isBefore(Instant.now())) {
+            synchronized (this) {
+                current = this.snapshot;
+                if (current == null || current.syncedAt().plus(maxAge).isBefore(Instant.now())) {
+                    current = reload(current);
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot reload(Snapshot current) {
+        try {
+            Snapshot loaded = Snapshot.of(userClient.getAllUsers(), Instant.now());
+            this.snapshot = loaded;
+            log.info("User directory replica loaded {} users from user-service", loaded.users().size());
+            return loaded;
+        } catch (RuntimeException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.warn("Could not refresh user directory replica, serving stale copy: {}", e.getMessage());
+            return current;
+        }
+    }
+
+    private record Snapshot(
+            List<UserResponse> users,
+            Map<String, UserResponse> byId,
+            Map<String, List<UserResponse>> byDepartment,
+            Map<String, List<UserResponse>> byRole,
+            Instant syncedAt
+    ) {
+
+        static Snapshot of(Collection<UserResponse> users, Instant syncedAt) {
+            Map<String, UserResponse> byId = new LinkedHashMap<>();
+            Map<String, List<UserResponse>> byDepartment = new HashMap<>();
+            Map<String, List<UserResponse>> byRole = new HashMap<>();
+            for (UserResponse user : users) {
+                byId.put(user.id(), user);
+            }
+            for (UserResponse user : byId.values()) {
+                if (user.department() != null) {
+                    byDepartment.computeIfAbsent(user.department(), key -> new ArrayList<>()).add(user);
+                }
+                if (user.role() != null) {
+                    byRole.computeIfAbsent(user.role(), key -> new ArrayList<>()).add(user);
+                }
+            }
+            byDepartment.replaceAll((key, members) -> List.copyOf(members));
+            byRole.replaceAll((key, members) -> List.copyOf(members));
+
+            return new Snapshot(
+                    List.copyOf(byId.values()),
+                    Collections.unmodifiableMap(byId),
+                    byDepartment,
+                    byRole,
+                    syncedAt
+            );
+        }
+    }
+}
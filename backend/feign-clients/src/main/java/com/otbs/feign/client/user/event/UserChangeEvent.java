@@ -0,0 +1,34 @@
+package com.otbs.feign.client.user.event;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Directory change published by user-service on {@link #EXCHANGE}.
+ * A {@link Type#SNAPSHOT} carries every user and replaces the receiver's copy;
+ * the other types carry only the affected users.
+ */
+public record UserChangeEvent(
+        Type type,
+        List<UserResponse> users,
+        Instant occurredAt
+) {
+
+    public static final String EXCHANGE = "user.exchange";
+    public static final String ROUTING_KEY_PATTERN = "user.#";
+
+    public enum Type {
+        SNAPSHOT, CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangeEvent of(Type type, List<UserResponse> users) {
+        return new UserChangeEvent(type, List.copyOf(users), Instant.now());
+    }
+
+    public String routingKey() {
+        return "user." + type.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.otbs.feign.client.user.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Feeds {@link UserChangeEvent}s received from the broker into the local {@link UserDirectoryReplica}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserChangeEventListener implements MessageListener {
+
+    private final UserDirectoryReplica replica;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message) {
+        try {
+            replica.apply(objectMapper.readValue(message.getBody(), UserChangeEvent.class));
+        } catch (IOException e) {
+            log.error("Error reading user change event: {}", e.getMessage(), e);
+        }
+    }
+}
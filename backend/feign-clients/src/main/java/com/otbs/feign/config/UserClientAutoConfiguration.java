@@ -0,0 +1,81 @@
+package com.otbs.feign.config;
+
+import com.otbs.feign.cache.CachedLookup;
+import com.otbs.feign.client.user.CachingUserClient;
+import com.otbs.feign.client.user.UserBatchLoader;
+import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@AutoConfiguration
+public class UserClientAutoConfiguration {
+
+    @Value("${user-client.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${user-client.cache.max-stale:1h}")
+    private Duration maxStale;
+
+    @Value("${user-client.cache.negative-ttl:1m}")
+    private Duration negativeTtl;
+
+    @Value("${user-client.cache.ttl.user:10m}")
+    private Duration userTtl;
+
+    @Value("${user-client.cache.ttl.manager:10m}")
+    private Duration managerTtl;
+
+    @Value("${user-client.cache.ttl.all-users:2m}")
+    private Duration allUsersTtl;
+
+    @Value("${user-client.replica.max-age:2h}")
+    private Duration replicaMaxAge;
+
+    @Value("${user-client.batch.window:5ms}")
+    private Duration batchWindow;
+
+    @Value("${user-client.batch.max-size:200}")
+    private int batchMaxSize;
+
+    @Value("${user-client.batch.threads:2}")
+    private int batchThreads;
+
+    @Bean
+    @ConditionalOnBean(name = UserClient.REMOTE_QUALIFIER)
+    public UserBatchLoader userBatchLoader(UserClient userClient) {
+        return new UserBatchLoader(userClient, batchWindow, batchMaxSize, batchThreads);
+    }
+
+    @Bean
+    @ConditionalOnBean(name = UserClient.REMOTE_QUALIFIER)
+    public UserDirectoryReplica userDirectoryReplica(@Qualifier(UserClient.REMOTE_QUALIFIER) UserClient userClient) {
+        return new UserDirectoryReplica(userClient, replicaMaxAge);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "user-client.cache.enabled", matchIfMissing = true)
+    @ConditionalOnBean(name = UserClient.REMOTE_QUALIFIER)
+    public CachingUserClient cachingUserClient(@Qualifier(UserClient.REMOTE_QUALIFIER) UserClient userClient,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CachingUserClient(
+                userClient,
+                new CachedLookup.CachePolicy(maxSize, maxStale, negativeTtl),
+                userTtl,
+                managerTtl,
+                allUsersTtl,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.otbs.feign.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.feign.client.user.event.UserChangeEvent;
+import com.otbs.feign.client.user.event.UserChangeEventListener;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Subscribes the local {@link UserDirectoryReplica} to user-service's change events.
+ * Each instance binds its own auto-deleted queue, so every replica sees every event.
+ */
+@AutoConfiguration(
+        after = UserClientAutoConfiguration.class,
+        afterName = "org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration")
+@ConditionalOnClass(ConnectionFactory.class)
+@ConditionalOnBean({UserDirectoryReplica.class, ConnectionFactory.class})
+@ConditionalOnProperty(name = "user-client.replica.events.enabled", matchIfMissing = true)
+public class UserEventsAutoConfiguration {
+
+    @Bean
+    public TopicExchange userEventsExchange() {
+        return new TopicExchange(UserChangeEvent.EXCHANGE);
+    }
+
+    @Bean
+    public AnonymousQueue userEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userEventsBinding() {
+        return BindingBuilder
+                .bind(userEventsQueue())
+                .to(userEventsExchange())
+                .with(UserChangeEvent.ROUTING_KEY_PATTERN);
+    }
+
+    @Bean
+    public SimpleMessageListenerContainer userEventsListenerContainer(ConnectionFactory connectionFactory,
+                                                                     UserDirectoryReplica replica,
+                                                                     ObjectMapper objectMapper) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueues(userEventsQueue());
+        container.setMessageListener(new UserChangeEventListener(replica, objectMapper));
+        return container;
+    }
+}
@@ -0,0 +1,39 @@
+package com.otbs.feign.config;
+
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.calendar.WorkingCalendarProperties;
+import com.otbs.feign.client.leave.LeaveClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Serves the {@link WorkingCalendar} from leave-service. leave-service itself declares its own
+ * bean backed by its repositories, and this one backs off.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(WorkingCalendarProperties.class)
+public class WorkingCalendarAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(name = LeaveClient.REMOTE_QUALIFIER)
+    public WorkingCalendar workingCalendar(@Qualifier(LeaveClient.REMOTE_QUALIFIER) LeaveClient leaveClient,
+                                           WorkingCalendarProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new WorkingCalendar(
+                leaveClient::getCalendarYear,
+                properties.getDefault(),
+                properties.cachePolicy(),
+                properties.getCache().getRefreshAfter(),
+                properties.getCache().getRetryAfter(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+        );
+    }
+}
@@ -0,0 +1,197 @@
+package com.otbs.feign.cache;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachedLookupTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final CachedLookup.CachePolicy POLICY =
+            new CachedLookup.CachePolicy(100, Duration.ofHours(1), Duration.ofMinutes(1));
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void loadsEachKeyOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> key + "#" + calls.incrementAndGet());
+
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe#1");
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe#1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void servesTheStaleValueWhileRefreshing() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> key + "#" + calls.incrementAndGet());
+        lookup.get("jdoe");
+
+        advance(REFRESH_AFTER.plusSeconds(1));
+
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe#1");
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe#2");
+    }
+
+    @Test
+    void keepsTheStaleValueUntilMaxStaleWhenRefreshFails() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new IllegalStateException("user-service is down");
+            }
+            return key;
+        });
+        lookup.get("jdoe");
+
+        advance(REFRESH_AFTER.plusSeconds(1));
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe");
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe");
+
+        advance(POLICY.maxStale());
+        assertThatThrownBy(() -> lookup.get("jdoe")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void expiresEntriesAfterMaxStale() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> key + "#" + calls.incrementAndGet());
+        lookup.get("jdoe");
+
+        advance(POLICY.maxStale().plusSeconds(1));
+
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe#2");
+    }
+
+    @Test
+    void cachesNotFoundForTheNegativeTtl() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> {
+            calls.incrementAndGet();
+            throw notFound(key);
+        });
+
+        assertThatThrownBy(() -> lookup.get("ghost")).isInstanceOf(FeignException.NotFound.class);
+        assertThatThrownBy(() -> lookup.get("ghost")).isInstanceOf(FeignException.NotFound.class);
+        assertThat(calls).hasValue(1);
+
+        advance(POLICY.negativeTtl().plusSeconds(1));
+
+        assertThatThrownBy(() -> lookup.get("ghost")).isInstanceOf(FeignException.NotFound.class);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedLookup<String, String> lookup = lookup(key -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("timeout");
+            }
+            return key;
+        });
+
+        assertThatThrownBy(() -> lookup.get("jdoe")).isInstanceOf(IllegalStateException.class);
+        assertThat(lookup.get("jdoe")).isEqualTo("jdoe");
+    }
+
+    @Test
+    void loadsAllMissesWithOneBulkCall() {
+        List<Set<String>> bulkCalls = new ArrayList<>();
+        CachedLookup<String, String> lookup = new CachedLookup<>("test", key -> key,
+                keys -> {
+                    bulkCalls.add(keys);
+                    Map<String, String> found = new HashMap<>();
+                    keys.stream().filter(key -> !key.equals("ghost")).forEach(key -> found.put(key, key.toUpperCase()));
+                    return found;
+                },
+                POLICY, REFRESH_AFTER, new SimpleMeterRegistry(), nanos::get, Runnable::run);
+        lookup.get("a");
+
+        Map<String, String> found = lookup.getAll(List.of("a", "b", "ghost", "c"));
+
+        assertThat(found).containsOnlyKeys("a", "b", "c");
+        assertThat(found.get("a")).isEqualTo("a");
+        assertThat(bulkCalls).containsExactly(Set.of("b", "ghost", "c"));
+    }
+
+    @Test
+    void cachesKeysMissingFromTheBulkResultAsNotFound() {
+        AtomicInteger singleCalls = new AtomicInteger();
+        List<Set<String>> bulkCalls = new ArrayList<>();
+        CachedLookup<String, String> lookup = new CachedLookup<>("test",
+                key -> {
+                    singleCalls.incrementAndGet();
+                    return key;
+                },
+                keys -> {
+                    bulkCalls.add(keys);
+                    return Map.of("a", "A");
+                },
+                POLICY, REFRESH_AFTER, new SimpleMeterRegistry(), nanos::get, Runnable::run);
+
+        assertThat(lookup.getAll(List.of("a", "ghost"))).containsOnlyKeys("a");
+        assertThat(lookup.getAll(List.of("a", "ghost"))).containsOnlyKeys("a");
+        assertThatThrownBy(() -> lookup.get("ghost")).isInstanceOf(FeignException.NotFound.class);
+        assertThat(bulkCalls).containsExactly(Set.of("a", "ghost"));
+        assertThat(singleCalls).hasValue(0);
+
+        advance(POLICY.negativeTtl().plusSeconds(1));
+
+        assertThat(lookup.getAll(List.of("a", "ghost"))).containsOnlyKeys("a");
+        assertThat(bulkCalls).containsExactly(Set.of("a", "ghost"), Set.of("ghost"));
+    }
+
+    @Test
+    void loadsMissesOneByOneWithoutABulkLoader() {
+        List<String> calls = new ArrayList<>();
+        CachedLookup<String, String> lookup = lookup(key -> {
+            calls.add(key);
+            if (key.equals("ghost")) {
+                throw notFound(key);
+            }
+            return key.toUpperCase();
+        });
+        lookup.get("a");
+
+        Map<String, String> found = lookup.getAll(List.of("a", "b", "ghost"));
+
+        assertThat(found).containsOnlyKeys("a", "b");
+        assertThat(found.get("b")).isEqualTo("B");
+        assertThat(calls).containsExactlyInAnyOrder("a", "b", "ghost");
+        assertThat(lookup.getAll(List.of("ghost"))).isEmpty();
+        assertThat(calls).hasSize(3);
+    }
+
+    private CachedLookup<String, String> lookup(Function<String, String> loader) {
+        return new CachedLookup<>("test", loader, null, POLICY, REFRESH_AFTER, new SimpleMeterRegistry(),
+                nanos::get, Runnable::run);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(TimeUnit.NANOSECONDS.convert(duration));
+    }
+
+    private static FeignException.NotFound notFound(String key) {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/v1/users/" + key, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not Found", request, null, Map.of());
+    }
+}
@@ -0,0 +1,73 @@
+package com.otbs.feign.calendar;
+
+import com.otbs.feign.cache.CachedLookup;
+import com.otbs.feign.client.leave.dto.CalendarYear;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkingCalendarTest {
+
+    private static final LocalDate NEW_YEAR = LocalDate.of(2026, 1, 1);
+    private static final LocalDate INDEPENDENCE_DAY = LocalDate.of(2026, 3, 20);
+    private static final LocalDate SATURDAY_HOLIDAY = LocalDate.of(2026, 11, 7);
+
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final WorkingCalendar calendar = new WorkingCalendar((name, year) -> {
+        if (down.get()) {
+            throw new IllegalStateException("leave-service is down");
+        }
+        return CalendarYear.of(name, year, WorkingCalendar.DEFAULT_WEEKEND,
+                List.of(NEW_YEAR, INDEPENDENCE_DAY, SATURDAY_HOLIDAY));
+    }, WorkingCalendar.DEFAULT_CALENDAR, new CachedLookup.CachePolicy(100, Duration.ofDays(7), Duration.ofMinutes(1)),
+            Duration.ofHours(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void classifiesDays() {
+        assertThat(calendar.dayKind(LocalDate.of(2026, 3, 19))).isEqualTo(WorkingCalendar.DayKind.WORKING_DAY);
+        assertThat(calendar.dayKind(INDEPENDENCE_DAY)).isEqualTo(WorkingCalendar.DayKind.HOLIDAY);
+        assertThat(calendar.dayKind(LocalDate.of(2026, 3, 21))).isEqualTo(WorkingCalendar.DayKind.WEEKEND);
+        assertThat(calendar.dayKind(SATURDAY_HOLIDAY)).isEqualTo(WorkingCalendar.DayKind.HOLIDAY);
+    }
+
+    @Test
+    void countsWorkingDaysAcrossYears() {
+        // Mon 2025-12-29 to Sun 2026-01-04: New Year's Day and the weekend are not working days.
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 4))).isEqualTo(4);
+        assertThat(calendar.countWorkingDays(INDEPENDENCE_DAY, LocalDate.of(2026, 3, 22))).isZero();
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 3, 23), LocalDate.of(2026, 3, 22))).isZero();
+    }
+
+    @Test
+    void fallsBackToWeekendsOnlyWhileTheSourceIsDown() {
+        down.set(true);
+
+        assertThat(calendar.dayKind(INDEPENDENCE_DAY)).isEqualTo(WorkingCalendar.DayKind.WORKING_DAY);
+        assertThat(calendar.dayKind(LocalDate.of(2026, 3, 21))).isEqualTo(WorkingCalendar.DayKind.WEEKEND);
+    }
+
+    @Test
+    void doesNotHandOutTheFallbackWhenLoadingAYear() {
+        down.set(true);
+        calendar.year(WorkingCalendar.DEFAULT_CALENDAR, 2026);
+
+        assertThatThrownBy(() -> calendar.loadYear(WorkingCalendar.DEFAULT_CALENDAR, 2026))
+                .isInstanceOf(CalendarUnavailableException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        down.set(false);
+        CalendarYear loaded = calendar.loadYear(WorkingCalendar.DEFAULT_CALENDAR, 2026);
+
+        assertThat(loaded.holidays()).isEqualTo(
+                CalendarYear.of(WorkingCalendar.DEFAULT_CALENDAR, 2026, WorkingCalendar.DEFAULT_WEEKEND,
+                        List.of(NEW_YEAR, INDEPENDENCE_DAY, SATURDAY_HOLIDAY)).holidays());
+        assertThat(calendar.dayKind(INDEPENDENCE_DAY)).isEqualTo(WorkingCalendar.DayKind.HOLIDAY);
+    }
+}
@@ -0,0 +1,129 @@
+package com.otbs.feign.client.user;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserBatchLoaderTest {
+
+    private final UserClient userClient = mock(UserClient.class);
+    private UserBatchLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        loader.destroy();
+    }
+
+    @Test
+    void coalescesLookupsWithinTheWindow() throws Exception {
+        when(userClient.getUsersByDns(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+        loader = new UserBatchLoader(userClient, Duration.ofMillis(200), 100, 1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<CompletableFuture<UserResponse>>> submitted = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            String dn = "cn=user" + i % 16;
+            submitted.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return loader.load(dn);
+            }, callers));
+        }
+        start.countDown();
+
+        for (int i = 0; i < submitted.size(); i++) {
+            UserResponse user = submitted.get(i).get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+            assertThat(user.id()).isEqualTo("cn=user" + i % 16);
+        }
+        callers.shutdown();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> dns = ArgumentCaptor.forClass(List.class);
+        verify(userClient, times(1)).getUsersByDns(dns.capture());
+        assertThat(dns.getValue()).hasSize(16).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void sendsAFullBatchWithoutWaitingForTheWindow() throws Exception {
+        when(userClient.getUsersByDns(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+        loader = new UserBatchLoader(userClient, Duration.ofHours(1), 2, 1);
+
+        CompletableFuture<UserResponse> first = loader.load("cn=a");
+        CompletableFuture<UserResponse> second = loader.load("cn=b");
+
+        assertThat(first.get(5, TimeUnit.SECONDS).id()).isEqualTo("cn=a");
+        assertThat(second.get(5, TimeUnit.SECONDS).id()).isEqualTo("cn=b");
+        verify(userClient, times(1)).getUsersByDns(List.of("cn=a", "cn=b"));
+    }
+
+    @Test
+    void failsLookupsOfUnknownUsers() throws Exception {
+        when(userClient.getUsersByDns(anyList())).thenReturn(List.of(user("cn=a")));
+        loader = new UserBatchLoader(userClient, Duration.ofMillis(10), 100, 1);
+
+        CompletableFuture<UserResponse> known = loader.load("cn=a");
+        CompletableFuture<UserResponse> unknown = loader.load("cn=ghost");
+
+        assertThat(known.get(5, TimeUnit.SECONDS).id()).isEqualTo("cn=a");
+        assertThatThrownBy(() -> unknown.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void failsTheWholeBatchWhenTheCallFails() {
+        when(userClient.getUsersByDns(anyList())).thenThrow(new IllegalStateException("user-service is down"));
+        loader = new UserBatchLoader(userClient, Duration.ofMillis(10), 100, 1);
+
+        CompletableFuture<UserResponse> first = loader.load("cn=a");
+        CompletableFuture<UserResponse> second = loader.load("cn=b");
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void loadAllRequestsEachDnOnce() {
+        when(userClient.getUsersByDns(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+        loader = new UserBatchLoader(userClient, Duration.ofMillis(10), 100, 1);
+
+        assertThat(loader.loadAll(List.of("cn=a", "cn=b", "cn=a"))).containsOnlyKeys("cn=a", "cn=b");
+        verify(userClient).getUsersByDns(List.of("cn=a", "cn=b"));
+    }
+
+    private static List<UserResponse> users(List<String> dns) {
+        return dns.stream().map(UserBatchLoaderTest::user).toList();
+    }
+
+    private static UserResponse user(String dn) {
+        return new UserResponse(dn, dn, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
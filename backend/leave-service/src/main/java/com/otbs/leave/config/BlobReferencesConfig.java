@@ -0,0 +1,22 @@
+package com.otbs.leave.config;
+
+import com.otbs.blob.sweep.BlobReferenceSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+
+/**
+ * Blobs still referenced by this service; every other blob in its store is swept once it is
+ * older than the grace period, e.g. the attachment of a deleted leave request.
+ */
+@Configuration
+public class BlobReferencesConfig {
+
+    @Bean
+    public BlobReferenceSource leaveAttachmentReferences(JdbcTemplate jdbcTemplate) {
+        return () -> new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT attachment_id FROM leaves WHERE attachment_id IS NOT NULL", String.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.otbs.leave.config;
+
+import com.otbs.feign.client.leave.event.LeaveChangeEvent;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public TopicExchange leaveExchange() {
+        return new TopicExchange(LeaveChangeEvent.EXCHANGE);
+    }
+}
@@ -2,6 +2,7 @@ package com.otbs.leave.config;
 
 import com.otbs.leave.security.AuthEntryPointJwt;
 import com.otbs.leave.security.JwtAuthFilter;
+import com.otbs.security.identity.InternalIdentity;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,9 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/leave/exists").permitAll()
+                        .requestMatchers("/api/v1/leave/intervals", "/api/v1/leave/intervals/batch")
+                        .hasAuthority(InternalIdentity.SERVICE_ROLE)
+                        .requestMatchers("/api/v1/leave/calendars/*/years/*").hasAuthority(InternalIdentity.SERVICE_ROLE)
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,34 @@
+package com.otbs.leave.config;
+
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.calendar.WorkingCalendarProperties;
+import com.otbs.leave.service.WorkingCalendarService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Backs the shared {@link WorkingCalendar} with the local calendar tables instead of calling
+ * this service over HTTP.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkingCalendarProperties.class)
+public class WorkingCalendarConfig {
+
+    @Bean
+    public WorkingCalendar workingCalendar(WorkingCalendarService workingCalendarService,
+                                           WorkingCalendarProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new WorkingCalendar(
+                workingCalendarService::loadYear,
+                properties.getDefault(),
+                properties.cachePolicy(),
+                properties.getCache().getRefreshAfter(),
+                properties.getCache().getRetryAfter(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+        );
+    }
+}
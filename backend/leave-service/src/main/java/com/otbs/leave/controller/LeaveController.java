@@ -1,5 +1,9 @@
 package com.otbs.leave.controller;
 
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.feign.client.leave.dto.LeaveIntervalQuery;
+import com.otbs.leave.dto.AttachmentDTO;
+import com.otbs.leave.dto.LeaveFilter;
 import com.otbs.leave.dto.LeaveRequestDTO;
 import com.otbs.leave.dto.LeaveResponseDTO;
 import com.otbs.leave.dto.MessageResponseDTO;
@@ -14,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -24,6 +29,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -161,35 +167,41 @@ public class LeaveController {
 
     @Operation(
             summary = "Get all leave requests",
-            description = "Retrieves all leave requests. Requires Manager or HR role."
+            description = "Retrieves the leave requests awaiting the caller, newest first. Filter by status, type and date range. Pass size to get one page, then the createdAt and id of the last item as afterCreatedAt and afterId for the next page; without size or cursor every request is returned. Requires Manager or HR role."
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of leave requests",
             content = @Content(schema = @Schema(implementation = LeaveResponseDTO.class))
     )
+    @ApiResponse(responseCode = "400", description = "Only one of afterCreatedAt and afterId given")
     @ApiResponse(responseCode = "403", description = "Unauthorized access")
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('Manager') or hasAuthority('HR') or hasAuthority('HRD')")
-    public ResponseEntity<List<LeaveResponseDTO>> getAllRecievedLeaves() {
-        return ResponseEntity.ok(leaveService.getAllRecievedLeavesRequests());
+    public ResponseEntity<List<LeaveResponseDTO>> getAllRecievedLeaves(
+            @ParameterObject LeaveFilter filter
+    ) {
+        return ResponseEntity.ok(leaveService.getAllRecievedLeavesRequests(filter));
     }
 
     //get all leave requests for the authenticated user
     @Operation(
             summary = "Get all leave requests for authenticated user",
-            description = "Retrieves all leave requests for the authenticated user. Requires User role."
+            description = "Retrieves the authenticated user's leave requests, newest first, with the same filters and paging as /all. Requires User role."
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of leave requests for the authenticated user",
             content = @Content(schema = @Schema(implementation = LeaveResponseDTO.class))
     )
+    @ApiResponse(responseCode = "400", description = "Only one of afterCreatedAt and afterId given")
     @ApiResponse(responseCode = "403", description = "Unauthorized access")
     @GetMapping("/myLeaves")
     @PreAuthorize("hasAuthority('Manager') or hasAuthority('HR') or hasAuthority('Employee')")
-    public ResponseEntity<List<LeaveResponseDTO>> getMyLeaves() {
-        List<LeaveResponseDTO> myLeaves = leaveService.getAllSentLeavesRequests();
+    public ResponseEntity<List<LeaveResponseDTO>> getMyLeaves(
+            @ParameterObject LeaveFilter filter
+    ) {
+        List<LeaveResponseDTO> myLeaves = leaveService.getAllSentLeavesRequests(filter);
         return ResponseEntity.ok(myLeaves);
     }
 
@@ -224,15 +236,15 @@ public class LeaveController {
     @ApiResponse(responseCode = "403", description = "Unauthorized access")
     @GetMapping("/{leaveId}/receivedAttachment")
     @PreAuthorize("hasAuthority('Manager') or hasAuthority('HR') or hasAuthority('HRD')")
-    public ResponseEntity<byte[]> getReceivedAttachment(
+    public ResponseEntity<StreamingResponseBody> getReceivedAttachment(
             @Parameter(description = "ID of the leave request", example = "1")
             @PathVariable("leaveId") Long leaveId
     ) {
-        byte[] attachment = leaveService.downloadAttachment(leaveId);
+        AttachmentDTO attachment = leaveService.downloadAttachment(leaveId);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
         headers.setContentDispositionFormData("attachment", "leave-attachment.pdf");
-        return new ResponseEntity<>(attachment, headers, HttpStatus.OK);
+        return new ResponseEntity<>(attachment.content(), headers, HttpStatus.OK);
     }
 
     //leave exist by userDn and date
@@ -254,4 +266,28 @@ public class LeaveController {
         boolean exists = leaveService.isUserOnLeave(userDn, date);
         return ResponseEntity.ok(exists);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Get approved leave intervals of a user",
+            description = "Returns the approved leaves of the user that overlap the given date range, for service-to-service use."
+    )
+    @GetMapping("/intervals")
+    public ResponseEntity<List<LeaveInterval>> getApprovedLeaveIntervals(
+            @RequestParam("userDn") String userDn,
+            @Parameter(description = "First day of the range", example = "2025-01-01", required = true)
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range", example = "2025-12-31", required = true)
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(leaveService.getApprovedLeaveIntervals(List.of(userDn), from, to));
+    }
+
+    @Operation(
+            summary = "Get approved leave intervals of many users",
+            description = "Returns the approved leaves of all given users that overlap the date range in one call, for service-to-service use."
+    )
+    @PostMapping("/intervals/batch")
+    public ResponseEntity<List<LeaveInterval>> getApprovedLeaveIntervals(@RequestBody LeaveIntervalQuery query) {
+        return ResponseEntity.ok(leaveService.getApprovedLeaveIntervals(query.userDns(), query.from(), query.to()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.otbs.leave.controller;
+
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.leave.dto.CalendarYear;
+import com.otbs.leave.dto.HolidayDTO;
+import com.otbs.leave.dto.HolidayImportDTO;
+import com.otbs.leave.dto.MessageResponseDTO;
+import com.otbs.leave.service.WorkingCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RequestMapping("/api/v1/leave/calendars")
+@RequiredArgsConstructor
+@RestController
+@Tag(name = "Working Calendars", description = "APIs for public holidays and weekly rest days per country or site")
+@SecurityRequirement(name = "bearerAuth")
+public class WorkingCalendarController {
+
+    private final WorkingCalendarService workingCalendarService;
+    private final WorkingCalendar workingCalendar;
+
+    @Operation(
+            summary = "Get the holidays of a year",
+            description = "Returns the public holidays of the calendar in the given year, in date order."
+    )
+    @ApiResponse(responseCode = "200", description = "Holidays retrieved successfully")
+    @GetMapping("/{calendar}/holidays/{year}")
+    @PreAuthorize("hasAuthority('Employee') or hasAuthority('Manager') or hasAuthority('HR') or hasAuthority('HRD')")
+    public ResponseEntity<List<HolidayDTO>> getHolidays(
+            @Parameter(description = "Calendar code of a country or site", example = "DEFAULT", required = true)
+            @PathVariable String calendar,
+            @Parameter(description = "Calendar year", example = "2025", required = true)
+            @PathVariable int year
+    ) {
+        return ResponseEntity.ok(workingCalendarService.getHolidays(calendar, year));
+    }
+
+    @Operation(
+            summary = "Import the holidays of a year",
+            description = "Replaces the public holidays of the calendar in the given year and, when given, its weekly rest days. Requires HR role."
+    )
+    @ApiResponse(responseCode = "200", description = "Holidays imported successfully")
+    @ApiResponse(responseCode = "400", description = "A holiday lies outside the year or is listed twice")
+    @PutMapping("/{calendar}/holidays/{year}")
+    @PreAuthorize("hasAuthority('HR') or hasAuthority('HRD')")
+    public ResponseEntity<MessageResponseDTO> importHolidays(
+            @Parameter(description = "Calendar code of a country or site", example = "DEFAULT", required = true)
+            @PathVariable String calendar,
+            @Parameter(description = "Calendar year", example = "2025", required = true)
+            @PathVariable int year,
+            @RequestBody HolidayImportDTO holidayImport
+    ) {
+        workingCalendarService.importYear(calendar, year, holidayImport);
+        return ResponseEntity.ok(new MessageResponseDTO("Holidays imported successfully"));
+    }
+
+    @Operation(
+            summary = "Get a calendar year as bitsets",
+            description = "Returns the working days and holidays of the year as bitsets indexed by day of the year, for service-to-service use."
+    )
+    @ApiResponse(responseCode = "200", description = "Calendar year retrieved successfully")
+    @ApiResponse(responseCode = "503", description = "The calendar year could not be loaded; callers keep their own fallback")
+    @GetMapping("/{calendar}/years/{year}")
+    public ResponseEntity<CalendarYear> getCalendarYear(@PathVariable String calendar, @PathVariable int year) {
+        return ResponseEntity.ok(workingCalendar.loadYear(calendar, year));
+    }
+}
@@ -0,0 +1,9 @@
+package com.otbs.leave.dto;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public record AttachmentDTO(
+        String contentType,
+        StreamingResponseBody content
+) {
+}
@@ -0,0 +1,15 @@
+package com.otbs.leave.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "A public holiday of a working calendar")
+public record HolidayDTO(
+        @Schema(description = "Day of the holiday", example = "2025-03-20")
+        LocalDate date,
+
+        @Schema(description = "Name of the holiday", example = "Independence Day")
+        String name
+) {
+}
@@ -0,0 +1,18 @@
+package com.otbs.leave.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Set;
+
+@Schema(description = "The holidays of one calendar year, replacing those imported before")
+public record HolidayImportDTO(
+        @Schema(description = "Weekly rest days of the calendar; the current ones are kept when omitted",
+                example = "[\"SATURDAY\", \"SUNDAY\"]")
+        Set<DayOfWeek> weekendDays,
+
+        @Schema(description = "Public holidays of the year")
+        List<HolidayDTO> holidays
+) {
+}
@@ -0,0 +1,31 @@
+package com.otbs.leave.dto;
+
+import com.otbs.leave.model.ELeaveType;
+import com.otbs.leave.model.EStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters and keyset cursor for the leave inboxes.
+ * <p>
+ * Results are ordered newest first. Without {@code size} or a cursor every match is returned;
+ * otherwise one page is, and the next one is fetched by passing the {@code createdAt} and
+ * {@code id} of the last item received as {@code afterCreatedAt} and {@code afterId}, both
+ * required.
+ */
+public record LeaveFilter(
+        EStatus status,
+        ELeaveType leaveType,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+        Long afterId,
+        Integer size
+) {
+
+    public static LeaveFilter none() {
+        return new LeaveFilter(null, null, null, null, null, null, null);
+    }
+}
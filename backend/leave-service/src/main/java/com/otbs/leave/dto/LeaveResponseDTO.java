@@ -4,6 +4,7 @@ import com.otbs.leave.model.ELeaveType;
 import com.otbs.leave.model.EStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public record LeaveResponseDTO(
@@ -15,6 +16,7 @@ public record LeaveResponseDTO(
         ELeaveType leaveType,
         EStatus status,
         LocalTime startHOURLY,
-        LocalTime endHOURLY
+        LocalTime endHOURLY,
+        LocalDateTime createdAt
 ) {
 }
@@ -0,0 +1,24 @@
+package com.otbs.leave.dto;
+
+import com.otbs.leave.model.ELeaveType;
+import com.otbs.leave.model.EStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of a leave row used by the inboxes, so the attachment is never loaded.
+ */
+public record LeaveSummary(
+        Long id,
+        String userDn,
+        LocalDate startDate,
+        LocalDate endDate,
+        ELeaveType leaveType,
+        EStatus status,
+        LocalTime startTime,
+        LocalTime endTime,
+        LocalDateTime createdAt
+) {
+}
@@ -1,5 +1,6 @@
 package com.otbs.leave.exception;
 
+import com.otbs.feign.calendar.CalendarUnavailableException;
 import com.otbs.leave.dto.MessageResponseDTO;
 import feign.FeignException;
 import org.springframework.http.HttpStatus;
@@ -58,4 +59,14 @@ public class GlobalExceptionHandler {
     public ResponseEntity<?> handleRemoteWorkPolicyException(RemoteWorkPolicyException e) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageResponseDTO(e.getMessage()));
     }
+
+    @ExceptionHandler({PageCursorException.class})
+    public ResponseEntity<?> handleInvalidPageCursor(PageCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageResponseDTO(e.getMessage()));
+    }
+
+    @ExceptionHandler({CalendarUnavailableException.class})
+    public ResponseEntity<?> handleCalendarUnavailable(CalendarUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponseDTO(e.getMessage()));
+    }
 }
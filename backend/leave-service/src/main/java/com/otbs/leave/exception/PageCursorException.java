@@ -0,0 +1,7 @@
+package com.otbs.leave.exception;
+
+public class PageCursorException extends RuntimeException {
+    public PageCursorException(String message) {
+        super(message);
+    }
+}
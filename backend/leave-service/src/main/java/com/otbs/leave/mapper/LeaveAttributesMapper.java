@@ -2,6 +2,7 @@ package com.otbs.leave.mapper;
 
 import com.otbs.leave.dto.LeaveRequestDTO;
 import com.otbs.leave.dto.LeaveResponseDTO;
+import com.otbs.leave.dto.LeaveSummary;
 import com.otbs.leave.model.EStatus;
 import com.otbs.leave.model.Leave;
 import org.springframework.stereotype.Component;
@@ -22,7 +23,12 @@ public class LeaveAttributesMapper {
 
     public LeaveResponseDTO toDto(Leave leave) {
         return new LeaveResponseDTO(leave.getId(),leave.getUserDn().split(",")[0].split("=")[1], leave.getUserDn().split(",")[1].split("=")[1], leave.getStartDate()
-                ,leave.getEndDate(), leave.getLeaveType(), leave.getStatus(), leave.getStartTime(), leave.getEndTime());
+                ,leave.getEndDate(), leave.getLeaveType(), leave.getStatus(), leave.getStartTime(), leave.getEndTime(), leave.getCreatedAt());
+    }
+
+    public LeaveResponseDTO toDto(LeaveSummary leave) {
+        return new LeaveResponseDTO(leave.id(), leave.userDn().split(",")[0].split("=")[1], leave.userDn().split(",")[1].split("=")[1], leave.startDate()
+                ,leave.endDate(), leave.leaveType(), leave.status(), leave.startTime(), leave.endTime(), leave.createdAt());
     }
 
     public void updateEntity(Leave leave, LeaveRequestDTO leaveRequestDTO) {
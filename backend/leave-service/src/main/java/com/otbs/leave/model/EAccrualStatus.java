@@ -0,0 +1,7 @@
+package com.otbs.leave.model;
+
+public enum EAccrualStatus {
+    ACCRUING,
+    NOTIFYING,
+    COMPLETED
+}
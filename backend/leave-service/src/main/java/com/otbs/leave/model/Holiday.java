@@ -0,0 +1,40 @@
+package com.otbs.leave.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A public holiday of one working calendar, i.e. a country or site.
+ */
+@Entity
+@Table(name = "holiday", uniqueConstraints = @UniqueConstraint(columnNames = {"calendar", "date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Holiday {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String calendar;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private String name;
+
+    public Holiday(String calendar, LocalDate date, String name) {
+        this.calendar = calendar;
+        this.date = date;
+        this.name = name;
+    }
+}
@@ -9,13 +9,17 @@ import org.hibernate.annotations.*;
 import java.time.*;
 
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves", indexes = {
+        @Index(name = "idx_leaves_user_created", columnList = "userDn, createdAt DESC, id DESC"),
+        @Index(name = "idx_leaves_department_role_created", columnList = "department, userRole, createdAt DESC, id DESC"),
+        @Index(name = "idx_leaves_role_created", columnList = "userRole, createdAt DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = "attachment")
+@ToString
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Leave {
 
@@ -55,9 +59,16 @@ public class Leave {
     @NotBlank(message = "Department cannot be empty")
     private String department;
 
-    @Lob
-    @Column(name = "attachment")
-    private byte[] attachment;
+    /**
+     * Role of the requester when the leave was filed, so inboxes can be filtered in SQL.
+     */
+    @Column(length = 20)
+    private String userRole;
+
+    @Column(name = "attachment_id", length = 64)
+    private String attachmentId;
+
+    private String attachmentContentType;
 
     @CreationTimestamp
     @Column(updatable = false)
@@ -0,0 +1,54 @@
+package com.otbs.leave.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one monthly accrual run, so a run interrupted by a crash resumes after the
+ * last committed chunk instead of starting over.
+ */
+@Entity
+@Table(name = "leave_accrual_run")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LeaveAccrualRun {
+
+    /**
+     * Accrued month, as {@code yyyy-MM}.
+     */
+    @Id
+    @Column(length = 7)
+    private String period;
+
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EAccrualStatus status;
+
+    private long lastBalanceId;
+
+    private long lastNotifiedId;
+
+    private long accrued;
+
+    private long notified;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    public LeaveAccrualRun(String period, LocalDate accrualDate) {
+        this.period = period;
+        this.accrualDate = accrualDate;
+        this.status = EAccrualStatus.ACCRUING;
+        this.startedAt = LocalDateTime.now();
+    }
+}
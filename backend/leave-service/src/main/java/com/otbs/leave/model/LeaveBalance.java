@@ -35,6 +35,12 @@ public class LeaveBalance {
     @Column(nullable = false)
     private LocalDate lastUpdatedDate;
 
+    /**
+     * Month ({@code yyyy-MM}) of the last monthly accrual applied by {@code LeaveAccrualJob}.
+     */
+    @Column(length = 7)
+    private String lastAccrualPeriod;
+
     public LeaveBalance(String userDn, Double totalLeave, Double usedLeave, Double remainingLeave) {
         this.userDn = userDn;
         this.totalLeave = totalLeave;
@@ -42,13 +48,4 @@ public class LeaveBalance {
         this.remainingLeave = remainingLeave;
         this.lastUpdatedDate = LocalDate.now();
     }
-
-
-    public void addMonthlyLeave() {
-        if (lastUpdatedDate != null && lastUpdatedDate.plusMonths(1).isBefore(LocalDate.now())) {
-            totalLeave += 2.5;
-            remainingLeave = totalLeave - usedLeave;
-            lastUpdatedDate = LocalDate.now();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.otbs.leave.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of active (pending or approved) leaves of a capacity-limited type that cover one
+ * day in one department. Rows are only ever changed by atomic SQL increments and decrements.
+ */
+@Entity
+@Table(name = "leave_occupancy")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LeaveOccupancy {
+
+    @EmbeddedId
+    private LeaveOccupancyId id;
+
+    @Column(nullable = false)
+    private int reserved;
+}
@@ -0,0 +1,34 @@
+package com.otbs.leave.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The weekly rest days of a working calendar. Calendars without a row use a Saturday/Sunday
+ * weekend.
+ */
+@Entity
+@Table(name = "work_calendar")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkCalendar {
+
+    @Id
+    @Column(length = 50)
+    private String code;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "work_calendar_weekend_day", joinColumns = @JoinColumn(name = "calendar"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false)
+    private Set<DayOfWeek> weekendDays = EnumSet.noneOf(DayOfWeek.class);
+}
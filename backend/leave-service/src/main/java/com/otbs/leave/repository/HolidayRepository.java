@@ -0,0 +1,22 @@
+package com.otbs.leave.repository;
+
+import com.otbs.leave.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+    List<Holiday> findByCalendarAndDateBetweenOrderByDate(String calendar, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM Holiday h WHERE h.calendar = :calendar AND h.date BETWEEN :from AND :to")
+    int deleteByCalendarAndDateBetween(@Param("calendar") String calendar,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+}
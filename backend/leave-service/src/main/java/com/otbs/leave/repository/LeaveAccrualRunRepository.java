@@ -0,0 +1,13 @@
+package com.otbs.leave.repository;
+
+import com.otbs.leave.model.EAccrualStatus;
+import com.otbs.leave.model.LeaveAccrualRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveAccrualRunRepository extends JpaRepository<LeaveAccrualRun, String> {
+    List<LeaveAccrualRun> findByStatusNotOrderByPeriod(EAccrualStatus status);
+}
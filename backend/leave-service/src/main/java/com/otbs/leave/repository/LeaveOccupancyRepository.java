@@ -0,0 +1,88 @@
+package com.otbs.leave.repository;
+
+import com.otbs.leave.model.ELeaveType;
+import com.otbs.leave.model.LeaveOccupancy;
+import com.otbs.leave.model.LeaveOccupancyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeaveOccupancyRepository extends JpaRepository<LeaveOccupancy, LeaveOccupancyId> {
+
+    /**
+     * Adds one to every day of the range whose count is still below {@code limit}, creating
+     * missing days. Returns the number of days reserved: fewer than the length of the range
+     * means at least one day was already full, and the caller must roll back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO leave_occupancy (department, leave_type, day, reserved) " +
+            "SELECT :department, :leaveType, CAST(d AS date), 1 " +
+            "FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), interval '1 day') d " +
+            "ON CONFLICT (department, leave_type, day) " +
+            "DO UPDATE SET reserved = leave_occupancy.reserved + 1 " +
+            "WHERE leave_occupancy.reserved < :limit", nativeQuery = true)
+    int reserve(@Param("department") String department,
+                @Param("leaveType") String leaveType,
+                @Param("startDate") LocalDate startDate,
+                @Param("endDate") LocalDate endDate,
+                @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE leave_occupancy SET reserved = reserved - 1 " +
+            "WHERE department = :department AND leave_type = :leaveType " +
+            "AND day BETWEEN :startDate AND :endDate AND reserved > 0", nativeQuery = true)
+    int release(@Param("department") String department,
+                @Param("leaveType") String leaveType,
+                @Param("startDate") LocalDate startDate,
+                @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT o FROM LeaveOccupancy o WHERE o.id.department = :department " +
+            "AND o.id.leaveType = :leaveType AND o.id.day BETWEEN :startDate AND :endDate " +
+            "AND o.reserved >= :limit ORDER BY o.id.day")
+    List<LeaveOccupancy> findFullDays(@Param("department") String department,
+                                      @Param("leaveType") ELeaveType leaveType,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("limit") int limit);
+
+    /**
+     * Makes reservations and releases wait until the calling transaction ends, so a
+     * reconciliation sees every leave whose places are already counted.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE leave_occupancy IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockLedger();
+
+    /**
+     * Sets every day covered by an active leave of the given types to the number of such
+     * leaves, creating missing days. Returns the number of days that changed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO leave_occupancy (department, leave_type, day, reserved) " +
+            "SELECT l.department, l.leave_type, CAST(d AS date), COUNT(*) " +
+            "FROM leaves l CROSS JOIN LATERAL generate_series(l.start_date, l.end_date, interval '1 day') d " +
+            "WHERE l.status IN ('PENDING', 'APPROVED') AND l.leave_type IN (:leaveTypes) " +
+            "GROUP BY l.department, l.leave_type, CAST(d AS date) " +
+            "ON CONFLICT (department, leave_type, day) DO UPDATE SET reserved = EXCLUDED.reserved " +
+            "WHERE leave_occupancy.reserved <> EXCLUDED.reserved", nativeQuery = true)
+    int reconcile(@Param("leaveTypes") Collection<String> leaveTypes);
+
+    /**
+     * Frees the days of the given types that no active leave covers. Returns the number of
+     * days that changed.
+     */
+    @Modifying
+    @Query(value = "UPDATE leave_occupancy o SET reserved = 0 " +
+            "WHERE o.reserved > 0 AND o.leave_type IN (:leaveTypes) AND NOT EXISTS (" +
+            "SELECT 1 FROM leaves l WHERE l.department = o.department AND l.leave_type = o.leave_type " +
+            "AND l.status IN ('PENDING', 'APPROVED') AND o.day BETWEEN l.start_date AND l.end_date)",
+            nativeQuery = true)
+    int clearUnheld(@Param("leaveTypes") Collection<String> leaveTypes);
+}
@@ -1,32 +1,104 @@
 package com.otbs.leave.repository;
 
+import com.otbs.leave.dto.LeaveSummary;
 import com.otbs.leave.model.ELeaveType;
 import com.otbs.leave.model.EStatus;
 import com.otbs.leave.model.Leave;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LeaveRepository extends JpaRepository<Leave, Long> {
+
+    String SELECT_SUMMARY = "SELECT new com.otbs.leave.dto.LeaveSummary(" +
+            "l.id, l.userDn, l.startDate, l.endDate, l.leaveType, l.status, l.startTime, l.endTime, l.createdAt) " +
+            "FROM Leave l WHERE ";
+
+    String SUMMARY_FILTERS = " AND (:status IS NULL OR l.status = :status)" +
+            " AND (:leaveType IS NULL OR l.leaveType = :leaveType)" +
+            " AND (:from IS NULL OR l.endDate >= :from)" +
+            " AND (:to IS NULL OR l.startDate <= :to)" +
+            " AND (:afterCreatedAt IS NULL OR l.createdAt < :afterCreatedAt" +
+            " OR (l.createdAt = :afterCreatedAt AND l.id < :afterId))" +
+            " ORDER BY l.createdAt DESC, l.id DESC";
+
     List<Leave> findAllByUserDn(String userDn);
     Optional<Leave> findByIdAndUserDn(Long id, String userDn);
     List<Leave> findByUserDnAndStartDateLessThanEqualAndEndDateGreaterThanEqualAndStatus(
             String userDn, LocalDate date, LocalDate date2, EStatus status);
-    @Query("SELECT COUNT(l) FROM Leave l WHERE " +
-            "l.id <> :excludeLeaveId AND " +
-            "l.department = :department AND " +
-            "l.leaveType = :leaveType AND " +
-            "l.status IN (:statuses) AND " +
-            ":date BETWEEN l.startDate AND l.endDate")
-    long countOverlappingRequests(@Param("department") String department,
-                                  @Param("leaveType") ELeaveType leaveType,
-                                  @Param("statuses") List<EStatus> statuses,
-                                  @Param("date") LocalDate date,
-                                  @Param("excludeLeaveId") Long excludeLeaveId);
+
+    @Query(SELECT_SUMMARY + "l.userDn = :userDn" + SUMMARY_FILTERS)
+    List<LeaveSummary> findSummariesByUserDn(@Param("userDn") String userDn,
+                                             @Param("status") EStatus status,
+                                             @Param("leaveType") ELeaveType leaveType,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                             @Param("afterId") Long afterId,
+                                             Pageable page);
+
+    @Query(SELECT_SUMMARY + "l.department = :department AND l.userRole IN (:roles)" + SUMMARY_FILTERS)
+    List<LeaveSummary> findSummariesByDepartmentAndRoles(@Param("department") String department,
+                                                         @Param("roles") Collection<String> roles,
+                                                         @Param("status") EStatus status,
+                                                         @Param("leaveType") ELeaveType leaveType,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to,
+                                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                         @Param("afterId") Long afterId,
+                                                         Pageable page);
+
+    @Query(SELECT_SUMMARY + "l.userRole IN (:roles)" + SUMMARY_FILTERS)
+    List<LeaveSummary> findSummariesByRoles(@Param("roles") Collection<String> roles,
+                                            @Param("status") EStatus status,
+                                            @Param("leaveType") ELeaveType leaveType,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") Long afterId,
+                                            Pageable page);
+
+    @Query(SELECT_SUMMARY + "1 = 1" + SUMMARY_FILTERS)
+    List<LeaveSummary> findSummaries(@Param("status") EStatus status,
+                                     @Param("leaveType") ELeaveType leaveType,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") Long afterId,
+                                     Pageable page);
+
+    /**
+     * Whether another active leave of the user overlaps [startDate, endDate], answered by a
+     * single probe of the GiST structure on {@code leaves.period}.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM leaves l WHERE l.user_dn = :userDn " +
+            "AND l.status IN ('PENDING', 'APPROVED') AND l.id <> :excludeLeaveId " +
+            "AND l.period && daterange(CAST(:startDate AS date), CAST(:endDate AS date), '[]'))", nativeQuery = true)
+    boolean existsActiveOverlap(@Param("userDn") String userDn,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate,
+                                @Param("excludeLeaveId") Long excludeLeaveId);
+
+    @Query(SELECT_SUMMARY + "l.userDn IN (:userDns) AND l.status = com.otbs.leave.model.EStatus.APPROVED " +
+            "AND l.startDate <= :to AND l.endDate >= :from ORDER BY l.userDn, l.startDate")
+    List<LeaveSummary> findApprovedOverlapping(@Param("userDns") Collection<String> userDns,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT l.userDn FROM Leave l WHERE l.userRole IS NULL")
+    List<String> findUserDnsWithoutRole();
+
+    @Modifying
+    @Query("UPDATE Leave l SET l.userRole = :role WHERE l.userDn = :userDn AND l.userRole IS NULL")
+    int updateUserRole(@Param("userDn") String userDn, @Param("role") String role);
 }
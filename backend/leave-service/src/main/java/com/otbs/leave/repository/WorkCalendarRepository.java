@@ -0,0 +1,9 @@
+package com.otbs.leave.repository;
+
+import com.otbs.leave.model.WorkCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WorkCalendarRepository extends JpaRepository<WorkCalendar, String> {
+}
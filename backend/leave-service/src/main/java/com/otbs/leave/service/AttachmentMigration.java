@@ -0,0 +1,42 @@
+package com.otbs.leave.service;
+
+import com.otbs.blob.migration.LobColumnMigration;
+import com.otbs.blob.store.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+
+/**
+ * Moves attachments still stored in the {@code leaves.attachment} column into the blob store.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentMigration {
+
+    private final DataSource dataSource;
+    private final BlobStore blobStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            new LobColumnMigration(dataSource, blobStore).migrate("leaves", "id", "attachment",
+                    "application/octet-stream", (connection, id, blob) -> {
+                        try (PreparedStatement update = connection.prepareStatement(
+                                "UPDATE leaves SET attachment_id = ?, attachment_content_type = ? WHERE id = ?")) {
+                            update.setString(1, blob.id());
+                            update.setString(2, blob.contentType());
+                            update.setObject(3, id);
+                            update.executeUpdate();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.error("Leave attachment migration failed, will retry on next startup: {}", e.getMessage(), e);
+        }
+    }
+}
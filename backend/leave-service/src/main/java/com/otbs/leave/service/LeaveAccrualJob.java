@@ -0,0 +1,208 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.user.UserBatchLoader;
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.leave.model.EAccrualStatus;
+import com.otbs.leave.model.LeaveAccrualRun;
+import com.otbs.leave.repository.LeaveAccrualRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Monthly leave accrual, run as a chunked and restartable batch.
+ * <p>
+ * The accrual step walks {@code leave_balance} by id in chunks, applying the arithmetic with
+ * one set-based {@code UPDATE} per chunk and committing the checkpoint in the same
+ * transaction. The notification step then walks the accrued balances the same way, resolving
+ * each chunk's users in one bulk call and publishing their mails over a single channel. A run
+ * interrupted at any point resumes from its last checkpoint on the next startup.
+ */
+@Component
+@Slf4j
+public class LeaveAccrualJob {
+
+    private static final double MONTHLY_ACCRUAL = 2.5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaveAccrualRunRepository runRepository;
+    private final UserBatchLoader userBatchLoader;
+    private final NotificationService notificationService;
+    private final Timer accrueChunkTimer;
+    private final Timer notifyChunkTimer;
+    private final Counter accruedCounter;
+    private final Counter notifiedCounter;
+
+    @Value("${leave.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    public LeaveAccrualJob(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           LeaveAccrualRunRepository runRepository,
+                           UserBatchLoader userBatchLoader,
+                           NotificationService notificationService,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.runRepository = runRepository;
+        this.userBatchLoader = userBatchLoader;
+        this.notificationService = notificationService;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.accrueChunkTimer = Timer.builder("leave.accrual.chunk")
+                .description("Time taken to process one chunk of the monthly accrual")
+                .tag("step", "accrue")
+                .register(registry);
+        this.notifyChunkTimer = Timer.builder("leave.accrual.chunk")
+                .description("Time taken to process one chunk of the monthly accrual")
+                .tag("step", "notify")
+                .register(registry);
+        this.accruedCounter = Counter.builder("leave.accrual.balances")
+                .description("Leave balances credited by the monthly accrual")
+                .register(registry);
+        this.notifiedCounter = Counter.builder("leave.accrual.notifications")
+                .description("Mails published by the monthly accrual")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "0 0 0 1 * *")
+    public void runMonthly() {
+        run(YearMonth.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        try {
+            runRepository.findByStatusNotOrderByPeriod(EAccrualStatus.COMPLETED)
+                    .forEach(run -> run(YearMonth.parse(run.getPeriod())));
+        } catch (RuntimeException e) {
+            log.error("Resuming the leave accrual failed, will retry on next startup: {}", e.getMessage(), e);
+        }
+    }
+
+    public synchronized void run(YearMonth period) {
+        LeaveAccrualRun run = runRepository.findById(period.toString())
+                .orElseGet(() -> runRepository.save(new LeaveAccrualRun(period.toString(), LocalDate.now())));
+
+        if (run.getStatus() == EAccrualStatus.ACCRUING) {
+            accrue(run);
+        }
+        if (run.getStatus() == EAccrualStatus.NOTIFYING) {
+            notifyAccrued(run);
+        }
+    }
+
+    private void accrue(LeaveAccrualRun run) {
+        long started = System.nanoTime();
+        long before = run.getAccrued();
+        while (Boolean.TRUE.equals(accrueChunkTimer.record(() -> transactionTemplate.execute(status -> accrueChunk(run))))) {
+            log.debug("Accrual {} checkpointed at balance {}", run.getPeriod(), run.getLastBalanceId());
+        }
+        logThroughput("Accrued", run.getPeriod(), run.getAccrued() - before, started);
+    }
+
+    private boolean accrueChunk(LeaveAccrualRun run) {
+        Long upTo = nextChunkEnd(run.getLastBalanceId(), null);
+        if (upTo == null) {
+            run.setStatus(EAccrualStatus.NOTIFYING);
+            runRepository.save(run);
+            return false;
+        }
+        int updated = jdbcTemplate.update(
+                "UPDATE leave_balance SET total_leave = total_leave + ?, " +
+                        "remaining_leave = total_leave + ? - used_leave, " +
+                        "last_updated_date = ?, last_accrual_period = ? " +
+                        "WHERE id > ? AND id <= ? AND last_updated_date < ?",
+                MONTHLY_ACCRUAL, MONTHLY_ACCRUAL, run.getAccrualDate(), run.getPeriod(),
+                run.getLastBalanceId(), upTo, run.getAccrualDate().minusMonths(1));
+        run.setLastBalanceId(upTo);
+        run.setAccrued(run.getAccrued() + updated);
+        runRepository.save(run);
+        accruedCounter.increment(updated);
+        return true;
+    }
+
+    private void notifyAccrued(LeaveAccrualRun run) {
+        long started = System.nanoTime();
+        long before = run.getNotified();
+        while (Boolean.TRUE.equals(notifyChunkTimer.record(() -> notifyChunk(run)))) {
+            log.debug("Accrual {} notified up to balance {}", run.getPeriod(), run.getLastNotifiedId());
+        }
+        logThroughput("Notified", run.getPeriod(), run.getNotified() - before, started);
+    }
+
+    private boolean notifyChunk(LeaveAccrualRun run) {
+        Long upTo = nextChunkEnd(run.getLastNotifiedId(), run.getPeriod());
+        if (upTo == null) {
+            run.setStatus(EAccrualStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+            return false;
+        }
+        List<String> userDns = jdbcTemplate.queryForList(
+                "SELECT user_dn FROM leave_balance WHERE id > ? AND id <= ? AND last_accrual_period = ?",
+                String.class, run.getLastNotifiedId(), upTo, run.getPeriod());
+        Map<String, UserResponse> users = userBatchLoader.loadAll(userDns);
+        if (users.size() < userDns.size()) {
+            log.warn("{} users were not found, skipping their monthly leave notification",
+                    userDns.size() - users.size());
+        }
+        List<String> recipients = users.values().stream()
+                .map(UserResponse::email)
+                .filter(Objects::nonNull)
+                .filter(email -> !email.isEmpty())
+                .toList();
+        notificationService.sendMailNotifications(recipients,
+                "Monthly Leave Added",
+                "Your monthly leave has been added successfully.");
+
+        run.setLastNotifiedId(upTo);
+        run.setNotified(run.getNotified() + recipients.size());
+        runRepository.save(run);
+        notifiedCounter.increment(recipients.size());
+        return true;
+    }
+
+    /**
+     * Highest balance id of the next chunk after {@code afterId}, or {@code null} when none is
+     * left. With an accrual period, only balances credited in that period are considered.
+     */
+    private Long nextChunkEnd(long afterId, String accrualPeriod) {
+        if (accrualPeriod == null) {
+            return jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM (SELECT id FROM leave_balance WHERE id > ? ORDER BY id LIMIT ?) chunk",
+                    Long.class, afterId, chunkSize);
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM (SELECT id FROM leave_balance WHERE id > ? AND last_accrual_period = ? " +
+                        "ORDER BY id LIMIT ?) chunk",
+                Long.class, afterId, accrualPeriod, chunkSize);
+    }
+
+    private void logThroughput(String step, String period, long count, long startedNanos) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedNanos);
+        double perSecond = elapsed.isZero() ? count : count * 1_000_000_000.0 / elapsed.toNanos();
+        log.info("{} {} leave balances for {} in {} ms ({} per second)",
+                step, count, period, elapsed.toMillis(), Math.round(perSecond));
+    }
+}
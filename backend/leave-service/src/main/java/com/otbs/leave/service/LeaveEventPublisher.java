@@ -0,0 +1,29 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.leave.event.LeaveChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Relays approved-leave changes to the leave exchange once the transaction that made them has
+ * committed, so receivers never read a leave state that could still roll back.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LeaveEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(LeaveChangeEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(LeaveChangeEvent.EXCHANGE, LeaveChangeEvent.ROUTING_KEY, event);
+        } catch (Exception e) {
+            log.error("Error publishing {} event for leave {}: {}", event.status(), event.leaveId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.leave.exception.RemoteWorkPolicyException;
+import com.otbs.leave.model.ELeaveType;
+import com.otbs.leave.model.EStatus;
+import com.otbs.leave.model.Leave;
+import com.otbs.leave.model.LeaveOccupancy;
+import com.otbs.leave.repository.LeaveOccupancyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-department, per-day count of active leaves for the leave types that are capped.
+ * <p>
+ * Every active leave of a capped type holds one unit on each day it covers. Reserving checks
+ * and increments the whole range in one statement, so concurrent submissions cannot both take
+ * the last place; releasing gives the units back when a leave stops being active. Callers run
+ * inside the transaction that changes the leave, so the ledger and the leave commit together.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveOccupancyLedger {
+
+    /**
+     * At most one member in this many may be on the given leave type on any day.
+     */
+    private static final Map<ELeaveType, Integer> CAPACITY_DIVISORS = Map.of(ELeaveType.TÉLÉTRAVAIL, 3);
+    private static final int MIN_DEPARTMENT_SIZE = 3;
+    private static final Set<EStatus> ACTIVE_STATUSES = Set.of(EStatus.PENDING, EStatus.APPROVED);
+
+    private final LeaveOccupancyRepository occupancyRepository;
+    private final UserDirectoryReplica userDirectory;
+
+    /**
+     * Recounts the ledger from the active leaves at startup and then daily, correcting days that
+     * drifted, e.g. through leaves changed directly in the database. Reservations and releases
+     * wait while it runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${leave.occupancy.reconcile-cron:0 30 2 * * *}")
+    @Transactional
+    public void reconcile() {
+        List<String> leaveTypes = CAPACITY_DIVISORS.keySet().stream().map(Enum::name).toList();
+        occupancyRepository.lockLedger();
+        int corrected = occupancyRepository.clearUnheld(leaveTypes) + occupancyRepository.reconcile(leaveTypes);
+        if (corrected > 0) {
+            log.info("Leave occupancy ledger reconciled, {} department days corrected", corrected);
+        }
+    }
+
+    /**
+     * Takes a place on every day of the leave, or throws if any day is already full.
+     */
+    public void reserve(Leave leave) {
+        if (!isTracked(leave)) {
+            return;
+        }
+        int limit = limitFor(leave.getDepartment(), leave.getLeaveType());
+        int days = (int) ChronoUnit.DAYS.between(leave.getStartDate(), leave.getEndDate()) + 1;
+        int reserved = occupancyRepository.reserve(leave.getDepartment(), leave.getLeaveType().name(),
+                leave.getStartDate(), leave.getEndDate(), limit);
+        if (reserved < days) {
+            List<LeaveOccupancy> fullDays = occupancyRepository.findFullDays(leave.getDepartment(),
+                    leave.getLeaveType(), leave.getStartDate(), leave.getEndDate(), limit);
+            LeaveOccupancy first = fullDays.isEmpty() ? null : fullDays.getFirst();
+            throw new RemoteWorkPolicyException(
+                    String.format("Remote work limit for department '%s' exceeded on %s. " +
+                                    "The maximum allowed is %d, but %d requests already exist.",
+                            leave.getDepartment(),
+                            first == null ? leave.getStartDate() : first.getId().getDay(),
+                            limit,
+                            first == null ? limit : first.getReserved())
+            );
+        }
+    }
+
+    /**
+     * Gives back the places held by the leave, as it was before being modified or closed.
+     */
+    public void release(Leave leave) {
+        if (isTracked(leave)) {
+            occupancyRepository.release(leave.getDepartment(), leave.getLeaveType().name(),
+                    leave.getStartDate(), leave.getEndDate());
+        }
+    }
+
+    /**
+     * Keeps the ledger in step with a status change: only a move out of the active statuses
+     * frees places, since approving a pending leave keeps its reservation.
+     */
+    public void onStatusChange(Leave leave, EStatus previousStatus) {
+        if (ACTIVE_STATUSES.contains(previousStatus) && !ACTIVE_STATUSES.contains(leave.getStatus())) {
+            release(Leave.builder()
+                    .department(leave.getDepartment())
+                    .leaveType(leave.getLeaveType())
+                    .startDate(leave.getStartDate())
+                    .endDate(leave.getEndDate())
+                    .status(previousStatus)
+                    .build());
+        }
+    }
+
+    private boolean isTracked(Leave leave) {
+        return CAPACITY_DIVISORS.containsKey(leave.getLeaveType()) && ACTIVE_STATUSES.contains(leave.getStatus());
+    }
+
+    private int limitFor(String department, ELeaveType leaveType) {
+        int headcount = userDirectory.countByDepartment(department);
+        if (headcount < MIN_DEPARTMENT_SIZE) {
+            log.info("Department '{}' has fewer than {} members, skipping {} capacity check.",
+                    department, MIN_DEPARTMENT_SIZE, leaveType);
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.ceil(headcount / (double) CAPACITY_DIVISORS.get(leaveType));
+    }
+}
@@ -0,0 +1,63 @@
+package com.otbs.leave.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the {@code leaves.period} daterange column and the GiST structures behind
+ * {@link com.otbs.leave.repository.LeaveRepository#existsActiveOverlap}.
+ * <p>
+ * Hibernate does not manage these, so they are created here. The exclusion constraint forbids
+ * two active (pending or approved) leaves of one user from overlapping, which also settles
+ * concurrent submissions. If existing rows already overlap, or {@code btree_gist} cannot be
+ * installed, a partial GiST index is created instead so the overlap probe stays indexed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeavePeriodSchema {
+
+    public static final String OVERLAP_CONSTRAINT = "leaves_no_active_overlap";
+
+    private static final String ACTIVE = "status IN ('PENDING', 'APPROVED')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE leaves ADD COLUMN IF NOT EXISTS period daterange " +
+                    "GENERATED ALWAYS AS (daterange(start_date, end_date, '[]')) STORED");
+        } catch (DataAccessException e) {
+            log.error("Could not add the leaves.period column: {}", e.getMessage());
+            return;
+        }
+
+        if (constraintExists()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute("ALTER TABLE leaves ADD CONSTRAINT " + OVERLAP_CONSTRAINT +
+                    " EXCLUDE USING gist (user_dn WITH =, period WITH &&) WHERE (" + ACTIVE + ")");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_leaves_active_period");
+            log.info("Added exclusion constraint {} on leaves", OVERLAP_CONSTRAINT);
+        } catch (DataAccessException e) {
+            log.warn("Could not add exclusion constraint {}, falling back to an index: {}",
+                    OVERLAP_CONSTRAINT, e.getMessage());
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_leaves_active_period " +
+                    "ON leaves USING gist (period) WHERE " + ACTIVE);
+        }
+    }
+
+    private boolean constraintExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, OVERLAP_CONSTRAINT);
+        return count != null && count > 0;
+    }
+}
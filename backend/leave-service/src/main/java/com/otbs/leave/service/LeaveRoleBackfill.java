@@ -0,0 +1,51 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.user.UserBatchLoader;
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.leave.repository.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills {@code leaves.user_role} for leaves filed before the requester's role was recorded,
+ * so they still show up in the role-filtered inboxes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveRoleBackfill {
+
+    private final LeaveRepository leaveRepository;
+    private final UserBatchLoader userBatchLoader;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        List<String> userDns = leaveRepository.findUserDnsWithoutRole();
+        if (userDns.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, UserResponse> users = userBatchLoader.loadAll(userDns);
+            int updated = 0;
+            for (String userDn : userDns) {
+                UserResponse user = users.get(userDn);
+                if (user == null || user.role() == null) {
+                    log.warn("User not found with DN: {}, leaving its leaves without a role", userDn);
+                    continue;
+                }
+                updated += leaveRepository.updateUserRole(userDn, user.role());
+            }
+            log.info("Recorded the requester role on {} existing leaves", updated);
+        } catch (RuntimeException e) {
+            log.error("Leave role backfill failed, will retry on next startup: {}", e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.otbs.leave.service;
 
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.leave.dto.AttachmentDTO;
+import com.otbs.leave.dto.LeaveFilter;
 import com.otbs.leave.dto.LeaveRequestDTO;
 import com.otbs.leave.dto.LeaveResponseDTO;
 import com.otbs.leave.model.LeaveBalance;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface LeaveService {
@@ -14,9 +18,10 @@ public interface LeaveService {
     void cancelLeave(Long leaveId);
     void approveLeave(Long leaveId);
     void rejectLeave(Long leaveId);
-    List<LeaveResponseDTO> getAllRecievedLeavesRequests();
-    List<LeaveResponseDTO> getAllSentLeavesRequests();
-    byte[] downloadAttachment(Long leaveId);
+    List<LeaveResponseDTO> getAllRecievedLeavesRequests(LeaveFilter filter);
+    List<LeaveResponseDTO> getAllSentLeavesRequests(LeaveFilter filter);
+    AttachmentDTO downloadAttachment(Long leaveId);
     LeaveBalance getLeaveBalance();
     boolean isUserOnLeave(String userDn, LocalDate date);
+    List<LeaveInterval> getApprovedLeaveIntervals(Collection<String> userDns, LocalDate from, LocalDate to);
 }
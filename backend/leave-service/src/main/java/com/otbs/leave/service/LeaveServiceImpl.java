@@ -1,9 +1,18 @@
 package com.otbs.leave.service;
 
+import com.otbs.blob.store.BlobRef;
+import com.otbs.blob.store.BlobStore;
+import com.otbs.blob.store.BlobStoreException;
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.leave.dto.LeaveInterval;
+import com.otbs.feign.client.leave.event.LeaveChangeEvent;
 import com.otbs.feign.client.user.UserClient;
 import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.leave.dto.AttachmentDTO;
+import com.otbs.leave.dto.LeaveFilter;
 import com.otbs.leave.dto.LeaveRequestDTO;
 import com.otbs.leave.dto.LeaveResponseDTO;
+import com.otbs.leave.dto.LeaveSummary;
 import com.otbs.leave.exception.*;
 import com.otbs.leave.mapper.LeaveAttributesMapper;
 import com.otbs.leave.model.*;
@@ -11,7 +20,11 @@ import com.otbs.leave.repository.LeaveBalanceRepository;
 import com.otbs.leave.repository.LeaveRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -19,8 +32,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -34,16 +50,26 @@ public class LeaveServiceImpl implements LeaveService {
     private final UserClient userClient;
     private final LeaveBalanceRepository leaveBalanceRepository;
     private final AsyncProcessingService asyncProcessingService;
+    private final BlobStore blobStore;
+    private final LeaveOccupancyLedger occupancyLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkingCalendar workingCalendar;
 
     private static final double WORKDAY_IN_MINUTES = 8*60;
+    private static final int INTERVAL_QUERY_CHUNK = 1000;
+
+    @Value("${leave.inbox.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${leave.inbox.max-page-size:200}")
+    private int maxPageSize;
 
     @Override
     public void applyLeave(LeaveRequestDTO leaveRequestDTO, MultipartFile attachment) {
         validateLeaveRequest(leaveRequestDTO);
         Leave leave = createLeaveEntity(leaveRequestDTO, attachment);
-        // NEW: Validate remote work policy before saving
-        validateRemoteWorkPolicy(leave);
-        leaveRepository.save(leave);
+        occupancyLedger.reserve(leave);
+        saveLeave(leave);
 
         UserResponse currentUser = getCurrentUser();
         if (currentUser.email() != null && !currentUser.email().isEmpty()) {
@@ -83,9 +109,17 @@ public class LeaveServiceImpl implements LeaveService {
     public void updateLeave(Long leaveId, LeaveRequestDTO leaveRequestDTO, MultipartFile attachment) {
         validateLeaveRequest(leaveRequestDTO);
         Leave leave = getLeaveForUpdate(leaveId);
+        Leave previous = Leave.builder()
+                .department(leave.getDepartment())
+                .leaveType(leave.getLeaveType())
+                .startDate(leave.getStartDate())
+                .endDate(leave.getEndDate())
+                .status(leave.getStatus())
+                .build();
         updateLeaveEntity(leave, leaveRequestDTO, attachment);
-        validateRemoteWorkPolicy(leave);
-        leaveRepository.save(leave);
+        occupancyLedger.release(previous);
+        occupancyLedger.reserve(leave);
+        saveLeave(leave);
 
         UserResponse currentUser = getCurrentUser();
         if (currentUser.email() != null && !currentUser.email().isEmpty()) {
@@ -97,56 +131,12 @@ public class LeaveServiceImpl implements LeaveService {
         }
     }
 
-    private void validateRemoteWorkPolicy(Leave leave) {
-        if (leave.getLeaveType() != ELeaveType.TÉLÉTRAVAIL) {
-            return;
-        }
-
-        String department = leave.getDepartment();
-
-        long totalUsersInDept = getAllUsersByDepartment(department).size();
-
-        if (totalUsersInDept < 3) {
-            log.info("Department '{}' has fewer than 3 members, skipping remote work policy check.", department);
-            return;
-        }
-
-
-
-        long remoteWorkLimit = (long) Math.ceil(totalUsersInDept / 3.0);
-        log.info("Validating remote work policy for department '{}'. Total users: {}, Limit: {}.",
-                department, totalUsersInDept, remoteWorkLimit);
-
-        List<EStatus> statusesToCheck = List.of(EStatus.PENDING, EStatus.APPROVED);
-
-        Long leaveIdToExclude = (leave.getId() == null) ? 0L : leave.getId();
-
-        for (LocalDate date = leave.getStartDate(); !date.isAfter(leave.getEndDate()); date = date.plusDays(1)) {
-            long existingRequests = leaveRepository.countOverlappingRequests(
-                    department,
-                    ELeaveType.TÉLÉTRAVAIL,
-                    statusesToCheck,
-                    date,
-                    leaveIdToExclude
-            );
-
-            log.debug("Checking date {}: Found {} existing remote work requests for department '{}'.",
-                    date, existingRequests, department);
-
-            if (existingRequests >= remoteWorkLimit) {
-                throw new RemoteWorkPolicyException(
-                        String.format("Remote work limit for department '%s' exceeded on %s. " +
-                                        "The maximum allowed is %d, but %d requests already exist.",
-                                department, date, remoteWorkLimit, existingRequests)
-                );
-            }
-        }
-    }
     @Override
     public void cancelLeave(Long leaveId) {
         Leave leave = getLeaveForUpdate(leaveId);
         validatePendingStatus(leave);
         leave.setStatus(EStatus.CANCELLED);
+        occupancyLedger.onStatusChange(leave, EStatus.PENDING);
         leaveRepository.save(leave);
         UserResponse currentUser = getCurrentUser();
         if (currentUser.email() != null && !currentUser.email().isEmpty()) {
@@ -188,8 +178,13 @@ public class LeaveServiceImpl implements LeaveService {
         Leave leave = leaveRepository.findById(leaveId)
                 .orElseThrow(() -> new IllegalArgumentException("Leave not found"));
         validateRejectionAuthorization(leave);
+        EStatus previousStatus = leave.getStatus();
         leave.setStatus(EStatus.REJECTED);
+        occupancyLedger.onStatusChange(leave, previousStatus);
         leaveRepository.save(leave);
+        if (previousStatus == EStatus.APPROVED) {
+            publishLeaveChange(leave);
+        }
         UserResponse user = getUserByDn(leave.getUserDn());
         log .info("User email: {}", user.email());
         if (user.email() != null && !user.email().isEmpty()) {
@@ -209,29 +204,40 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
-    public List<LeaveResponseDTO> getAllRecievedLeavesRequests() {
+    @Transactional(readOnly = true)
+    public List<LeaveResponseDTO> getAllRecievedLeavesRequests(LeaveFilter filter) {
         UserResponse currentUser = getCurrentUser();
-        return switch (currentUser.role()) {
-            case "Manager" -> getRecievedLeavesForManager(currentUser);
-            case "HR" -> getRecievedLeavesForHR();
-            case "HRD" -> getRecievedLeavesForHRDirector(currentUser);
+        List<LeaveSummary> leaves = switch (currentUser.role()) {
+            case "Manager" -> getRecievedLeavesForManager(currentUser, filter);
+            case "HR" -> getRecievedLeavesForHR(filter);
+            case "HRD" -> getRecievedLeavesForHRDirector(currentUser, filter);
             default -> throw new IllegalStateException("Unexpected role");
         };
+        return leaves.stream().map(leaveAttributesMapper::toDto).toList();
     }
 
     @Override
-    public List<LeaveResponseDTO> getAllSentLeavesRequests() {
-        return getLeaves(getCurrentUser());
+    @Transactional(readOnly = true)
+    public List<LeaveResponseDTO> getAllSentLeavesRequests(LeaveFilter filter) {
+        return getLeaves(getCurrentUser(), filter).stream().map(leaveAttributesMapper::toDto).toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] downloadAttachment(Long leaveId) {
+    public AttachmentDTO downloadAttachment(Long leaveId) {
         UserResponse user = getCurrentUser();
-        return leaveRepository.findById(leaveId)
-                .filter(leave -> leave.getDepartment().equals(user.department()) || "HR".equals(user.role()))
-                .map(Leave::getAttachment)
+        Leave leave = leaveRepository.findById(leaveId)
+                .filter(found -> found.getDepartment().equals(user.department()) || "HR".equals(user.role()))
                 .orElseThrow(() -> new LeaveException("Leave not found or access denied"));
+        if (leave.getAttachmentId() == null) {
+            throw new AttachmentException("Attachment not found");
+        }
+
+        String attachmentId = leave.getAttachmentId();
+        return new AttachmentDTO(
+                leave.getAttachmentContentType(),
+                output -> blobStore.copyTo(attachmentId, output)
+        );
     }
 
     @Override
@@ -248,26 +254,29 @@ public class LeaveServiceImpl implements LeaveService {
         return !approvedLeaves.isEmpty();
     }
 
-    @Scheduled(cron = "0 0 0 1 * *")
-    @Transactional
-    protected void addMonthlyLeaveForAllUsers() {
-        leaveBalanceRepository.findAll().forEach(balance -> {
-            balance.addMonthlyLeave();
-            leaveBalanceRepository.save(balance);
-            UserResponse user = getUserByDn(balance.getUserDn());
-            if (user.email() != null && !user.email().isEmpty()) {
-                asyncProcessingService.sendMailNotification(
-                        user.email(),
-                        "Monthly Leave Added",
-                        "Your monthly leave has been added successfully."
-                );
-            }
-        });
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveInterval> getApprovedLeaveIntervals(Collection<String> userDns, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new DateRangeException("A valid date range is required");
+        }
+        if (userDns == null || userDns.isEmpty()) {
+            return List.of();
+        }
+        List<String> distinctDns = userDns.stream().distinct().toList();
+        List<LeaveInterval> intervals = new ArrayList<>();
+        for (int i = 0; i < distinctDns.size(); i += INTERVAL_QUERY_CHUNK) {
+            List<String> chunk = distinctDns.subList(i, Math.min(i + INTERVAL_QUERY_CHUNK, distinctDns.size()));
+            leaveRepository.findApprovedOverlapping(chunk, from, to).forEach(leave -> intervals.add(
+                    new LeaveInterval(leave.userDn(), leave.startDate(), leave.endDate(), leave.leaveType().name())));
+        }
+        return intervals;
     }
 
     private Leave createLeaveEntity(LeaveRequestDTO leaveRequestDTO, MultipartFile attachment) {
         Leave leave = leaveAttributesMapper.toEntity(leaveRequestDTO);
         leave.setUserDn(getCurrentUser().id());
+        leave.setUserRole(getCurrentUser().role());
         leave.setDepartment(getCurrentUser().department());
         processAttachment(leave, attachment);
         validateLeaveDateRange(leave);
@@ -295,7 +304,7 @@ public class LeaveServiceImpl implements LeaveService {
 
     private void validateApprovalAuthorization(Leave leave) {
         UserResponse currentUser = getCurrentUser();
-        String leaveUserRole = getRoleByUserDn(leave.getUserDn());
+        String leaveUserRole = getRequesterRole(leave);
         boolean isAuthorized = switch (leave.getDepartment()) {
             case "HR" -> "HRD".equals(currentUser.role());
             default -> switch (leaveUserRole) {
@@ -311,7 +320,7 @@ public class LeaveServiceImpl implements LeaveService {
 
     private void validateRejectionAuthorization(Leave leave) {
         UserResponse currentUser = getCurrentUser();
-        String leaveUserRole = getRoleByUserDn(leave.getUserDn());
+        String leaveUserRole = getRequesterRole(leave);
         boolean isAuthorized = switch (leave.getDepartment()) {
             case "HR" -> "HRD".equals(currentUser.role());
             default -> switch (leaveUserRole) {
@@ -325,40 +334,65 @@ public class LeaveServiceImpl implements LeaveService {
         }
     }
 
-    private List<LeaveResponseDTO> getLeaves(UserResponse currentUser) {
-        return leaveRepository.findAllByUserDn(currentUser.id()).stream()
-                .sorted((l1, l2) -> l2.getCreatedAt().compareTo(l1.getCreatedAt()))
-                .map(leaveAttributesMapper::toDto)
-                .toList();
+    private List<LeaveSummary> getLeaves(UserResponse currentUser, LeaveFilter filter) {
+        return leaveRepository.findSummariesByUserDn(currentUser.id(),
+                filter.status(), filter.leaveType(), filter.from(), filter.to(),
+                filter.afterCreatedAt(), filter.afterId(), pageOf(filter));
     }
 
-    private List<LeaveResponseDTO> getRecievedLeavesForManager(UserResponse currentUser) {
-        return leaveRepository.findAll().stream()
-                .filter(leave -> "HR".equals(currentUser.department())? List.of("Manager", "HR").contains(getRoleByUserDn(leave.getUserDn())): "Employee".equals(getRoleByUserDn(leave.getUserDn())) && leave.getDepartment().equals(currentUser.department()))
-                .sorted((l1, l2) -> l2.getCreatedAt().compareTo(l1.getCreatedAt()))
-                .map(leaveAttributesMapper::toDto)
-                .toList();
+    private List<LeaveSummary> getRecievedLeavesForManager(UserResponse currentUser, LeaveFilter filter) {
+        if ("HR".equals(currentUser.department())) {
+            return leaveRepository.findSummariesByRoles(List.of("Manager", "HR"),
+                    filter.status(), filter.leaveType(), filter.from(), filter.to(),
+                    filter.afterCreatedAt(), filter.afterId(), pageOf(filter));
+        }
+        return leaveRepository.findSummariesByDepartmentAndRoles(currentUser.department(), List.of("Employee"),
+                filter.status(), filter.leaveType(), filter.from(), filter.to(),
+                filter.afterCreatedAt(), filter.afterId(), pageOf(filter));
+    }
+
+    private List<LeaveSummary> getRecievedLeavesForHRDirector(UserResponse currentUser, LeaveFilter filter) {
+        if ("HR".equals(currentUser.department())) {
+            return getRecievedLeavesForHR(filter);
+        }
+        return leaveRepository.findSummariesByRoles(List.of("Manager"),
+                filter.status(), filter.leaveType(), filter.from(), filter.to(),
+                filter.afterCreatedAt(), filter.afterId(), pageOf(filter));
     }
 
-    private List<LeaveResponseDTO> getRecievedLeavesForHRDirector(UserResponse currentUser) {
-        return leaveRepository.findAll().stream()
-                .filter(leave -> "HR".equals(currentUser.department()) || "Manager".equals(getRoleByUserDn(leave.getUserDn())))
-                .sorted((l1, l2) -> l2.getCreatedAt().compareTo(l1.getCreatedAt()))
-                .map(leaveAttributesMapper::toDto)
-                .toList();
+    private List<LeaveSummary> getRecievedLeavesForHR(LeaveFilter filter) {
+        return leaveRepository.findSummaries(
+                filter.status(), filter.leaveType(), filter.from(), filter.to(),
+                filter.afterCreatedAt(), filter.afterId(), pageOf(filter));
     }
 
-    private List<LeaveResponseDTO> getRecievedLeavesForHR() {
-        return leaveRepository.findAll().stream()
-                .sorted((l1, l2) -> l2.getCreatedAt().compareTo(l1.getCreatedAt()))
-                .map(leaveAttributesMapper::toDto)
-                .toList();
+    private void publishLeaveChange(Leave leave) {
+        eventPublisher.publishEvent(LeaveChangeEvent.of(
+                leave.getId(), leave.getUserDn(), leave.getStartDate(), leave.getEndDate(), leave.getStatus().name()));
+    }
+
+    /**
+     * Without a size or cursor the whole inbox is returned, as before paging existed, so callers
+     * that do not page keep seeing every request. A cursor needs both of its halves: createdAt
+     * alone would skip the rows that share it.
+     */
+    private Pageable pageOf(LeaveFilter filter) {
+        if ((filter.afterCreatedAt() == null) != (filter.afterId() == null)) {
+            throw new PageCursorException("afterCreatedAt and afterId must be given together");
+        }
+        if (filter.size() == null && filter.afterId() == null) {
+            return Pageable.unpaged();
+        }
+        int size = filter.size() == null || filter.size() <= 0 ? defaultPageSize : Math.min(filter.size(), maxPageSize);
+        return PageRequest.ofSize(size);
     }
 
     private void processApprovalAndUpdateBalance(Leave leave) {
         validatePendingStatus(leave);
         leave.setStatus(EStatus.APPROVED);
+        occupancyLedger.onStatusChange(leave, EStatus.PENDING);
         leaveRepository.save(leave);
+        publishLeaveChange(leave);
 
         LeaveBalance leaveBalance = leaveBalanceRepository.findByUserDn(leave.getUserDn())
                 .orElseThrow(() -> new LeaveBalanceException("Leave balance not found for user: " + leave.getUserDn()));
@@ -376,7 +410,8 @@ public class LeaveServiceImpl implements LeaveService {
             }
             return ChronoUnit.MINUTES.between(leave.getStartTime(), leave.getEndTime()) / WORKDAY_IN_MINUTES;
         }
-        return ChronoUnit.DAYS.between(leave.getStartDate(), leave.getEndDate()) + 1;
+        // Weekends and public holidays inside the leave are not charged against the balance.
+        return workingCalendar.countWorkingDays(leave.getStartDate(), leave.getEndDate());
     }
 
     private void validateLeaveRequest(LeaveRequestDTO leaveRequestDTO) {
@@ -386,13 +421,18 @@ public class LeaveServiceImpl implements LeaveService {
         if (leaveRequestDTO.startDate().isAfter(leaveRequestDTO.endDate())) {
             throw new LeaveException("Start date must be before end date");
         }
+        if (workingCalendar.countWorkingDays(leaveRequestDTO.startDate(), leaveRequestDTO.endDate()) == 0) {
+            throw new DateRangeException("The leave does not cover any working day");
+        }
     }
 
     private void processAttachment(Leave leave, MultipartFile attachment) {
         if (attachment != null && !attachment.isEmpty()) {
-            try {
-                leave.setAttachment(attachment.getBytes());
-            } catch (IOException e) {
+            try (InputStream content = attachment.getInputStream()) {
+                BlobRef blob = blobStore.put(content, attachment.getContentType());
+                leave.setAttachmentId(blob.id());
+                leave.setAttachmentContentType(blob.contentType());
+            } catch (IOException | BlobStoreException e) {
                 log.error("Failed to process attachment", e);
                 throw new FileUploadException("Failed to upload attachment");
             }
@@ -400,17 +440,25 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     private void validateLeaveDateRange(Leave leave) {
-        leaveRepository.findAllByUserDn(leave.getUserDn()).forEach(existingLeave -> {
-            if (!existingLeave.getId().equals(leave.getId()) && isOverlappingLeave(existingLeave, leave)) {
-                throw new LeaveException("Leave date range is overlapping with existing leave");
-            }
-        });
+        Long leaveIdToExclude = leave.getId() == null ? 0L : leave.getId();
+        if (leaveRepository.existsActiveOverlap(leave.getUserDn(), leave.getStartDate(), leave.getEndDate(), leaveIdToExclude)) {
+            throw new LeaveException("Leave date range is overlapping with existing leave");
+        }
     }
 
-    private boolean isOverlappingLeave(Leave existingLeave, Leave newLeave) {
-        return List.of(EStatus.APPROVED, EStatus.PENDING).contains(existingLeave.getStatus())
-                && newLeave.getStartDate().isBefore(existingLeave.getEndDate().plusDays(1))
-                && newLeave.getEndDate().plusDays(1).isAfter(existingLeave.getStartDate());
+    /**
+     * Flushes immediately so a concurrent overlapping submission, rejected by the exclusion
+     * constraint, surfaces as the same error as the upfront check.
+     */
+    private void saveLeave(Leave leave) {
+        try {
+            leaveRepository.saveAndFlush(leave);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMessage() != null && e.getMessage().contains(LeavePeriodSchema.OVERLAP_CONSTRAINT)) {
+                throw new LeaveException("Leave date range is overlapping with existing leave");
+            }
+            throw e;
+        }
     }
 
     private UserResponse getCurrentUser() {
@@ -426,6 +474,10 @@ public class LeaveServiceImpl implements LeaveService {
         return userResponse != null ? userResponse.role() : null;
     }
 
+    private String getRequesterRole(Leave leave) {
+        return leave.getUserRole() != null ? leave.getUserRole() : getRoleByUserDn(leave.getUserDn());
+    }
+
     private UserResponse getUserByDn(String userDn) {
         UserResponse userResponse = userClient.getUserByDn(userDn);
         if (userResponse == null) {
@@ -441,14 +493,4 @@ public class LeaveServiceImpl implements LeaveService {
         }
         return manager;
     }
-
-    private List<UserResponse> getAllUsersByDepartment(String department) {
-        List<UserResponse> users = userClient.getAllUsers();
-        if (users == null || users.isEmpty()) {
-            throw new UserException("No users found");
-        }
-        return users.stream()
-                .filter(user -> user.department().equals(department))
-                .toList();
-    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,6 +39,23 @@ public class NotificationService {
         sendNotification(to, subject, body, mailRoutingKey, null, null);
     }
 
+    /**
+     * Publishes the same mail to many recipients over one channel, for batch jobs that would
+     * otherwise flood the async executor with one task per message.
+     */
+    public void sendMailNotifications(Collection<String> recipients, String subject, String body) {
+        rabbitTemplate.invoke(operations -> {
+            for (String recipient : recipients) {
+                Map<String, Object> message = new HashMap<>();
+                message.put("recipient", recipient);
+                message.put("subject", subject);
+                message.put("message", body);
+                operations.convertAndSend(notificationExchange, mailRoutingKey, message);
+            }
+            return null;
+        });
+    }
+
     private void sendNotification(String to, String subject, String body, String routingKey, String actionUrl, Long sourceId) {
         try {
             Map<String, Object> message = new HashMap<>();
@@ -0,0 +1,114 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.calendar.WorkingCalendar;
+import com.otbs.feign.client.leave.dto.CalendarYear;
+import com.otbs.leave.dto.HolidayDTO;
+import com.otbs.leave.dto.HolidayImportDTO;
+import com.otbs.leave.exception.DateRangeException;
+import com.otbs.leave.model.Holiday;
+import com.otbs.leave.model.WorkCalendar;
+import com.otbs.leave.repository.HolidayRepository;
+import com.otbs.leave.repository.WorkCalendarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Owns the working calendars: weekly rest days and yearly holiday imports. Other services read
+ * them through {@link WorkingCalendar}, which in leave-service is backed by {@link #loadYear}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkingCalendarService {
+
+    private final HolidayRepository holidayRepository;
+    private final WorkCalendarRepository workCalendarRepository;
+    private final ObjectProvider<WorkingCalendar> workingCalendar;
+
+    @Transactional(readOnly = true)
+    public CalendarYear loadYear(String calendar, int year) {
+        Set<DayOfWeek> weekendDays = workCalendarRepository.findById(calendar)
+                .map(WorkCalendar::getWeekendDays)
+                .orElse(WorkingCalendar.DEFAULT_WEEKEND);
+        List<LocalDate> holidays = holidayRepository
+                .findByCalendarAndDateBetweenOrderByDate(calendar, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .stream()
+                .map(Holiday::getDate)
+                .toList();
+        return CalendarYear.of(calendar, year, weekendDays, holidays);
+    }
+
+    @Transactional(readOnly = true)
+    public List<HolidayDTO> getHolidays(String calendar, int year) {
+        return holidayRepository
+                .findByCalendarAndDateBetweenOrderByDate(calendar, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .stream()
+                .map(holiday -> new HolidayDTO(holiday.getDate(), holiday.getName()))
+                .toList();
+    }
+
+    /**
+     * Replaces the holidays of {@code year} and, when given, the weekly rest days of the
+     * calendar. Cached years are dropped once the import has committed.
+     */
+    @Transactional
+    public void importYear(String calendar, int year, HolidayImportDTO holidayImport) {
+        List<HolidayDTO> holidays = holidayImport.holidays() == null ? List.of() : holidayImport.holidays();
+        Set<LocalDate> days = new HashSet<>();
+        for (HolidayDTO holiday : holidays) {
+            if (holiday.date() == null || holiday.date().getYear() != year) {
+                throw new DateRangeException("Holiday " + holiday.name() + " is not in " + year);
+            }
+            if (!days.add(holiday.date())) {
+                throw new DateRangeException("Duplicate holiday on " + holiday.date());
+            }
+        }
+
+        boolean weekendChanged = false;
+        if (holidayImport.weekendDays() != null) {
+            if (holidayImport.weekendDays().size() == DayOfWeek.values().length) {
+                throw new DateRangeException("A calendar needs at least one working day per week");
+            }
+            WorkCalendar workCalendar = workCalendarRepository.findById(calendar)
+                    .orElseGet(() -> new WorkCalendar(calendar, EnumSet.noneOf(DayOfWeek.class)));
+            weekendChanged = !workCalendar.getWeekendDays().equals(holidayImport.weekendDays());
+            workCalendar.setWeekendDays(holidayImport.weekendDays().isEmpty()
+                    ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(holidayImport.weekendDays()));
+            workCalendarRepository.save(workCalendar);
+        }
+
+        holidayRepository.deleteByCalendarAndDateBetween(calendar, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+        holidayRepository.saveAll(holidays.stream()
+                .map(holiday -> new Holiday(calendar, holiday.date(), holiday.name()))
+                .toList());
+        log.info("Imported {} holidays of {} for {}", holidays.size(), calendar, year);
+
+        boolean invalidateAllYears = weekendChanged;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                WorkingCalendar calendarCache = workingCalendar.getIfAvailable();
+                if (calendarCache == null) {
+                    return;
+                }
+                if (invalidateAllYears) {
+                    calendarCache.invalidateAll();
+                } else {
+                    calendarCache.invalidate(calendar, year);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.user.UserBatchLoader;
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.leave.model.EAccrualStatus;
+import com.otbs.leave.model.LeaveAccrualRun;
+import com.otbs.leave.model.LeaveBalance;
+import com.otbs.leave.repository.LeaveAccrualRunRepository;
+import com.otbs.leave.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers
+class LeaveAccrualJobTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2026, 10);
+    private static final int BALANCES = 25;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static PostgresTestDatabase database;
+
+    private final UserBatchLoader userBatchLoader = mock(UserBatchLoader.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final List<String> mailed = new ArrayList<>();
+    private final AtomicInteger failLoadOnCall = new AtomicInteger();
+    private FailingJdbcTemplate jdbcTemplate;
+    private LeaveAccrualRunRepository runRepository;
+    private LeaveAccrualJob job;
+
+    @BeforeAll
+    static void createSchema() {
+        database = PostgresTestDatabase.create(POSTGRES, LeaveBalance.class, LeaveAccrualRun.class);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        database.close();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        database.jdbcTemplate().execute("TRUNCATE leave_balance, leave_accrual_run RESTART IDENTITY");
+        for (int i = 1; i <= BALANCES; i++) {
+            database.jdbcTemplate().update("INSERT INTO leave_balance " +
+                            "(user_dn, total_leave, used_leave, remaining_leave, last_updated_date) VALUES (?, 10, 4, 6, ?)",
+                    "CN=user" + i, LocalDate.now().minusMonths(2));
+        }
+
+        AtomicInteger loads = new AtomicInteger();
+        when(userBatchLoader.loadAll(anyCollection())).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == failLoadOnCall.get()) {
+                throw new IllegalStateException("user-service is down");
+            }
+            Collection<String> dns = invocation.getArgument(0);
+            return dns.stream().collect(Collectors.toMap(Function.identity(), LeaveAccrualJobTest::user));
+        });
+        doAnswer(invocation -> {
+            mailed.addAll(invocation.getArgument(0));
+            return null;
+        }).when(notificationService).sendMailNotifications(anyCollection(), anyString(), anyString());
+
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        jdbcTemplate = new FailingJdbcTemplate(database.jdbcTemplate());
+        runRepository = database.repository(LeaveAccrualRunRepository.class);
+        job = new LeaveAccrualJob(jdbcTemplate, database.transactionManager(), runRepository, userBatchLoader,
+                notificationService, meterRegistry);
+        ReflectionTestUtils.setField(job, "chunkSize", 10);
+    }
+
+    @Test
+    void accruesAndNotifiesEveryBalanceOnce() {
+        job.run(PERIOD);
+
+        assertThat(column("total_leave", Double.class)).hasSize(BALANCES).containsOnly(12.5);
+        assertThat(column("remaining_leave", Double.class)).containsOnly(8.5);
+        assertThat(column("last_accrual_period", String.class)).containsOnly(PERIOD.toString());
+        assertThat(mailed).hasSize(BALANCES).doesNotHaveDuplicates();
+        LeaveAccrualRun run = run();
+        assertThat(run.getStatus()).isEqualTo(EAccrualStatus.COMPLETED);
+        assertThat(run.getAccrued()).isEqualTo(BALANCES);
+        assertThat(run.getNotified()).isEqualTo(BALANCES);
+    }
+
+    @Test
+    void resumesTheAccrualAfterTheLastCommittedChunk() {
+        jdbcTemplate.failUpdateAfterId = 10L;
+
+        assertThatThrownBy(() -> job.run(PERIOD)).isInstanceOf(TransientDataAccessResourceException.class);
+
+        LeaveAccrualRun checkpoint = run();
+        assertThat(checkpoint.getStatus()).isEqualTo(EAccrualStatus.ACCRUING);
+        assertThat(checkpoint.getLastBalanceId()).isEqualTo(10);
+        assertThat(checkpoint.getAccrued()).isEqualTo(10);
+        assertThat(column("total_leave", Double.class)).filteredOn(total -> total == 12.5).hasSize(10);
+
+        jdbcTemplate.failUpdateAfterId = null;
+        job.resumeUnfinished();
+
+        assertThat(column("total_leave", Double.class)).containsOnly(12.5);
+        assertThat(jdbcTemplate.updatedChunks).containsExactly(0L, 10L, 20L);
+        assertThat(mailed).hasSize(BALANCES).doesNotHaveDuplicates();
+        assertThat(run().getAccrued()).isEqualTo(BALANCES);
+    }
+
+    @Test
+    void resumesTheNotificationsWithoutMailingTwice() {
+        failLoadOnCall.set(2);
+
+        assertThatThrownBy(() -> job.run(PERIOD)).isInstanceOf(IllegalStateException.class);
+
+        LeaveAccrualRun checkpoint = run();
+        assertThat(checkpoint.getStatus()).isEqualTo(EAccrualStatus.NOTIFYING);
+        assertThat(checkpoint.getLastNotifiedId()).isEqualTo(10);
+        assertThat(mailed).hasSize(10);
+
+        job.resumeUnfinished();
+
+        assertThat(mailed).hasSize(BALANCES).doesNotHaveDuplicates();
+        assertThat(column("total_leave", Double.class)).containsOnly(12.5);
+        assertThat(run().getStatus()).isEqualTo(EAccrualStatus.COMPLETED);
+    }
+
+    @Test
+    void doesNotRunACompletedPeriodAgain() {
+        job.run(PERIOD);
+        jdbcTemplate.updatedChunks.clear();
+
+        job.run(PERIOD);
+        job.resumeUnfinished();
+
+        assertThat(jdbcTemplate.updatedChunks).isEmpty();
+        assertThat(column("total_leave", Double.class)).containsOnly(12.5);
+        assertThat(mailed).hasSize(BALANCES);
+    }
+
+    @Test
+    void skipsBalancesAlreadyCreditedThisMonth() {
+        database.jdbcTemplate().update("UPDATE leave_balance SET last_updated_date = ? WHERE id = 3", LocalDate.now());
+
+        job.run(PERIOD);
+
+        assertThat(column("total_leave", Double.class).get(2)).isEqualTo(10.0);
+        assertThat(column("last_accrual_period", String.class).get(2)).isNull();
+        assertThat(mailed).hasSize(BALANCES - 1).doesNotContain("user3@otbs.local");
+        assertThat(run().getAccrued()).isEqualTo(BALANCES - 1);
+    }
+
+    private LeaveAccrualRun run() {
+        return runRepository.findById(PERIOD.toString()).orElseThrow();
+    }
+
+    private static <T> List<T> column(String column, Class<T> type) {
+        return database.jdbcTemplate().queryForList("SELECT " + column + " FROM leave_balance ORDER BY id", type);
+    }
+
+    private static UserResponse user(String dn) {
+        String name = dn.substring("CN=".length());
+        return new UserResponse(dn, name, name, name, name + "@otbs.local", "IT", "Employee",
+                null, null, null, null, null);
+    }
+
+    /**
+     * The job's statements run against the database; records which chunks were updated and
+     * loses the connection on the chunk after {@code failUpdateAfterId}, rolling it back.
+     */
+    private static final class FailingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Long> updatedChunks = new ArrayList<>();
+        private Long failUpdateAfterId;
+
+        private FailingJdbcTemplate(JdbcTemplate delegate) {
+            super(delegate.getDataSource());
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            long afterId = (Long) args[4];
+            if (failUpdateAfterId != null && failUpdateAfterId == afterId) {
+                throw new TransientDataAccessResourceException("connection lost");
+            }
+            updatedChunks.add(afterId);
+            return super.update(sql, args);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.otbs.leave.service;
+
+import com.otbs.feign.client.user.UserDirectoryReplica;
+import com.otbs.leave.exception.RemoteWorkPolicyException;
+import com.otbs.leave.model.ELeaveType;
+import com.otbs.leave.model.EStatus;
+import com.otbs.leave.model.Leave;
+import com.otbs.leave.model.LeaveOccupancy;
+import com.otbs.leave.repository.LeaveOccupancyRepository;
+import com.otbs.leave.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers
+class LeaveOccupancyLedgerTest {
+
+    private static final String DEPARTMENT = "IT";
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 5);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static PostgresTestDatabase database;
+
+    private final UserDirectoryReplica userDirectory = mock(UserDirectoryReplica.class);
+    private LeaveOccupancyLedger ledger;
+
+    @BeforeAll
+    static void createSchema() {
+        database = PostgresTestDatabase.create(POSTGRES, Leave.class, LeaveOccupancy.class);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        database.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        database.jdbcTemplate().execute("TRUNCATE leaves, leave_occupancy");
+        // Six members: at most two of them may work remotely on the same day.
+        when(userDirectory.countByDepartment(DEPARTMENT)).thenReturn(6);
+        ledger = new LeaveOccupancyLedger(database.repository(LeaveOccupancyRepository.class), userDirectory);
+    }
+
+    @Test
+    void reservesEveryDayOfTheLeave() {
+        inTransaction(() -> ledger.reserve(remoteWork(MONDAY, MONDAY.plusDays(2), EStatus.PENDING)));
+
+        assertThat(reserved(MONDAY.minusDays(1), MONDAY.plusDays(3))).containsExactly(0, 1, 1, 1, 0);
+    }
+
+    @Test
+    void ignoresLeaveTypesWithoutACap() {
+        Leave annual = remoteWork(MONDAY, MONDAY, EStatus.PENDING);
+        annual.setLeaveType(ELeaveType.ANNUEL);
+
+        inTransaction(() -> ledger.reserve(annual));
+
+        assertThat(database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM leave_occupancy", Integer.class)).isZero();
+    }
+
+    @Test
+    void refusesALeaveThatWouldExceedTheLimitOnAnyDay() {
+        inTransaction(() -> ledger.reserve(remoteWork(MONDAY.plusDays(1), MONDAY.plusDays(1), EStatus.PENDING)));
+        inTransaction(() -> ledger.reserve(remoteWork(MONDAY.plusDays(1), MONDAY.plusDays(1), EStatus.APPROVED)));
+
+        assertThatThrownBy(() -> inTransaction(() -> ledger.reserve(remoteWork(MONDAY, MONDAY.plusDays(2), EStatus.PENDING))))
+                .isInstanceOf(RemoteWorkPolicyException.class)
+                .hasMessageContaining(MONDAY.plusDays(1).toString())
+                .hasMessageContaining("The maximum allowed is 2");
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(2))).containsExactly(0, 2, 0);
+    }
+
+    @Test
+    void skipsTheLimitForSmallDepartments() {
+        when(userDirectory.countByDepartment(DEPARTMENT)).thenReturn(2);
+
+        for (int i = 0; i < 3; i++) {
+            inTransaction(() -> ledger.reserve(remoteWork(MONDAY, MONDAY, EStatus.PENDING)));
+        }
+
+        assertThat(reserved(MONDAY, MONDAY)).containsExactly(3);
+    }
+
+    @Test
+    void releaseGivesThePlacesBackWithoutGoingNegative() {
+        Leave leave = remoteWork(MONDAY, MONDAY.plusDays(1), EStatus.PENDING);
+        inTransaction(() -> ledger.reserve(leave));
+
+        inTransaction(() -> ledger.release(leave));
+        inTransaction(() -> ledger.release(leave));
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(1))).containsExactly(0, 0);
+    }
+
+    @Test
+    void closingALeaveReleasesItsPlaces() {
+        Leave leave = remoteWork(MONDAY, MONDAY, EStatus.PENDING);
+        inTransaction(() -> ledger.reserve(leave));
+
+        leave.setStatus(EStatus.APPROVED);
+        inTransaction(() -> ledger.onStatusChange(leave, EStatus.PENDING));
+        assertThat(reserved(MONDAY, MONDAY)).containsExactly(1);
+
+        leave.setStatus(EStatus.CANCELLED);
+        inTransaction(() -> ledger.onStatusChange(leave, EStatus.APPROVED));
+        assertThat(reserved(MONDAY, MONDAY)).containsExactly(0);
+    }
+
+    @Test
+    void updatingALeaveMovesItsReservation() {
+        Leave previous = remoteWork(MONDAY, MONDAY.plusDays(1), EStatus.PENDING);
+        inTransaction(() -> ledger.reserve(previous));
+
+        inTransaction(() -> {
+            ledger.release(previous);
+            ledger.reserve(remoteWork(MONDAY.plusDays(1), MONDAY.plusDays(2), EStatus.PENDING));
+        });
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(2))).containsExactly(0, 1, 1);
+    }
+
+    @Test
+    void updatingALeaveOntoAFullDayKeepsTheOldReservation() {
+        inTransaction(() -> ledger.reserve(remoteWork(MONDAY.plusDays(3), MONDAY.plusDays(3), EStatus.APPROVED)));
+        inTransaction(() -> ledger.reserve(remoteWork(MONDAY.plusDays(3), MONDAY.plusDays(3), EStatus.APPROVED)));
+        Leave previous = remoteWork(MONDAY, MONDAY.plusDays(1), EStatus.PENDING);
+        inTransaction(() -> ledger.reserve(previous));
+
+        assertThatThrownBy(() -> inTransaction(() -> {
+            ledger.release(previous);
+            ledger.reserve(remoteWork(MONDAY.plusDays(2), MONDAY.plusDays(3), EStatus.PENDING));
+        })).isInstanceOf(RemoteWorkPolicyException.class);
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(3))).containsExactly(1, 1, 0, 2);
+    }
+
+    @Test
+    void reconcileRecountsTheLedgerFromTheActiveLeaves() {
+        persist(remoteWork(MONDAY, MONDAY.plusDays(1), EStatus.PENDING));
+        persist(remoteWork(MONDAY.plusDays(1), MONDAY.plusDays(1), EStatus.APPROVED));
+        persist(remoteWork(MONDAY.plusDays(2), MONDAY.plusDays(2), EStatus.REJECTED));
+        Leave annual = remoteWork(MONDAY.plusDays(2), MONDAY.plusDays(2), EStatus.APPROVED);
+        annual.setLeaveType(ELeaveType.ANNUEL);
+        persist(annual);
+        setReserved(MONDAY.plusDays(1), 5);
+        setReserved(MONDAY.plusDays(2), 1);
+        setReserved(MONDAY.plusDays(4), 3);
+
+        inTransaction(ledger::reconcile);
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(4))).containsExactly(1, 2, 0, 0, 0);
+    }
+
+    @Test
+    void reconcileBuildsAnEmptyLedger() {
+        persist(remoteWork(MONDAY, MONDAY.plusDays(1), EStatus.APPROVED));
+
+        inTransaction(ledger::reconcile);
+        inTransaction(ledger::reconcile);
+
+        assertThat(reserved(MONDAY, MONDAY.plusDays(1))).containsExactly(1, 1);
+    }
+
+    private void inTransaction(Runnable action) {
+        database.transactionTemplate().executeWithoutResult(status -> action.run());
+    }
+
+    private void persist(Leave leave) {
+        inTransaction(() -> database.entityManager().persist(leave));
+    }
+
+    private void setReserved(LocalDate day, int reserved) {
+        database.jdbcTemplate().update("INSERT INTO leave_occupancy (department, leave_type, day, reserved) " +
+                        "VALUES (?, ?, ?, ?) ON CONFLICT (department, leave_type, day) DO UPDATE SET reserved = EXCLUDED.reserved",
+                DEPARTMENT, ELeaveType.TÉLÉTRAVAIL.name(), day, reserved);
+    }
+
+    private List<Integer> reserved(LocalDate from, LocalDate to) {
+        return from.datesUntil(to.plusDays(1))
+                .map(day -> database.jdbcTemplate().queryForList(
+                                "SELECT reserved FROM leave_occupancy WHERE department = ? AND leave_type = ? AND day = ?",
+                                Integer.class, DEPARTMENT, ELeaveType.TÉLÉTRAVAIL.name(), day)
+                        .stream().findFirst().orElse(0))
+                .toList();
+    }
+
+    private static Leave remoteWork(LocalDate startDate, LocalDate endDate, EStatus status) {
+        return Leave.builder()
+                .userDn("CN=jdoe,OU=IT,DC=otbs,DC=local")
+                .department(DEPARTMENT)
+                .leaveType(ELeaveType.TÉLÉTRAVAIL)
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.otbs.leave.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Tables of the given entities on a PostgreSQL container, created by Hibernate with the naming
+ * the service uses, so repository queries and the SQL of jobs run against the real schema.
+ * JDBC and JPA work done through it share the transactions of {@link #transactionManager()}, and
+ * repositories open their own transactions when called outside one, as they do in the service.
+ */
+public final class PostgresTestDatabase implements AutoCloseable {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final JpaTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private PostgresTestDatabase(PostgreSQLContainer<?> container, Class<?>... entities) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword());
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(
+                Arrays.stream(entities).map(Class::getName).toArray(String[]::new)));
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "jakarta.persistence.validation.mode", "none"));
+        factoryBean.afterPropertiesSet();
+
+        this.entityManagerFactory = factoryBean.getObject();
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.transactionManager = new JpaTransactionManager(entityManagerFactory);
+        this.transactionManager.setDataSource(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public static PostgresTestDatabase create(PostgreSQLContainer<?> container, Class<?>... entities) {
+        return new PostgresTestDatabase(container, entities);
+    }
+
+    public <T> T repository(Class<T> repositoryInterface) {
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource())));
+        return factory.getRepository(repositoryInterface);
+    }
+
+    public EntityManager entityManager() {
+        return entityManager;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public PlatformTransactionManager transactionManager() {
+        return transactionManager;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+}
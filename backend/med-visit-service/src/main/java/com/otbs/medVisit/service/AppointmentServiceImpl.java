@@ -1,6 +1,6 @@
 package com.otbs.medVisit.service;
 
-import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.UserBatchLoader;
 import com.otbs.feign.client.user.dto.UserResponse;
 import com.otbs.medVisit.dto.AppointmentRequestDTO;
 import com.otbs.medVisit.dto.AppointmentResponseDTO;
@@ -16,7 +16,6 @@ import com.otbs.medVisit.repository.AppointmentRepository;
 import com.otbs.medVisit.repository.MedicalVisitRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -26,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -39,7 +39,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final MedicalVisitService medicalVisitService;
     private final MedicalVisitRepository medicalVisitRepository;
     private final AppointmentMapper appointmentMapper;
-    private final UserClient userClient;
+    private final UserBatchLoader userBatchLoader;
     private final AsyncProcessingService asyncProcessingService;
 
     @Override
@@ -197,9 +197,8 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
-    @Async
-    protected CompletableFuture<UserResponse> fetchUserAsync(String userId) {
-        return CompletableFuture.supplyAsync(() -> userClient.getUserByDn(userId));
+    private CompletableFuture<UserResponse> fetchUserAsync(String userId) {
+        return userBatchLoader.load(userId);
     }
 
 
@@ -215,22 +214,18 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     private List<AppointmentResponseDTO> mapToResponses(List<Appointment> appointments) {
-        List<CompletableFuture<AppointmentResponseDTO>> futures = appointments.stream()
-                .map(appointment -> fetchUserAsync(appointment.getUserId())
-                        .thenApply(user -> {
-                            String userFullName = user.firstName() + " " + user.lastName();
-                            return appointmentMapper.toDto(appointment, userFullName, user.email());
-                        }))
-                .toList();
-
-        return futures.stream()
-                .map(future -> {
-                    try {
-                        return future.get();
-                    } catch (Exception e) {
-                        log.error("Error mapping appointment: {}", e.getMessage());
+        Map<String, UserResponse> users = userBatchLoader.loadAll(
+                appointments.stream().map(Appointment::getUserId).toList());
+
+        return appointments.stream()
+                .map(appointment -> {
+                    UserResponse user = users.get(appointment.getUserId());
+                    if (user == null) {
+                        log.error("Error mapping appointment: user {} not found", appointment.getUserId());
                         throw new AppointmentException("Failed to map appointment");
                     }
+                    String userFullName = user.firstName() + " " + user.lastName();
+                    return appointmentMapper.toDto(appointment, userFullName, user.email());
                 })
                 .toList();
     }
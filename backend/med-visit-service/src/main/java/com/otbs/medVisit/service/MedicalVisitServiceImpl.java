@@ -1,6 +1,6 @@
 package com.otbs.medVisit.service;
 
-import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.UserDirectoryReplica;
 import com.otbs.feign.client.user.dto.UserResponse;
 import com.otbs.medVisit.dto.MedicalVisitRequestDTO;
 import com.otbs.medVisit.dto.MedicalVisitResponseDTO;
@@ -25,7 +25,7 @@ public class MedicalVisitServiceImpl implements MedicalVisitService {
     private final MedicalVisitRepository medicalVisitRepository;
     private final MedicalVisitMapper medicalVisitMapper;
     private final AsyncProcessingService asyncProcessingService;
-    private final UserClient userClient;
+    private final UserDirectoryReplica userDirectory;
 
 
     @Override
@@ -43,7 +43,7 @@ public class MedicalVisitServiceImpl implements MedicalVisitService {
         // Save medical visit
         MedicalVisit medVisit = medicalVisitMapper.toEntity(medicalVisitRequestDTO);
         medicalVisitRepository.save(medVisit);
-        userClient.getAllUsers()
+        userDirectory.getAllUsers()
                 .forEach(
                         user -> {
                             if (user.email() != null && !user.email().isBlank()) {
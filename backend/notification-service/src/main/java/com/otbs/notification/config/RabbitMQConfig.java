@@ -32,6 +32,12 @@ public class RabbitMQConfig {
     @Value("${notification.rabbitmq.training-routing-key}")
     private String trainingRoutingKey;
 
+    @Value("${notification.rabbitmq.attendance-queue}")
+    private String attendanceQueue;
+
+    @Value("${notification.rabbitmq.attendance-routing-key}")
+    private String attendanceRoutingKey;
+
     @Value("${notification.rabbitmq.mail-queue}")
     private String mailQueue;
 
@@ -59,6 +65,11 @@ public class RabbitMQConfig {
         return new Queue(trainingQueue, true);
     }
 
+    @Bean
+    public Queue attendanceQueue() {
+        return new Queue(attendanceQueue, true);
+    }
+
     @Bean
     public Queue mailQueue() {
         return new Queue(mailQueue, true);
@@ -88,6 +99,13 @@ public class RabbitMQConfig {
                 .with(medicalVisitRoutingKey);
     }
 
+    @Bean
+    public Binding attendanceBinding() {
+        return BindingBuilder
+                .bind(attendanceQueue())
+                .to(notificationExchange())
+                .with(attendanceRoutingKey);
+    }
 
     @Bean
     public Binding mailBinding() {
@@ -13,6 +13,7 @@ public enum NotificationType {
     LEAVE_APPROVED,
     LEAVE_REJECTED,
     ATTENDANCE_MISSED,
+    ATTENDANCE_ALERT,
 
     // Performance & Appraisals
     PERFORMANCE_REVIEW_REMINDER,
@@ -33,6 +33,11 @@ public class RabbitMQListener {
         processNotification(message, "training-management-service", NotificationType.TRAINING_SESSION);
     }
 
+    @RabbitListener(queues = "${notification.rabbitmq.attendance-queue}")
+    public void processAttendanceNotification(Map<String, Object> message) {
+        processNotification(message, "attendance-service", NotificationType.ATTENDANCE_ALERT);
+    }
+
     @RabbitListener(queues = "${notification.rabbitmq.mail-queue}")
     public void processMailNotification(Map<String, Object> message) {
         try {
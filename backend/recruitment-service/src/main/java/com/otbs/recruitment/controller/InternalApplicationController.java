@@ -2,14 +2,17 @@ package com.otbs.recruitment.controller;
 
 import com.otbs.recruitment.dto.ApplicationDetailsResponseDTO;
 import com.otbs.recruitment.dto.ApplicationResponseDTO;
+import com.otbs.recruitment.dto.AttachmentDTO;
 import com.otbs.recruitment.model.EApplicationStatus;
 import com.otbs.recruitment.service.ApplicationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -63,6 +66,18 @@ public class InternalApplicationController {
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasAuthority('HR') or hasAuthority('Manager') or hasAuthority('HRD')")
+    @GetMapping("/details/{applicationId}/attachment")
+    public ResponseEntity<StreamingResponseBody> getApplicationAttachment(@PathVariable("applicationId") Long applicationId) {
+        AttachmentDTO attachment = applicationService.getApplicationAttachment(applicationId);
+        MediaType contentType = attachment.contentType() != null
+                ? MediaType.parseMediaType(attachment.contentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(attachment.content());
+    }
+
     //change application status
     @PreAuthorize("hasAuthority('HR') or hasAuthority('HRD')")
     @PutMapping("/{applicationId}/status")
@@ -9,6 +9,6 @@ public record ApplicationDetailsResponseDTO(
         Long applicationId,
         CandidateResponseDTO resume,
         MatchResult matchResult,
-        byte[] attachment
+        boolean hasAttachment
 ) {
 }
@@ -14,7 +14,6 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = "attachment")
 public class InternalApplication {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,9 +37,11 @@ public class InternalApplication {
     @Column(name = "user_id", nullable = false, length = 100)
     private String userId;
 
-    @Lob
-    @Column(name = "attachment")
-    private byte[] attachment;
+    @Column(name = "attachment_id", length = 64)
+    private String attachmentId;
+
+    @Column(name = "attachment_content_type")
+    private String attachmentContentType;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false, nullable = false)
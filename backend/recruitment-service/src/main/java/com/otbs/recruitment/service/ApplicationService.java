@@ -2,6 +2,7 @@ package com.otbs.recruitment.service;
 
 import com.otbs.recruitment.dto.ApplicationDetailsResponseDTO;
 import com.otbs.recruitment.dto.ApplicationResponseDTO;
+import com.otbs.recruitment.dto.AttachmentDTO;
 import com.otbs.recruitment.model.EApplicationStatus;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -12,6 +13,7 @@ public interface ApplicationService {
     void deleteApplication(Long applicationId);
     List<ApplicationResponseDTO> getAllApplications(Long jobId);
     ApplicationDetailsResponseDTO getApplicationDetails(Long applicationId);
+    AttachmentDTO getApplicationAttachment(Long applicationId);
     void updateApplicationStatus(Long applicationId, EApplicationStatus status);
     void deleteApplicationByJobOfferId(Long jobOfferId);
 }
\ No newline at end of file
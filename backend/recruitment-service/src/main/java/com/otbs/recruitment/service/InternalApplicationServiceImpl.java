@@ -1,10 +1,14 @@
 package com.otbs.recruitment.service;
 
+import com.otbs.blob.store.BlobRef;
+import com.otbs.blob.store.BlobStore;
+import com.otbs.blob.store.BlobStoreException;
 import com.otbs.feign.client.candidate.CandidateClient;
 import com.otbs.feign.client.resumeMatcher.ResumeMatcherClient;
 import com.otbs.feign.client.user.dto.UserResponse;
 import com.otbs.recruitment.dto.ApplicationDetailsResponseDTO;
 import com.otbs.recruitment.dto.ApplicationResponseDTO;
+import com.otbs.recruitment.dto.AttachmentDTO;
 import com.otbs.recruitment.exception.ApplicationException;
 import com.otbs.recruitment.exception.FileUploadException;
 import com.otbs.recruitment.exception.JobOfferException;
@@ -20,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.List;
 
@@ -35,6 +40,7 @@ public class InternalApplicationServiceImpl implements ApplicationService {
     private final AsyncProcessingService asyncProcessingService;
 
     private final JobOfferRepository jobOfferRepository;
+    private final BlobStore blobStore;
 
 
     @Override
@@ -52,12 +58,13 @@ public class InternalApplicationServiceImpl implements ApplicationService {
         // Get the resume base64
         String resumeBase64;
         String resumeType;
-        byte[] resumeBytes;
+        BlobRef resumeBlob;
         try {
-            resumeBase64 = java.util.Base64.getEncoder().encodeToString(resume.getBytes());
-            resumeBytes= resume.getBytes();
+            byte[] resumeBytes = resume.getBytes();
+            resumeBase64 = java.util.Base64.getEncoder().encodeToString(resumeBytes);
             resumeType = resume.getContentType().split("/")[1];
-        } catch (IOException e) {
+            resumeBlob = blobStore.put(new ByteArrayInputStream(resumeBytes), resume.getContentType());
+        } catch (IOException | BlobStoreException e) {
             throw new FileUploadException("Failed to process the resume file", e);
         }
 
@@ -71,7 +78,8 @@ public class InternalApplicationServiceImpl implements ApplicationService {
                 .jobOffer(jobOffer)
                 .matchResult(null)
                 .status(EApplicationStatus.PENDING)
-                .attachment(resumeBytes)
+                .attachmentId(resumeBlob.id())
+                .attachmentContentType(resumeBlob.contentType())
                 .userId(getCurrentUser().id())
                 .build();
 
@@ -133,11 +141,25 @@ public class InternalApplicationServiceImpl implements ApplicationService {
         return ApplicationDetailsResponseDTO.builder()
                 .applicationId(application.getId())
                 .resume(candidate)
-                .attachment(application.getAttachment())
+                .hasAttachment(application.getAttachmentId() != null)
                 .matchResult(application.getMatchResult())
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentDTO getApplicationAttachment(Long applicationId) {
+        InternalApplication application = internalapplicationRepository.findById(applicationId)
+                .filter(internalApplication -> internalApplication.getAttachmentId() != null)
+                .orElseThrow(() -> new ApplicationException("Attachment not found"));
+
+        String attachmentId = application.getAttachmentId();
+        return new AttachmentDTO(
+                application.getAttachmentContentType(),
+                output -> blobStore.copyTo(attachmentId, output)
+        );
+    }
+
     @Override
     @Transactional
     public void updateApplicationStatus(Long applicationId, EApplicationStatus status) {
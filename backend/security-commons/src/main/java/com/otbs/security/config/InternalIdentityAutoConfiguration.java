@@ -0,0 +1,38 @@
+package com.otbs.security.config;
+
+import com.otbs.security.identity.InternalIdentityRequestInterceptor;
+import com.otbs.security.identity.InternalIdentitySigner;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.Set;
+
+/**
+ * Only services that trust the gateway's identity header configure its secret; a service whose
+ * filter needs the signer fails to start without it rather than falling back to another key.
+ * The same services sign their own Feign calls with it.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "internal-identity.secret")
+@Import(InternalIdentitySigner.class)
+public class InternalIdentityAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignConfiguration {
+
+        @Bean
+        public InternalIdentityRequestInterceptor internalIdentityRequestInterceptor(
+                InternalIdentitySigner signer,
+                @Value("${spring.application.name}") String serviceName,
+                @Value("${internal-identity.targets:leave-service,user-service,candidate-service}") Set<String> targets) {
+            return new InternalIdentityRequestInterceptor(signer, serviceName, targets);
+        }
+    }
+}
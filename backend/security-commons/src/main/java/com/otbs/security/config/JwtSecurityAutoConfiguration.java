@@ -0,0 +1,12 @@
+package com.otbs.security.config;
+
+import com.otbs.security.jwt.JwtUtils;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Import;
+
+@AutoConfiguration
+@ConditionalOnProperty(name = "jwt.secret")
+@Import(JwtUtils.class)
+public class JwtSecurityAutoConfiguration {
+}
@@ -0,0 +1,17 @@
+package com.otbs.security.identity;
+
+/**
+ * Principal attributes that rarely change and can therefore travel inside access tokens and the
+ * internal identity header. Services map it to their own principal type, which keeps this module
+ * free of the Feign client DTOs.
+ */
+public record IdentityProfile(
+        String userId,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String department,
+        String role
+) {
+}
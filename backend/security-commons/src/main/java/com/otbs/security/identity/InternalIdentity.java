@@ -0,0 +1,43 @@
+package com.otbs.security.identity;
+
+import java.util.List;
+
+/**
+ * Principal resolved once by the gateway and forwarded to backend services in the
+ * {@link InternalIdentitySigner#HEADER} header, or the identity of a calling service
+ * (see {@link #service(String, long)}).
+ */
+public record InternalIdentity(
+        String userId,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String department,
+        String role,
+        List<String> roles,
+        long expiresAt
+) {
+
+    /**
+     * Authority of service-to-service calls; endpoints meant only for other services require it.
+     */
+    public static final String SERVICE_ROLE = "Service";
+
+    /**
+     * Identity of the service {@code name} itself, for calls it makes outside of any user
+     * request, e.g. from scheduled jobs.
+     */
+    public static InternalIdentity service(String name, long expiresAt) {
+        return new InternalIdentity("service:" + name, name, null, null, null, null, SERVICE_ROLE,
+                List.of(SERVICE_ROLE), expiresAt);
+    }
+
+    public boolean hasProfile() {
+        return userId != null;
+    }
+
+    public IdentityProfile profile() {
+        return new IdentityProfile(userId, username, firstName, lastName, email, department, role);
+    }
+}
@@ -0,0 +1,48 @@
+package com.otbs.security.identity;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+import java.util.Set;
+
+/**
+ * Signs outgoing Feign requests with the identity of the calling service, so endpoints that
+ * only other services may call can require {@link InternalIdentity#SERVICE_ROLE} instead of
+ * being open. Only clients of the listed services get the header, so it never reaches
+ * third-party endpoints. The header is reused until half of its TTL has passed, which keeps
+ * the HMAC off the per-request path.
+ */
+public class InternalIdentityRequestInterceptor implements RequestInterceptor {
+
+    private record Signed(String header, long refreshAt) {
+    }
+
+    private final InternalIdentitySigner signer;
+    private final String serviceName;
+    private final Set<String> targets;
+    private volatile Signed signed;
+
+    public InternalIdentityRequestInterceptor(InternalIdentitySigner signer, String serviceName, Set<String> targets) {
+        this.signer = signer;
+        this.serviceName = serviceName;
+        this.targets = targets;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (template.feignTarget() != null && targets.contains(template.feignTarget().name())
+                && !template.headers().containsKey(InternalIdentitySigner.HEADER)) {
+            template.header(InternalIdentitySigner.HEADER, header());
+        }
+    }
+
+    private String header() {
+        long now = System.currentTimeMillis();
+        Signed current = signed;
+        if (current == null || current.refreshAt() <= now) {
+            current = new Signed(signer.signService(serviceName), now + signer.getTtlMs() / 2);
+            signed = current;
+        }
+        return current.header();
+    }
+}
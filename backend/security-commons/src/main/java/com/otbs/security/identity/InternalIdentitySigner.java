@@ -0,0 +1,146 @@
+package com.otbs.security.identity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otbs.security.jwt.IdentityClaims;
+import com.otbs.security.jwt.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signs and verifies the internal identity header exchanged between the gateway and
+ * backend services. The header is {@code base64url(json) + "." + base64url(hmac)}, and
+ * is only valid for a short time so a captured header cannot be replayed for long.
+ */
+@Component
+@Slf4j
+public class InternalIdentitySigner {
+
+    public static final String HEADER = "X-Internal-Identity";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * Deliberately separate from {@code jwt.secret}: every service can verify user tokens, but
+     * a leaked user-token key must not let anyone forge the header that services trust blindly.
+     */
+    @Value("${internal-identity.secret}")
+    private String secret;
+
+    @Value("${jwt.secret:}")
+    private String jwtSecret;
+
+    @Getter
+    @Value("${internal-identity.ttl-ms:30000}")
+    private long ttlMs;
+
+    /**
+     * When enabled, backend filters ignore the Authorization header and only accept
+     * requests carrying a valid identity header from the gateway.
+     */
+    @Getter
+    @Value("${internal-identity.required:true}")
+    private boolean required;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SecretKeySpec signingKey;
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    private void init() {
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalStateException("internal-identity.secret must be set");
+        }
+        if (secret.equals(jwtSecret)) {
+            throw new IllegalStateException("internal-identity.secret must differ from jwt.secret");
+        }
+        this.signingKey = new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(signingKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public String sign(VerifiedToken token) {
+        long expiresAt = Math.min(token.expiresAt().toEpochMilli(), System.currentTimeMillis() + ttlMs);
+        IdentityProfile profile = IdentityClaims.toProfile(token);
+        InternalIdentity identity = new InternalIdentity(
+                profile.userId(),
+                profile.username(),
+                profile.firstName(),
+                profile.lastName(),
+                profile.email(),
+                profile.department(),
+                profile.role(),
+                token.roles(),
+                expiresAt
+        );
+        return sign(identity);
+    }
+
+    /**
+     * Header identifying the service {@code name} to other services, valid for the usual TTL.
+     */
+    public String signService(String name) {
+        return sign(InternalIdentity.service(name, System.currentTimeMillis() + ttlMs));
+    }
+
+    public String sign(InternalIdentity identity) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(identity);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(payload) + "." + encoder.encodeToString(macs.get().doFinal(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise internal identity", e);
+        }
+    }
+
+    public Optional<InternalIdentity> verify(String header) {
+        if (!StringUtils.hasText(header)) {
+            return Optional.empty();
+        }
+
+        int separator = header.indexOf('.');
+        if (separator < 0) {
+            log.warn("Malformed internal identity header");
+            return Optional.empty();
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(header.substring(0, separator));
+            byte[] signature = decoder.decode(header.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, macs.get().doFinal(payload))) {
+                log.warn("Invalid internal identity signature");
+                return Optional.empty();
+            }
+
+            InternalIdentity identity = objectMapper.readValue(payload, InternalIdentity.class);
+            if (identity.expiresAt() < System.currentTimeMillis()) {
+                log.warn("Internal identity header is expired for user: {}", identity.username());
+                return Optional.empty();
+            }
+            return Optional.of(identity);
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Cannot read internal identity header: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.otbs.security.jwt;
+
+import com.otbs.security.identity.IdentityProfile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Principal fields carried inside access tokens, so that services can build their principal
+ * from an {@link IdentityProfile} without calling user-service on every request.
+ * Only attributes that rarely change are embedded; they are re-minted on refresh.
+ */
+public final class IdentityClaims {
+
+    public static final String USER_ID = "uid";
+    public static final String EMAIL = "email";
+    public static final String FIRST_NAME = "given_name";
+    public static final String LAST_NAME = "family_name";
+    public static final String DEPARTMENT = "department";
+    public static final String ROLE = "role";
+
+    private IdentityClaims() {
+    }
+
+    public static Map<String, Object> of(IdentityProfile profile) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        putIfPresent(claims, USER_ID, profile.userId());
+        putIfPresent(claims, EMAIL, profile.email());
+        putIfPresent(claims, FIRST_NAME, profile.firstName());
+        putIfPresent(claims, LAST_NAME, profile.lastName());
+        putIfPresent(claims, DEPARTMENT, profile.department());
+        putIfPresent(claims, ROLE, profile.role());
+        return claims;
+    }
+
+    public static boolean isPresent(VerifiedToken token) {
+        return token.claims().get(USER_ID) instanceof String;
+    }
+
+    public static IdentityProfile toProfile(VerifiedToken token) {
+        return new IdentityProfile(
+                token.claims().get(USER_ID, String.class),
+                token.username(),
+                token.claims().get(FIRST_NAME, String.class),
+                token.claims().get(LAST_NAME, String.class),
+                token.claims().get(EMAIL, String.class),
+                token.claims().get(DEPARTMENT, String.class),
+                token.claims().get(ROLE, String.class)
+        );
+    }
+
+    private static void putIfPresent(Map<String, Object> claims, String name, String value) {
+        if (value != null) {
+            claims.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.otbs.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single JWT helper shared by every service and the gateway.
+ * <p>
+ * The signing key and parser are built once at startup, and every verified token is kept
+ * in a bounded cache until it expires, so a token presented on many requests is only
+ * verified the first time it is seen.
+ */
+@Component
+@Slf4j
+public class JwtUtils {
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Getter
+    @Value("${jwt.expiration-ms}")
+    private int accessExpirationMs;
+
+    @Getter
+    @Value("${jwt.refresh-expiration-ms}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /**
+     * When enabled, filters build the principal from {@link IdentityClaims} instead of
+     * calling user-service. Tokens minted before the claims existed still fall back.
+     */
+    @Getter
+    @Value("${jwt.identity-claims.enabled:true}")
+    private boolean identityClaimsEnabled;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    private void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String token, VerifiedToken verified) -> {
+                    Duration remaining = Duration.between(Instant.now(), verified.expiresAt());
+                    return remaining.isNegative() ? Duration.ZERO : remaining;
+                }))
+                .build();
+    }
+
+    public String generateAccessToken(String username, List<String> roles) {
+        return generateAccessToken(username, roles, Map.of());
+    }
+
+    public String generateAccessToken(String username, List<String> roles, Map<String, Object> identity) {
+        return buildToken(username, accessExpirationMs, "access", roles, identity);
+    }
+
+    public String generateRefreshToken(String username, List<String> roles) {
+        return buildToken(username, refreshExpirationMs, "refresh", roles, Map.of());
+    }
+
+    private String buildToken(String username, long expiration, String tokenType, List<String> roles,
+                              Map<String, Object> identity) {
+        return Jwts.builder()
+                .claims(identity)
+                .subject(username)
+                .claim("token_type", tokenType)
+                .claim("roles", new ArrayList<>(roles))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies the token, or returns the cached result of an earlier verification.
+     *
+     * @throws JwtException if the signature, expiry or claims are invalid
+     */
+    public VerifiedToken verifyJwtToken(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            throw new UnsupportedJwtException("JWT token has no expiration");
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                extractRoles(claims),
+                claims.get("token_type", String.class),
+                claims.getExpiration().toInstant(),
+                claims
+        );
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
+    /**
+     * Same as {@link #verifyJwtToken(String)} but logs and swallows failures, for use in filters.
+     */
+    public Optional<VerifiedToken> resolveJwtToken(String authToken) {
+        try {
+            return Optional.of(verifyJwtToken(authToken));
+        } catch (SignatureException e) {
+            log.error("Invalid JWT signature: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            log.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT claims string is empty: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return resolveJwtToken(authToken).isPresent();
+    }
+
+    public boolean validateRefreshToken(String token) {
+        return resolveJwtToken(token)
+                .map(verified -> "refresh".equals(verified.tokenType()))
+                .orElse(false);
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        try {
+            return verifyJwtToken(token).username();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Cannot extract username from token: {}", e.getMessage());
+            throw new JwtException("Invalid JWT token");
+        }
+    }
+
+    public List<String> getRolesFromJwtToken(String token) {
+        try {
+            return verifyJwtToken(token).roles();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Cannot extract roles from token: {}", e.getMessage());
+            throw new JwtException("Invalid JWT token");
+        }
+    }
+
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> rawList) {
+            List<String> result = new ArrayList<>();
+            for (Object item : rawList) {
+                if (item instanceof String role) {
+                    result.add(role);
+                } else {
+                    log.warn("Non-string role found in JWT: {}", item);
+                }
+            }
+            return List.copyOf(result);
+        }
+        log.error("Roles claim is not a list: {}", roles);
+        throw new MalformedJwtException("Invalid roles claim in JWT token");
+    }
+}
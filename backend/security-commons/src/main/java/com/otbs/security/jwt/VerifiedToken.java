@@ -0,0 +1,19 @@
+package com.otbs.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a successful signature verification. Instances are immutable and
+ * shared between requests presenting the same token.
+ */
+public record VerifiedToken(
+        String username,
+        List<String> roles,
+        String tokenType,
+        Instant expiresAt,
+        Claims claims
+) {
+}
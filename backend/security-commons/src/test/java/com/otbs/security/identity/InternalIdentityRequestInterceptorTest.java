@@ -0,0 +1,82 @@
+package com.otbs.security.identity;
+
+import feign.RequestTemplate;
+import feign.Target;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityRequestInterceptorTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("internal-identity-secret-0000000".getBytes());
+
+    private final InternalIdentitySigner signer = signer();
+    private final InternalIdentityRequestInterceptor interceptor =
+            new InternalIdentityRequestInterceptor(signer, "attendance-service", Set.of("leave-service"));
+
+    interface Api {
+    }
+
+    @Test
+    void signsRequestsToListedServicesAsTheCallingService() {
+        RequestTemplate template = template("leave-service");
+
+        interceptor.apply(template);
+
+        String header = template.headers().get(InternalIdentitySigner.HEADER).iterator().next();
+        InternalIdentity identity = signer.verify(header).orElseThrow();
+        assertThat(identity.username()).isEqualTo("attendance-service");
+        assertThat(identity.roles()).containsExactly(InternalIdentity.SERVICE_ROLE);
+        assertThat(identity.hasProfile()).isTrue();
+    }
+
+    @Test
+    void leavesOtherTargetsAlone() {
+        RequestTemplate template = template("resume-matcher");
+
+        interceptor.apply(template);
+
+        assertThat(template.headers()).doesNotContainKey(InternalIdentitySigner.HEADER);
+    }
+
+    @Test
+    void keepsAnIdentityTheCallerAlreadySet() {
+        RequestTemplate template = template("leave-service");
+        template.header(InternalIdentitySigner.HEADER, "forwarded");
+
+        interceptor.apply(template);
+
+        assertThat(template.headers().get(InternalIdentitySigner.HEADER)).containsExactly("forwarded");
+    }
+
+    @Test
+    void reusesTheHeaderWithinHalfItsTtl() {
+        RequestTemplate first = template("leave-service");
+        RequestTemplate second = template("leave-service");
+
+        interceptor.apply(first);
+        interceptor.apply(second);
+
+        assertThat(second.headers().get(InternalIdentitySigner.HEADER))
+                .isEqualTo(first.headers().get(InternalIdentitySigner.HEADER));
+    }
+
+    private static RequestTemplate template(String target) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Api.class, target, "http://localhost"));
+        return template;
+    }
+
+    private static InternalIdentitySigner signer() {
+        InternalIdentitySigner signer = new InternalIdentitySigner();
+        ReflectionTestUtils.setField(signer, "secret", SECRET);
+        ReflectionTestUtils.setField(signer, "jwtSecret", "");
+        ReflectionTestUtils.setField(signer, "ttlMs", 30_000L);
+        ReflectionTestUtils.invokeMethod(signer, "init");
+        return signer;
+    }
+}
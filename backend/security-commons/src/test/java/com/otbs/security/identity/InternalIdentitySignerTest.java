@@ -0,0 +1,70 @@
+package com.otbs.security.identity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InternalIdentitySignerTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("internal-identity-secret-0000000".getBytes());
+    private static final String JWT_SECRET = Base64.getEncoder().encodeToString("user-token-secret-00000000000000".getBytes());
+
+    @Test
+    void verifiesItsOwnSignature() {
+        InternalIdentitySigner signer = signer(SECRET, JWT_SECRET);
+        InternalIdentity identity = identity(System.currentTimeMillis() + 10_000);
+
+        assertThat(signer.verify(signer.sign(identity))).contains(identity);
+    }
+
+    @Test
+    void rejectsTamperedHeaders() {
+        InternalIdentitySigner signer = signer(SECRET, JWT_SECRET);
+        String header = signer.sign(identity(System.currentTimeMillis() + 10_000));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"username\":\"admin\"}".getBytes())
+                + header.substring(header.indexOf('.'));
+
+        assertThat(signer.verify(forged)).isEmpty();
+        assertThat(signer.verify("not-a-header")).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredHeaders() {
+        InternalIdentitySigner signer = signer(SECRET, JWT_SECRET);
+
+        assertThat(signer.verify(signer.sign(identity(System.currentTimeMillis() - 1)))).isEmpty();
+    }
+
+    @Test
+    void rejectsHeadersSignedWithTheUserTokenKey() {
+        InternalIdentitySigner signer = signer(SECRET, JWT_SECRET);
+        InternalIdentitySigner jwtKeySigner = signer(JWT_SECRET, SECRET);
+
+        assertThat(signer.verify(jwtKeySigner.sign(identity(System.currentTimeMillis() + 10_000)))).isEmpty();
+    }
+
+    @Test
+    void refusesToReuseTheJwtSecret() {
+        assertThatThrownBy(() -> signer(JWT_SECRET, JWT_SECRET))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static InternalIdentity identity(long expiresAt) {
+        return new InternalIdentity("42", "jdoe", "John", "Doe", "jdoe@example.com", "IT", "Employee",
+                List.of("Employee"), expiresAt);
+    }
+
+    private static InternalIdentitySigner signer(String secret, String jwtSecret) {
+        InternalIdentitySigner signer = new InternalIdentitySigner();
+        ReflectionTestUtils.setField(signer, "secret", secret);
+        ReflectionTestUtils.setField(signer, "jwtSecret", jwtSecret);
+        ReflectionTestUtils.setField(signer, "ttlMs", 30_000L);
+        ReflectionTestUtils.invokeMethod(signer, "init");
+        return signer;
+    }
+}
@@ -0,0 +1,79 @@
+package com.otbs.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("another-secret-another-secret-00".getBytes());
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = jwtUtils(SECRET, 60_000);
+    }
+
+    @Test
+    void verifiesAccessTokens() {
+        String token = jwtUtils.generateAccessToken("jdoe", List.of("Employee", "Manager"));
+
+        VerifiedToken verified = jwtUtils.verifyJwtToken(token);
+
+        assertThat(verified.username()).isEqualTo("jdoe");
+        assertThat(verified.roles()).containsExactly("Employee", "Manager");
+        assertThat(verified.tokenType()).isEqualTo("access");
+        assertThat(jwtUtils.getUserNameFromJwtToken(token)).isEqualTo("jdoe");
+        assertThat(jwtUtils.getRolesFromJwtToken(token)).containsExactly("Employee", "Manager");
+    }
+
+    @Test
+    void servesRepeatedTokensFromTheCache() {
+        String token = jwtUtils.generateAccessToken("jdoe", List.of("Employee"));
+
+        assertThat(jwtUtils.verifyJwtToken(token)).isSameAs(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        String token = jwtUtils(OTHER_SECRET, 60_000).generateAccessToken("jdoe", List.of("Employee"));
+
+        assertThat(jwtUtils.validateJwtToken(token)).isFalse();
+        assertThatThrownBy(() -> jwtUtils.getUserNameFromJwtToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String token = jwtUtils(SECRET, -1_000).generateAccessToken("jdoe", List.of("Employee"));
+
+        assertThat(jwtUtils.resolveJwtToken(token)).isEmpty();
+    }
+
+    @Test
+    void onlyAcceptsRefreshTokensAsRefreshTokens() {
+        String access = jwtUtils.generateAccessToken("jdoe", List.of("Employee"));
+        String refresh = jwtUtils.generateRefreshToken("jdoe", List.of("Employee"));
+
+        assertThat(jwtUtils.validateRefreshToken(access)).isFalse();
+        assertThat(jwtUtils.validateRefreshToken(refresh)).isTrue();
+    }
+
+    private static JwtUtils jwtUtils(String secret, int expirationMs) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtils, "accessExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", 120_000L);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+}
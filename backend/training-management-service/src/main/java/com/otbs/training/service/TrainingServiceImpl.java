@@ -1,6 +1,6 @@
 package com.otbs.training.service;
 
-import com.otbs.feign.client.user.UserClient;
+import com.otbs.feign.client.user.UserDirectoryReplica;
 import com.otbs.feign.client.user.dto.UserResponse;
 import com.otbs.training.dto.TrainingRequestDTO;
 import com.otbs.training.dto.TrainingResponseDTO;
@@ -33,7 +33,7 @@ public class TrainingServiceImpl implements TrainingService {
 
     private final TrainingRepository trainingRepository;
     private final TrainingMapper trainingMapper;
-    private final UserClient userClient;
+    private final UserDirectoryReplica userDirectory;
 
     @Override
     @Transactional
@@ -47,9 +47,9 @@ public class TrainingServiceImpl implements TrainingService {
         training.setDepartment(manager.department());
         Training savedTraining = trainingRepository.save(training);
         List<Invitation> invitations = new ArrayList<>();
-        userClient.getAllUsers()
+        userDirectory.findByDepartment(manager.department())
                 .stream()
-                .filter(user -> user.department().equals(manager.department()) && !user.id().equals(manager.id()))
+                .filter(user -> !user.id().equals(manager.id()))
                 .forEach(user -> {
                     Invitation invitation = new Invitation();
                     invitation.setUserId(user.id());
@@ -3,9 +3,11 @@ package com.otbs.user;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableAsync
 public class UserApplication {
     public static void main(String[] args) {
         SpringApplication.run(UserApplication.class, args);
@@ -0,0 +1,28 @@
+package com.otbs.user.config;
+
+import com.otbs.blob.sweep.BlobReferenceSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+
+/**
+ * Blobs still referenced by this service; every other blob in its store is swept once it is
+ * older than the grace period, e.g. a profile picture that was replaced.
+ */
+@Configuration
+public class BlobReferencesConfig {
+
+    @Bean
+    public BlobReferenceSource profilePictureReferences(JdbcTemplate jdbcTemplate) {
+        return () -> new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT blob_id FROM profile_pictures WHERE blob_id IS NOT NULL", String.class));
+    }
+
+    @Bean
+    public BlobReferenceSource profilePictureVariantReferences(JdbcTemplate jdbcTemplate) {
+        return () -> new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT blob_id FROM profile_picture_variants WHERE blob_id IS NOT NULL", String.class));
+    }
+}
@@ -1,8 +1,10 @@
 package com.otbs.user.controller;
 
+import com.otbs.user.dto.AvatarDTO;
 import com.otbs.user.dto.UserInfoRequestDTO;
 import com.otbs.user.dto.MessageResponseDTO;
 import com.otbs.user.dto.ProfilePictureDTO;
+import com.otbs.user.exception.UserException;
 import com.otbs.user.model.User;
 import com.otbs.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,13 +16,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 
@@ -32,6 +37,8 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    private static final CacheControl PICTURE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
     private final UserService userService;
 
     @Operation(
@@ -70,6 +77,22 @@ public class UserController {
         return userService.getUserByDn(LdapUtils.newLdapName(id));
     }
 
+    @Operation(
+            summary = "Get users by LDAP DNs",
+            description = "Retrieves the details of several users in one call. Unknown DNs are omitted from the result."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "List of users found",
+            content = @Content(schema = @Schema(implementation = User.class))
+    )
+    @PostMapping("/batch")
+    public List<User> getUsersByDns(
+            @RequestBody List<String> ids
+    ) {
+        return userService.getUsersByDns(ids);
+    }
+
     @Operation(
             summary = "Get all users",
             description = "Retrieves a list of all users in the system."
@@ -99,7 +122,6 @@ public class UserController {
             @Parameter(description = "User's username", example = "john.doe", required = true)
             @RequestParam("username") String username
     ) {
-        log.info("Retrievingggggggg user: {}", userService.getUserByUsername(username));
         return userService.getUserByUsername(username);
     }
 
@@ -169,11 +191,66 @@ public class UserController {
             content = @Content(schema = @Schema(implementation = ProfilePictureDTO.class))
     )
     @ApiResponse(responseCode = "404", description = "Profile picture not found")
+    @ApiResponse(responseCode = "304", description = "Profile picture not modified")
     @GetMapping("/profilePicture")
     public ResponseEntity<ProfilePictureDTO> getProfilePicture(
             @Parameter(description = "User's username", example = "john.doe", required = true)
-            @RequestParam("username") String username
+            @RequestParam("username") String username,
+            WebRequest request
+    ) {
+        String etag = userService.getProfilePictureEtag(username).orElse(null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PICTURE_CACHE_CONTROL)
+                .eTag(etag)
+                .body(userService.getProfilePicture(username));
+    }
+
+    @Operation(
+            summary = "Get user avatar",
+            description = "Retrieves a square, resized profile picture. The closest generated size at least as large as the one requested is returned."
+    )
+    @ApiResponse(responseCode = "200", description = "Avatar image retrieved")
+    @ApiResponse(responseCode = "304", description = "Avatar not modified")
+    @ApiResponse(responseCode = "404", description = "Avatar not found")
+    @GetMapping("/{username}/avatar")
+    public ResponseEntity<byte[]> getAvatar(
+            @Parameter(description = "User's username", example = "john.doe", required = true)
+            @PathVariable("username") String username,
+            @Parameter(description = "Requested size in pixels", example = "64")
+            @RequestParam(value = "size", defaultValue = "64") int size,
+            WebRequest request
+    ) {
+        String etag = userService.getAvatarEtag(username, size)
+                .orElseThrow(() -> new UserException("Profile picture not found"));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        AvatarDTO avatar = userService.getAvatar(username, size);
+        return ResponseEntity.ok()
+                .cacheControl(PICTURE_CACHE_CONTROL)
+                .eTag(avatar.etag())
+                .contentType(MediaType.parseMediaType(avatar.contentType()))
+                .body(avatar.data());
+    }
+
+    @Operation(
+            summary = "Get avatars by LDAP DNs",
+            description = "Retrieves the avatars of several users in one call, for list views. Users without a picture are omitted."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "List of avatars found",
+            content = @Content(schema = @Schema(implementation = AvatarDTO.class))
+    )
+    @PostMapping("/avatars")
+    public List<AvatarDTO> getAvatars(
+            @RequestBody List<String> ids,
+            @Parameter(description = "Requested size in pixels", example = "32")
+            @RequestParam(value = "size", defaultValue = "32") int size
     ) {
-        return ResponseEntity.ok(userService.getProfilePicture(username));
+        return userService.getAvatars(ids, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.otbs.user.dto;
+
+public record AvatarDTO(String userId, String contentType, String etag, byte[] data) {
+}
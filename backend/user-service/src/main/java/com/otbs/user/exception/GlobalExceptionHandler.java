@@ -10,10 +10,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(FileUploadException.class)
-    public ResponseEntity<MessageResponseDTO> handleFileUploadException(UserException e) {
+    public ResponseEntity<MessageResponseDTO> handleFileUploadException(FileUploadException e) {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
     }
 
+    @ExceptionHandler(UserException.class)
+    public ResponseEntity<MessageResponseDTO> handleUserException(UserException e) {
+        return buildResponse(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
     private ResponseEntity<MessageResponseDTO> buildResponse(HttpStatus status, String message) {
         return ResponseEntity.status(status).body(new MessageResponseDTO(message));
     }
@@ -0,0 +1,36 @@
+package com.otbs.user.model;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+
+/**
+ * Compact, immutable view of a directory user kept in the in-memory index.
+ * Department and role strings are interned by the index.
+ */
+public record DirectoryEntry(
+        String dn,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String department,
+        String role,
+        long usnChanged
+) {
+
+    public User toUser() {
+        return User.builder()
+                .id(dn)
+                .username(username)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .department(department)
+                .role(role)
+                .build();
+    }
+
+    public UserResponse toUserResponse() {
+        return new UserResponse(dn, username, firstName, lastName, email, department, role,
+                null, null, null, null, null);
+    }
+}
@@ -44,4 +44,7 @@ public class LdapUser {
 
     @Attribute(name = "sn")
     private String lastName;
+
+    @Attribute(name = "uSNChanged")
+    private String usnChanged;
 }
\ No newline at end of file
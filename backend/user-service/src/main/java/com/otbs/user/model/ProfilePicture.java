@@ -0,0 +1,25 @@
+package com.otbs.user.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Profile picture kept apart from {@link User}, so loading a user never reads image bytes.
+ * The original upload lives in the blob store.
+ */
+@Entity
+@Table(name = "profile_pictures")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ProfilePicture {
+    @Id
+    private String userId;
+    private String contentType;
+    private String etag;
+    @Column(name = "blob_id", length = 64)
+    private String blobId;
+}
@@ -0,0 +1,29 @@
+package com.otbs.user.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Square, fixed-size rendition of a {@link ProfilePicture}, generated at upload time. Like the
+ * original, its content lives in the blob store.
+ */
+@Entity
+@Table(name = "profile_picture_variants",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "size"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ProfilePictureVariant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String userId;
+    private int size;
+    private String contentType;
+    private String etag;
+    @Column(name = "blob_id", length = 64)
+    private String blobId;
+}
@@ -12,7 +12,7 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = "picture")
+@ToString
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class User {
     @Id
@@ -28,11 +28,6 @@ public class User {
     private String phoneNumber2;
     private String department;
     private String role;
-    @Lob
-    @Column(nullable = true)
-    private byte[] picture;
-    @Column(nullable = true)
-    private String pictureType;
     @Column(nullable = true)
     private String jobTitle;
     @Column(nullable = true)
@@ -0,0 +1,18 @@
+package com.otbs.user.repository;
+
+import com.otbs.user.model.ProfilePicture;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProfilePictureRepository extends JpaRepository<ProfilePicture, String> {
+
+    @Query("SELECT p.etag FROM ProfilePicture p WHERE p.userId = :userId")
+    Optional<String> findEtag(@Param("userId") String userId);
+
+    @Query("SELECT p.userId FROM ProfilePicture p WHERE p.etag IS NULL")
+    List<String> findUserIdsWithoutEtag();
+}
@@ -0,0 +1,20 @@
+package com.otbs.user.repository;
+
+import com.otbs.user.model.ProfilePictureVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProfilePictureVariantRepository extends JpaRepository<ProfilePictureVariant, Long> {
+
+    Optional<ProfilePictureVariant> findByUserIdAndSize(String userId, int size);
+
+    List<ProfilePictureVariant> findByUserIdInAndSize(Collection<String> userIds, int size);
+
+    @Query("SELECT v.etag FROM ProfilePictureVariant v WHERE v.userId = :userId AND v.size = :size")
+    Optional<String> findEtag(@Param("userId") String userId, @Param("size") int size);
+}
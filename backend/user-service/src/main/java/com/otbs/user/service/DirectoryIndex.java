@@ -0,0 +1,408 @@
+package com.otbs.user.service;
+
+import com.otbs.feign.client.user.event.UserChangeEvent;
+import com.otbs.user.mapper.UserAttributesMapper;
+import com.otbs.user.model.DirectoryEntry;
+import com.otbs.user.model.LdapUser;
+import com.otbs.user.model.User;
+import com.otbs.user.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.ldap.query.LdapQueryBuilder.query;
+
+/**
+ * In-memory index of the Active Directory users, so read endpoints never scan LDAP.
+ * <p>
+ * The index is built once at startup, then kept fresh by polling for entries whose
+ * {@code uSNChanged} is above the highest value already seen. Deletions are not visible
+ * through {@code uSNChanged}, so a full rebuild also runs periodically; users missing from it
+ * are published as {@link UserChangeEvent.Type#DELETED}. Readers always see a consistent,
+ * immutable snapshot. Every change is published as a {@link UserChangeEvent}, and only the
+ * first build as a {@link UserChangeEvent.Type#SNAPSHOT}.
+ * <p>
+ * Writers (rebuild, poll and {@link #put}) are serialised on one lock and always apply their
+ * change to the latest snapshot. Users fetched on demand by {@link #put} go into a small delta
+ * on top of the snapshot instead of a copy of the whole index; the next poll folds the delta in.
+ */
+@Component
+@Slf4j
+public class DirectoryIndex {
+
+    private static final String MANAGER_ROLE = "Manager";
+    private static final String HR_DIRECTOR_ROLE = "HRD";
+    private static final int MAX_RECENT = 256;
+
+    private final UserRepository userRepository;
+    private final UserAttributesMapper userAttributesMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, String> internedStrings = new ConcurrentHashMap<>();
+    private final Timer buildTimer;
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    public DirectoryIndex(UserRepository userRepository,
+                          UserAttributesMapper userAttributesMapper,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.userRepository = userRepository;
+        this.userAttributesMapper = userAttributesMapper;
+        this.eventPublisher = eventPublisher;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.buildTimer = Timer.builder("directory.index.build")
+                .description("Time taken to load the directory index from LDAP")
+                .tag("type", "full")
+                .register(registry);
+        Gauge.builder("directory.index.staleness", this, DirectoryIndex::stalenessSeconds)
+                .description("Seconds since the directory index was last synchronised")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("directory.index.size", this, index -> index.snapshot == null ? 0 : index.snapshot.size())
+                .description("Number of users held in the directory index")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Initial directory index build failed, will retry on next sync: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${directory.index.full-rebuild-ms:3600000}",
+            initialDelayString = "${directory.index.full-rebuild-ms:3600000}")
+    public void rebuild() {
+        Snapshot rebuilt = buildTimer.record(() -> {
+            Map<String, DirectoryEntry> entries = new LinkedHashMap<>();
+            userRepository.findAll().forEach(ldapUser -> {
+                DirectoryEntry entry = toEntry(ldapUser);
+                entries.put(dnKey(entry.dn()), entry);
+            });
+            return Snapshot.of(entries);
+        });
+        Snapshot previous;
+        synchronized (writeLock) {
+            previous = this.snapshot;
+            this.snapshot = rebuilt;
+        }
+        log.info("Directory index built with {} users", rebuilt.byDn().size());
+        if (previous == null) {
+            publish(UserChangeEvent.Type.SNAPSHOT, rebuilt.byDn().values());
+            return;
+        }
+
+        List<DirectoryEntry> created = new ArrayList<>();
+        List<DirectoryEntry> updated = new ArrayList<>();
+        rebuilt.byDn().forEach((dnKey, entry) -> {
+            DirectoryEntry before = previous.entry(dnKey);
+            if (!entry.equals(before)) {
+                (before == null ? created : updated).add(entry);
+            }
+        });
+        List<DirectoryEntry> deleted = previous.entries().stream()
+                .filter(entry -> !rebuilt.byDn().containsKey(dnKey(entry.dn())))
+                .toList();
+        if (!deleted.isEmpty()) {
+            log.info("Directory index rebuild removed {} users", deleted.size());
+        }
+        publish(UserChangeEvent.Type.CREATED, created);
+        publish(UserChangeEvent.Type.UPDATED, updated);
+        publish(UserChangeEvent.Type.DELETED, deleted);
+    }
+
+    @Scheduled(fixedDelayString = "${directory.index.sync-interval-ms:60000}",
+            initialDelayString = "${directory.index.sync-interval-ms:60000}")
+    public void synchronize() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+
+        LdapQuery changedSince = query()
+                .where("objectClass").is("user")
+                .and("uSNChanged").gte(String.valueOf(current.highestUsn() + 1));
+        List<DirectoryEntry> changes = new ArrayList<>();
+        userRepository.findAll(changedSince).forEach(ldapUser -> changes.add(toEntry(ldapUser)));
+
+        List<DirectoryEntry> created = new ArrayList<>();
+        List<DirectoryEntry> updated = new ArrayList<>();
+        synchronized (writeLock) {
+            Snapshot latest = this.snapshot;
+            if (latest.highestUsn() != current.highestUsn()) {
+                // Rebuilt while LDAP was queried; the next poll starts from the rebuilt state.
+                return;
+            }
+            if (changes.isEmpty() && latest.recent().isEmpty()) {
+                this.snapshot = latest.touched();
+                return;
+            }
+            changes.forEach(entry -> {
+                DirectoryEntry previous = latest.entry(dnKey(entry.dn()));
+                if (!entry.equals(previous)) {
+                    (previous == null ? created : updated).add(entry);
+                }
+            });
+            long highestUsn = changes.stream().mapToLong(DirectoryEntry::usnChanged).max().orElse(0L);
+            this.snapshot = latest.merge(changes, Math.max(latest.highestUsn(), highestUsn));
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        log.info("Directory index updated with {} changed users", changes.size());
+        publish(UserChangeEvent.Type.CREATED, created);
+        publish(UserChangeEvent.Type.UPDATED, updated);
+    }
+
+    public Optional<User> findByDn(String dn) {
+        return Optional.ofNullable(snapshot().entry(dnKey(dn))).map(DirectoryEntry::toUser);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(snapshot().lookup(Snapshot::byUsername, DirectoryEntry::username, normalize(username)))
+                .map(DirectoryEntry::toUser);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(snapshot().lookup(Snapshot::byEmail, DirectoryEntry::email, normalize(email)))
+                .map(DirectoryEntry::toUser);
+    }
+
+    public Optional<User> findManagerByDepartment(String department) {
+        return snapshot().members(department).stream()
+                .filter(entry -> MANAGER_ROLE.equals(entry.role()) || HR_DIRECTOR_ROLE.equals(entry.role()))
+                .findFirst()
+                .map(DirectoryEntry::toUser);
+    }
+
+    public List<User> findByDepartment(String department) {
+        return snapshot().members(department).stream()
+                .map(DirectoryEntry::toUser)
+                .toList();
+    }
+
+    public List<User> findAll() {
+        return snapshot().entries().stream()
+                .map(DirectoryEntry::toUser)
+                .toList();
+    }
+
+    /**
+     * Adds or replaces a user fetched directly from LDAP, e.g. one created since the last poll.
+     * The user goes into the delta of the current snapshot; the high-water mark is left alone,
+     * since the poll has not seen the changes between it and this user yet.
+     */
+    public User put(LdapUser ldapUser) {
+        DirectoryEntry entry = toEntry(ldapUser);
+        snapshot();
+        DirectoryEntry previous;
+        synchronized (writeLock) {
+            Snapshot latest = this.snapshot;
+            previous = latest.entry(dnKey(entry.dn()));
+            if (entry.equals(previous)) {
+                return entry.toUser();
+            }
+            this.snapshot = latest.recent().size() < MAX_RECENT
+                    ? latest.withRecent(dnKey(entry.dn()), entry)
+                    : latest.merge(List.of(entry), latest.highestUsn());
+        }
+        publish(previous == null ? UserChangeEvent.Type.CREATED : UserChangeEvent.Type.UPDATED, List.of(entry));
+        return entry.toUser();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (this.snapshot == null) {
+                    rebuild();
+                }
+                current = this.snapshot;
+            }
+        }
+        return current;
+    }
+
+    private void publish(UserChangeEvent.Type type, Collection<DirectoryEntry> entries) {
+        if (type == UserChangeEvent.Type.SNAPSHOT || !entries.isEmpty()) {
+            eventPublisher.publishEvent(UserChangeEvent.of(type,
+                    entries.stream().map(DirectoryEntry::toUserResponse).toList()));
+        }
+    }
+
+    private double stalenessSeconds() {
+        Snapshot current = this.snapshot;
+        return current == null ? Double.NaN : Duration.between(current.syncedAt(), Instant.now()).toSeconds();
+    }
+
+    private DirectoryEntry toEntry(LdapUser ldapUser) {
+        User user = userAttributesMapper.apply(ldapUser);
+        return new DirectoryEntry(
+                user.getId(),
+                user.getUsername(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                intern(user.getDepartment()),
+                intern(enrichRole(user.getDepartment(), user.getRole())),
+                parseUsn(ldapUser.getUsnChanged())
+        );
+    }
+
+    private String enrichRole(String department, String role) {
+        return "HR".equals(department) && MANAGER_ROLE.equals(role) ? HR_DIRECTOR_ROLE : role;
+    }
+
+    private String intern(String value) {
+        return value == null ? null : internedStrings.computeIfAbsent(value, key -> key);
+    }
+
+    private static long parseUsn(String usnChanged) {
+        try {
+            return usnChanged == null ? 0L : Long.parseLong(usnChanged);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static String dnKey(String dn) {
+        return normalize(dn).replace(", ", ",");
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable indexes over {@code byDn}, plus {@code recent}: users put since the indexes were
+     * built, keyed like {@code byDn} and taking precedence over it.
+     */
+    private record Snapshot(
+            Map<String, DirectoryEntry> byDn,
+            Map<String, DirectoryEntry> byUsername,
+            Map<String, DirectoryEntry> byEmail,
+            Map<String, List<DirectoryEntry>> byDepartment,
+            Map<String, DirectoryEntry> recent,
+            long highestUsn,
+            Instant syncedAt
+    ) {
+
+        static Snapshot of(Map<String, DirectoryEntry> byDn) {
+            long highestUsn = byDn.values().stream().mapToLong(DirectoryEntry::usnChanged).max().orElse(0L);
+            return of(byDn, highestUsn);
+        }
+
+        static Snapshot of(Map<String, DirectoryEntry> byDn, long highestUsn) {
+            Map<String, DirectoryEntry> byUsername = new HashMap<>(byDn.size() * 2);
+            Map<String, DirectoryEntry> byEmail = new HashMap<>(byDn.size() * 2);
+            Map<String, List<DirectoryEntry>> byDepartment = new HashMap<>();
+
+            for (DirectoryEntry entry : byDn.values()) {
+                if (entry.username() != null) {
+                    byUsername.put(normalize(entry.username()), entry);
+                }
+                if (entry.email() != null) {
+                    byEmail.putIfAbsent(normalize(entry.email()), entry);
+                }
+                byDepartment.computeIfAbsent(entry.department(), department -> new ArrayList<>()).add(entry);
+            }
+            byDepartment.replaceAll((department, members) -> List.copyOf(members));
+
+            return new Snapshot(
+                    Collections.unmodifiableMap(byDn),
+                    byUsername,
+                    byEmail,
+                    byDepartment,
+                    Map.of(),
+                    highestUsn,
+                    Instant.now()
+            );
+        }
+
+        DirectoryEntry entry(String dnKey) {
+            DirectoryEntry entry = recent.get(dnKey);
+            return entry != null ? entry : byDn.get(dnKey);
+        }
+
+        DirectoryEntry lookup(Function<Snapshot, Map<String, DirectoryEntry>> index,
+                              Function<DirectoryEntry, String> attribute,
+                              String key) {
+            for (DirectoryEntry entry : recent.values()) {
+                if (key != null && key.equals(normalize(attribute.apply(entry)))) {
+                    return entry;
+                }
+            }
+            DirectoryEntry entry = index.apply(this).get(key);
+            return entry == null || isReplaced(entry) ? null : entry;
+        }
+
+        List<DirectoryEntry> members(String department) {
+            List<DirectoryEntry> members = byDepartment.getOrDefault(department, List.of());
+            if (recent.isEmpty()) {
+                return members;
+            }
+            List<DirectoryEntry> merged = new ArrayList<>();
+            members.stream().filter(entry -> !isReplaced(entry)).forEach(merged::add);
+            recent.values().stream().filter(entry -> Objects.equals(department, entry.department())).forEach(merged::add);
+            return merged;
+        }
+
+        Collection<DirectoryEntry> entries() {
+            if (recent.isEmpty()) {
+                return byDn.values();
+            }
+            Map<String, DirectoryEntry> merged = new LinkedHashMap<>(byDn);
+            merged.putAll(recent);
+            return merged.values();
+        }
+
+        int size() {
+            return byDn.size() + (int) recent.keySet().stream().filter(key -> !byDn.containsKey(key)).count();
+        }
+
+        Snapshot withRecent(String dnKey, DirectoryEntry entry) {
+            Map<String, DirectoryEntry> withEntry = new LinkedHashMap<>(recent);
+            withEntry.put(dnKey, entry);
+            return new Snapshot(byDn, byUsername, byEmail, byDepartment, Collections.unmodifiableMap(withEntry),
+                    highestUsn, syncedAt);
+        }
+
+        /**
+         * Rebuilds the indexes with the delta and {@code changes} applied, in that order.
+         */
+        Snapshot merge(Collection<DirectoryEntry> changes, long highestUsn) {
+            Map<String, DirectoryEntry> entries = new LinkedHashMap<>(byDn);
+            entries.putAll(recent);
+            changes.forEach(entry -> entries.put(dnKey(entry.dn()), entry));
+            return of(entries, highestUsn);
+        }
+
+        Snapshot touched() {
+            return new Snapshot(byDn, byUsername, byEmail, byDepartment, recent, highestUsn, Instant.now());
+        }
+
+        private boolean isReplaced(DirectoryEntry entry) {
+            return !recent.isEmpty() && recent.containsKey(dnKey(entry.dn()));
+        }
+    }
+}
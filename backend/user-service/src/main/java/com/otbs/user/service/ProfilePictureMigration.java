@@ -0,0 +1,98 @@
+package com.otbs.user.service;
+
+import com.otbs.blob.migration.LobColumnMigration;
+import com.otbs.blob.store.BlobStore;
+import com.otbs.user.exception.FileUploadException;
+import com.otbs.user.repository.ProfilePictureRepository;
+import com.otbs.user.util.ThumbnailGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Moves pictures still stored in database columns, first on {@code users} and later on
+ * {@code profile_pictures} and {@code profile_picture_variants}, into the blob store, and
+ * generates the variants of pictures stored before variants existed. Later startups find
+ * nothing to do.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilePictureMigration {
+
+    private final DataSource dataSource;
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureService profilePictureService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> moveLegacyColumns());
+            moveToBlobStore();
+            generateMissingVariants();
+        } catch (RuntimeException e) {
+            log.error("Profile picture migration failed, will retry on next startup: {}", e.getMessage(), e);
+        }
+    }
+
+    private void moveLegacyColumns() {
+        List<String> legacyType = jdbcTemplate.queryForList("""
+                SELECT data_type FROM information_schema.columns
+                WHERE table_name = 'users' AND column_name = 'picture'
+                """, String.class);
+        if (legacyType.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE profile_pictures ADD COLUMN IF NOT EXISTS data " + legacyType.get(0));
+        int moved = jdbcTemplate.update("""
+                INSERT INTO profile_pictures (user_id, content_type, data)
+                SELECT id, picture_type, picture FROM users WHERE picture IS NOT NULL
+                ON CONFLICT (user_id) DO NOTHING
+                """);
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN picture, DROP COLUMN picture_type");
+        log.info("Moved {} profile pictures out of the users table", moved);
+    }
+
+    private void moveToBlobStore() {
+        new LobColumnMigration(dataSource, blobStore).migrate("profile_pictures", "user_id", "data",
+                "image/jpeg", (connection, id, blob) -> {
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE profile_pictures SET blob_id = ? WHERE user_id = ?")) {
+                        update.setString(1, blob.id());
+                        update.setObject(2, id);
+                        update.executeUpdate();
+                    }
+                });
+        new LobColumnMigration(dataSource, blobStore).migrate("profile_picture_variants", "id", "data",
+                ThumbnailGenerator.CONTENT_TYPE, (connection, id, blob) -> {
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE profile_picture_variants SET blob_id = ? WHERE id = ?")) {
+                        update.setString(1, blob.id());
+                        update.setObject(2, id);
+                        update.executeUpdate();
+                    }
+                });
+    }
+
+    private void generateMissingVariants() {
+        for (String userId : profilePictureRepository.findUserIdsWithoutEtag()) {
+            try {
+                profilePictureService.regenerate(userId);
+            } catch (FileUploadException e) {
+                log.warn("Could not generate avatar variants for {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.otbs.user.service;
+
+import com.otbs.blob.store.BlobRef;
+import com.otbs.blob.store.BlobStore;
+import com.otbs.blob.store.BlobStoreException;
+import com.otbs.user.dto.AvatarDTO;
+import com.otbs.user.dto.ProfilePictureDTO;
+import com.otbs.user.model.ProfilePicture;
+import com.otbs.user.model.ProfilePictureVariant;
+import com.otbs.user.repository.ProfilePictureRepository;
+import com.otbs.user.repository.ProfilePictureVariantRepository;
+import com.otbs.user.util.ThumbnailGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores uploaded profile pictures together with their resized variants, and serves
+ * both by user id. The content of both goes to the blob store; ETags are computed once,
+ * at write time.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProfilePictureService {
+
+    private final ProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureVariantRepository profilePictureVariantRepository;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BlobStore blobStore;
+
+    @Transactional
+    public void store(String userId, String contentType, byte[] data) {
+        Map<Integer, byte[]> variants = thumbnailGenerator.generate(data);
+        BlobRef blob = blobStore.put(new ByteArrayInputStream(data), contentType);
+
+        profilePictureRepository.save(ProfilePicture.builder()
+                .userId(userId)
+                .contentType(contentType)
+                .etag(ThumbnailGenerator.etag(data))
+                .blobId(blob.id())
+                .build());
+
+        variants.forEach((size, bytes) -> {
+            ProfilePictureVariant variant = profilePictureVariantRepository.findByUserIdAndSize(userId, size)
+                    .orElseGet(() -> ProfilePictureVariant.builder().userId(userId).size(size).build());
+            variant.setContentType(ThumbnailGenerator.CONTENT_TYPE);
+            variant.setEtag(ThumbnailGenerator.etag(bytes));
+            variant.setBlobId(blobStore.put(new ByteArrayInputStream(bytes), ThumbnailGenerator.CONTENT_TYPE).id());
+            profilePictureVariantRepository.save(variant);
+        });
+    }
+
+    public Optional<ProfilePictureDTO> getOriginal(String userId) {
+        return profilePictureRepository.findById(userId)
+                .filter(picture -> picture.getBlobId() != null)
+                .map(picture -> new ProfilePictureDTO(picture.getContentType(), read(picture.getBlobId())));
+    }
+
+    /**
+     * Regenerates the ETag and variants of a picture stored before they existed.
+     */
+    @Transactional
+    public void regenerate(String userId) {
+        profilePictureRepository.findById(userId)
+                .filter(picture -> picture.getBlobId() != null)
+                .ifPresent(picture -> store(userId, picture.getContentType(), read(picture.getBlobId())));
+    }
+
+    public Optional<String> getOriginalEtag(String userId) {
+        return profilePictureRepository.findEtag(userId);
+    }
+
+    public Optional<String> getAvatarEtag(String userId, int size) {
+        return profilePictureVariantRepository.findEtag(userId, thumbnailGenerator.resolveSize(size));
+    }
+
+    public Optional<AvatarDTO> getAvatar(String userId, int size) {
+        return profilePictureVariantRepository.findByUserIdAndSize(userId, thumbnailGenerator.resolveSize(size))
+                .filter(variant -> variant.getBlobId() != null)
+                .map(this::toAvatar);
+    }
+
+    public List<AvatarDTO> getAvatars(List<String> userIds, int size) {
+        return profilePictureVariantRepository.findByUserIdInAndSize(userIds, thumbnailGenerator.resolveSize(size))
+                .stream()
+                .filter(variant -> variant.getBlobId() != null)
+                .map(this::toAvatar)
+                .toList();
+    }
+
+    private byte[] read(String blobId) {
+        try (InputStream input = blobStore.open(blobId)) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to read profile picture", e);
+        }
+    }
+
+    private AvatarDTO toAvatar(ProfilePictureVariant variant) {
+        return new AvatarDTO(variant.getUserId(), variant.getContentType(), variant.getEtag(),
+                read(variant.getBlobId()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.otbs.user.service;
+
+import com.otbs.user.model.User;
+import com.otbs.user.repository.UserInfoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates the local profile row of a directory user the first time they are seen,
+ * off the request thread so authentication lookups never wait on a write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileProvisioningService {
+
+    private final UserInfoRepository userInfoRepository;
+
+    @Async("taskExecutor")
+    public void provision(User user) {
+        try {
+            if (!userInfoRepository.existsById(user.getId())) {
+                userInfoRepository.save(User.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .email(user.getEmail())
+                        .department(user.getDepartment())
+                        .role(user.getRole())
+                        .build());
+            }
+        } catch (Exception e) {
+            log.error("Error provisioning profile for {}: {}", user.getUsername(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.otbs.user.service;
+
+import com.otbs.feign.client.user.event.UserChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Relays directory changes detected by {@link DirectoryIndex} to the user exchange,
+ * where other services keep their local replicas up to date.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @EventListener
+    public void publish(UserChangeEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(UserChangeEvent.EXCHANGE, event.routingKey(), event);
+        } catch (Exception e) {
+            log.error("Error publishing {} event for {} users: {}", event.type(), event.users().size(), e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.otbs.user.service;
 
+import com.otbs.user.dto.AvatarDTO;
 import com.otbs.user.dto.UserInfoRequestDTO;
 import com.otbs.user.dto.ProfilePictureDTO;
 import com.otbs.user.model.User;
@@ -7,13 +8,19 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.naming.Name;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService {
     User getUserByDn(Name dn);
     User getUserByEmail(String email);
+    List<User> getUsersByDns(List<String> dns);
     List<User> getAllUsers();
     User getUserByUsername(String username);
     User getManagerByDepartment(String department);
     void updateUserInfo(UserInfoRequestDTO userInfoRequestDTO, MultipartFile picture);
     ProfilePictureDTO getProfilePicture(String id);
+    Optional<String> getProfilePictureEtag(String username);
+    Optional<String> getAvatarEtag(String username, int size);
+    AvatarDTO getAvatar(String username, int size);
+    List<AvatarDTO> getAvatars(List<String> userIds, int size);
 }
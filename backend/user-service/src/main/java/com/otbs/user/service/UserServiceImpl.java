@@ -1,22 +1,26 @@
 package com.otbs.user.service;
 
+import com.otbs.user.dto.AvatarDTO;
 import com.otbs.user.dto.UserInfoRequestDTO;
 import com.otbs.user.dto.ProfilePictureDTO;
 import com.otbs.user.exception.UserException;
 import com.otbs.user.exception.FileUploadException;
-import com.otbs.user.mapper.UserAttributesMapper;
 import com.otbs.user.model.User;
 import com.otbs.user.repository.UserInfoRepository;
 import com.otbs.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ldap.InvalidNameException;
+import org.springframework.ldap.support.LdapUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.naming.Name;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,92 +28,94 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+    private static final List<String> EXCLUDED_DEPARTMENTS = List.of("Unknown", "Domain Controllers");
+
     private final UserRepository userRepository;
     private final UserInfoRepository userInfoRepository;
-    private final UserAttributesMapper userAttributesMapper;
-
-    private User enrichUserRole(User user) {
-        if (user != null && "HR".equals(user.getDepartment()) && "Manager".equals(user.getRole())) {
-            user.setRole("HRD");
-        }
-        return user;
-    }
+    private final DirectoryIndex directoryIndex;
+    private final ProfilePictureService profilePictureService;
+    private final ProfileProvisioningService profileProvisioningService;
 
     @Override
     public User getUserByDn(Name dn) {
-        return userRepository.findById(dn)
-                .map(userAttributesMapper)
-                .map(this::enrichUserRole)
+        return directoryIndex.findByDn(dn.toString())
+                .or(() -> userRepository.findById(dn).map(directoryIndex::put))
                 .orElseThrow(() -> new UserException("User not found"));
     }
 
     @Override
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .map(userAttributesMapper)
-                .map(this::enrichUserRole)
+        return directoryIndex.findByEmail(email)
+                .or(() -> userRepository.findByEmail(email).map(directoryIndex::put))
                 .orElseThrow(() -> new UserException("User not found"));
     }
 
+    @Override
+    public List<User> getUsersByDns(List<String> dns) {
+        List<User> users = new ArrayList<>();
+        List<Name> missing = new ArrayList<>();
+        for (String dn : dns.stream().distinct().toList()) {
+            Optional<User> indexed = directoryIndex.findByDn(dn);
+            if (indexed.isPresent()) {
+                users.add(indexed.get());
+                continue;
+            }
+            // An unparsable DN cannot name any user; skip it like an unknown one instead of failing the batch.
+            try {
+                missing.add(LdapUtils.newLdapName(dn));
+            } catch (InvalidNameException e) {
+                log.debug("Skipping malformed DN in batch lookup: {}", dn);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            userRepository.findAllById(missing).forEach(ldapUser -> users.add(directoryIndex.put(ldapUser)));
+        }
+        return users;
+    }
+
     @Override
     public List<User> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userAttributesMapper)
-                .map(this::enrichUserRole)
-                .filter(user -> !List.of("Unknown", "Domain Controllers").contains(user.getDepartment()))
+        return directoryIndex.findAll().stream()
+                .filter(user -> !EXCLUDED_DEPARTMENTS.contains(user.getDepartment()))
                 .toList();
     }
 
     @Override
     public User getUserByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .map(userAttributesMapper)
-                .map(this::enrichUserRole)
+        User user = directoryIndex.findByUsername(username)
+                .or(() -> userRepository.findByUsername(username).map(directoryIndex::put))
                 .orElseThrow(() -> new UserException("User not found"));
 
         userInfoRepository.findById(user.getId()).ifPresentOrElse(info -> {
             user.setFirstName(info.getFirstName());
             user.setLastName(info.getLastName());
             user.setEmail(info.getEmail());
-            user.setPicture(info.getPicture());
-            user.setPictureType(info.getPictureType());
             user.setJobTitle(info.getJobTitle());
             user.setPhoneNumber1(info.getPhoneNumber1());
             user.setPhoneNumber2(info.getPhoneNumber2());
             user.setGender(info.getGender());
             user.setBirthDate(info.getBirthDate());
-        }, () -> userInfoRepository.save(User.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .department(user.getDepartment())
-                .role(user.getRole())
-                .build()));
+        }, () -> profileProvisioningService.provision(user));
 
         return user;
     }
 
     @Override
     public User getManagerByDepartment(String department) {
-        return userRepository.findAll().stream()
-                .map(userAttributesMapper)
-                .filter(user -> department.equals(user.getDepartment()))
-                .filter(user -> List.of("Manager", "HRD").contains(user.getRole()))
-                .findFirst()
-                .map(this::enrichUserRole)
+        return directoryIndex.findManagerByDepartment(department)
                 .orElseThrow(() -> new UserException("Manager not found"));
     }
 
     @Override
+    @Transactional
     public void updateUserInfo(UserInfoRequestDTO userInfoRequestDTO, MultipartFile picture) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (picture != null && !picture.isEmpty()) {
             try {
-                user.setPicture(picture.getBytes());
-                user.setPictureType(picture.getContentType());
+                profilePictureService.store(user.getId(), picture.getContentType(), picture.getBytes());
             } catch (IOException e) {
                 throw new FileUploadException("Failed to upload attachment");
             }
@@ -129,9 +135,32 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public ProfilePictureDTO getProfilePicture(String username) {
-        return userInfoRepository.findByUsername(username)
-                .filter(user -> user.getPicture() != null)
-                .map(user -> new ProfilePictureDTO(user.getPictureType(), user.getPicture()))
+        return directoryIndex.findByUsername(username)
+                .flatMap(user -> profilePictureService.getOriginal(user.getId()))
                 .orElse(null);
     }
+
+    @Override
+    public Optional<String> getProfilePictureEtag(String username) {
+        return directoryIndex.findByUsername(username)
+                .flatMap(user -> profilePictureService.getOriginalEtag(user.getId()));
+    }
+
+    @Override
+    public Optional<String> getAvatarEtag(String username, int size) {
+        return directoryIndex.findByUsername(username)
+                .flatMap(user -> profilePictureService.getAvatarEtag(user.getId(), size));
+    }
+
+    @Override
+    public AvatarDTO getAvatar(String username, int size) {
+        return directoryIndex.findByUsername(username)
+                .flatMap(user -> profilePictureService.getAvatar(user.getId(), size))
+                .orElseThrow(() -> new UserException("Profile picture not found"));
+    }
+
+    @Override
+    public List<AvatarDTO> getAvatars(List<String> userIds, int size) {
+        return profilePictureService.getAvatars(userIds.stream().distinct().toList(), size);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.otbs.user.util;
+
+import com.otbs.user.exception.FileUploadException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Renders the square avatar sizes served to the frontend, and computes the strong
+ * ETags used for conditional requests.
+ */
+@Component
+public class ThumbnailGenerator {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    private final List<Integer> sizes;
+
+    public ThumbnailGenerator(@Value("${profile-picture.sizes:32,64,256}") List<Integer> sizes) {
+        this.sizes = sizes.stream().sorted().distinct().toList();
+    }
+
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+
+    /**
+     * Returns the smallest configured size at least as large as the one requested,
+     * or the largest configured size.
+     */
+    public int resolveSize(int requested) {
+        return sizes.stream()
+                .filter(size -> size >= requested)
+                .findFirst()
+                .orElse(sizes.get(sizes.size() - 1));
+    }
+
+    public Map<Integer, byte[]> generate(byte[] original) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new ByteArrayInputStream(original));
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to read profile picture");
+        }
+        if (source == null) {
+            throw new FileUploadException("Unsupported profile picture format");
+        }
+
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage square = source.getSubimage(
+                (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        for (int size : sizes) {
+            variants.put(size, render(square, size));
+        }
+        return variants;
+    }
+
+    public static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private byte[] render(BufferedImage square, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(square, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(target, "jpg", output);
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to resize profile picture");
+        }
+        return output.toByteArray();
+    }
+}
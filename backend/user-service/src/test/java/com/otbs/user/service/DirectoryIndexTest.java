@@ -0,0 +1,123 @@
+package com.otbs.user.service;
+
+import com.otbs.feign.client.user.dto.UserResponse;
+import com.otbs.feign.client.user.event.UserChangeEvent;
+import com.otbs.user.mapper.UserAttributesMapper;
+import com.otbs.user.model.LdapUser;
+import com.otbs.user.model.User;
+import com.otbs.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.support.LdapUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DirectoryIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private DirectoryIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        index = new DirectoryIndex(userRepository, new UserAttributesMapper(), eventPublisher,
+                meterRegistry);
+
+        when(userRepository.findAll()).thenReturn(List.of(ldapUser("Alice", "IT", 10)));
+        index.rebuild();
+    }
+
+    @Test
+    void putUsersAreVisibleThroughEveryLookup() {
+        index.put(ldapUser("Bob", "IT", 50));
+
+        assertThat(index.findByDn("CN=Bob, OU=IT, DC=otbs, DC=local")).isPresent();
+        assertThat(index.findByUsername("BOB")).map(User::getUsername).contains("bob");
+        assertThat(index.findByEmail("bob@otbs.local")).isPresent();
+        assertThat(index.findByDepartment("IT")).extracting(User::getUsername).containsExactly("alice", "bob");
+        assertThat(index.findAll()).hasSize(2);
+    }
+
+    @Test
+    void putReplacesTheIndexedEntry() {
+        LdapUser renamed = ldapUser("Alice", "IT", 60);
+        renamed.setUsername("alice.smith");
+
+        index.put(renamed);
+
+        assertThat(index.findByUsername("alice")).isEmpty();
+        assertThat(index.findByUsername("alice.smith")).isPresent();
+        assertThat(index.findAll()).hasSize(1);
+    }
+
+    @Test
+    void putDoesNotAdvanceThePollWatermark() {
+        index.put(ldapUser("Bob", "IT", 50));
+        when(userRepository.findAll(any(LdapQuery.class))).thenReturn(List.of());
+
+        index.synchronize();
+        index.synchronize();
+
+        ArgumentCaptor<LdapQuery> queries = ArgumentCaptor.forClass(LdapQuery.class);
+        verify(userRepository, times(2)).findAll(queries.capture());
+        assertThat(queries.getAllValues()).allSatisfy(query -> assertThat(query.filter().encode()).contains("uSNChanged>=11"));
+        assertThat(index.findByUsername("bob")).isPresent();
+    }
+
+    @Test
+    void pollKeepsUsersPutWhileLdapWasQueried() {
+        when(userRepository.findAll(any(LdapQuery.class))).thenAnswer(invocation -> {
+            index.put(ldapUser("Bob", "IT", 50));
+            return List.of(ldapUser("Carol", "HR", 20));
+        });
+
+        index.synchronize();
+
+        assertThat(index.findAll()).extracting(User::getUsername).containsExactlyInAnyOrder("alice", "bob", "carol");
+        assertThat(index.findByDepartment("HR")).extracting(User::getUsername).containsExactly("carol");
+    }
+
+    @Test
+    void rebuildPublishesTheDifferenceToThePreviousIndex() {
+        when(userRepository.findAll()).thenReturn(List.of(ldapUser("Bob", "IT", 50)));
+
+        index.rebuild();
+
+        ArgumentCaptor<UserChangeEvent> events = ArgumentCaptor.forClass(UserChangeEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(UserChangeEvent::type).containsExactly(
+                UserChangeEvent.Type.SNAPSHOT, UserChangeEvent.Type.CREATED, UserChangeEvent.Type.DELETED);
+        assertThat(events.getAllValues().get(1).users()).extracting(UserResponse::username).containsExactly("bob");
+        assertThat(events.getAllValues().get(2).users()).extracting(UserResponse::username).containsExactly("alice");
+        assertThat(index.findByUsername("alice")).isEmpty();
+    }
+
+    private static LdapUser ldapUser(String name, String department, long usn) {
+        LdapUser user = new LdapUser();
+        user.setDn(LdapUtils.newLdapName("CN=" + name + ",OU=" + department + ",DC=otbs,DC=local"));
+        user.setUsername(name.toLowerCase());
+        user.setFirstName(name);
+        user.setLastName("Doe");
+        user.setEmail(name.toLowerCase() + "@otbs.local");
+        user.setGroups(Set.of("CN=Employee,OU=Groups,DC=otbs,DC=local"));
+        user.setUsnChanged(String.valueOf(usn));
+        return user;
+    }
+}
@@ -0,0 +1,47 @@
+package com.otbs.user.service;
+
+import com.otbs.user.model.LdapUser;
+import com.otbs.user.model.User;
+import com.otbs.user.repository.UserInfoRepository;
+import com.otbs.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ldap.support.LdapUtils;
+
+import javax.naming.Name;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private static final String ALICE = "CN=Alice,OU=IT,DC=otbs,DC=local";
+    private static final String BOB = "CN=Bob,OU=IT,DC=otbs,DC=local";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DirectoryIndex directoryIndex = mock(DirectoryIndex.class);
+    private final UserServiceImpl userService = new UserServiceImpl(userRepository, mock(UserInfoRepository.class),
+            directoryIndex, mock(ProfilePictureService.class), mock(ProfileProvisioningService.class));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsMalformedDnsInABatch() {
+        LdapUser bob = new LdapUser();
+        bob.setDn(LdapUtils.newLdapName(BOB));
+        when(directoryIndex.findByDn(ALICE)).thenReturn(Optional.of(User.builder().id(ALICE).username("alice").build()));
+        when(userRepository.findAllById(any())).thenReturn(List.of(bob));
+        when(directoryIndex.put(bob)).thenReturn(User.builder().id(BOB).username("bob").build());
+
+        List<User> users = userService.getUsersByDns(List.of(ALICE, "not a dn", BOB));
+
+        assertThat(users).extracting(User::getUsername).containsExactly("alice", "bob");
+        ArgumentCaptor<Iterable<Name>> queried = ArgumentCaptor.forClass(Iterable.class);
+        verify(userRepository).findAllById(queried.capture());
+        assertThat(queried.getValue()).containsExactly(LdapUtils.newLdapName(BOB));
+    }
+}
@@ -3,7 +3,7 @@ export interface AttendanceRecord {
   employeeName: string;
   department: string;
   date: string; // ISO 8601 date string (e.g., '2024-06-20')
-  status: 'PRESENT' | 'LATE' | 'ABSENT' | 'HALF_DAY' | 'ON_LEAVE' | string; // Extend if needed
+  status: 'PRESENT' | 'LATE' | 'ABSENT' | 'HALF_DAY' | 'ON_LEAVE' | 'WEEKEND' | 'HOLIDAY' | string; // Extend if needed
   firstPunch: string | null; // ISO 8601 time string (e.g., '08:30:00')
   lastPunch: string | null;
   totalHours: string; // Could also be number if formatted accordingly
@@ -46,6 +46,7 @@ export class AttendanceDashboardPageComponent implements OnInit, OnDestroy {
     'Half-Day',
     'On-Leave',
     'Weekend',
+    'Holiday',
   ];
   isDataLoading = false; // Single, unified loading state
 
@@ -10,4 +10,15 @@ export interface Leave {
   endHOURLY: string;
   leaveType: LeaveType;
   status: string;
+  createdAt: string;
+}
+
+export interface LeaveFilter {
+  status?: string;
+  leaveType?: LeaveType;
+  from?: string;
+  to?: string;
+  afterCreatedAt?: string;
+  afterId?: number;
+  size?: number;
 }
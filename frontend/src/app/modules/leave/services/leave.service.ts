@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { Leave } from '../models/leave';
+import { Leave, LeaveFilter } from '../models/leave';
 import { Observable } from 'rxjs';
 import { LeaveType } from '../models/leave-type';
 import { HttpClient, HttpParams } from '@angular/common/http';
@@ -14,8 +14,10 @@ export class LeaveService {
 
   constructor(private http: HttpClient) {}
 
-  getAllLeaveRequests(): Observable<Leave[]> {
-    return this.http.get<Leave[]>(`${this.apiUrl}/all`);
+  getAllLeaveRequests(filter: LeaveFilter = {}): Observable<Leave[]> {
+    return this.http.get<Leave[]>(`${this.apiUrl}/all`, {
+      params: this.toParams(filter),
+    });
   }
 
   // Get leave balance (Employee role required)
@@ -24,8 +26,10 @@ export class LeaveService {
   }
 
   // Get leave history (Employee role required)
-  getLeaveHistory(): Observable<Leave[]> {
-    return this.http.get<Leave[]>(`${this.apiUrl}/myLeaves`);
+  getLeaveHistory(filter: LeaveFilter = {}): Observable<Leave[]> {
+    return this.http.get<Leave[]>(`${this.apiUrl}/myLeaves`, {
+      params: this.toParams(filter),
+    });
   }
 
   // Apply for leave (Employee role required)
@@ -84,4 +88,15 @@ export class LeaveService {
       responseType: 'blob',
     });
   }
+
+  // Results are paged newest first; pass the last item's createdAt and id to get the next page
+  private toParams(filter: LeaveFilter): HttpParams {
+    let params = new HttpParams();
+    Object.entries(filter).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params = params.set(key, String(value));
+      }
+    });
+    return params;
+  }
 }
@@ -14,7 +14,7 @@ export interface ApplicationDetailsResponseDTO {
   applicationId: number;
   resume: Resume;
   matchResult: MatchResult;
-  attachment: Blob | null;
+  hasAttachment: boolean;
 }
 
 export interface Resume {
@@ -173,9 +173,16 @@ export class ApplicationDetailsPageComponent implements OnInit, AfterViewInit {
   }
 
   downloadResume() {
-    if (this.applicationDetails?.attachment) {
-      const filename = `application_${this.applicationDetails.applicationId}`;
-      this.downloadAttachment(this.applicationDetails.attachment, filename);
+    if (this.applicationDetails?.hasAttachment) {
+      const applicationId = this.applicationDetails.applicationId;
+      this.jobApplicationService
+        .getApplicationAttachment(applicationId)
+        .subscribe({
+          next: (attachment) =>
+            this.downloadAttachment(attachment, `application_${applicationId}`),
+          error: (error) =>
+            console.error('Error downloading attachment:', error),
+        });
     }
   }
 
@@ -77,6 +77,17 @@ export class JobApplicationService {
     );
   }
 
+  /**
+   * Downloads the resume attached to an application (HR and Manager only)
+   * @param applicationId - ID of the application
+   * @returns Observable with the attachment content
+   */
+  getApplicationAttachment(applicationId: number): Observable<Blob> {
+    return this.http.get(`${this.baseUrl}/details/${applicationId}/attachment`, {
+      responseType: 'blob',
+    });
+  }
+
   /**
    * Updates the status of an application (HR only)
    * @param applicationId - ID of the application to update